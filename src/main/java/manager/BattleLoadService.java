@@ -0,0 +1,44 @@
+package manager;
+
+import javafx.concurrent.Service;
+import javafx.concurrent.Task;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Reads and decompresses a file written by the {@link BattleSaveService}.
+ * The result gets read by the {@link BattleSerializer}.
+ * The service fails if the file can't be read or isn't compressed.
+ */
+public class BattleLoadService extends Service<byte[]> {
+
+    private File file;
+
+    public File getFile() {
+        return file;
+    }
+
+    public void setFile(File file) {
+        this.file = file;
+    }
+
+    @Override
+    protected Task<byte[]> createTask() {
+        return new Task<>() {
+
+            @Override
+            protected byte[] call() throws IOException {
+                // A failure is passed to the failed state of the service
+                try (InputStream stream = new GZIPInputStream(new FileInputStream(getFile()))) {
+                    return stream.readAllBytes();
+                }
+            }
+
+        };
+    }
+
+}
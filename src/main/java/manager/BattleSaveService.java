@@ -0,0 +1,54 @@
+package manager;
+
+import javafx.concurrent.Service;
+import javafx.concurrent.Task;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compresses a battle written by the {@link BattleSerializer}
+ * and writes it to the file. The service fails if the file can't be written.
+ */
+public class BattleSaveService extends Service<Boolean> {
+
+    private File file;
+    private byte[] data;
+
+    public File getFile() {
+        return file;
+    }
+
+    public void setFile(File file) {
+        this.file = file;
+    }
+
+    public byte[] getData() {
+        return data;
+    }
+
+    public void setData(byte[] data) {
+        this.data = data;
+    }
+
+    @Override
+    protected Task<Boolean> createTask() {
+        return new Task<>() {
+
+            @Override
+            protected Boolean call() throws IOException {
+                // A failure is passed to the failed state of the service
+                try (OutputStream stream = new GZIPOutputStream(new FileOutputStream(getFile()))) {
+                    stream.write(getData());
+                }
+
+                return true;
+            }
+
+        };
+    }
+
+}
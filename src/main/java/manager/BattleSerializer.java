@@ -0,0 +1,771 @@
+package manager;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import model.Battle;
+import model.Spell;
+import model.item.Armor;
+import model.item.Equipment;
+import model.item.Item;
+import model.item.Jewellery;
+import model.item.Weapon;
+import model.loot.LootFactory;
+import model.loot.LootTable;
+import model.member.BattleMember;
+import model.member.ExtendedBattleMember;
+import model.member.data.ArmorPiece;
+import model.member.data.AttackTypes;
+import model.member.generation.GenerationBase;
+import model.member.generation.PrimaryAttribute;
+import model.member.generation.SecondaryAttribute;
+import model.member.generation.Talent;
+import model.member.generation.specs.*;
+import model.member.state.interfaces.IActiveRounderMemberState;
+import model.member.state.interfaces.IAttackTypeMemberState;
+import model.member.state.interfaces.IMemberState;
+import model.member.state.interfaces.IPowerMemberState;
+import model.member.state.interfaces.IRandomMemberState;
+import model.upgrade.Upgrade;
+import ui.battle.state.MemberStateFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Writes and reads whole battles as a json stream.
+ * Items, spells, talents and the generation specs are referenced by their name
+ * and resolved against the {@link Database} when the battle is read,
+ * only the upgrades and the wear of an equipment are stored with it.
+ * <p>
+ * Both directions work on the members of the battle and
+ * have to be called on the JavaFX Application Thread.
+ * The file access is done by the {@link BattleSaveService} and the {@link BattleLoadService}.
+ */
+public abstract class BattleSerializer {
+
+    private static final int VERSION = 1;
+    private static final JsonFactory FACTORY = new JsonFactory();
+
+    /**
+     * Writes the battle with its members and their states.
+     * The statistic of the battle is not written.
+     *
+     * @param battle which gets written
+     * @param stream the battle is written to, gets closed afterwards
+     * @throws IOException if the stream can't be written
+     */
+    public static void write(Battle battle, OutputStream stream) throws IOException {
+        List<BattleMember> members = new ArrayList<>(battle.playersProperty());
+        members.addAll(battle.enemiesProperty());
+
+        Map<BattleMember, Integer> ids = new IdentityHashMap<>();
+        for (int i = 0; i < members.size(); i++) {
+            ids.put(members.get(i), i);
+        }
+
+        try (JsonGenerator generator = FACTORY.createGenerator(stream)) {
+            generator.writeStartObject();
+            generator.writeNumberField("version", VERSION);
+            generator.writeStringField("name", battle.getName());
+            generator.writeNumberField("round", battle.roundProperty().get());
+
+            generator.writeArrayFieldStart("members");
+            for (BattleMember player : battle.playersProperty()) {
+                writeMember(generator, player, false);
+            }
+            for (BattleMember enemy : battle.enemiesProperty()) {
+                writeMember(generator, enemy, true);
+            }
+            generator.writeEndArray();
+
+            // States are written after all members, the source can be any member
+            generator.writeArrayFieldStart("states");
+            for (int i = 0; i < members.size(); i++) {
+                for (IMemberState state : members.get(i).statesProperty()) {
+                    writeState(generator, i, state, ids);
+                }
+            }
+            generator.writeEndArray();
+
+            generator.writeEndObject();
+        }
+    }
+
+    /**
+     * Reads a battle and replaces the members, the name and the round of the given battle.
+     *
+     * @param battle the members are created for
+     * @param stream the battle is read from, gets closed afterwards
+     * @throws IOException if the stream can't be read or isn't a battle
+     */
+    public static void read(Battle battle, InputStream stream) throws IOException {
+        Context context = new Context(battle);
+        String name = battle.getName();
+        int round = 1;
+
+        try (JsonParser parser = FACTORY.createParser(stream)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Not a battle");
+            }
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                parser.nextToken();
+
+                switch (field) {
+                    case "version":
+                        if (parser.getIntValue() > VERSION) {
+                            throw new IOException("Unsupported version " + parser.getIntValue());
+                        }
+                        break;
+                    case "name":
+                        name = parser.getText();
+                        break;
+                    case "round":
+                        round = parser.getIntValue();
+                        break;
+                    case "members":
+                        while (parser.nextToken() == JsonToken.START_OBJECT) {
+                            readMember(parser, context);
+                        }
+                        break;
+                    case "states":
+                        while (parser.nextToken() == JsonToken.START_OBJECT) {
+                            readState(parser, context);
+                        }
+                        break;
+                    default:
+                        parser.skipChildren();
+                }
+            }
+        }
+
+        battle.restore(name, round, context.players, context.enemies);
+    }
+
+    // --- WRITE --- //
+
+    private static void writeMember(JsonGenerator generator, BattleMember member, boolean enemy) throws IOException {
+        generator.writeStartObject();
+
+        // The specs decide which member gets created, so they are written first
+        if (member instanceof ExtendedBattleMember) {
+            ExtendedBattleMember extended = (ExtendedBattleMember) member;
+
+            generator.writeObjectFieldStart("specs");
+            generator.writeStringField("characterisation", extended.getCharacterisation().getName());
+            generator.writeStringField("race", extended.getRace().getName());
+            generator.writeStringField("profession", extended.getProfession().getName());
+            generator.writeStringField("fightingStyle", extended.getFightingStyle().getName());
+            generator.writeStringField("specialisation", extended.getSpecialisation().getName());
+            generator.writeEndObject();
+        }
+
+        generator.writeBooleanField("enemy", enemy);
+        generator.writeStringField("name", member.getName());
+        generator.writeNumberField("level", member.getLevel());
+        generator.writeNumberField("life", member.getLife());
+        generator.writeNumberField("mana", member.getMana());
+        generator.writeNumberField("startValue", member.getStartValue());
+        generator.writeNumberField("counter", member.getCounter());
+        generator.writeNumberField("roundStartCounter", member.getRoundStartCounter());
+        generator.writeNumberField("turns", member.getTurns());
+
+        if (member instanceof ExtendedBattleMember) {
+            writeExtendedMember(generator, (ExtendedBattleMember) member);
+        } else {
+            generator.writeNumberField("maxLife", member.getMaxLife());
+            generator.writeNumberField("maxMana", member.getMaxMana());
+            generator.writeNumberField("initiative", member.getInitiative());
+            generator.writeNumberField("defense", member.baseDefenseProperty().get());
+
+            generator.writeObjectFieldStart("armor");
+            for (ArmorPiece piece : ArmorPiece.values()) {
+                generator.writeNumberField(piece.name(), member.armorProperty(piece).get());
+            }
+            generator.writeEndObject();
+        }
+
+        generator.writeArrayFieldStart("loot");
+        for (LootFactory factory : member.getBaseLootTable().getFactories()) {
+            generator.writeStartObject();
+            generator.writeStringField("item", factory.getName());
+            generator.writeNumberField("amount", factory.getMaxAmount());
+            generator.writeNumberField("chance", factory.getChance());
+            generator.writeEndObject();
+        }
+        generator.writeEndArray();
+
+        generator.writeEndObject();
+    }
+
+    private static void writeExtendedMember(JsonGenerator generator, ExtendedBattleMember member) throws IOException {
+        generator.writeBooleanField("usesShield", member.isUsingShield());
+
+        generator.writeObjectFieldStart("attributes");
+        for (PrimaryAttribute attribute : PrimaryAttribute.values()) {
+            generator.writeNumberField(attribute.name(), member.getAttribute(attribute).get());
+        }
+        generator.writeEndObject();
+
+        generator.writeObjectFieldStart("talents");
+        for (Talent talent : Database.talentList) {
+            int points = member.getTalent(talent) == null ? 0 : member.getTalent(talent).get();
+            if (points != 0) {
+                generator.writeNumberField(talent.getName(), points);
+            }
+        }
+        generator.writeEndObject();
+
+        writeEquipment(generator, "weapons", member.getWeapons());
+        writeEquipment(generator, "armors", member.getArmor());
+        writeEquipment(generator, "jewellery", member.getJewelleries());
+
+        // Modifiers after the weapons, the weapons change the initiative modifier
+        generator.writeObjectFieldStart("modifiers");
+        for (SecondaryAttribute attribute : SecondaryAttribute.values()) {
+            generator.writeNumberField(attribute.name(), member.getModifier(attribute).get());
+        }
+        generator.writeEndObject();
+
+        generator.writeArrayFieldStart("spells");
+        for (Spell spell : member.getSpells()) {
+            generator.writeString(spell.getName());
+        }
+        generator.writeEndArray();
+
+        generator.writeStringField("notes", member.getNotes());
+    }
+
+    private static void writeEquipment(JsonGenerator generator, String field,
+                                       Collection<? extends Equipment> equipments) throws IOException {
+        generator.writeArrayFieldStart(field);
+        for (Equipment equipment : equipments) {
+            generator.writeStartObject();
+            generator.writeStringField("item", equipment.getName());
+            generator.writeNumberField("wear", equipment.getWearTick());
+            generator.writeNumberField("upgradeSlots", equipment.getUpgradeSlots());
+
+            generator.writeArrayFieldStart("upgrades");
+            for (Upgrade upgrade : equipment.getUpgrades()) {
+                generator.writeStartObject();
+                generator.writeStringField("name", upgrade.getName());
+                generator.writeStringField("target", upgrade.getTarget());
+                generator.writeNumberField("level", upgrade.getLevel());
+                generator.writeNumberField("slots", upgrade.getSlots());
+                generator.writeNumberField("cost", upgrade.getCost());
+                generator.writeStringField("effect", upgrade.getEffect());
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+
+            generator.writeEndObject();
+        }
+        generator.writeEndArray();
+    }
+
+    private static void writeState(JsonGenerator generator, int member, IMemberState state,
+                                   Map<BattleMember, Integer> ids) throws IOException {
+        MemberStateFactory factory = MemberStateFactory.getFactory(state);
+        if (factory == null) {
+            return;
+        }
+
+        generator.writeStartObject();
+        generator.writeNumberField("member", member);
+        generator.writeStringField("key", factory.getKey());
+        generator.writeStringField("name", state.getName());
+        generator.writeNumberField("duration", state.getDuration());
+        generator.writeNumberField("maxDuration", state.getMaxDuration());
+        generator.writeNumberField("source", ids.getOrDefault(state.getSource(), -1));
+
+        if (state instanceof IActiveRounderMemberState) {
+            generator.writeBooleanField("activeRounder", ((IActiveRounderMemberState) state).isActiveRounder());
+        }
+        if (state instanceof IPowerMemberState) {
+            generator.writeNumberField("power", ((IPowerMemberState) state).getMaxPower());
+            generator.writeNumberField("currentPower", ((IPowerMemberState) state).getCurrentPower());
+        }
+        if (state instanceof IRandomMemberState) {
+            generator.writeBooleanField("random", ((IRandomMemberState) state).isRandom());
+        }
+        if (state instanceof IAttackTypeMemberState) {
+            generator.writeStringField("type", ((IAttackTypeMemberState) state).getType().name());
+        }
+
+        generator.writeEndObject();
+    }
+
+    // --- READ --- //
+
+    private static void readMember(JsonParser parser, Context context) throws IOException {
+        BattleMember member = null;
+        ExtendedBattleMember extended = null;
+        boolean enemy = false;
+        int life = 1;
+        int mana = 1;
+        int maxLife = 1;
+        int maxMana = 1;
+        context.modifiers = null;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            parser.nextToken();
+
+            // The specs decide which member gets created, they are only valid as the first field
+            if (member == null) {
+                if (field.equals("specs")) {
+                    extended = readSpecs(parser, context);
+                    member = extended;
+                    continue;
+                }
+                member = new BattleMember(context.battle);
+            } else if (field.equals("specs")) {
+                throw new IOException("The specs of the member " + member.getName() + " are not its first field");
+            }
+
+            switch (field) {
+                case "enemy":
+                    enemy = parser.getBooleanValue();
+                    break;
+                case "name":
+                    member.setName(parser.getText());
+                    break;
+                case "level":
+                    member.setLevel(parser.getIntValue());
+                    break;
+                case "life":
+                    life = parser.getIntValue();
+                    break;
+                case "mana":
+                    mana = parser.getIntValue();
+                    break;
+                case "startValue":
+                    member.startValueProperty().set(parser.getIntValue());
+                    break;
+                case "counter":
+                    member.counterProperty().set(parser.getIntValue());
+                    break;
+                case "roundStartCounter":
+                    member.setRoundStartCounter(parser.getIntValue());
+                    break;
+                case "turns":
+                    member.turnsProperty().set(parser.getIntValue());
+                    break;
+                case "maxLife":
+                    maxLife = parser.getIntValue();
+                    break;
+                case "maxMana":
+                    maxMana = parser.getIntValue();
+                    break;
+                case "initiative":
+                    member.setInitiative(parser.getIntValue());
+                    break;
+                case "defense":
+                    member.setDefense(parser.getIntValue());
+                    break;
+                case "armor":
+                    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                        ArmorPiece piece = ArmorPiece.valueOf(parser.getCurrentName());
+                        parser.nextToken();
+                        member.setArmor(piece, parser.getIntValue());
+                    }
+                    break;
+                case "loot":
+                    readLoot(parser, member.getBaseLootTable(), context);
+                    break;
+                default:
+                    if (extended == null || !readExtendedField(parser, field, extended, context)) {
+                        parser.skipChildren();
+                    }
+            }
+        }
+
+        if (member == null) {
+            return;
+        }
+
+        if (extended != null) {
+            if (context.modifiers != null) {
+                for (SecondaryAttribute attribute : SecondaryAttribute.values()) {
+                    extended.getModifier(attribute).set(context.modifiers[attribute.ordinal()]);
+                }
+            }
+        } else {
+            member.setMaxLife(maxLife);
+            member.setMaxMana(maxMana);
+        }
+
+        // The turns get reset if the member is dead
+        int turns = member.getTurns();
+        member.setLife(life);
+        member.turnsProperty().set(turns);
+        member.manaProperty().set(mana);
+
+        context.members.add(member);
+        if (enemy) {
+            context.enemies.add(member);
+        } else {
+            context.players.add(member);
+        }
+    }
+
+    private static ExtendedBattleMember readSpecs(JsonParser parser, Context context) throws IOException {
+        Characterisation characterisation = null;
+        Race race = null;
+        Profession profession = null;
+        FightingStyle fightingStyle = null;
+        Specialisation specialisation = null;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            parser.nextToken();
+            String name = parser.getText();
+
+            switch (field) {
+                case "characterisation":
+                    characterisation = findSpec(Database.characterisationList, name, Characterisation::new);
+                    break;
+                case "race":
+                    race = findSpec(Database.raceList, name, Race::new);
+                    break;
+                case "profession":
+                    profession = findSpec(Database.professionList, name, Profession::new);
+                    break;
+                case "fightingStyle":
+                    fightingStyle = findSpec(Database.fightingStyleList, name, FightingStyle::new);
+                    break;
+                case "specialisation":
+                    specialisation = findSpec(Database.specialisationList, name, Specialisation::new);
+                    break;
+                default:
+                    parser.skipChildren();
+            }
+        }
+
+        return new ExtendedBattleMember(context.battle,
+                characterisation != null ? characterisation : new Characterisation(),
+                race != null ? race : new Race(),
+                profession != null ? profession : new Profession(),
+                fightingStyle != null ? fightingStyle : new FightingStyle(),
+                specialisation != null ? specialisation : new Specialisation());
+    }
+
+    /**
+     * @return true if the field belongs to an extended member and was read
+     */
+    private static boolean readExtendedField(JsonParser parser, String field, ExtendedBattleMember member,
+                                             Context context) throws IOException {
+        switch (field) {
+            case "usesShield":
+                member.setUsingShield(parser.getBooleanValue());
+                return true;
+            case "attributes":
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    PrimaryAttribute attribute = PrimaryAttribute.valueOf(parser.getCurrentName());
+                    parser.nextToken();
+                    member.getAttribute(attribute).set(parser.getIntValue());
+                }
+                return true;
+            case "talents":
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    Talent talent = context.talents.get(parser.getCurrentName());
+                    parser.nextToken();
+                    if (talent != null && member.getTalent(talent) != null) {
+                        member.getTalent(talent).set(parser.getIntValue());
+                    }
+                }
+                return true;
+            case "weapons":
+                while (parser.nextToken() == JsonToken.START_OBJECT) {
+                    member.getWeapons().add(readEquipment(parser, context.weapons, Weapon::new));
+                }
+                return true;
+            case "armors":
+                while (parser.nextToken() == JsonToken.START_OBJECT) {
+                    member.getArmor().add(readEquipment(parser, context.armors, Armor::new));
+                }
+                return true;
+            case "jewellery":
+                while (parser.nextToken() == JsonToken.START_OBJECT) {
+                    member.getJewelleries().add(readEquipment(parser, context.jewellery, Jewellery::new));
+                }
+                return true;
+            case "modifiers":
+                // Applied after all fields, the weapons change the initiative modifier
+                context.modifiers = new int[SecondaryAttribute.values().length];
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    SecondaryAttribute attribute = SecondaryAttribute.valueOf(parser.getCurrentName());
+                    parser.nextToken();
+                    context.modifiers[attribute.ordinal()] = parser.getIntValue();
+                }
+                return true;
+            case "spells":
+                while (parser.nextToken() == JsonToken.VALUE_STRING) {
+                    Spell spell = context.spells.get(parser.getText());
+                    if (spell != null) {
+                        member.getSpells().add(spell);
+                    }
+                }
+                return true;
+            case "notes":
+                member.setNotes(parser.getText());
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private static void readLoot(JsonParser parser, LootTable lootTable, Context context) throws IOException {
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            String name = "";
+            int amount = 0;
+            double chance = 0;
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                parser.nextToken();
+
+                switch (field) {
+                    case "item":
+                        name = parser.getText();
+                        break;
+                    case "amount":
+                        amount = parser.getIntValue();
+                        break;
+                    case "chance":
+                        chance = parser.getDoubleValue();
+                        break;
+                    default:
+                        parser.skipChildren();
+                }
+            }
+
+            Item item = context.items.get(name);
+            if (item == null) {
+                item = Database.getItem(name);
+            }
+            lootTable.add(item, amount, chance);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <E extends Equipment> E readEquipment(JsonParser parser, Map<String, E> pool,
+                                                         Supplier<E> fallback) throws IOException {
+        String name = "";
+        int wear = 0;
+        int upgradeSlots = -1;
+        ArrayList<Upgrade> upgrades = new ArrayList<>();
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            parser.nextToken();
+
+            switch (field) {
+                case "item":
+                    name = parser.getText();
+                    break;
+                case "wear":
+                    wear = parser.getIntValue();
+                    break;
+                case "upgradeSlots":
+                    upgradeSlots = parser.getIntValue();
+                    break;
+                case "upgrades":
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        upgrades.add(readUpgrade(parser));
+                    }
+                    break;
+                default:
+                    parser.skipChildren();
+            }
+        }
+
+        E equipment;
+        E original = pool.get(name);
+        if (original != null) {
+            equipment = (E) original.copy();
+        } else {
+            equipment = fallback.get();
+            equipment.setName(name);
+        }
+
+        if (upgradeSlots >= 0) {
+            equipment.setUpgradeSlots(upgradeSlots);
+        }
+        equipment.setUpgrades(upgrades);
+        equipment.setWearTick(wear);
+
+        return equipment;
+    }
+
+    private static Upgrade readUpgrade(JsonParser parser) throws IOException {
+        Upgrade upgrade = new Upgrade();
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            parser.nextToken();
+
+            switch (field) {
+                case "name":
+                    upgrade.setName(parser.getText());
+                    break;
+                case "target":
+                    upgrade.setTarget(parser.getText());
+                    break;
+                case "level":
+                    upgrade.setLevel(parser.getIntValue());
+                    break;
+                case "slots":
+                    upgrade.setSlots(parser.getIntValue());
+                    break;
+                case "cost":
+                    upgrade.setCost(parser.getIntValue());
+                    break;
+                case "effect":
+                    upgrade.setEffect(parser.getText());
+                    break;
+                default:
+                    parser.skipChildren();
+            }
+        }
+
+        return upgrade;
+    }
+
+    private static void readState(JsonParser parser, Context context) throws IOException {
+        int member = -1;
+        int source = -1;
+        String key = "";
+        String name = "";
+        int duration = 0;
+        int maxDuration = 0;
+        boolean activeRounder = false;
+        float power = 0;
+        float currentPower = 0;
+        boolean random = false;
+        AttackTypes type = AttackTypes.direct;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            parser.nextToken();
+
+            switch (field) {
+                case "member":
+                    member = parser.getIntValue();
+                    break;
+                case "source":
+                    source = parser.getIntValue();
+                    break;
+                case "key":
+                    key = parser.getText();
+                    break;
+                case "name":
+                    name = parser.getText();
+                    break;
+                case "duration":
+                    duration = parser.getIntValue();
+                    break;
+                case "maxDuration":
+                    maxDuration = parser.getIntValue();
+                    break;
+                case "activeRounder":
+                    activeRounder = parser.getBooleanValue();
+                    break;
+                case "power":
+                    power = parser.getFloatValue();
+                    break;
+                case "currentPower":
+                    currentPower = parser.getFloatValue();
+                    break;
+                case "random":
+                    random = parser.getBooleanValue();
+                    break;
+                case "type":
+                    type = AttackTypes.valueOf(parser.getText());
+                    break;
+                default:
+                    parser.skipChildren();
+            }
+        }
+
+        MemberStateFactory factory = MemberStateFactory.getFactory(key);
+        if (factory == null || member < 0 || member >= context.members.size()) {
+            return;
+        }
+
+        BattleMember sourceMember = source >= 0 && source < context.members.size() ? context.members.get(source) : null;
+        IMemberState state = factory.create(name, maxDuration, activeRounder, power, random, type, sourceMember);
+        state.setDuration(duration);
+        if (state instanceof IPowerMemberState) {
+            ((IPowerMemberState) state).setCurrentPower(currentPower);
+        }
+
+        context.members.get(member).addState(state);
+    }
+
+    private static <T extends GenerationBase> T findSpec(Collection<T> specs, String name, Supplier<T> fallback) {
+        for (T spec : specs) {
+            if (spec.getName().equals(name)) {
+                return spec;
+            }
+        }
+
+        T spec = fallback.get();
+        spec.setName(name);
+        return spec;
+    }
+
+    private static <T> Map<String, T> byName(Collection<T> list, Function<T, String> getName) {
+        Map<String, T> map = new HashMap<>();
+        for (T element : list) {
+            map.putIfAbsent(getName.apply(element), element);
+        }
+        return map;
+    }
+
+    /**
+     * Lookup tables for the names in a file, built once per read
+     * instead of searching the database for every reference.
+     */
+    private static class Context {
+
+        private final Battle battle;
+        private final Map<String, Item> items;
+        private final Map<String, Weapon> weapons;
+        private final Map<String, Armor> armors;
+        private final Map<String, Jewellery> jewellery;
+        private final Map<String, Spell> spells;
+        private final Map<String, Talent> talents;
+
+        private final List<BattleMember> members;
+        private final List<BattleMember> players;
+        private final List<BattleMember> enemies;
+        // Modifiers of the current member
+        private int[] modifiers;
+
+        private Context(Battle battle) {
+            this.battle = battle;
+            this.items = byName(Database.itemList, Item::getName);
+            this.weapons = byName(Database.weaponList, Item::getName);
+            this.armors = byName(Database.armorList, Item::getName);
+            this.jewellery = byName(Database.jewelleryList, Item::getName);
+            this.spells = byName(Database.spellList, Spell::getName);
+            this.talents = byName(Database.talentList, Talent::getName);
+            this.members = new ArrayList<>();
+            this.players = new ArrayList<>();
+            this.enemies = new ArrayList<>();
+        }
+    }
+}
@@ -19,6 +19,7 @@ import model.upgrade.UpgradeModel;
 
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.NoSuchElementException;
 import java.util.stream.Collectors;
 
@@ -48,6 +49,23 @@ public abstract class Database {
 
     public static final BooleanBinding inconsistent = Bindings.isEmpty(inconsistencyList).not();
 
+    // The choices of the search views
+    public static final FacetIndex<Armor> armorFacets = new FacetIndex<>(armorList)
+            .facet("name", Item::getName).facet("material", Equipment::getMaterial).facet("type", Item::getSubtype);
+    public static final FacetIndex<Weapon> weaponFacets = new FacetIndex<>(weaponList)
+            .facet("name", Item::getName).facet("material", Equipment::getMaterial).facet("type", Item::getSubtype);
+    public static final FacetIndex<Jewellery> jewelleryFacets = new FacetIndex<>(jewelleryList)
+            .facet("gem", Jewellery::getGem).facet("material", Equipment::getMaterial).facet("type", Item::getSubtype);
+    public static final FacetIndex<Plant> plantFacets = new FacetIndex<>(plantList)
+            .facet("name", Item::getName).facet("type", Item::getSubtype).multiFacet("location", Plant::getLocations);
+    public static final FacetIndex<Spell> spellFacets = new FacetIndex<>(spellList)
+            .facet("name", Spell::getName).facet("type", Spell::getType).facet("cost", Spell::getCost);
+    public static final FacetIndex<DungeonLootFactory> dungeonLootFacets = new FacetIndex<>(dungeonLootList)
+            // Places without any container can't be looted
+            .multiFacet("place", factory -> factory.getContainer().isEmpty() ? Collections.emptyList()
+                    : Collections.singletonList(factory.getPlace()))
+            .facet("container", DungeonLootFactory::getContainer);
+
     private static final MapProperty<Integer, ObservableSet<String>> materialsMap = new SimpleMapProperty<>(FXCollections.observableHashMap());
 
     static {
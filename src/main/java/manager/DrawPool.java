@@ -0,0 +1,63 @@
+package manager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Random;
+import java.util.function.Function;
+
+/**
+ * The candidates of a random search grouped by the values which are drawn for every item, e.g. the rarity.
+ * The groups are built once per search, so drawing an item only looks up its group and picks an index
+ * instead of filtering all candidates again.
+ *
+ * @param <T> the candidates
+ */
+public class DrawPool<T> {
+
+    private final HashMap<Object, ArrayList<T>> groups;
+    private int size;
+
+    public DrawPool() {
+        this.groups = new HashMap<>();
+    }
+
+    /**
+     * @param key the group of every candidate
+     */
+    public static <T> DrawPool<T> of(Collection<T> candidates, Function<? super T, ?> key) {
+        DrawPool<T> pool = new DrawPool<>();
+        for (T candidate : candidates) {
+            pool.add(key.apply(candidate), candidate);
+        }
+        return pool;
+    }
+
+    /**
+     * Adds the candidate to the group, a candidate may be part of several groups.
+     */
+    public void add(Object key, T candidate) {
+        groups.computeIfAbsent(key, k -> new ArrayList<>()).add(candidate);
+        size++;
+    }
+
+    /**
+     * @return a candidate of the group, every candidate has the same chance, or null if the group is empty
+     */
+    public T draw(Object key, Random random) {
+        ArrayList<T> group = groups.get(key);
+        return group != null ? group.get(random.nextInt(group.size())) : null;
+    }
+
+    /**
+     * @return the amount of candidates of the group
+     */
+    public int size(Object key) {
+        ArrayList<T> group = groups.get(key);
+        return group != null ? group.size() : 0;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+}
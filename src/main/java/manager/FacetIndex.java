@@ -0,0 +1,174 @@
+package manager;
+
+import javafx.beans.property.ReadOnlyIntegerProperty;
+import javafx.beans.property.SimpleIntegerProperty;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+
+import java.text.Collator;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * The distinct values of some attributes (facets) of a database list, e.g. all materials of the weapons,
+ * together with the amount of entries having each value.
+ * The index is built once whenever the list changes, so the search views don't have to search the whole list
+ * for their choices. The values of a facet can be narrowed to the entries which have the chosen
+ * values of the other facets, e.g. only the materials of the chosen type.
+ * The values are sorted in the order of the current language.
+ *
+ * @param <T> the entries of the list
+ */
+public class FacetIndex<T> {
+
+    private final ObservableList<T> list;
+    private final LinkedHashMap<String, Function<T, Collection<String>>> extractors;
+    private final HashMap<String, Facet> facets;
+    // Counts the builds, so views can update their choices after the index
+    private final SimpleIntegerProperty revision;
+    private int size;
+
+    /**
+     * The sorted values of one facet and the indices of the entries with each value.
+     */
+    private static class Facet {
+
+        private final List<String> values = new ArrayList<>();
+        private final HashMap<String, BitSet> entries = new HashMap<>();
+    }
+
+    public FacetIndex(ObservableList<T> list) {
+        this.list = list;
+        this.extractors = new LinkedHashMap<>();
+        this.facets = new HashMap<>();
+        this.revision = new SimpleIntegerProperty(0);
+
+        list.addListener((ListChangeListener<T>) change -> build());
+        LanguageUtility.language.addListener((ob, o, n) -> build());
+    }
+
+    /**
+     * Adds a facet with one value per entry, entries with an empty value are left out.
+     *
+     * @return this index
+     */
+    public FacetIndex<T> facet(String facet, Function<T, String> value) {
+        return multiFacet(facet, entry -> Collections.singletonList(value.apply(entry)));
+    }
+
+    /**
+     * Adds a facet with any number of values per entry, e.g. the locations of a plant.
+     *
+     * @return this index
+     */
+    public FacetIndex<T> multiFacet(String facet, Function<T, Collection<String>> values) {
+        extractors.put(facet, values);
+        build();
+        return this;
+    }
+
+    private void build() {
+        List<T> entries = new ArrayList<>(list);
+        Collator collator = Collator.getInstance(LanguageUtility.language.get().getLocale());
+        facets.clear();
+        size = entries.size();
+
+        for (Map.Entry<String, Function<T, Collection<String>>> extractor : extractors.entrySet()) {
+            Facet facet = new Facet();
+
+            for (int index = 0; index < entries.size(); index++) {
+                for (String value : extractor.getValue().apply(entries.get(index))) {
+                    if (value != null && !value.isEmpty()) {
+                        facet.entries.computeIfAbsent(value, k -> new BitSet()).set(index);
+                    }
+                }
+            }
+
+            facet.values.addAll(facet.entries.keySet());
+            facet.values.sort(collator);
+            facets.put(extractor.getKey(), facet);
+        }
+
+        revision.set(revision.get() + 1);
+    }
+
+    /**
+     * @return the distinct values of the facet in the order of the current language
+     */
+    public List<String> getValues(String facet) {
+        Facet values = facets.get(facet);
+        return values != null ? Collections.unmodifiableList(values.values) : Collections.emptyList();
+    }
+
+    /**
+     * Narrows the values of a facet to the entries which have the chosen values of the other facets.
+     *
+     * @param chosen the chosen value of other facets, facets without a choice are left out or mapped to null
+     * @return the values of the facet which can be combined with all chosen values
+     */
+    public List<String> getValues(String facet, Map<String, String> chosen) {
+        Facet values = facets.get(facet);
+        if (values == null) {
+            return Collections.emptyList();
+        }
+
+        BitSet matching = getMatching(facet, chosen);
+        if (matching == null) {
+            return getValues(facet);
+        }
+
+        List<String> narrowed = new ArrayList<>();
+        for (String value : values.values) {
+            if (values.entries.get(value).intersects(matching)) {
+                narrowed.add(value);
+            }
+        }
+        return narrowed;
+    }
+
+    /**
+     * @return the entries of the list which have the value
+     */
+    public int getCount(String facet, String value) {
+        Facet values = facets.get(facet);
+        BitSet entries = values != null ? values.entries.get(value) : null;
+        return entries != null ? entries.cardinality() : 0;
+    }
+
+    /**
+     * @return the indices of the entries matching all chosen values except the one of the facet
+     * or null if nothing else was chosen
+     */
+    private BitSet getMatching(String facet, Map<String, String> chosen) {
+        BitSet matching = null;
+
+        for (Map.Entry<String, String> choice : chosen.entrySet()) {
+            Facet other = facets.get(choice.getKey());
+            if (choice.getKey().equals(facet) || choice.getValue() == null || other == null) {
+                continue;
+            }
+
+            if (matching == null) {
+                matching = new BitSet(size);
+                matching.set(0, size);
+            }
+            matching.and(other.entries.getOrDefault(choice.getValue(), new BitSet()));
+        }
+
+        return matching;
+    }
+
+    /**
+     * @return the amount of builds of this index, it changes after every change of the list
+     */
+    public ReadOnlyIntegerProperty revisionProperty() {
+        return revision;
+    }
+}
@@ -1,54 +1,151 @@
 package manager;
 
+import javafx.application.Platform;
 import javafx.beans.property.*;
 
+import java.lang.ref.WeakReference;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 
+/**
+ * The messages of the current language. Every key gets an id, the messages are kept in an array indexed by
+ * these ids, which is replaced as a whole when the language changes.
+ * The properties of {@link #getMessageProperty(String)} read the array and are only held weakly,
+ * so the properties of closed windows can be collected.
+ * A language change swaps the array at once, the properties are notified together in the next pulse,
+ * so any number of changes before it only notifies them once.
+ */
 public abstract class LanguageUtility {
 
     public static final ObjectProperty<Language> language = new SimpleObjectProperty<>(Language.system);
-    private static final ObjectProperty<ResourceBundle> messages = new SimpleObjectProperty<>();
-    private static final Map<String, StringProperty> messageBindings = new HashMap<>();
+    private static final Map<String, Integer> ids = new ConcurrentHashMap<>();
+    private static final List<WeakReference<MessageProperty>> messageBindings = new ArrayList<>();
+    private static volatile String[] messages = new String[0];
+    // Runs the notifications of the properties, the tests run them without an application thread
+    static Executor notifier = Platform::runLater;
+    private static boolean updatePending;
 
     static {
         reloadLanguage(language.get());
         language.addListener((ob, o, n) -> {
             reloadLanguage(n);
-            for (String key : messageBindings.keySet()) {
-                messageBindings.get(key).set(getMessage(key));
-            }
+            scheduleUpdate();
         });
     }
 
     public static boolean hasMessage(String key) {
-        return messages.get().containsKey(key);
+        Integer id = ids.get(key);
+        String[] table = messages;
+        return id != null && id < table.length && table[id] != null;
     }
 
     public static String getMessage(String key) {
-        try {
-            return messages.get().getString(key);
-        } catch (MissingResourceException e) {
-            return key;
+        Integer id = ids.get(key);
+        return id != null ? getMessage(id, key) : key;
+    }
+
+    private static String getMessage(int id, String key) {
+        String[] table = messages;
+        return id < table.length && table[id] != null ? table[id] : key;
+    }
+
+    public static synchronized ReadOnlyStringProperty getMessageProperty(String key) {
+        int id = getId(key);
+        while (messageBindings.size() <= id) {
+            messageBindings.add(null);
+        }
+
+        WeakReference<MessageProperty> reference = messageBindings.get(id);
+        MessageProperty property = reference != null ? reference.get() : null;
+        if (property == null) {
+            property = new MessageProperty(id, key);
+            messageBindings.set(id, new WeakReference<>(property));
+        }
+        return property;
+    }
+
+    private static synchronized int getId(String key) {
+        return ids.computeIfAbsent(key, k -> ids.size());
+    }
+
+    private static synchronized void scheduleUpdate() {
+        if (!updatePending) {
+            updatePending = true;
+            notifier.execute(LanguageUtility::updateBindings);
         }
     }
 
-    public static ReadOnlyStringProperty getMessageProperty(String key) {
-        if (messageBindings.containsKey(key)) {
-            return messageBindings.get(key);
-        } else {
-            StringProperty property = new SimpleStringProperty();
-            property.set(getMessage(key));
-            messageBindings.put(key, property);
-            return property;
+    /**
+     * Tells every property which is still used about the new language in one pass over the ids.
+     */
+    private static synchronized void updateBindings() {
+        updatePending = false;
+        for (WeakReference<MessageProperty> reference : messageBindings) {
+            MessageProperty property = reference != null ? reference.get() : null;
+            if (property != null) {
+                property.update();
+            }
         }
     }
 
     private static void reloadLanguage(Language language) {
+        ResourceBundle bundle;
         try {
-            messages.set(ResourceBundle.getBundle("language/Messages", language.getLocale()));
+            bundle = ResourceBundle.getBundle("language/Messages", language.getLocale());
         } catch (MissingResourceException e) {
             e.printStackTrace();
-            messages.set(ResourceBundle.getBundle("language/Messages", Locale.ENGLISH));
+            bundle = ResourceBundle.getBundle("language/Messages", Locale.ENGLISH);
+        }
+
+        Map<Integer, String> resolved = new HashMap<>();
+        for (String key : bundle.keySet()) {
+            resolved.put(getId(key), bundle.getString(key));
+        }
+
+        String[] table = new String[ids.size()];
+        resolved.forEach((id, message) -> table[id] = message);
+        messages = table;
+    }
+
+    /**
+     * A message of the current language, only fires if the message differs in the new language.
+     * It shows the new language as soon as it is read, even before it is notified.
+     */
+    private static class MessageProperty extends ReadOnlyStringPropertyBase {
+
+        private final int id;
+        private final String key;
+        // The message of the last notification
+        private String value;
+
+        private MessageProperty(int id, String key) {
+            this.id = id;
+            this.key = key;
+            this.value = LanguageUtility.getMessage(id, key);
+        }
+
+        private void update() {
+            String message = LanguageUtility.getMessage(id, key);
+            if (!message.equals(value)) {
+                value = message;
+                fireValueChangedEvent();
+            }
+        }
+
+        @Override
+        public String get() {
+            return LanguageUtility.getMessage(id, key);
+        }
+
+        @Override
+        public Object getBean() {
+            return null;
+        }
+
+        @Override
+        public String getName() {
+            return key;
         }
     }
 }
@@ -0,0 +1,174 @@
+package manager;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Keeps the loot of the memory across restarts as a journal of changes, one line per change:
+ * the change of the amount, the amount of the item, its type, its subtype and its name, separated by tabs.
+ * Saving loot only appends one line, the journal is compacted to one line per item when it is read
+ * and has grown much longer than the loot it describes.
+ * The items are referenced by their name, type and subtype and resolved against the {@link Database}.
+ */
+public class LootLedgerFile {
+
+    // The journal is rewritten if it has more lines than this factor times the remaining records
+    private static final int COMPACT_FACTOR = 2;
+
+    private final Path path;
+
+    /**
+     * One item of the journal with its summed changes.
+     */
+    public static class Record {
+
+        private final String name, type, subtype;
+        private final float itemAmount;
+        private int amount;
+
+        public Record(String name, String type, String subtype, float itemAmount, int amount) {
+            this.name = name;
+            this.type = type;
+            this.subtype = subtype;
+            this.itemAmount = itemAmount;
+            this.amount = amount;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getType() {
+            return type;
+        }
+
+        public String getSubtype() {
+            return subtype;
+        }
+
+        public float getItemAmount() {
+            return itemAmount;
+        }
+
+        public int getAmount() {
+            return amount;
+        }
+    }
+
+    public LootLedgerFile(Path path) {
+        this.path = path;
+    }
+
+    /**
+     * @return the journal of the memory in the folder of the custom configuration
+     */
+    public static LootLedgerFile getDefault() {
+        return new LootLedgerFile(Paths.get(System.getProperty("user.home"),
+                Utility.getConfig().getString("home.folder"), "Memory.ledger"));
+    }
+
+    /**
+     * Sums up the journal and compacts it if most of its lines are outdated.
+     *
+     * @return the items with a positive amount in the order they were saved first
+     */
+    public List<Record> read() {
+        LinkedHashMap<List<Object>, Record> records = new LinkedHashMap<>();
+        int lines = 0;
+
+        if (!Files.exists(path)) {
+            return new ArrayList<>();
+        }
+
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] parts = line.split("\t", 5);
+                if (parts.length < 5) {
+                    continue;
+                }
+                lines++;
+
+                try {
+                    int amount = Integer.parseInt(parts[0]);
+                    float itemAmount = Float.parseFloat(parts[1]);
+                    records.computeIfAbsent(List.of(parts[4], parts[2], parts[3], itemAmount),
+                            key -> new Record(parts[4], parts[2], parts[3], itemAmount, 0)).amount += amount;
+                } catch (NumberFormatException e) {
+                    e.printStackTrace();
+                }
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+            return new ArrayList<>();
+        }
+
+        records.values().removeIf(record -> record.amount <= 0);
+        List<Record> result = new ArrayList<>(records.values());
+
+        if (lines > COMPACT_FACTOR * result.size() + 16) {
+            compact(result);
+        }
+        return result;
+    }
+
+    /**
+     * Appends one change of the amount of an item.
+     */
+    public void append(String name, String type, String subtype, float itemAmount, int amount) {
+        try {
+            Files.createDirectories(path.getParent());
+            try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                writeLine(writer, name, type, subtype, itemAmount, amount);
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Replaces the journal by one line per record, the old journal is kept until the new one is complete.
+     */
+    public void compact(Collection<Record> records) {
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+
+        try {
+            Files.createDirectories(path.getParent());
+            try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                for (Record record : records) {
+                    writeLine(writer, record.name, record.type, record.subtype, record.itemAmount, record.amount);
+                }
+            }
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private static void writeLine(Writer writer, String name, String type, String subtype, float itemAmount,
+                                  int amount) throws IOException {
+        // The name is the last field and may contain tabs, the type and subtype must not
+        writer.write(amount + "\t" + itemAmount + "\t" + clean(type).replace('\t', ' ') + "\t"
+                + clean(subtype).replace('\t', ' ') + "\t" + clean(name) + "\n");
+    }
+
+    /**
+     * Line breaks would end the record.
+     */
+    private static String clean(String field) {
+        return Objects.toString(field, "").replace('\n', ' ').replace('\r', ' ');
+    }
+}
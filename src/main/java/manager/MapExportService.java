@@ -0,0 +1,139 @@
+package manager;
+
+import javafx.concurrent.Service;
+import javafx.concurrent.Task;
+import javafx.scene.paint.Color;
+import model.map.ChunkedMap;
+import model.map.Map;
+import ui.map.ImageMapPainter;
+
+import javax.imageio.ImageIO;
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+/**
+ * Exports all layers of a map as a set of png tiles, e.g. layer0/tile_3_5.png is the
+ * fourth tile from the left and the sixth from the top of the lowest layer.
+ * The tiles are rendered in parallel and written as soon as they are done,
+ * so only one tile per thread is kept in memory whatever the size of the map.
+ * The missing chunks of a {@link ChunkedMap} are generated first.
+ */
+public class MapExportService extends Service<Void> {
+
+    private Map map;
+    private File directory;
+    private double zoom = 50;
+    private int tileSize = 1024;
+
+    public Map getMap() {
+        return map;
+    }
+
+    public void setMap(Map map) {
+        this.map = map;
+    }
+
+    public File getDirectory() {
+        return directory;
+    }
+
+    public void setDirectory(File directory) {
+        this.directory = directory;
+    }
+
+    public double getZoom() {
+        return zoom;
+    }
+
+    /**
+     * @param zoom the size of one cell in pixels
+     */
+    public void setZoom(double zoom) {
+        this.zoom = zoom;
+    }
+
+    public int getTileSize() {
+        return tileSize;
+    }
+
+    /**
+     * @param tileSize the width and height of a tile in pixels
+     */
+    public void setTileSize(int tileSize) {
+        this.tileSize = tileSize;
+    }
+
+    @Override
+    protected Task<Void> createTask() {
+        Map map = getMap();
+        File directory = getDirectory();
+        double zoom = getZoom();
+        int tileSize = getTileSize();
+
+        return new Task<>() {
+
+            @Override
+            protected Void call() {
+                if (map instanceof ChunkedMap) {
+                    map.generate();
+                }
+
+                int width = (int) Math.ceil(map.getWidth() * zoom);
+                int depth = (int) Math.ceil(map.getDepth() * zoom);
+                int tilesX = (width + tileSize - 1) / tileSize;
+                int tilesZ = (depth + tileSize - 1) / tileSize;
+                int tilesPerLayer = tilesX * tilesZ;
+                int count = tilesPerLayer * map.getHeight();
+
+                for (int layer = 0; layer < map.getHeight(); layer++) {
+                    new File(directory, "layer" + layer).mkdirs();
+                }
+
+                AtomicInteger done = new AtomicInteger();
+                ThreadLocal<ImageMapPainter> painters = ThreadLocal.withInitial(() -> new ImageMapPainter(tileSize, tileSize));
+                ForkJoinPool pool = new ForkJoinPool();
+
+                try {
+                    pool.submit(() -> IntStream.range(0, count).parallel().forEach(index -> {
+                        if (isCancelled()) {
+                            return;
+                        }
+
+                        int layer = index / tilesPerLayer;
+                        int tileX = index % tilesPerLayer / tilesZ;
+                        int tileZ = index % tilesZ;
+
+                        ImageMapPainter painter = painters.get();
+                        painter.clear(Color.WHITE);
+                        painter.setView(tileX * tileSize / zoom, tileZ * tileSize / zoom, zoom, tileSize, tileSize, layer);
+                        painter.draw(map);
+
+                        // The tiles at the right and bottom border are cut to the size of the map
+                        int tileWidth = Math.min(tileSize, width - tileX * tileSize);
+                        int tileHeight = Math.min(tileSize, depth - tileZ * tileSize);
+                        File file = new File(directory, "layer" + layer + File.separator + "tile_" + tileX + "_" + tileZ + ".png");
+                        try {
+                            ImageIO.write(painter.getImage().getSubimage(0, 0, tileWidth, tileHeight), "png", file);
+                        } catch (IOException e) {
+                            e.printStackTrace();
+                        }
+
+                        updateProgress(done.incrementAndGet(), count);
+                    })).get();
+                } catch (InterruptedException | ExecutionException e) {
+                    e.printStackTrace();
+                } finally {
+                    pool.shutdownNow();
+                }
+
+                return null;
+            }
+
+        };
+    }
+
+}
@@ -0,0 +1,94 @@
+package manager;
+
+import javafx.concurrent.Service;
+import javafx.concurrent.Task;
+import model.map.Map;
+import model.map.MapScore;
+import model.map.specification.CryptSpecification;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+/**
+ * Generates the maps of a range of seeds in parallel and scores them.
+ * Every map is dropped as soon as it is scored, so only the scores stay in memory.
+ */
+public class MapSweepService extends Service<List<MapScore>> {
+
+    private long firstSeed;
+    private int count;
+    private int width, height, depth;
+
+    public long getFirstSeed() {
+        return firstSeed;
+    }
+
+    public void setFirstSeed(long firstSeed) {
+        this.firstSeed = firstSeed;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public void setCount(int count) {
+        this.count = count;
+    }
+
+    public void setSize(int width, int height, int depth) {
+        this.width = width;
+        this.height = height;
+        this.depth = depth;
+    }
+
+    @Override
+    protected Task<List<MapScore>> createTask() {
+        long firstSeed = getFirstSeed();
+        int count = getCount();
+        int width = this.width;
+        int height = this.height;
+        int depth = this.depth;
+
+        return new Task<>() {
+
+            @Override
+            protected List<MapScore> call() {
+                AtomicInteger done = new AtomicInteger();
+                ForkJoinPool pool = new ForkJoinPool();
+
+                try {
+                    return pool.submit(() -> LongStream.range(firstSeed, firstSeed + count)
+                            .parallel()
+                            .mapToObj(seed -> {
+                                if (isCancelled()) {
+                                    return null;
+                                }
+
+                                // Textures are only needed to draw the map
+                                Map map = new Map(seed, width, height, depth);
+                                map.setSpecification(new CryptSpecification(null, map));
+                                map.generate();
+
+                                MapScore score = MapScore.of(seed, map);
+                                updateProgress(done.incrementAndGet(), count);
+                                return score;
+                            })
+                            .filter(Objects::nonNull)
+                            .collect(Collectors.toList())).get();
+                } catch (InterruptedException | ExecutionException e) {
+                    e.printStackTrace();
+                    return null;
+                } finally {
+                    pool.shutdownNow();
+                }
+            }
+
+        };
+    }
+
+}
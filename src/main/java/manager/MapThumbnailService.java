@@ -0,0 +1,71 @@
+package manager;
+
+import javafx.concurrent.Service;
+import javafx.concurrent.Task;
+import model.map.Map;
+import model.map.MapScore;
+import model.map.specification.CryptSpecification;
+import model.map.specification.texture.TextureHandler;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Generates the maps of some scores again from their seeds, e.g. to show the best maps of a sweep.
+ * Restarting the service cancels the maps of the previous scores.
+ */
+public class MapThumbnailService extends Service<List<Map>> {
+
+    private List<MapScore> scores = new ArrayList<>();
+    private int width, height, depth;
+    private TextureHandler textureHandler;
+
+    public List<MapScore> getScores() {
+        return scores;
+    }
+
+    public void setScores(List<MapScore> scores) {
+        this.scores = scores;
+    }
+
+    public void setSize(int width, int height, int depth) {
+        this.width = width;
+        this.height = height;
+        this.depth = depth;
+    }
+
+    public void setTextureHandler(TextureHandler textureHandler) {
+        this.textureHandler = textureHandler;
+    }
+
+    @Override
+    protected Task<List<Map>> createTask() {
+        List<MapScore> scores = new ArrayList<>(getScores());
+        int width = this.width;
+        int height = this.height;
+        int depth = this.depth;
+        TextureHandler textureHandler = this.textureHandler;
+
+        return new Task<>() {
+
+            @Override
+            protected List<Map> call() {
+                List<Map> maps = new ArrayList<>();
+
+                for (MapScore score : scores) {
+                    if (isCancelled()) {
+                        return null;
+                    }
+
+                    Map map = new Map(score.getSeed(), width, height, depth);
+                    map.setSpecification(new CryptSpecification(textureHandler, map));
+                    map.generate();
+                    maps.add(map);
+                    updateProgress(maps.size(), scores.size());
+                }
+
+                return maps;
+            }
+        };
+    }
+}
@@ -0,0 +1,141 @@
+package manager;
+
+import javafx.application.Platform;
+import javafx.beans.property.BooleanProperty;
+import javafx.beans.property.IntegerProperty;
+import javafx.beans.property.LongProperty;
+import javafx.beans.property.ReadOnlyBooleanProperty;
+import javafx.beans.property.ReadOnlyIntegerProperty;
+import javafx.beans.property.ReadOnlyLongProperty;
+import javafx.beans.property.SimpleBooleanProperty;
+import javafx.beans.property.SimpleIntegerProperty;
+import javafx.beans.property.SimpleLongProperty;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.ToIntFunction;
+
+/**
+ * Runs the queries of a view on a background thread shared by all views.
+ * A new query cancels the last query of the same executor, only the result of the newest query
+ * is published on the JavaFX application thread. Queries can be delayed,
+ * so typing several letters only starts one query.
+ * Must only be used from the JavaFX application thread.
+ *
+ * @param <R> the result of a query
+ */
+public class SearchExecutor<R> {
+
+    // Delay of queries which are started by typing
+    public static final long DEBOUNCE_MILLIS = 150;
+
+    private static final ScheduledExecutorService EXECUTOR = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "Search");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final ToIntFunction<R> counter;
+    private final IntegerProperty resultCount;
+    private final LongProperty duration;
+    private final BooleanProperty running;
+    private Future<?> pending;
+    private long generation;
+
+    /**
+     * @param counter the amount of results of a query, shown next to the results
+     */
+    public SearchExecutor(ToIntFunction<R> counter) {
+        this.counter = counter;
+        this.resultCount = new SimpleIntegerProperty(0);
+        this.duration = new SimpleLongProperty(0);
+        this.running = new SimpleBooleanProperty(false);
+    }
+
+    public void submit(Callable<R> query, Consumer<R> publisher) {
+        submit(0, query, publisher);
+    }
+
+    /**
+     * Cancels the last query and runs the new one after the delay.
+     *
+     * @param publisher gets the result on the JavaFX application thread, unless a newer query was submitted
+     */
+    public void submit(long delayMillis, Callable<R> query, Consumer<R> publisher) {
+        cancel();
+        long current = ++generation;
+        running.set(true);
+
+        pending = EXECUTOR.schedule(() -> {
+            long start = System.nanoTime();
+            R result;
+            try {
+                result = query.call();
+            } catch (InterruptedException e) {
+                return;
+            } catch (Exception e) {
+                e.printStackTrace();
+                Platform.runLater(() -> finish(current));
+                return;
+            }
+            long time = (System.nanoTime() - start) / 1000000;
+
+            Platform.runLater(() -> {
+                if (current == generation) {
+                    publisher.accept(result);
+                    resultCount.set(counter.applyAsInt(result));
+                    duration.set(time);
+                    finish(current);
+                }
+            });
+        }, delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops the running query, its result is never published.
+     */
+    public void cancel() {
+        generation++;
+        if (pending != null) {
+            pending.cancel(true);
+            pending = null;
+        }
+        running.set(false);
+    }
+
+    private void finish(long current) {
+        if (current == generation) {
+            pending = null;
+            running.set(false);
+        }
+    }
+
+    /**
+     * Queries should stop as soon as this is true, their result isn't needed anymore.
+     */
+    public static boolean isCancelled() {
+        return Thread.currentThread().isInterrupted();
+    }
+
+    /**
+     * @return the amount of results of the last published query
+     */
+    public ReadOnlyIntegerProperty resultCountProperty() {
+        return resultCount;
+    }
+
+    /**
+     * @return the time the last published query took in milliseconds
+     */
+    public ReadOnlyLongProperty durationProperty() {
+        return duration;
+    }
+
+    public ReadOnlyBooleanProperty runningProperty() {
+        return running;
+    }
+}
@@ -68,20 +68,36 @@ public abstract class Utility {
      * @return a random generated Tier
      */
     public static int getRandomTier() {
-        Integer[] array = (Integer[]) config.getArray(Integer.class, "tier.weight");
-        double weight = rand.nextInt(Arrays.stream(array).mapToInt(i -> i).sum());
+        return getRandomTier(getTierWeights(), rand);
+    }
 
+    /**
+     * Draws many tiers with the weights of the config read only once.
+     *
+     * @param weights the weights of all tiers from {@link #getTierWeights()}
+     * @return a random generated Tier
+     */
+    public static int getRandomTier(int[] weights, Random random) {
+        double weight = random.nextInt(Arrays.stream(weights).sum());
 
-        for (int i = array.length - 1; i >= 0; i--) {
-            if (weight < array[i]) {
+        for (int i = weights.length - 1; i >= 0; i--) {
+            if (weight < weights[i]) {
                 return i + 1;
             }
-            weight -= array[i];
+            weight -= weights[i];
         }
 
         return 1;
     }
 
+    /**
+     * @return the weight of every tier, the first one is the weight of tier 1
+     */
+    public static int[] getTierWeights() {
+        Integer[] array = (Integer[]) config.getArray(Integer.class, "tier.weight");
+        return Arrays.stream(array).mapToInt(i -> i).toArray();
+    }
+
     /**
      * Converts an int into a representation
      * in a roman number
@@ -6,11 +6,16 @@ import manager.CopyService;
 import manager.LanguageUtility;
 import manager.Utility;
 import manager.WorkbookService;
+import model.battle.BattleStatistic;
+import model.battle.InitiativeScheduler;
+import model.battle.StatisticType;
 import model.loot.LootTable;
 import model.member.BattleMember;
 import model.member.ExtendedBattleMember;
 import model.member.data.ArmorPiece;
+import model.member.data.AttackTypes;
 import model.member.generation.specs.*;
+import model.member.state.interfaces.IMemberState;
 import org.apache.commons.configuration2.Configuration;
 import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.Row;
@@ -21,8 +26,10 @@ import org.apache.poi.ss.util.CellReference;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.function.Supplier;
 
 public class Battle {
 
@@ -30,16 +37,18 @@ public class Battle {
     private final IntegerProperty round;
     private final ListProperty<BattleMember> players;
     private final ListProperty<BattleMember> enemies;
-    private final HashMap<BattleMember, Integer> damageStatistic;
-    private final HashMap<BattleMember, Integer> healStatistic;
+    private final BattleStatistic statistic;
+    private final InitiativeScheduler scheduler;
+    private final ReadOnlyObjectWrapper<List<BattleMember>> changedStates;
 
     public Battle() {
         this.players = new SimpleListProperty<>(FXCollections.observableArrayList());
         this.enemies = new SimpleListProperty<>(FXCollections.observableArrayList());
-        this.damageStatistic = new HashMap<>();
-        this.healStatistic = new HashMap<>();
+        this.statistic = new BattleStatistic();
         this.round = new SimpleIntegerProperty(1);
         this.name = new SimpleStringProperty(LanguageUtility.getMessage("battle.defaultName"));
+        this.changedStates = new ReadOnlyObjectWrapper<>(Collections.emptyList());
+        this.scheduler = new InitiativeScheduler(this, Utility.getConfig().getInt("battle.timeline.rounds", 2));
     }
 
     public void nextTurn() {
@@ -58,8 +67,25 @@ public class Battle {
         }
         enemies.clear();
         round.set(0);
-        damageStatistic.clear();
-        healStatistic.clear();
+        statistic.clear();
+    }
+
+    /**
+     * Replaces all members and the round with the ones of a saved battle.
+     * The statistic starts empty.
+     *
+     * @param name    of the saved battle
+     * @param round   of the saved battle
+     * @param players which were created for this battle
+     * @param enemies which were created for this battle
+     */
+    public void restore(String name, int round, Collection<? extends BattleMember> players,
+                        Collection<? extends BattleMember> enemies) {
+        this.statistic.clear();
+        this.name.set(name);
+        this.round.set(round);
+        this.players.setAll(players);
+        this.enemies.setAll(enemies);
     }
 
     public void removeMember(BattleMember member) {
@@ -67,6 +93,27 @@ public class Battle {
         enemies.remove(member);
     }
 
+    /**
+     * Applies an area effect. Every target gets its own state created by the template.
+     * The state lists of the targets don't notify their listeners, the change of all
+     * targets is notified once by {@link #changedStatesProperty()} after every state was added.
+     * The scheduler marks the timeline invalid once and reschedules the targets when it is requested next.
+     *
+     * @param template creates a new state for each target
+     * @param targets  which get the state
+     */
+    public void addState(Supplier<? extends IMemberState> template, Collection<? extends BattleMember> targets) {
+        List<BattleMember> changed = new ArrayList<>(targets.size());
+        for (BattleMember target : targets) {
+            target.addStateSilently(template.get());
+            changed.add(target);
+        }
+
+        if (!changed.isEmpty()) {
+            changedStates.set(Collections.unmodifiableList(changed));
+        }
+    }
+
     public boolean isPlayer(BattleMember member) {
         return players.contains(member);
     }
@@ -90,26 +137,46 @@ public class Battle {
         return allPlayers || allEnemies;
     }
 
-    public void addToDamageStatistic(BattleMember member, int damage) {
-        if (!damageStatistic.containsKey(member)) {
-            damageStatistic.put(member, 0);
-        }
-        damageStatistic.put(member, damageStatistic.get(member) + damage);
+    public void addToDamageStatistic(BattleMember member, int damage, AttackTypes type) {
+        statistic.addDamage(member, round.get(), type, damage);
     }
 
     public void addToHealStatistic(BattleMember member, int heal) {
-        if (!healStatistic.containsKey(member)) {
-            healStatistic.put(member, 0);
-        }
-        healStatistic.put(member, healStatistic.get(member) + heal);
+        statistic.addHeal(member, round.get(), heal);
+    }
+
+    public void addToShieldStatistic(BattleMember member, int absorbed) {
+        statistic.addShield(member, round.get(), absorbed);
     }
 
     public int getDamageDealt(BattleMember member) {
-        return damageStatistic.getOrDefault(member, 0);
+        return statistic.getTotal(StatisticType.damage, member);
     }
 
     public int getDamageHealed(BattleMember member) {
-        return healStatistic.getOrDefault(member, 0);
+        return statistic.getTotal(StatisticType.heal, member);
+    }
+
+    public int getDamageAbsorbed(BattleMember member) {
+        return statistic.getTotal(StatisticType.shield, member);
+    }
+
+    public BattleStatistic getStatistic() {
+        return statistic;
+    }
+
+    /**
+     * Changes to the members given by an area effect, whose state lists changed without notifying.
+     * Anyone showing or using the states of a member has to listen to this, too.
+     *
+     * @return the targets of the last area effect
+     */
+    public ReadOnlyObjectProperty<List<BattleMember>> changedStatesProperty() {
+        return changedStates.getReadOnlyProperty();
+    }
+
+    public InitiativeScheduler getScheduler() {
+        return scheduler;
     }
 
     public ListProperty<BattleMember> playersProperty() {
@@ -172,6 +172,24 @@ public class Currency {
         return tradeable;
     }
 
+    /**
+     * Currencies are equal if they have the same value, the coin string depends on the language it was read in.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof Currency)) {
+            return false;
+        }
+
+        Currency other = (Currency) o;
+        return this.tradeable == other.tradeable && this.coinValue == other.coinValue;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Boolean.hashCode(tradeable) + coinValue;
+    }
+
     @Override
     public String toString() {
         if (tradeable) {
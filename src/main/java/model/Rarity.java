@@ -53,19 +53,35 @@ public enum Rarity implements WithToStringProperty {
      * @return a rarity matching the chance
      */
     public static Rarity getRandomRarity() {
-        int weightSum = Arrays.stream(Rarity.values()).mapToInt(Rarity::getWeight).sum();
-        int weight = rand.nextInt(weightSum);
+        return getRandomRarity(getWeights(), rand);
+    }
+
+    /**
+     * Draws many rarities with the weights of the config read only once.
+     *
+     * @param weights the weights of all rarities from {@link #getWeights()}
+     * @return a rarity matching the chance
+     */
+    public static Rarity getRandomRarity(int[] weights, Random random) {
+        int weight = random.nextInt(Arrays.stream(weights).sum());
 
         for (Rarity rarity : Rarity.values()) {
-            if (weight < rarity.getWeight()) {
+            if (weight < weights[rarity.ordinal()]) {
                 return rarity;
             }
-            weight -= rarity.getWeight();
+            weight -= weights[rarity.ordinal()];
         }
 
         return common;
     }
 
+    /**
+     * @return the weight of every rarity by its ordinal
+     */
+    public static int[] getWeights() {
+        return Arrays.stream(Rarity.values()).mapToInt(Rarity::getWeight).toArray();
+    }
+
     public static Rarity getRarity(String name) {
         for (Rarity rarity : values()) {
             if (rarity.toStringProperty().get().equalsIgnoreCase(name.trim())) {
@@ -0,0 +1,60 @@
+package model.battle;
+
+import javafx.beans.property.ReadOnlyStringProperty;
+import manager.LanguageUtility;
+import model.Battle;
+import model.interfaces.WithToStringProperty;
+import model.member.BattleMember;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Presets to select the targets of an area effect.
+ * Dead members are never selected.
+ */
+public enum AreaSelection implements WithToStringProperty {
+    allEnemies, allPlayers, allMembers, lifeAtOrBelow;
+
+    /**
+     * @param battle    of the members
+     * @param threshold the maximal life of a selected member, only used by {@link #lifeAtOrBelow}
+     * @return all living members of the battle which match this preset
+     */
+    public List<BattleMember> select(Battle battle, int threshold) {
+        Stream<BattleMember> members;
+
+        switch (this) {
+            case allEnemies:
+                members = battle.enemiesProperty().stream();
+                break;
+            case allPlayers:
+                members = battle.playersProperty().stream();
+                break;
+            case lifeAtOrBelow:
+                members = Stream.concat(battle.playersProperty().stream(), battle.enemiesProperty().stream())
+                        .filter(member -> member.getLife() <= threshold);
+                break;
+            default:
+                members = Stream.concat(battle.playersProperty().stream(), battle.enemiesProperty().stream());
+                break;
+        }
+
+        return members.filter(member -> !member.isDead()).collect(Collectors.toList());
+    }
+
+    public boolean usesThreshold() {
+        return this == lifeAtOrBelow;
+    }
+
+    @Override
+    public String toString() {
+        return toStringProperty().get();
+    }
+
+    @Override
+    public ReadOnlyStringProperty toStringProperty() {
+        return LanguageUtility.getMessageProperty("areaSelection." + super.toString());
+    }
+}
@@ -0,0 +1,237 @@
+package model.battle;
+
+import model.member.BattleMember;
+import model.member.data.AttackTypes;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Stores the damage, heal and shield statistic of a battle
+ * per member, round and attack type in primitive arrays.
+ * Every record is a constant time array write, the arrays
+ * grow by doubling when a new round is reached.
+ */
+public class BattleStatistic {
+
+    private static final int ATTACK_TYPES = AttackTypes.values().length;
+    private static final int TYPES = StatisticType.values().length;
+    private static final int INITIAL_ROUNDS = 16;
+
+    private final HashMap<BattleMember, Record> records;
+    private final ArrayList<Record> recordList;
+
+    // [type][round]
+    private int[][] roundTotals;
+    private final long[] totals;
+    private final long[] damageByAttackType;
+    private int roundCount;
+
+    public BattleStatistic() {
+        this.records = new HashMap<>();
+        this.recordList = new ArrayList<>();
+        this.roundTotals = new int[TYPES][INITIAL_ROUNDS];
+        this.totals = new long[TYPES];
+        this.damageByAttackType = new long[ATTACK_TYPES];
+        this.roundCount = 0;
+    }
+
+    public void addDamage(BattleMember member, int round, AttackTypes type, int amount) {
+        Record record = getRecord(member);
+        if (record == null || amount == 0) {
+            return;
+        }
+        round = Math.max(round, 0);
+        ensureRound(record, round);
+
+        record.damage[round * ATTACK_TYPES + type.ordinal()] += amount;
+        record.damageByAttackType[type.ordinal()] += amount;
+        damageByAttackType[type.ordinal()] += amount;
+        add(record, StatisticType.damage, round, amount);
+    }
+
+    public void addHeal(BattleMember member, int round, int amount) {
+        Record record = getRecord(member);
+        if (record == null || amount == 0) {
+            return;
+        }
+        round = Math.max(round, 0);
+        ensureRound(record, round);
+
+        record.heal[round] += amount;
+        add(record, StatisticType.heal, round, amount);
+    }
+
+    public void addShield(BattleMember member, int round, int amount) {
+        Record record = getRecord(member);
+        if (record == null || amount == 0) {
+            return;
+        }
+        round = Math.max(round, 0);
+        ensureRound(record, round);
+
+        record.shield[round] += amount;
+        add(record, StatisticType.shield, round, amount);
+    }
+
+    private void add(Record record, StatisticType type, int round, int amount) {
+        record.totals[type.ordinal()] += amount;
+        roundTotals[type.ordinal()][round] += amount;
+        totals[type.ordinal()] += amount;
+        roundCount = Math.max(roundCount, round + 1);
+    }
+
+    /**
+     * @return the total of the given type the member has dealt
+     */
+    public int getTotal(StatisticType type, BattleMember member) {
+        Record record = records.get(member);
+        return record == null ? 0 : record.totals[type.ordinal()];
+    }
+
+    /**
+     * @return the total of the given type over all members
+     */
+    public long getTotal(StatisticType type) {
+        return totals[type.ordinal()];
+    }
+
+    public int get(StatisticType type, BattleMember member, int round) {
+        Record record = records.get(member);
+        if (record == null || round < 0 || round >= record.capacity) {
+            return 0;
+        }
+
+        switch (type) {
+            case heal:
+                return record.heal[round];
+            case shield:
+                return record.shield[round];
+            default:
+                int sum = 0;
+                for (int i = 0; i < ATTACK_TYPES; i++) {
+                    sum += record.damage[round * ATTACK_TYPES + i];
+                }
+                return sum;
+        }
+    }
+
+    public int getDamage(BattleMember member, AttackTypes type) {
+        Record record = records.get(member);
+        return record == null ? 0 : record.damageByAttackType[type.ordinal()];
+    }
+
+    public long getDamage(AttackTypes type) {
+        return damageByAttackType[type.ordinal()];
+    }
+
+    /**
+     * The curve has one entry per round, starting with round 0.
+     *
+     * @return the values of the given type per round for the member
+     */
+    public int[] getCurve(StatisticType type, BattleMember member) {
+        int[] curve = new int[roundCount];
+        for (int round = 0; round < roundCount; round++) {
+            curve[round] = get(type, member, round);
+        }
+        return curve;
+    }
+
+    /**
+     * The curve has one entry per round, starting with round 0.
+     *
+     * @return the values of the given type per round over all members
+     */
+    public int[] getCurve(StatisticType type) {
+        return Arrays.copyOf(roundTotals[type.ordinal()], roundCount);
+    }
+
+    /**
+     * @return number of rounds including round 0 which contain values
+     */
+    public int getRoundCount() {
+        return roundCount;
+    }
+
+    /**
+     * @param type  which gets compared
+     * @param limit maximal size of the returned list
+     * @return members sorted descending by their total of the given type
+     */
+    public List<BattleMember> getTopSources(StatisticType type, int limit) {
+        return recordList.stream()
+                .filter(record -> record.totals[type.ordinal()] != 0)
+                .sorted(Comparator.comparingInt((Record record) -> record.totals[type.ordinal()]).reversed())
+                .limit(limit)
+                .map(record -> record.member)
+                .collect(Collectors.toList());
+    }
+
+    public void clear() {
+        records.clear();
+        recordList.clear();
+        this.roundTotals = new int[TYPES][INITIAL_ROUNDS];
+        Arrays.fill(totals, 0);
+        Arrays.fill(damageByAttackType, 0);
+        this.roundCount = 0;
+    }
+
+    private Record getRecord(BattleMember member) {
+        if (member == null) {
+            return null;
+        }
+
+        Record record = records.get(member);
+        if (record == null) {
+            record = new Record(member);
+            records.put(member, record);
+            recordList.add(record);
+        }
+        return record;
+    }
+
+    private void ensureRound(Record record, int round) {
+        if (round >= record.capacity) {
+            int capacity = Math.max(round + 1, record.capacity * 2);
+            record.damage = Arrays.copyOf(record.damage, capacity * ATTACK_TYPES);
+            record.heal = Arrays.copyOf(record.heal, capacity);
+            record.shield = Arrays.copyOf(record.shield, capacity);
+            record.capacity = capacity;
+        }
+        if (round >= roundTotals[0].length) {
+            int capacity = Math.max(round + 1, roundTotals[0].length * 2);
+            for (int i = 0; i < TYPES; i++) {
+                roundTotals[i] = Arrays.copyOf(roundTotals[i], capacity);
+            }
+        }
+    }
+
+    private static class Record {
+
+        private final BattleMember member;
+        private final int[] totals;
+        private final int[] damageByAttackType;
+
+        // [round * ATTACK_TYPES + type]
+        private int[] damage;
+        // [round]
+        private int[] heal;
+        private int[] shield;
+        private int capacity;
+
+        private Record(BattleMember member) {
+            this.member = member;
+            this.totals = new int[TYPES];
+            this.damageByAttackType = new int[ATTACK_TYPES];
+            this.capacity = INITIAL_ROUNDS;
+            this.damage = new int[INITIAL_ROUNDS * ATTACK_TYPES];
+            this.heal = new int[INITIAL_ROUNDS];
+            this.shield = new int[INITIAL_ROUNDS];
+        }
+    }
+}
@@ -0,0 +1,288 @@
+package model.battle;
+
+import javafx.beans.InvalidationListener;
+import javafx.beans.property.ReadOnlyBooleanProperty;
+import javafx.beans.property.ReadOnlyBooleanWrapper;
+import javafx.collections.ListChangeListener;
+import model.Battle;
+import model.member.BattleMember;
+import model.member.state.interfaces.IActiveRounderMemberState;
+import model.member.state.interfaces.IMemberState;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Keeps the actions of all members of a battle ordered by the moment
+ * they happen for the current and the next rounds.
+ * A change of a member only reschedules the actions of this member,
+ * the order of all other actions stays untouched.
+ */
+public class InitiativeScheduler {
+
+    private static final Comparator<Action> ORDER = Comparator
+            .comparingInt(Action::getRound)
+            .thenComparingDouble(Action::getTime)
+            .thenComparing(Comparator.comparingInt(Action::getInitiative).reversed())
+            .thenComparingLong(action -> action.id);
+
+    private final Battle battle;
+    private final TreeSet<Action> actions;
+    private final HashMap<BattleMember, List<Action>> memberActions;
+    private final HashMap<BattleMember, InvalidationListener> listeners;
+    private final LinkedHashSet<BattleMember> dirty;
+    private final ReadOnlyBooleanWrapper valid;
+    private int rounds;
+    private long sequence;
+
+    public InitiativeScheduler(Battle battle, int rounds) {
+        this.battle = battle;
+        this.rounds = rounds;
+        this.actions = new TreeSet<>(ORDER);
+        this.memberActions = new HashMap<>();
+        this.listeners = new HashMap<>();
+        this.dirty = new LinkedHashSet<>();
+        this.valid = new ReadOnlyBooleanWrapper(true);
+        this.sequence = 0;
+
+        ListChangeListener<BattleMember> memberListener = change -> {
+            while (change.next()) {
+                change.getRemoved().forEach(this::unregister);
+                change.getAddedSubList().forEach(this::register);
+            }
+        };
+        battle.playersProperty().addListener(memberListener);
+        battle.enemiesProperty().addListener(memberListener);
+        battle.playersProperty().forEach(this::register);
+        battle.enemiesProperty().forEach(this::register);
+
+        battle.roundProperty().addListener(ob -> invalidateAll());
+        battle.changedStatesProperty().addListener((ob, o, members) -> members.stream()
+                .filter(listeners::containsKey)
+                .forEach(this::invalidate));
+    }
+
+    /**
+     * Reschedules all dirty members and returns the actions of the current
+     * round and the following rounds in the order they happen.
+     *
+     * @return the ordered actions
+     */
+    public List<Action> getTimeline() {
+        // The listeners only fire again after their property was read, even if no member is scheduled
+        battle.roundProperty().get();
+
+        for (BattleMember member : dirty) {
+            List<Action> old = memberActions.get(member);
+
+            if (old != null) {
+                old.forEach(actions::remove);
+                List<Action> scheduled = schedule(member);
+                actions.addAll(scheduled);
+                memberActions.put(member, scheduled);
+            }
+        }
+        dirty.clear();
+        valid.set(true);
+
+        return new ArrayList<>(actions);
+    }
+
+    public Action getNextAction() {
+        getTimeline();
+        return actions.isEmpty() ? null : actions.first();
+    }
+
+    /**
+     * @return false as long as a member changed since
+     * the last time the timeline was requested
+     */
+    public ReadOnlyBooleanProperty validProperty() {
+        return valid.getReadOnlyProperty();
+    }
+
+    public int getRounds() {
+        return rounds;
+    }
+
+    /**
+     * @param rounds the amount of rounds after the current round which get scheduled
+     */
+    public void setRounds(int rounds) {
+        this.rounds = rounds;
+        invalidateAll();
+    }
+
+    private void register(BattleMember member) {
+        if (listeners.containsKey(member)) {
+            return;
+        }
+
+        InvalidationListener listener = ob -> invalidate(member);
+        member.initiativeProperty().addListener(listener);
+        member.counterProperty().addListener(listener);
+        member.startValueProperty().addListener(listener);
+        member.turnsProperty().addListener(listener);
+        member.lifeProperty().addListener(listener);
+        member.statesProperty().addListener(listener);
+
+        listeners.put(member, listener);
+        memberActions.put(member, Collections.emptyList());
+        invalidate(member);
+    }
+
+    private void unregister(BattleMember member) {
+        // The member could have switched the side
+        if (battle.playersProperty().contains(member) || battle.enemiesProperty().contains(member)) {
+            return;
+        }
+
+        InvalidationListener listener = listeners.remove(member);
+
+        if (listener != null) {
+            member.initiativeProperty().removeListener(listener);
+            member.counterProperty().removeListener(listener);
+            member.startValueProperty().removeListener(listener);
+            member.turnsProperty().removeListener(listener);
+            member.lifeProperty().removeListener(listener);
+            member.statesProperty().removeListener(listener);
+        }
+
+        List<Action> old = memberActions.remove(member);
+        if (old != null) {
+            old.forEach(actions::remove);
+        }
+        dirty.remove(member);
+        valid.set(false);
+    }
+
+    private void invalidate(BattleMember member) {
+        dirty.add(member);
+        valid.set(false);
+    }
+
+    private void invalidateAll() {
+        dirty.addAll(memberActions.keySet());
+        valid.set(false);
+    }
+
+    /**
+     * Simulates {@link BattleMember#nextTurn()} without changing the member.
+     * States run out the same way they would in the real battle.
+     */
+    private List<Action> schedule(BattleMember member) {
+        List<Action> scheduled = new ArrayList<>();
+
+        // Every watched property is read before a dead member returns, so its changes are noticed again
+        int round = battle.roundProperty().get();
+        int startValue = member.getStartValue();
+        member.getInitiative();
+        member.getCounter();
+        member.getTurns();
+
+        if (member.isDead()) {
+            return scheduled;
+        }
+
+        List<IMemberState> states = new ArrayList<>(member.statesProperty());
+        int[] durations = states.stream().mapToInt(IMemberState::getDuration).toArray();
+
+        // Current round, the turns are already known
+        int initiative = member.calculateInitiative();
+        int counter = member.getRoundStartCounter();
+        for (int turn = 0; turn < member.getTurns(); turn++) {
+            double time = counter < 0 ? 0 : getTime(counter + turn * startValue, initiative);
+            scheduled.add(new Action(member, round, time, initiative, sequence++));
+        }
+
+        counter = member.getCounter();
+        List<IMemberState> active = new ArrayList<>();
+
+        for (int i = 1; i <= rounds; i++) {
+            active.clear();
+            for (int j = 0; j < states.size(); j++) {
+                if (durations[j] >= 1) {
+                    active.add(states.get(j));
+                }
+            }
+
+            initiative = member.calculateInitiative(active);
+            int start = counter;
+            counter -= initiative;
+
+            int turns = 0;
+            while (counter < 1) {
+                scheduled.add(new Action(member, round + i,
+                        getTime(start + turns * startValue, initiative), initiative, sequence++));
+                turns++;
+                counter += startValue;
+            }
+
+            for (int j = 0; j < states.size(); j++) {
+                IMemberState state = states.get(j);
+
+                if (state instanceof IActiveRounderMemberState && ((IActiveRounderMemberState) state).isActiveRounder()) {
+                    durations[j] -= turns;
+                } else {
+                    durations[j] -= 1;
+                }
+            }
+        }
+
+        return scheduled;
+    }
+
+    /**
+     * A member acts as soon as its counter falls below 1.
+     * The counter decreases linear over the round by the initiative.
+     *
+     * @return the moment of the action in the round between 0 and 1
+     */
+    private double getTime(int counter, int initiative) {
+        if (initiative <= 0) {
+            return 0;
+        }
+        return Math.max(0, Math.min(1, (double) (counter - 1) / initiative));
+    }
+
+    public static class Action {
+
+        private final BattleMember member;
+        private final int round;
+        private final double time;
+        private final int initiative;
+        private final long id;
+
+        private Action(BattleMember member, int round, double time, int initiative, long id) {
+            this.member = member;
+            this.round = round;
+            this.time = time;
+            this.initiative = initiative;
+            this.id = id;
+        }
+
+        public BattleMember getMember() {
+            return member;
+        }
+
+        public int getRound() {
+            return round;
+        }
+
+        /**
+         * @return the moment of the action in its round between 0 and 1
+         */
+        public double getTime() {
+            return time;
+        }
+
+        public int getInitiative() {
+            return initiative;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package model.battle;
+
+import javafx.beans.property.ReadOnlyStringProperty;
+import manager.LanguageUtility;
+import model.interfaces.WithToStringProperty;
+
+public enum StatisticType implements WithToStringProperty {
+    damage, heal, shield;
+
+    @Override
+    public String toString() {
+        return toStringProperty().get();
+    }
+
+    @Override
+    public ReadOnlyStringProperty toStringProperty() {
+        return LanguageUtility.getMessageProperty("statisticType." + super.toString());
+    }
+}
@@ -7,6 +7,7 @@ import model.Currency;
 import model.Rarity;
 
 import java.lang.reflect.InvocationTargetException;
+import java.util.Objects;
 
 /**
  * Represents an item in the database
@@ -180,6 +181,15 @@ public class Item {
                 && this.getCurrency().equals(other.getCurrency());
     }
 
+    /**
+     * Only uses fields which are compared by every {@link #equals(Object)},
+     * so equal items and equipments have the same hash.
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(getName(), getType(), getSubtype());
+    }
+
     @Override
     public String toString() {
         return name;
@@ -0,0 +1,138 @@
+package model.loot;
+
+import model.item.Item;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.IntStream;
+
+/**
+ * Immutable form of loot factories which is rolled many times.
+ * All factories of the same item are merged into one entry and
+ * factories of the same item with the same chance are combined,
+ * so a roll only counts the amount per item in an array.
+ */
+public class CompiledLootTable {
+
+    public static final CompiledLootTable EMPTY = new CompiledLootTable(List.of());
+
+    private static final int PARALLEL_THRESHOLD = 64;
+
+    private final Item[] items;
+    // [item][entry]
+    private final int[][] amounts;
+    private final double[][] chances;
+
+    public CompiledLootTable(Collection<? extends LootFactory> factories) {
+        LinkedHashMap<Item, LinkedHashMap<Double, Integer>> merged = new LinkedHashMap<>();
+
+        for (LootFactory factory : factories) {
+            if (factory.getMaxAmount() > 0 && factory.getChance() > 0) {
+                merged.computeIfAbsent(factory.getItem(), item -> new LinkedHashMap<>())
+                        .merge(factory.getChance(), factory.getMaxAmount(), Integer::sum);
+            }
+        }
+
+        this.items = new Item[merged.size()];
+        this.amounts = new int[merged.size()][];
+        this.chances = new double[merged.size()][];
+
+        int i = 0;
+        for (Item item : merged.keySet()) {
+            LinkedHashMap<Double, Integer> entries = merged.get(item);
+            items[i] = item;
+            amounts[i] = new int[entries.size()];
+            chances[i] = new double[entries.size()];
+
+            int j = 0;
+            for (Double chance : entries.keySet()) {
+                amounts[i][j] = entries.get(chance);
+                chances[i][j] = chance;
+                j++;
+            }
+            i++;
+        }
+    }
+
+    /**
+     * @return the amount of different items this table can drop
+     */
+    public int size() {
+        return items.length;
+    }
+
+    public boolean isEmpty() {
+        return items.length == 0;
+    }
+
+    /**
+     * Rolls this table once and adds the amounts to the counts.
+     *
+     * @param random used for the rolls
+     * @param counts has one entry per item of this table
+     */
+    public void roll(Random random, int[] counts) {
+        for (int i = 0; i < items.length; i++) {
+            int amount = 0;
+
+            for (int j = 0; j < amounts[i].length; j++) {
+                double chance = chances[i][j];
+
+                for (int k = 0; k < amounts[i][j]; k++) {
+                    if (random.nextDouble() < chance) {
+                        amount++;
+                    }
+                }
+            }
+            counts[i] += amount;
+        }
+    }
+
+    /**
+     * @param random used for the roll
+     * @return the loot of one roll, every item only once
+     */
+    public List<Loot> roll(Random random) {
+        int[] counts = new int[items.length];
+        roll(random, counts);
+        return toLoot(counts);
+    }
+
+    /**
+     * Rolls this table multiple times, large counts are rolled in parallel.
+     * Each thread counts in its own array, the arrays are merged at the end.
+     *
+     * @param count how often this table is rolled
+     * @return the merged loot of all rolls, every item only once
+     */
+    public List<Loot> roll(int count) {
+        IntStream rolls = IntStream.range(0, Math.max(count, 0));
+        if (count >= PARALLEL_THRESHOLD) {
+            rolls = rolls.parallel();
+        }
+
+        int[] counts = rolls.collect(
+                () -> new int[items.length],
+                (array, i) -> roll(ThreadLocalRandom.current(), array),
+                (a, b) -> Arrays.setAll(a, i -> a[i] + b[i]));
+
+        return toLoot(counts);
+    }
+
+    private List<Loot> toLoot(int[] counts) {
+        List<Loot> loot = new ArrayList<>();
+
+        for (int i = 0; i < items.length; i++) {
+            if (counts[i] > 0) {
+                loot.add(new Loot(items[i], counts[i]));
+            }
+        }
+
+        return loot;
+    }
+}
@@ -0,0 +1,69 @@
+package model.loot;
+
+import model.item.Item;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+/**
+ * Merges loot of the same item into one entry.
+ * Every added loot is a single hash lookup,
+ * the order of the first appearance is kept.
+ */
+public class LootAccumulator {
+
+    private final LinkedHashMap<Item, Loot> loot;
+
+    public LootAccumulator() {
+        this.loot = new LinkedHashMap<>();
+    }
+
+    /**
+     * @param loot which gets merged into an existing entry or
+     *             becomes a new entry if its amount is positive
+     * @return the entry of the item or null if none exists
+     */
+    public Loot add(Loot loot) {
+        return add(loot.getItem(), loot.getAmount());
+    }
+
+    /**
+     * @return the entry of the item or null if none exists
+     */
+    public Loot add(Item item, int amount) {
+        Loot own = loot.get(item);
+
+        if (own != null) {
+            own.addAmount(amount);
+        } else if (amount > 0) {
+            own = new Loot(item, amount);
+            loot.put(item, own);
+        }
+
+        return own;
+    }
+
+    public void addAll(Collection<Loot> loot) {
+        for (Loot l : loot) {
+            add(l);
+        }
+    }
+
+    public void merge(LootAccumulator other) {
+        addAll(other.loot.values());
+    }
+
+    public boolean contains(Item item) {
+        return loot.containsKey(item);
+    }
+
+    public List<Loot> getLoot() {
+        return new ArrayList<>(loot.values());
+    }
+
+    public void clear() {
+        loot.clear();
+    }
+}
@@ -46,6 +46,10 @@ public class LootFactory {
         this.chance = chance;
     }
 
+    static Random getRandom() {
+        return rand;
+    }
+
     public Loot getLoot() {
         return getLoot(rand);
     }
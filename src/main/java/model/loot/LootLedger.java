@@ -0,0 +1,222 @@
+package model.loot;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import manager.Database;
+import manager.LanguageUtility;
+import manager.LootLedgerFile;
+import manager.Utility;
+import model.Currency;
+import model.item.Equipment;
+import model.item.Item;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * The saved loot of the memory with one row per item, saving an item again raises the amount of its row.
+ * Items are the same if they have the same name, type, subtype and amount, like items of the database.
+ * The value of all rows is summed up whenever a row changes, so selling the loot doesn't
+ * have to go over all rows like {@link Utility#sellLoot(java.util.Collection)}.
+ * Changes are appended to a {@link LootLedgerFile} if the ledger has one.
+ * Upgraded equipment can't be found by its name, it gets a row of its own and isn't written to the file.
+ */
+public class LootLedger {
+
+    private final LootLedgerFile file;
+    private final ObservableList<Loot> loot;
+    private final HashMap<Object, Loot> rows;
+    private final IdentityHashMap<Loot, Entry> entries;
+    private int itemValue;
+    private int coinValue;
+
+    /**
+     * The values of a row at the time it was counted.
+     */
+    private static class Entry {
+
+        private final Object key;
+        // The item in the file, the name is null if the row isn't written
+        private final String name, type, subtype;
+        private boolean found;
+        private int unitValue;
+        private boolean coin;
+
+        private Entry(Object key, String name, String type, String subtype, boolean found) {
+            this.key = key;
+            this.name = name;
+            this.type = type;
+            this.subtype = subtype;
+            this.found = found;
+        }
+    }
+
+    public LootLedger() {
+        this(null);
+    }
+
+    /**
+     * Creates a ledger with the loot of the file.
+     */
+    public LootLedger(LootLedgerFile file) {
+        this.file = file;
+        this.loot = FXCollections.observableArrayList();
+        this.rows = new HashMap<>();
+        this.entries = new IdentityHashMap<>();
+
+        if (file != null) {
+            for (LootLedgerFile.Record record : file.read()) {
+                Item found = find(record.getName(), record.getType(), record.getSubtype());
+                Item item = (found != null ? found : Database.getItem(record.getName())).copy();
+                item.setType(record.getType());
+                item.setSubtype(record.getSubtype());
+                item.setAmount(record.getItemAmount());
+
+                Loot row = new Loot(item, record.getAmount());
+                Entry entry = new Entry(getKey(record.getName(), record.getType(), record.getSubtype(),
+                        record.getItemAmount()), record.getName(), record.getType(), record.getSubtype(), found != null);
+                rows.put(entry.key, row);
+                entries.put(row, entry);
+                loot.add(row);
+                count(row, entry);
+            }
+        }
+    }
+
+    /**
+     * Adds the loot to the row of its item or to a new row with a copy of the item.
+     */
+    public void add(Loot added) {
+        Item item = added.getItem();
+        boolean upgraded = item instanceof Equipment && !((Equipment) item).getUpgrades().isEmpty();
+        Object key = upgraded ? added : getKey(item.getName(), item.getType(), item.getSubtype(), item.getAmount());
+
+        Loot row = rows.get(key);
+        Entry entry;
+        if (row == null) {
+            row = new Loot(copy(item), 0);
+            entry = new Entry(key, upgraded ? null : item.getName(), item.getType(), item.getSubtype(), true);
+            rows.put(key, row);
+            entries.put(row, entry);
+            loot.add(row);
+            count(row, entry);
+        } else {
+            entry = entries.get(row);
+        }
+
+        row.addAmount(added.getAmount());
+        add(entry, added.getAmount());
+        write(entry, item.getAmount(), added.getAmount());
+    }
+
+    /**
+     * Removes the row.
+     */
+    public void remove(Loot row) {
+        Entry entry = entries.remove(row);
+        if (entry == null) {
+            return;
+        }
+
+        rows.remove(entry.key);
+        loot.remove(row);
+        add(entry, -row.getAmount());
+        write(entry, row.getItem().getAmount(), -row.getAmount());
+    }
+
+    /**
+     * Replaces the items which weren't in the database when the ledger was read, e.g. before a database was loaded.
+     */
+    public void resolve() {
+        for (int i = 0; i < loot.size(); i++) {
+            Loot row = loot.get(i);
+            Entry entry = entries.get(row);
+            Item found = entry.found || entry.name == null ? null : find(entry.name, entry.type, entry.subtype);
+
+            if (found != null) {
+                add(entry, -row.getAmount());
+                Item item = found.copy();
+                item.setAmount(row.getItem().getAmount());
+                row.setItem(item);
+                entry.found = true;
+                count(row, entry);
+
+                // The table only notices replaced rows
+                loot.set(i, row);
+            }
+        }
+    }
+
+    /**
+     * Counts all rows again, e.g. after the language changed the name of the currency subtype.
+     */
+    public void recount() {
+        itemValue = 0;
+        coinValue = 0;
+        entries.forEach((row, entry) -> count(row, entry));
+    }
+
+    private void count(Loot row, Entry entry) {
+        Item item = row.getItem();
+        entry.unitValue = item.getCurrencyWithAmount().getCoinValue();
+        entry.coin = item.getSubtype().equalsIgnoreCase(LanguageUtility.getMessage("currency"));
+        add(entry, row.getAmount());
+    }
+
+    private void add(Entry entry, int amount) {
+        if (entry.coin) {
+            coinValue += entry.unitValue * amount;
+        } else {
+            itemValue += entry.unitValue * amount;
+        }
+    }
+
+    private void write(Entry entry, float itemAmount, int amount) {
+        if (file != null && entry.name != null && amount != 0) {
+            file.append(entry.name, entry.type, entry.subtype, itemAmount, amount);
+        }
+    }
+
+    private static Object getKey(String name, String type, String subtype, float itemAmount) {
+        return List.of(name, Objects.toString(type, ""), Objects.toString(subtype, ""), itemAmount);
+    }
+
+    /**
+     * @return the item of the database with the name, type and subtype or null
+     */
+    private static Item find(String name, String type, String subtype) {
+        return Database.itemList.stream()
+                .filter(item -> item.getName().equalsIgnoreCase(name) && Objects.equals(item.getType(), type)
+                        && Objects.equals(item.getSubtype(), subtype))
+                .findFirst().orElse(null);
+    }
+
+    /**
+     * The row keeps its own item, changing the saved item doesn't change the row.
+     */
+    private static Item copy(Item item) {
+        Item copy = item.copy();
+        copy.setAmount(item.getAmount());
+        copy.setTier(item.getTier());
+        if (item instanceof Equipment) {
+            ((Equipment) copy).getUpgrades().addAll(((Equipment) item).getUpgrades());
+        }
+        return copy;
+    }
+
+    /**
+     * @return the rows for a table, they must be changed through this ledger
+     */
+    public ObservableList<Loot> getLoot() {
+        return FXCollections.unmodifiableObservableList(loot);
+    }
+
+    /**
+     * @return the same value as {@link Utility#sellLoot(java.util.Collection)} of all rows
+     */
+    public Currency getSellValue() {
+        return new Currency(itemValue).multiply(Utility.getConfig().getFloat("loot.sell.modifier")).add(coinValue);
+    }
+}
@@ -5,57 +5,58 @@ import model.item.Item;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 
 public class LootTable {
 
     private final ArrayList<LootFactory> list;
+    // Compiled when the loot is rolled the first time after a change
+    private CompiledLootTable compiled;
 
     public LootTable() {
         this.list = new ArrayList<>();
     }
 
     public void add(String name, int amount, double chance) {
-        list.add(new LootFactory(Database.getItem(name), amount, chance));
+        add(new LootFactory(Database.getItem(name), amount, chance));
     }
 
     public void add(LootFactory factory) {
         list.add(factory);
+        compiled = null;
     }
 
     public void add(Item item, int amount, double chance) {
-        list.add(new LootFactory(item, amount, chance));
+        add(new LootFactory(item, amount, chance));
     }
 
     public void add(LootTable other) {
         this.list.addAll(other.list);
+        compiled = null;
     }
 
-    public Collection<Loot> getLoot() {
-
-        ArrayList<Loot> lootList = new ArrayList<>();
-
-        for (LootFactory factory : list) {
-            Loot loot = factory.getLoot();
-            Loot own = getLoot(factory.getItem(), lootList);
+    /**
+     * @return the factories of this table, the list can't be modified
+     */
+    public List<LootFactory> getFactories() {
+        return Collections.unmodifiableList(list);
+    }
 
-            if (own != null) {
-                own.addAmount(loot.getAmount());
-            } else {
-                if (loot.getAmount() > 0) {
-                    lootList.add(loot);
-                }
-            }
+    /**
+     * The compiled table is kept until a factory is added.
+     * Changes of the factories themselves aren't noticed.
+     *
+     * @return a table to roll the loot of this table many times
+     */
+    public CompiledLootTable compile() {
+        if (compiled == null) {
+            compiled = new CompiledLootTable(list);
         }
-
-        return lootList;
+        return compiled;
     }
 
-    private Loot getLoot(Item artifact, ArrayList<Loot> list) {
-        for (Loot l : list) {
-            if (l.getItem().equals(artifact)) {
-                return l;
-            }
-        }
-        return null;
+    public Collection<Loot> getLoot() {
+        return compile().roll(LootFactory.getRandom());
     }
 }
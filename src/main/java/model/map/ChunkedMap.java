@@ -0,0 +1,404 @@
+package model.map;
+
+import model.map.object.Footprint;
+import model.map.object.loot.LootObject;
+import model.map.object.room.Passage;
+import model.map.object.room.RoomObject;
+import model.map.object.room.corridor.Corridor;
+import model.map.object.room.corridor.CorridorCrossing;
+import ui.map.IMapCanvas;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * A map which is generated in chunks of {@link #CHUNK_SIZE} x {@link #CHUNK_SIZE} cells when they are needed.
+ * Every chunk is generated on its own with a random derived from the seed of the map and the
+ * coordinates of the chunk, so a chunk looks the same in whatever order the chunks are generated.
+ * Neighbouring chunks are connected by a corridor at a random place of their shared border.
+ * Both chunks place their half of it and the halves are connected as soon as both chunks exist.
+ * The chunks of a column are always connected and so are the chunks of the row of the entrance,
+ * the other borders only by chance, so every chunk can be reached from the entrance.
+ * Before a chunk grows, its halves are joined to the entrance or to the first half by paths
+ * of corridor crossings, so every room of the chunk is connected to all of its borders.
+ * Chunks can be generated in the background while the map is drawn, any number of threads
+ * may draw the map at the same time.
+ */
+public class ChunkedMap extends Map {
+
+    public static final int CHUNK_SIZE = 32;
+    // Chance that two neighbouring chunks are connected
+    private static final double CONNECTION_CHANCE = 0.75;
+
+    private final int chunksX, chunksZ;
+    private final boolean[] generated;
+    private final ReadWriteLock lock;
+
+    // Random and bounds of the chunk which is generated at the moment
+    private Random chunkRandom;
+    private int minX, minZ, maxX, maxZ;
+
+    public ChunkedMap(long seed, int width, int height, int depth) {
+        super(seed, width, height, depth);
+        this.chunksX = (width + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        this.chunksZ = (depth + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        this.generated = new boolean[chunksX * chunksZ];
+        this.lock = new ReentrantReadWriteLock();
+        this.chunkRandom = random;
+        this.maxX = width - 1;
+        this.maxZ = depth - 1;
+        // Every chunk adds its rooms to the graph, so it never has to be built again
+        this.roomGraph = new RoomGraph(this);
+    }
+
+    /**
+     * Generates all chunks which weren't generated yet.
+     */
+    @Override
+    public void generate() {
+        for (int chunkX = 0; chunkX < chunksX; chunkX++) {
+            for (int chunkZ = 0; chunkZ < chunksZ; chunkZ++) {
+                generateChunk(chunkX, chunkZ);
+            }
+        }
+    }
+
+    /**
+     * Generates the chunk if it wasn't generated yet.
+     *
+     * @return false if the chunk already exists or is outside of the map
+     */
+    public boolean generateChunk(int chunkX, int chunkZ) {
+        lock.writeLock().lock();
+        try {
+            if (chunkX < 0 || chunkZ < 0 || chunkX >= chunksX || chunkZ >= chunksZ || generated[chunkX * chunksZ + chunkZ]) {
+                return false;
+            }
+            generated[chunkX * chunksZ + chunkZ] = true;
+
+            if (!hasNoSpecification()) {
+                generateRoomObjects(chunkX, chunkZ);
+            }
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void generateRoomObjects(int chunkX, int chunkZ) {
+        this.minX = chunkX * CHUNK_SIZE;
+        this.minZ = chunkZ * CHUNK_SIZE;
+        this.maxX = Math.min(width, minX + CHUNK_SIZE) - 1;
+        this.maxZ = Math.min(depth, minZ + CHUNK_SIZE) - 1;
+        this.chunkRandom = new Random(getSeed(chunkX, chunkZ, 0));
+
+        try {
+            // Every connector is joined to the entrance or to the first connector, before rooms can block the way
+            List<RoomObject> joined = new ArrayList<>();
+
+            // The entrance is placed first and moved inside of its chunk
+            if (chunkX == 0 && getEntranceZ() / CHUNK_SIZE == chunkZ) {
+                addEntrance(0, 0, Math.min(getEntranceZ(), maxZ - 2));
+                if (entrance != null) {
+                    joined.add(entrance);
+                }
+            }
+
+            List<RoomObject> chunkConnectors = new ArrayList<>();
+            addConnector(chunkX, chunkZ, true, true, chunkConnectors);
+            addConnector(chunkX - 1, chunkZ, true, false, chunkConnectors);
+            addConnector(chunkX, chunkZ, false, true, chunkConnectors);
+            addConnector(chunkX, chunkZ - 1, false, false, chunkConnectors);
+
+            if (joined.isEmpty() && !chunkConnectors.isEmpty()) {
+                joined.add(chunkConnectors.get(0));
+            }
+            for (Iterator<RoomObject> iterator = chunkConnectors.iterator(); iterator.hasNext(); ) {
+                RoomObject connector = iterator.next();
+                if (!joined.contains(connector) && !join(connector, joined)) {
+                    roomMap.deleteMapObject(connector);
+                    iterator.remove();
+                }
+            }
+            for (RoomObject room : joined) {
+                if (room.getPossibleExtensionCount() > 0) {
+                    addToFrontier(room);
+                }
+            }
+
+            expandFrontier();
+            cutDeadEnds(getChunkRoomObjects());
+            List<RoomObject> rooms = getChunkRoomObjects();
+            generateLootObjects(rooms);
+
+            for (RoomObject connector : chunkConnectors) {
+                connect(connector);
+            }
+
+            List<LootObject> loot = new ArrayList<>();
+            lootMap.forEachMapObject(minX, 0, minZ, maxX, height - 1, maxZ, loot::add);
+            roomGraph.add(rooms, loot);
+        } finally {
+            this.chunkRandom = random;
+            this.minX = 0;
+            this.minZ = 0;
+            this.maxX = width - 1;
+            this.maxZ = depth - 1;
+        }
+    }
+
+    public boolean isGenerated(int chunkX, int chunkZ) {
+        lock.readLock().lock();
+        try {
+            return chunkX >= 0 && chunkZ >= 0 && chunkX < chunksX && chunkZ < chunksZ && generated[chunkX * chunksZ + chunkZ];
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void draw(IMapCanvas canvas) {
+        lock.readLock().lock();
+        try {
+            super.draw(canvas);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void draw(IMapCanvas canvas, int layer, int fromX, int fromZ, int toX, int toZ) {
+        lock.readLock().lock();
+        try {
+            super.draw(canvas, layer, fromX, fromZ, toX, toZ);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void drawHeatMap(IMapCanvas canvas, HeatMap heatMap, int layer, int fromX, int fromZ, int toX, int toZ) {
+        lock.readLock().lock();
+        try {
+            super.drawHeatMap(canvas, heatMap, layer, fromX, fromZ, toX, toZ);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Random getRandom() {
+        return chunkRandom;
+    }
+
+    public int getChunksX() {
+        return chunksX;
+    }
+
+    public int getChunksZ() {
+        return chunksZ;
+    }
+
+    @Override
+    protected boolean canUse(Point point) {
+        return minX <= point.getX() && point.getX() <= maxX && minZ <= point.getZ() && point.getZ() <= maxZ;
+    }
+
+    @Override
+    protected boolean canPlace(RoomObject object, RotationPoint position) {
+        Footprint footprint = object.getFootprint(position.getRotation());
+        return minX <= position.getX() + footprint.getMinX() && position.getX() + footprint.getMaxX() <= maxX
+                && minZ <= position.getZ() + footprint.getMinZ() && position.getZ() + footprint.getMaxZ() <= maxZ;
+    }
+
+    /**
+     * Places the half of the corridor between two chunks which lies inside of the current chunk.
+     * The place of the corridor only depends on the border, so both chunks find the same place.
+     * All halves lie on the layer of the entrance, so they can be joined without stairs.
+     *
+     * @param alongX true for the border to the chunk in x direction, false for the one in z direction
+     * @param first  true if the current chunk is the chunk with the given coordinates,
+     *               false if it is its neighbour
+     */
+    private void addConnector(int chunkX, int chunkZ, boolean alongX, boolean first, List<RoomObject> chunkConnectors) {
+        int otherX = alongX ? chunkX + 1 : chunkX;
+        int otherZ = alongX ? chunkZ : chunkZ + 1;
+        if (chunkX < 0 || chunkZ < 0 || otherX >= chunksX || otherZ >= chunksZ) {
+            return;
+        }
+
+        Random edgeRandom = new Random(getSeed(chunkX, chunkZ, alongX ? 1 : 2));
+        int length = alongX ? Math.min(depth, (chunkZ + 1) * CHUNK_SIZE) - chunkZ * CHUNK_SIZE
+                : Math.min(width, (chunkX + 1) * CHUNK_SIZE) - chunkX * CHUNK_SIZE;
+        // The columns and the row of the entrance span all chunks
+        boolean required = !alongX || chunkZ == getEntranceZ() / CHUNK_SIZE;
+        if (edgeRandom.nextDouble() >= CONNECTION_CHANCE && !required) {
+            return;
+        }
+
+        // Corners are avoided, so the connectors of different borders never collide, short borders are met in the middle
+        int offset = length < 5 ? length / 2 : 2 + edgeRandom.nextInt(length - 4);
+        int border = (alongX ? otherX : otherZ) * CHUNK_SIZE - (first ? 1 : 0);
+
+        RoomObject connector = new Connector(this);
+        boolean added = alongX
+                ? roomMap.addMapObject(connector, border, 0, chunkZ * CHUNK_SIZE + offset, 0)
+                : roomMap.addMapObject(connector, chunkX * CHUNK_SIZE + offset, 0, border, 1);
+
+        if (added) {
+            chunkConnectors.add(connector);
+        }
+    }
+
+    /**
+     * Joins the connector to the joined room objects by a shortest path of corridor crossings on its layer.
+     * The path leads from the cell in front of the connector to a free passage of a joined room object.
+     * The crossings of the path are joined as well, their other passages are left for the rooms of the chunk.
+     *
+     * @return false if the path is blocked
+     */
+    private boolean join(RoomObject connector, List<RoomObject> joined) {
+        Point start = null;
+        for (Passage passage : connector.getPossibleExtensions()) {
+            if (canUse(passage.getAbsoluteEntryPosition())) {
+                start = passage.getAbsoluteEntryPosition();
+            }
+        }
+        if (start == null || !roomMap.isEmpty(start)) {
+            return false;
+        }
+
+        // Cells in front of the free passages of the joined room objects
+        HashMap<Integer, RoomObject> targets = new HashMap<>();
+        for (RoomObject room : joined) {
+            for (Passage passage : room.getPossibleExtensions()) {
+                Point entry = passage.getAbsoluteEntryPosition();
+                if (entry.getY() == start.getY() && canUse(entry) && roomMap.isEmpty(entry)) {
+                    targets.put(getChunkCell(entry.getX(), entry.getZ()), room);
+                }
+            }
+        }
+
+        int chunkDepth = maxZ - minZ + 1;
+        int[] previous = new int[(maxX - minX + 1) * chunkDepth];
+        Arrays.fill(previous, -2);
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        int startCell = getChunkCell(start.getX(), start.getZ());
+        previous[startCell] = -1;
+        queue.add(startCell);
+
+        while (!queue.isEmpty()) {
+            int cell = queue.poll();
+
+            if (targets.containsKey(cell)) {
+                // The path is laid backwards from the joined room object to the connector
+                RoomObject last = targets.get(cell);
+                for (; cell >= 0; cell = previous[cell]) {
+                    RoomObject crossing = new CorridorCrossing(this);
+                    roomMap.addMapObject(crossing, minX + cell / chunkDepth, start.getY(), minZ + cell % chunkDepth, 0);
+                    link(last, crossing);
+                    joined.add(crossing);
+                    last = crossing;
+                }
+                link(last, connector);
+                joined.add(connector);
+                return true;
+            }
+
+            int x = minX + cell / chunkDepth;
+            int z = minZ + cell % chunkDepth;
+            int[][] neighbors = {{x + 1, z}, {x - 1, z}, {x, z + 1}, {x, z - 1}};
+            for (int[] neighbor : neighbors) {
+                if (minX <= neighbor[0] && neighbor[0] <= maxX && minZ <= neighbor[1] && neighbor[1] <= maxZ
+                        && roomMap.isEmpty(neighbor[0], start.getY(), neighbor[1])) {
+                    int next = getChunkCell(neighbor[0], neighbor[1]);
+                    if (previous[next] == -2) {
+                        previous[next] = cell;
+                        queue.add(next);
+                    }
+                }
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Connects the connector with the connector of the neighbouring chunk, if the neighbour exists.
+     */
+    private void connect(RoomObject connector) {
+        for (Passage passage : connector.getPossibleExtensions()) {
+            RoomObject partner = roomMap.get(passage.getAbsoluteEntryPosition());
+            if (partner instanceof Connector) {
+                link(connector, partner);
+            }
+        }
+    }
+
+    /**
+     * Connects two free passages of the room objects which face each other.
+     */
+    private static void link(RoomObject room, RoomObject other) {
+        for (Passage passage : room.getPossibleExtensions()) {
+            for (Passage back : other.getPossibleEntrancePoints()) {
+                if (passage.isCompatible(back)
+                        && isSameCell(passage.getAbsoluteEntryPosition(), back.getAbsolutePosition())
+                        && isSameCell(back.getAbsoluteEntryPosition(), passage.getAbsolutePosition())) {
+                    passage.setDestination(other);
+                    back.setDestination(room);
+                    return;
+                }
+            }
+        }
+    }
+
+    private static boolean isSameCell(Point point, Point other) {
+        return point.getX() == other.getX() && point.getY() == other.getY() && point.getZ() == other.getZ();
+    }
+
+    private int getChunkCell(int x, int z) {
+        return (x - minX) * (maxZ - minZ + 1) + (z - minZ);
+    }
+
+    private int getEntranceZ() {
+        return Math.max(0, getDepth() / 2 - 2);
+    }
+
+    private List<RoomObject> getChunkRoomObjects() {
+        List<RoomObject> rooms = new ArrayList<>();
+        roomMap.forEachMapObject(minX, 0, minZ, maxX, height - 1, maxZ, rooms::add);
+        return rooms;
+    }
+
+    private long getSeed(int chunkX, int chunkZ, int salt) {
+        return mix(mix(mix(seed + salt) + chunkX) + chunkZ);
+    }
+
+    /**
+     * Scrambles the bits, so neighbouring chunks get unrelated seeds.
+     */
+    private static long mix(long value) {
+        value = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+        value = (value ^ (value >>> 27)) * 0x94D049BB133111EBL;
+        return value ^ (value >>> 31);
+    }
+
+    /**
+     * The half of the corridor between two chunks. It is never a dead end,
+     * the chunk behind it may only be generated later.
+     */
+    private static class Connector extends Corridor {
+
+        Connector(SeededRandom random) {
+            super(random, 1);
+            this.deadEnd = false;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package model.map;
+
+import javafx.beans.property.ReadOnlyStringProperty;
+import manager.LanguageUtility;
+import model.interfaces.WithToStringProperty;
+
+/**
+ * The values of a {@link RoomGraph} which can be shown as colors over the rooms of a map.
+ */
+public enum HeatMap implements WithToStringProperty {
+    none, chestValue, distance;
+
+    @Override
+    public String toString() {
+        return toStringProperty().get();
+    }
+
+    @Override
+    public ReadOnlyStringProperty toStringProperty() {
+        return LanguageUtility.getMessageProperty("map.heat." + super.toString());
+    }
+}
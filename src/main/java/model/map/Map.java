@@ -1,7 +1,9 @@
 package model.map;
 
+import javafx.scene.paint.Color;
 import model.loot.Loot;
 import model.loot.LootFactory;
+import model.map.object.Footprint;
 import model.map.object.MapObjectMap;
 import model.map.object.loot.LootObject;
 import model.map.object.room.Lootable;
@@ -10,22 +12,31 @@ import model.map.object.room.RoomObject;
 import model.map.object.room.room.Entrance;
 import model.map.specification.CryptSpecification;
 import model.map.specification.MapSpecification;
+import model.map.specification.texture.TextureHandler;
 import ui.map.IMapCanvas;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
 public class Map implements SeededRandom {
 
+    private static final int MAX_FAILED_TRIES = 1000;
+    private static final double HEAT_OPACITY = 0.5;
+
+    protected final long seed;
     protected final Random random;
 
     protected MapSpecification specification;
     protected final int width, depth, height;
     protected final MapObjectMap<RoomObject> roomMap;
     protected final MapObjectMap<LootObject> lootMap;
-    protected final ArrayList<RoomObject> possibleExtensions;
+    protected RoomObject entrance;
+    protected RoomGraph roomGraph;
+    protected RoomObject[] frontier;
+    protected int[] failedTries;
+    protected int frontierSize;
 
     public Map(long seed, int width, int height, int depth) {
+        this.seed = seed;
         this.random = new Random(seed);
         this.specification = null;
         this.width = width;
@@ -33,7 +44,9 @@ public class Map implements SeededRandom {
         this.height = height;
         this.roomMap = new MapObjectMap<>(width, height, depth);
         this.lootMap = new MapObjectMap<>(width, height, depth);
-        this.possibleExtensions = new ArrayList<>();
+        this.frontier = new RoomObject[16];
+        this.failedTries = new int[16];
+        this.frontierSize = 0;
     }
 
     public Map(long seed) {
@@ -54,10 +67,58 @@ public class Map implements SeededRandom {
         }
     }
 
+    /**
+     * Draws only the objects which intersect the region of the layer.
+     * The region is widened by the largest object, objects of cells around it may reach into it.
+     */
+    public void draw(IMapCanvas canvas, int layer, int fromX, int fromZ, int toX, int toZ) {
+        if (hasNoSpecification()) {
+            return;
+        }
+
+        int padding = Math.max(roomMap.getMaxExtent(), lootMap.getMaxExtent());
+        fromX -= padding;
+        fromZ -= padding;
+        toX += padding;
+        toZ += padding;
+
+        TextureHandler textureHandler = specification.getTextureHandler();
+        roomMap.forEachMapObject(fromX, layer, fromZ, toX, layer, toZ, object -> object.draw(canvas, textureHandler));
+        lootMap.forEachMapObject(fromX, layer, fromZ, toX, layer, toZ, object -> object.draw(canvas, textureHandler));
+    }
+
+    /**
+     * Colors the cells of the rooms which intersect the region of the layer by their value in the room graph,
+     * from blue for the lowest to red for the highest value.
+     */
+    public void drawHeatMap(IMapCanvas canvas, HeatMap heatMap, int layer, int fromX, int fromZ, int toX, int toZ) {
+        if (heatMap == null || heatMap == HeatMap.none) {
+            return;
+        }
+
+        RoomGraph graph = getRoomGraph();
+        roomMap.forEachMapObject(fromX, layer, fromZ, toX, layer, toZ, room -> {
+            double heat = graph.getHeat(room, heatMap);
+            if (heat < 0) {
+                return;
+            }
+
+            Color color = Color.hsb(240 * (1 - heat), 1, 1, HEAT_OPACITY);
+            Footprint footprint = room.getFootprint(room.getRotation());
+            for (int cell = 0; cell < footprint.size(); cell++) {
+                if (room.getY() + footprint.getY(cell) == layer) {
+                    canvas.drawRectangle(room.getX() + footprint.getX(cell), layer, room.getZ() + footprint.getZ(cell),
+                            1, 1, 0, color);
+                }
+            }
+        });
+    }
+
     public void generate() {
         generateRoomObjects();
-        cutDeadEnds();
-        generateLootObjects();
+        cutDeadEnds(roomMap.getAllMapObjects());
+        generateLootObjects(roomMap.getAllMapObjects());
+        this.roomGraph = null;
     }
 
     protected void generateRoomObjects() {
@@ -65,143 +126,180 @@ public class Map implements SeededRandom {
             return;
         }
 
-        HashMap<RoomObject, Integer> failedTries = new HashMap<>();
+        addEntrance(0, 0, getDepth() / 2 - 2);
+        expandFrontier();
+    }
 
+    protected void addEntrance(int x, int y, int z) {
         RoomObject entrance = new Entrance(this);
-        if (roomMap.addMapObject(entrance, 0, 0, getDepth() / 2 - 2, 0)) {
-            if (!entrance.getPossibleExtensions().isEmpty()) {
-                this.possibleExtensions.add(entrance);
+        if (roomMap.addMapObject(entrance, x, y, z, 0)) {
+            this.entrance = entrance;
+            if (entrance.getPossibleExtensionCount() > 0) {
+                addToFrontier(entrance);
             }
         }
+    }
 
-        while (!possibleExtensions.isEmpty()) {
-            RoomObject object = possibleExtensions.get(random.nextInt(possibleExtensions.size()));
-            possibleExtensions.remove(object);
+    /**
+     * Adds new objects to the open exits of the frontier until the frontier is empty.
+     */
+    protected void expandFrontier() {
+        Random random = getRandom();
 
-            List<Passage> freeExtensions = object.getPossibleExtensions();
-            //Check if there is a place where a new MapObject can be generated
-            if (!freeExtensions.isEmpty()) {
-                //Select a random exit of the extensions
-                Passage exit = freeExtensions.get(random.nextInt(freeExtensions.size()));
-                RotationPoint exitPoint = exit.getAbsoluteEntryPosition();
-                freeExtensions.remove(exit);
-
-                //Get possible next MapObject
-                Optional<RoomObject> optNext = object.getFollowingRoomObject(specification, exit.getWidth());
-                if (optNext.isPresent()) {
-                    RoomObject next = optNext.get();
-                    //Get possible entry point of the new MapObject
-                    List<Passage> entries = next.getPossibleEntrancePoints().stream()
-                            .filter(p -> p.isCompatible(exit)).collect(Collectors.toList());
-
-                    if (!entries.isEmpty()) {
-                        Passage entry = entries.get(random.nextInt(entries.size()));
-                        RotationPoint entryPoint = entry.getRelativePositionToMapObject();
-
-                        //Rotate new MapObject so it matches the rotation of the exit
-                        int rotation = 0;
-                        if (entryPoint.getRotation() != exitPoint.getRotation()) {
-                            rotation = exitPoint.getRotation() - entryPoint.getRotation();
-                            next.setRotation(rotation);
-                            entryPoint = entry.getRelativePositionToMapObject();
-                        }
-
-                        if (roomMap.addMapObject(next, exitPoint.sub(entryPoint).withRotation(rotation))) {
-                            exit.setDestination(next);
-                            entry.setDestination(object);
-                            failedTries.put(object, 0);
-
-                            if (!next.getPossibleExtensions().isEmpty()) {
-                                this.possibleExtensions.add(next);
-                            }
-                        } else {
-                            failedTries.put(object, failedTries.getOrDefault(object, 0) + 1);
-                        }
-                    }
+        while (frontierSize > 0) {
+            int index = random.nextInt(frontierSize);
+            RoomObject object = frontier[index];
 
-                    //Add it back to the list if it can still be extended and hasn't failed too often
-                    if (!freeExtensions.isEmpty() && failedTries.getOrDefault(object, 0) < 1000) {
-                        possibleExtensions.add(object);
-                    }
-                }
+            int freeExtensions = object.getPossibleExtensionCount();
+            //Check if there is a place where a new MapObject can be generated
+            if (freeExtensions == 0) {
+                removeFromFrontier(index);
+                continue;
             }
-        }
 
-        // If an open exit points randomly on an open entry, connect those
+            //Select a random exit of the extensions
+            Passage exit = object.getPossibleExtension(random.nextInt(freeExtensions));
+            RotationPoint exitPoint = exit.getAbsoluteEntryPosition();
 
-    }
+            //Every object uses the cell of its entry, so a used cell blocks the exit for good
+            boolean blocked = !roomMap.isEmpty(exitPoint) || !canUse(exitPoint);
+            if (blocked) {
+                object.blockPassage(exit);
 
-    protected void cutDeadEnds() {
-        Queue<RoomObject> queue = new LinkedList<>();
-        Collection<RoomObject> leaves = new ArrayList<>();
-        HashMap<RoomObject, RoomObject> predecessor = new HashMap<>();
-        HashMap<RoomObject, Boolean> visited = new HashMap<>();
-        HashMap<RoomObject, Boolean> listed = new HashMap<>();
+                //Without an open exit it only fails until it is dropped, which doesn't affect the others
+                if (!object.hasOpenExtensions()) {
+                    removeFromFrontier(index);
+                    continue;
+                }
+            }
 
-        RoomObject first = roomMap.getAllMapObjects().stream().findFirst().get(); //RoomObjects are added in Order (maybe better solution needed)
-        queue.add(first);
-        listed.put(first, true);
+            //Get possible next MapObject
+            Optional<RoomObject> optNext = object.getFollowingRoomObject(specification, exit.getWidth());
+            if (!optNext.isPresent()) {
+                removeFromFrontier(index);
+                continue;
+            }
 
-        while (!queue.isEmpty()) {
-            RoomObject current = queue.poll();
-            visited.put(current, true);
+            RoomObject next = optNext.get();
+            //Get possible entry point of the new MapObject
+            int entries = next.getCompatibleEntrancePointCount(exit);
+
+            if (entries > 0 && blocked) {
+                //Counts like a failed placement, so crowded objects are tried as often as before
+                failedTries[index]++;
+            } else if (entries > 0) {
+                Passage entry = next.getCompatibleEntrancePoint(exit, random.nextInt(entries));
+                RotationPoint entryPoint = entry.getRelativePositionToMapObject();
+
+                //Rotate new MapObject so it matches the rotation of the exit
+                int rotation = 0;
+                if (entryPoint.getRotation() != exitPoint.getRotation()) {
+                    rotation = exitPoint.getRotation() - entryPoint.getRotation();
+                    next.setRotation(rotation);
+                    entryPoint = entry.getRelativePositionToMapObject();
+                }
 
-            Collection<RoomObject> neighbors = current.getNeighborRooms().stream()
-                    .filter(room -> room != predecessor.getOrDefault(current, null))
-                    .collect(Collectors.toList());
+                RotationPoint position = exitPoint.sub(entryPoint).withRotation(rotation);
+                if (canPlace(next, position) && roomMap.addMapObject(next, position)) {
+                    exit.setDestination(next);
+                    entry.setDestination(object);
+                    failedTries[index] = 0;
 
-            if (neighbors.isEmpty() && current.isDeadEnd()) {
-                leaves.add(current);
+                    if (next.getPossibleExtensionCount() > 0) {
+                        addToFrontier(next);
+                    }
+                } else {
+                    failedTries[index]++;
+                }
             }
 
-            for (RoomObject next : neighbors) {
-
-                if (!visited.getOrDefault(next, false) && !listed.getOrDefault(next, false)) {
-                    queue.add(next);
-                    listed.put(next, true);
-                    predecessor.put(next, current);
-                }
+            //Keep it in the frontier if another exit is left and it hasn't failed too often
+            if (freeExtensions < 2 || failedTries[index] >= MAX_FAILED_TRIES) {
+                removeFromFrontier(index);
             }
         }
 
-        HashSet<RoomObject> deadEnds = new HashSet<>();
+        // If an open exit points randomly on an open entry, connect those
 
-        for (RoomObject leave : leaves) {
-            markDeadEnds(leave, predecessor, deadEnds);
-        }
-        for (RoomObject deadEnd : deadEnds) {
-            roomMap.deleteMapObject(deadEnd);
-        }
+    }
 
-        if (!deadEnds.isEmpty()) {
-            cutDeadEnds();
+    /**
+     * @return false if the generation must not use the cell, even if it is empty
+     */
+    protected boolean canUse(Point point) {
+        return true;
+    }
+
+    /**
+     * @return false if the generation must not place the object at the position, even if there is space
+     */
+    protected boolean canPlace(RoomObject object, RotationPoint position) {
+        return true;
+    }
+
+    protected void addToFrontier(RoomObject object) {
+        if (frontierSize == frontier.length) {
+            frontier = Arrays.copyOf(frontier, frontierSize * 2);
+            failedTries = Arrays.copyOf(failedTries, frontierSize * 2);
         }
+        frontier[frontierSize] = object;
+        failedTries[frontierSize] = 0;
+        frontierSize++;
     }
 
-    private void markDeadEnds(RoomObject deadEnd, HashMap<RoomObject, RoomObject> predecessor, Collection<RoomObject> deadEnds) {
+    /**
+     * Replaces the entry with the last one, the order of the frontier is irrelevant.
+     */
+    private void removeFromFrontier(int index) {
+        frontierSize--;
+        frontier[index] = frontier[frontierSize];
+        failedTries[index] = failedTries[frontierSize];
+        frontier[frontierSize] = null;
+    }
+
+    /**
+     * Removes all dead ends which lead to at most one other room.
+     * Removing a dead end lowers the degree of its neighbor,
+     * so the neighbor is checked again as soon as its degree drops.
+     */
+    protected void cutDeadEnds(Collection<RoomObject> rooms) {
+        ArrayDeque<RoomObject> deadEnds = new ArrayDeque<>();
+
+        for (RoomObject room : rooms) {
+            if (isRemovableDeadEnd(room)) {
+                deadEnds.add(room);
+            }
+        }
 
-        if (deadEnd.isDeadEnd() && deadEnd.getNeighborRooms().size() < 3) {
-            deadEnds.add(deadEnd);
+        while (!deadEnds.isEmpty()) {
+            RoomObject deadEnd = deadEnds.poll();
 
-            if (predecessor.get(deadEnd) != null) {
-                markDeadEnds(predecessor.get(deadEnd), predecessor, deadEnds);
+            // A room can be queued twice, the second delete simply fails
+            if (roomMap.deleteMapObject(deadEnd)) {
+                // The passages of the deleted room still point to its former neighbors
+                for (RoomObject neighbor : deadEnd.getNeighborRooms()) {
+                    if (isRemovableDeadEnd(neighbor)) {
+                        deadEnds.add(neighbor);
+                    }
+                }
             }
         }
     }
 
-    protected void generateLootObjects() {
+    protected boolean isRemovableDeadEnd(RoomObject room) {
+        return room.isDeadEnd() && room.getDegree() < 2;
+    }
+
+    protected void generateLootObjects(Collection<RoomObject> rooms) {
         if (hasNoSpecification()) {
             return;
         }
 
-        for (RoomObject roomObject : roomMap.getAllMapObjects()) {
+        for (RoomObject roomObject : rooms) {
             if (roomObject instanceof Lootable) {
                 for (LootObject lootObject : ((Lootable) roomObject).generateLoot()) {
 
-                    Collection<Loot> loot = specification.getLoot(lootObject.getContainer()).stream()
-                            .map(factory -> factory.getLoot(random))
-                            .filter(item -> item.getAmount() > 0)
-                            .collect(Collectors.toList());
+                    Collection<Loot> loot = specification.getLoot(lootObject.getContainer()).roll(getRandom());
 
                     if (!loot.isEmpty() &&
                             lootMap.addMapObject(lootObject,
@@ -213,6 +311,10 @@ public class Map implements SeededRandom {
         }
     }
 
+    public long getSeed() {
+        return seed;
+    }
+
     public int getWidth() {
         return width;
     }
@@ -237,6 +339,27 @@ public class Map implements SeededRandom {
         return roomMap.getAllMapObjects();
     }
 
+    public Collection<LootObject> getLootObjects() {
+        return lootMap.getAllMapObjects();
+    }
+
+    /**
+     * @return the distances and chest values of the rooms, built after the map got generated
+     */
+    public RoomGraph getRoomGraph() {
+        if (roomGraph == null) {
+            roomGraph = new RoomGraph(this);
+        }
+        return roomGraph;
+    }
+
+    /**
+     * @return the entrance of the map or null if the map wasn't generated
+     */
+    public RoomObject getEntrance() {
+        return entrance;
+    }
+
     public void setSpecification(MapSpecification specification) {
         this.specification = specification;
     }
@@ -245,6 +368,13 @@ public class Map implements SeededRandom {
         return specification == null;
     }
 
+    /**
+     * @return the textures used to draw the map or null if it has no specification
+     */
+    public TextureHandler getTextureHandler() {
+        return hasNoSpecification() ? null : specification.getTextureHandler();
+    }
+
     @Override
     public Random getRandom() {
         return random;
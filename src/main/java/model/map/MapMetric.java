@@ -0,0 +1,22 @@
+package model.map;
+
+import javafx.beans.property.ReadOnlyStringProperty;
+import manager.LanguageUtility;
+import model.interfaces.WithToStringProperty;
+
+/**
+ * The metrics of a {@link MapScore} to compare generated maps.
+ */
+public enum MapMetric implements WithToStringProperty {
+    rooms, loops, longestPath, chestValue;
+
+    @Override
+    public String toString() {
+        return toStringProperty().get();
+    }
+
+    @Override
+    public ReadOnlyStringProperty toStringProperty() {
+        return LanguageUtility.getMessageProperty("map.metric." + super.toString());
+    }
+}
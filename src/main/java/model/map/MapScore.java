@@ -0,0 +1,86 @@
+package model.map;
+
+import model.map.object.room.RoomObject;
+import model.map.object.room.room.Room;
+
+/**
+ * The metrics of a generated map. A score only keeps the seed of the map,
+ * the map itself can be generated again from it.
+ */
+public class MapScore {
+
+    private final long seed;
+    private final int rooms;
+    private final int loops;
+    private final int longestPath;
+    private final int chestValue;
+
+    public MapScore(long seed, int rooms, int loops, int longestPath, int chestValue) {
+        this.seed = seed;
+        this.rooms = rooms;
+        this.loops = loops;
+        this.longestPath = longestPath;
+        this.chestValue = chestValue;
+    }
+
+    /**
+     * @param seed of the map
+     * @param map  a generated map
+     * @return the metrics of the map
+     */
+    public static MapScore of(long seed, Map map) {
+        int rooms = 0;
+        for (RoomObject room : map.getRoomObjects()) {
+            if (room instanceof Room) {
+                rooms++;
+            }
+        }
+
+        RoomGraph graph = map.getRoomGraph();
+        int loops = graph.getPassageCount() - graph.getRoomCount() + graph.getComponentCount();
+
+        return new MapScore(seed, rooms, loops, graph.getMaxDistance(), graph.getTotalChestValue());
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public int getRooms() {
+        return rooms;
+    }
+
+    /**
+     * @return the amount of independent circles in the passages
+     */
+    public int getLoops() {
+        return loops;
+    }
+
+    /**
+     * @return the largest amount of steps from the entrance to another room object
+     */
+    public int getLongestPath() {
+        return longestPath;
+    }
+
+    /**
+     * @return the selling price of all chests in copper coins
+     */
+    public int getChestValue() {
+        return chestValue;
+    }
+
+    public int get(MapMetric metric) {
+        switch (metric) {
+            case loops:
+                return loops;
+            case longestPath:
+                return longestPath;
+            case chestValue:
+                return chestValue;
+            default:
+                return rooms;
+        }
+    }
+}
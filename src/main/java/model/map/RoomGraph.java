@@ -0,0 +1,259 @@
+package model.map;
+
+import manager.Utility;
+import model.map.object.loot.LootObject;
+import model.map.object.room.RoomObject;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+
+/**
+ * The room objects of a map and their passages as a graph with the distance of every room from the entrance
+ * and the selling price of the chests in every room.
+ * Every room gets an index, the passages are stored as arrays of indices, so an analysis only touches arrays.
+ * New rooms can be added after the graph was built, e.g. a new chunk of a {@link ChunkedMap},
+ * then only the distances which got shorter are updated.
+ */
+public class RoomGraph {
+
+    private static final int UNREACHABLE = -1;
+
+    private final Map map;
+    private final IdentityHashMap<RoomObject, Integer> indices;
+    private final ArrayList<RoomObject> rooms;
+
+    // Adjacency as linked lists in arrays: the first edge of every room, the next edge and the target of every edge
+    private int[] firstEdge, nextEdge, edgeTarget;
+    private int edgeCount;
+
+    private int[] distances;
+    private int[] chestValues;
+    // Union find over the rooms to count the separate parts of the map
+    private int[] components;
+    private int componentCount;
+    private int maxDistance, maxChestValue, totalChestValue;
+
+    public RoomGraph(Map map) {
+        this.map = map;
+        this.indices = new IdentityHashMap<>();
+        this.rooms = new ArrayList<>();
+        this.firstEdge = new int[16];
+        this.nextEdge = new int[16];
+        this.edgeTarget = new int[16];
+        this.distances = new int[16];
+        this.chestValues = new int[16];
+        this.components = new int[16];
+
+        add(map.getRoomObjects(), map.getLootObjects());
+    }
+
+    /**
+     * Adds rooms which were placed after the graph was built together with their loot.
+     * Passages from the new rooms to rooms of the graph are added in both directions.
+     * Runs in linear time of the new rooms and the rooms which got closer to the entrance.
+     */
+    public void add(Collection<RoomObject> newRooms, Collection<LootObject> newLoot) {
+        int first = rooms.size();
+        for (RoomObject room : newRooms) {
+            if (!indices.containsKey(room)) {
+                addRoom(room);
+            }
+        }
+
+        List<Integer> changed = new ArrayList<>();
+        for (int index = first; index < rooms.size(); index++) {
+            for (RoomObject neighbor : rooms.get(index).getNeighborRooms()) {
+                Integer target = indices.get(neighbor);
+                if (target == null) {
+                    continue;
+                }
+
+                addEdge(index, target);
+                if (target < first) {
+                    // The old room didn't know the new one yet
+                    addEdge(target, index);
+                    changed.add(target);
+                }
+                union(index, target);
+            }
+        }
+
+        RoomObject entrance = map.getEntrance();
+        Integer start = entrance != null ? indices.get(entrance) : null;
+        if (start != null && distances[start] == UNREACHABLE) {
+            distances[start] = 0;
+            changed.add(start);
+        }
+        updateDistances(changed);
+
+        for (LootObject lootObject : newLoot) {
+            Integer index = lootObject.getParent() instanceof RoomObject ? indices.get(lootObject.getParent()) : null;
+            if (index != null) {
+                int value = Utility.sellLoot(lootObject.getLoot()).getCoinValue();
+                chestValues[index] += value;
+                totalChestValue += value;
+                maxChestValue = Math.max(maxChestValue, chestValues[index]);
+            }
+        }
+    }
+
+    private void addRoom(RoomObject room) {
+        int index = rooms.size();
+        if (index == firstEdge.length) {
+            int length = index * 2;
+            firstEdge = Arrays.copyOf(firstEdge, length);
+            distances = Arrays.copyOf(distances, length);
+            chestValues = Arrays.copyOf(chestValues, length);
+            components = Arrays.copyOf(components, length);
+        }
+
+        indices.put(room, index);
+        rooms.add(room);
+        firstEdge[index] = UNREACHABLE;
+        distances[index] = UNREACHABLE;
+        chestValues[index] = 0;
+        components[index] = index;
+        componentCount++;
+    }
+
+    private void addEdge(int from, int to) {
+        if (edgeCount == edgeTarget.length) {
+            nextEdge = Arrays.copyOf(nextEdge, edgeCount * 2);
+            edgeTarget = Arrays.copyOf(edgeTarget, edgeCount * 2);
+        }
+
+        edgeTarget[edgeCount] = to;
+        nextEdge[edgeCount] = firstEdge[from];
+        firstEdge[from] = edgeCount;
+        edgeCount++;
+    }
+
+    /**
+     * Breadth first search from the rooms whose neighbors may have gotten closer to the entrance.
+     * The start rooms are visited in the order of their distance, so a room is rarely visited twice.
+     */
+    private void updateDistances(List<Integer> starts) {
+        starts.removeIf(index -> distances[index] == UNREACHABLE);
+        starts.sort((a, b) -> Integer.compare(distances[a], distances[b]));
+
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        boolean shortened = false;
+        int next = 0;
+        while (next < starts.size() || !queue.isEmpty()) {
+            int current;
+            if (queue.isEmpty() || (next < starts.size() && distances[starts.get(next)] <= distances[queue.peek()])) {
+                current = starts.get(next++);
+            } else {
+                current = queue.poll();
+            }
+
+            int distance = distances[current] + 1;
+            for (int edge = firstEdge[current]; edge != UNREACHABLE; edge = nextEdge[edge]) {
+                int target = edgeTarget[edge];
+                if (distances[target] == UNREACHABLE || distance < distances[target]) {
+                    shortened |= distances[target] != UNREACHABLE;
+                    distances[target] = distance;
+                    maxDistance = Math.max(maxDistance, distance);
+                    queue.add(target);
+                }
+            }
+        }
+
+        // A shortcut may have shortened the longest path
+        if (shortened) {
+            maxDistance = 0;
+            for (int index = 0; index < rooms.size(); index++) {
+                maxDistance = Math.max(maxDistance, distances[index]);
+            }
+        }
+    }
+
+    private int find(int index) {
+        while (components[index] != index) {
+            components[index] = components[components[index]];
+            index = components[index];
+        }
+        return index;
+    }
+
+    private void union(int a, int b) {
+        int rootA = find(a);
+        int rootB = find(b);
+        if (rootA != rootB) {
+            components[rootA] = rootB;
+            componentCount--;
+        }
+    }
+
+    public int getRoomCount() {
+        return rooms.size();
+    }
+
+    /**
+     * @return the amount of passages between two rooms
+     */
+    public int getPassageCount() {
+        return edgeCount / 2;
+    }
+
+    /**
+     * @return the amount of parts of the map which aren't connected to each other
+     */
+    public int getComponentCount() {
+        return componentCount;
+    }
+
+    /**
+     * @return the least amount of steps from the entrance to the room or -1 if it can't be reached
+     */
+    public int getDistance(RoomObject room) {
+        Integer index = indices.get(room);
+        return index != null ? distances[index] : UNREACHABLE;
+    }
+
+    /**
+     * @return the largest distance of a room from the entrance
+     */
+    public int getMaxDistance() {
+        return maxDistance;
+    }
+
+    /**
+     * @return the selling price of all chests in the room in copper coins
+     */
+    public int getChestValue(RoomObject room) {
+        Integer index = indices.get(room);
+        return index != null ? chestValues[index] : 0;
+    }
+
+    public int getMaxChestValue() {
+        return maxChestValue;
+    }
+
+    /**
+     * @return the selling price of all chests of the map in copper coins
+     */
+    public int getTotalChestValue() {
+        return totalChestValue;
+    }
+
+    /**
+     * @return the value of the room between 0 and 1 relative to the largest value of the map
+     * or -1 if the room has no value, e.g. because it can't be reached from the entrance
+     */
+    public double getHeat(RoomObject room, HeatMap heatMap) {
+        switch (heatMap) {
+            case chestValue:
+                return maxChestValue > 0 ? getChestValue(room) / (double) maxChestValue : 0;
+            case distance:
+                int distance = getDistance(room);
+                return distance == UNREACHABLE ? -1 : distance / (double) Math.max(1, maxDistance);
+            default:
+                return -1;
+        }
+    }
+}
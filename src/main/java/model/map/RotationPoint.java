@@ -50,9 +50,29 @@ public class RotationPoint extends Point {
     }
 
     public RotationPoint rotate(int centerX, int centerZ, int rotation) {
-        double radians = Math.toRadians(rotation * 90);
-        int newX = (int) Math.round(centerX + (x - centerX) * Math.cos(radians) - (z - centerZ) * Math.sin(radians));
-        int newZ = (int) Math.round(centerZ + (x - centerX) * Math.sin(radians) + (z - centerZ) * Math.cos(radians));
+        int dx = x - centerX;
+        int dz = z - centerZ;
+        int newX, newZ;
+
+        // Quarter turns only, so sine and cosine are always 0, 1 or -1
+        switch ((rotation % 4 + 4) % 4) {
+            case 1:
+                newX = centerX - dz;
+                newZ = centerZ + dx;
+                break;
+            case 2:
+                newX = centerX - dx;
+                newZ = centerZ - dz;
+                break;
+            case 3:
+                newX = centerX + dz;
+                newZ = centerZ - dx;
+                break;
+            default:
+                newX = x;
+                newZ = z;
+                break;
+        }
 
         return new RotationPoint(newX, y, newZ, (((rotation + this.rotation) % 4) + 4) % 4);
     }
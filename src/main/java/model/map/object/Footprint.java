@@ -0,0 +1,128 @@
+package model.map.object;
+
+import model.map.RotationPoint;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The cells a map object uses in one rotation relative to its position.
+ * Footprints are immutable and shared by all objects with the same parts,
+ * so placing an object only adds the offsets to its position.
+ */
+public final class Footprint {
+
+    // The parts are the key, their hashes are computed when they are created
+    private static final ConcurrentHashMap<List<MapObjectPart>, Footprint[]> CACHE = new ConcurrentHashMap<>();
+
+    private final int[] offsetX, offsetY, offsetZ;
+    private final int minX, minY, minZ, maxX, maxY, maxZ;
+
+    private Footprint(Collection<MapObjectPart> parts, int width, int depth, int rotation) {
+        int size = parts.stream().mapToInt(part -> part.getWidth() * part.getHeight() * part.getDepth()).sum();
+
+        this.offsetX = new int[size];
+        this.offsetY = new int[size];
+        this.offsetZ = new int[size];
+
+        int i = 0;
+        for (MapObjectPart part : parts) {
+            for (int w = 0; w < part.getWidth(); w++) {
+                for (int h = 0; h < part.getHeight(); h++) {
+                    for (int d = 0; d < part.getDepth(); d++) {
+                        RotationPoint offset = new RotationPoint(part.getOffsetX() + w, part.getOffsetY() + h, part.getOffsetZ() + d, 0)
+                                .rotate(rotation)
+                                .correctPosition(rotation, width, depth);
+
+                        offsetX[i] = offset.getX();
+                        offsetY[i] = offset.getY();
+                        offsetZ[i] = offset.getZ();
+                        i++;
+                    }
+                }
+            }
+        }
+
+        int minX = 0, minY = 0, minZ = 0, maxX = 0, maxY = 0, maxZ = 0;
+        for (int j = 0; j < size; j++) {
+            minX = Math.min(minX, offsetX[j]);
+            minY = Math.min(minY, offsetY[j]);
+            minZ = Math.min(minZ, offsetZ[j]);
+            maxX = Math.max(maxX, offsetX[j]);
+            maxY = Math.max(maxY, offsetY[j]);
+            maxZ = Math.max(maxZ, offsetZ[j]);
+        }
+        this.minX = minX;
+        this.minY = minY;
+        this.minZ = minZ;
+        this.maxX = maxX;
+        this.maxY = maxY;
+        this.maxZ = maxZ;
+    }
+
+    /**
+     * @param parts of a map object, an immutable list is used as it is
+     * @return the footprints of the parts for the rotations 0 to 3
+     */
+    public static Footprint[] of(List<MapObjectPart> parts) {
+        Footprint[] cached = CACHE.get(parts);
+        if (cached != null) {
+            return cached;
+        }
+
+        // The width and depth of the object correct the position after a rotation
+        int width = parts.stream().mapToInt(part -> part.getOffsetX() + part.getWidth()).max().orElse(0);
+        int depth = parts.stream().mapToInt(part -> part.getOffsetZ() + part.getDepth()).max().orElse(0);
+        return CACHE.computeIfAbsent(List.copyOf(parts), key -> {
+            Footprint[] footprints = new Footprint[4];
+            for (int rotation = 0; rotation < 4; rotation++) {
+                footprints[rotation] = new Footprint(parts, width, depth, rotation);
+            }
+            return footprints;
+        });
+    }
+
+    /**
+     * @return the number of cells
+     */
+    public int size() {
+        return offsetX.length;
+    }
+
+    public int getX(int cell) {
+        return offsetX[cell];
+    }
+
+    public int getY(int cell) {
+        return offsetY[cell];
+    }
+
+    public int getZ(int cell) {
+        return offsetZ[cell];
+    }
+
+    public int getMinX() {
+        return minX;
+    }
+
+    public int getMinY() {
+        return minY;
+    }
+
+    public int getMinZ() {
+        return minZ;
+    }
+
+    public int getMaxX() {
+        return maxX;
+    }
+
+    public int getMaxY() {
+        return maxY;
+    }
+
+    public int getMaxZ() {
+        return maxZ;
+    }
+}
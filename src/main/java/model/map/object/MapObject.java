@@ -13,6 +13,7 @@ public abstract class MapObject implements IPosition {
     protected int x, y, z, rotation;
     protected final List<MapObjectPart> parts;
     protected String infoText;
+    private Footprint[] footprints;
 
     protected MapObject(SeededRandom random , MapObjectPart... parts) {
         this.rotation = 0;
@@ -68,6 +69,17 @@ public abstract class MapObject implements IPosition {
         return parts;
     }
 
+    /**
+     * @param rotation of this object, gets normalized
+     * @return the cells this object uses in the given rotation relative to its position
+     */
+    public Footprint getFootprint(int rotation) {
+        if (footprints == null) {
+            footprints = Footprint.of(parts);
+        }
+        return footprints[((rotation % 4) + 4) % 4];
+    }
+
     public String getInfoText() {
         return infoText;
     }
@@ -5,20 +5,57 @@ import model.map.RotationPoint;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.function.Consumer;
 
+/**
+ * Stores which cell of the map is used by which object.
+ * The occupancy of all cells is packed into bits, the objects are stored
+ * in chunks of 16x16x16 cells which are only allocated if a cell
+ * of the chunk is used. Most cells of a map stay empty,
+ * so large maps need only a fraction of a dense array.
+ * Every chunk also lists the objects whose bounding box intersects it,
+ * so the objects of a region can be found without looking at all objects.
+ */
 public class MapObjectMap<MObj extends MapObject> {
 
+    protected static final int CHUNK_BITS = 4;
+    protected static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    protected static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
     protected final int width, depth, height;
-    protected final MObj[][][] map;
-    protected final ArrayList<MObj> mapObjects;
+    protected final LinkedHashSet<MObj> mapObjects;
+
+    // One bit per cell, index (x * height + y) * depth + z
+    protected final long[] occupied;
+    protected final int chunksX, chunksY, chunksZ;
+    protected final MapObject[][] chunks;
+    // Used cells per chunk, a chunk is released if it gets empty
+    protected final int[] chunkFill;
+    protected int chunkCount;
+    // Objects whose bounding box intersects the chunk, null if there are none
+    protected final List<List<MObj>> buckets;
+    // Largest width or depth of the footprints added so far
+    protected int maxExtent;
 
-    @SuppressWarnings("unchecked")
     public MapObjectMap(int width, int height, int depth) {
         this.width = width;
         this.depth = depth;
         this.height = height;
-        this.map = (MObj[][][]) new MapObject[width][height][depth];
-        this.mapObjects = new ArrayList<>();
+        this.mapObjects = new LinkedHashSet<>();
+
+        long cells = (long) width * height * depth;
+        this.occupied = new long[(int) ((cells + 63) >>> 6)];
+        this.chunksX = (width + CHUNK_MASK) >> CHUNK_BITS;
+        this.chunksY = (height + CHUNK_MASK) >> CHUNK_BITS;
+        this.chunksZ = (depth + CHUNK_MASK) >> CHUNK_BITS;
+        this.chunks = new MapObject[chunksX * chunksY * chunksZ][];
+        this.chunkFill = new int[chunks.length];
+        this.chunkCount = 0;
+        this.buckets = new ArrayList<>(Collections.nCopies(chunks.length, null));
+        this.maxExtent = 0;
     }
 
     public boolean addMapObject(MObj object, RotationPoint point) {
@@ -26,15 +63,18 @@ public class MapObjectMap<MObj extends MapObject> {
     }
 
     public boolean addMapObject(MObj object, int x, int y, int z, int rotation) {
-        ArrayList<Point> points = getPoints(object, x, y, z, rotation);
+        Footprint footprint = object.getFootprint(rotation);
 
-        if (isEmpty(points)) {
-            for (Point point : points) {
-                map[point.getX()][point.getY()][point.getZ()] = object;
+        if (isEmpty(footprint, x, y, z)) {
+            for (int i = 0; i < footprint.size(); i++) {
+                set(x + footprint.getX(i), y + footprint.getY(i), z + footprint.getZ(i), object);
             }
             object.setRotation(rotation);
             object.setCoordinates(x, y, z);
             mapObjects.add(object);
+            updateBuckets(object, footprint, true);
+            maxExtent = Math.max(maxExtent, Math.max(footprint.getMaxX() - footprint.getMinX() + 1,
+                    footprint.getMaxZ() - footprint.getMinZ() + 1));
 
             return true;
         } else {
@@ -52,11 +92,12 @@ public class MapObjectMap<MObj extends MapObject> {
 
     public boolean deleteMapObject(MObj obj) {
         if (mapObjects.remove(obj)) {
-            ArrayList<Point> points = getPoints(obj, obj.getX(), obj.getY(), obj.getZ(), obj.getRotation());
+            Footprint footprint = obj.getFootprint(obj.getRotation());
 
-            for (Point point : points) {
-                map[point.getX()][point.getY()][point.getZ()] = null;
+            for (int i = 0; i < footprint.size(); i++) {
+                set(obj.getX() + footprint.getX(i), obj.getY() + footprint.getY(i), obj.getZ() + footprint.getZ(i), null);
             }
+            updateBuckets(obj, footprint, false);
             obj.onDelete();
             return true;
         } else {
@@ -68,35 +109,25 @@ public class MapObjectMap<MObj extends MapObject> {
         return isEmpty(point.getX(), point.getY(), point.getZ());
     }
 
-    protected boolean isEmpty(ArrayList<Point> points) {
-        for (Point point : points) {
-            if (!isEmpty(point)) {
-                return false;
-            }
+    /**
+     * Checks the occupancy bits of all cells of the footprint
+     * placed at the given position without any allocation.
+     *
+     * @return true if all cells are in bounds and empty
+     */
+    public boolean isEmpty(Footprint footprint, int x, int y, int z) {
+        if (!inBounds(x + footprint.getMinX(), y + footprint.getMinY(), z + footprint.getMinZ())
+                || !inBounds(x + footprint.getMaxX(), y + footprint.getMaxY(), z + footprint.getMaxZ())) {
+            return false;
         }
 
-        return true;
-    }
-
-    protected ArrayList<Point> getPoints(MObj object, int x, int y, int z, int rotation) {
-        ArrayList<Point> result = new ArrayList<>();
-
-        for (MapObjectPart part : object.getParts()) {
-            for (int w = 0; w < part.getWidth(); w++) {
-                for (int h = 0; h < part.getHeight(); h++) {
-                    for (int d = 0; d < part.getDepth(); d++) {
-                        RotationPoint offset = new RotationPoint(part.getOffsetX() + w, part.getOffsetY() + h, part.getOffsetZ() + d, 0);
-                        rotation = ((rotation % 4) + 4) % 4;
-                        offset = offset.rotate(rotation);
-                        offset = offset.correctPosition(rotation, object.getWidth(), object.getDepth());
-
-                        result.add(offset.add(x, y, z));
-                    }
-                }
+        for (int i = 0; i < footprint.size(); i++) {
+            if (isOccupied(cellIndex(x + footprint.getX(i), y + footprint.getY(i), z + footprint.getZ(i)))) {
+                return false;
             }
         }
 
-        return result;
+        return true;
     }
 
     public boolean inBounds(Point point) {
@@ -111,16 +142,155 @@ public class MapObjectMap<MObj extends MapObject> {
         return get(point.getX(), point.getY(), point.getZ());
     }
 
+    @SuppressWarnings("unchecked")
     public MObj get(int x, int y, int z) {
-        if (inBounds(x, y, z)) {
-            return isEmpty(x, y, z) ? null : map[x][y][z];
+        if (inBounds(x, y, z) && isOccupied(cellIndex(x, y, z))) {
+            return (MObj) chunks[chunkIndex(x, y, z)][chunkOffset(x, y, z)];
         } else {
             return null;
         }
     }
 
+    /**
+     * @return false if the cell is used or out of bounds
+     */
     public boolean isEmpty(int x, int y, int z) {
-        return inBounds(x, y, z) && map[x][y][z] == null;
+        return inBounds(x, y, z) && !isOccupied(cellIndex(x, y, z));
+    }
+
+    /**
+     * Calls the action once for every object whose bounding box
+     * intersects the region between the two corners.
+     */
+    public void forEachMapObject(int fromX, int fromY, int fromZ, int toX, int toY, int toZ, Consumer<? super MObj> action) {
+        fromX = Math.max(fromX, 0);
+        fromY = Math.max(fromY, 0);
+        fromZ = Math.max(fromZ, 0);
+        toX = Math.min(toX, width - 1);
+        toY = Math.min(toY, height - 1);
+        toZ = Math.min(toZ, depth - 1);
+
+        for (int chunkX = fromX >> CHUNK_BITS; chunkX <= toX >> CHUNK_BITS; chunkX++) {
+            for (int chunkY = fromY >> CHUNK_BITS; chunkY <= toY >> CHUNK_BITS; chunkY++) {
+                for (int chunkZ = fromZ >> CHUNK_BITS; chunkZ <= toZ >> CHUNK_BITS; chunkZ++) {
+                    List<MObj> bucket = buckets.get((chunkX * chunksY + chunkY) * chunksZ + chunkZ);
+                    if (bucket == null) {
+                        continue;
+                    }
+
+                    for (MObj object : bucket) {
+                        Footprint footprint = object.getFootprint(object.getRotation());
+                        int minX = Math.max(object.getX() + footprint.getMinX(), fromX);
+                        int minY = Math.max(object.getY() + footprint.getMinY(), fromY);
+                        int minZ = Math.max(object.getZ() + footprint.getMinZ(), fromZ);
+
+                        // An object can be in several buckets, it is only reported by
+                        // the bucket of the first cell of its intersection with the region
+                        if (minX <= Math.min(object.getX() + footprint.getMaxX(), toX)
+                                && minY <= Math.min(object.getY() + footprint.getMaxY(), toY)
+                                && minZ <= Math.min(object.getZ() + footprint.getMaxZ(), toZ)
+                                && minX >> CHUNK_BITS == chunkX
+                                && minY >> CHUNK_BITS == chunkY
+                                && minZ >> CHUNK_BITS == chunkZ) {
+                            action.accept(object);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * An object is drawn within its width and depth around its position,
+     * so regions which are drawn have to be widened by this extent.
+     * It does not shrink if objects are deleted.
+     *
+     * @return the largest width or depth of the footprints added so far
+     */
+    public int getMaxExtent() {
+        return maxExtent;
+    }
+
+    /**
+     * @return the number of chunks which currently hold objects
+     */
+    public int getAllocatedChunkCount() {
+        return chunkCount;
+    }
+
+    protected void set(int x, int y, int z, MObj object) {
+        int cell = cellIndex(x, y, z);
+        int chunkIndex = chunkIndex(x, y, z);
+        MapObject[] chunk = chunks[chunkIndex];
+
+        if (object != null) {
+            if (chunk == null) {
+                chunk = new MapObject[CHUNK_SIZE * CHUNK_SIZE * CHUNK_SIZE];
+                chunks[chunkIndex] = chunk;
+                chunkCount++;
+            }
+            if (!isOccupied(cell)) {
+                occupied[cell >>> 6] |= 1L << cell;
+                chunkFill[chunkIndex]++;
+            }
+            chunk[chunkOffset(x, y, z)] = object;
+
+        } else if (isOccupied(cell)) {
+            occupied[cell >>> 6] &= ~(1L << cell);
+            chunk[chunkOffset(x, y, z)] = null;
+
+            if (--chunkFill[chunkIndex] == 0) {
+                chunks[chunkIndex] = null;
+                chunkCount--;
+            }
+        }
+    }
+
+    private void updateBuckets(MObj object, Footprint footprint, boolean add) {
+        int fromX = (object.getX() + footprint.getMinX()) >> CHUNK_BITS;
+        int fromY = (object.getY() + footprint.getMinY()) >> CHUNK_BITS;
+        int fromZ = (object.getZ() + footprint.getMinZ()) >> CHUNK_BITS;
+        int toX = (object.getX() + footprint.getMaxX()) >> CHUNK_BITS;
+        int toY = (object.getY() + footprint.getMaxY()) >> CHUNK_BITS;
+        int toZ = (object.getZ() + footprint.getMaxZ()) >> CHUNK_BITS;
+
+        for (int chunkX = fromX; chunkX <= toX; chunkX++) {
+            for (int chunkY = fromY; chunkY <= toY; chunkY++) {
+                for (int chunkZ = fromZ; chunkZ <= toZ; chunkZ++) {
+                    int index = (chunkX * chunksY + chunkY) * chunksZ + chunkZ;
+                    List<MObj> bucket = buckets.get(index);
+
+                    if (add) {
+                        if (bucket == null) {
+                            bucket = new ArrayList<>();
+                            buckets.set(index, bucket);
+                        }
+                        bucket.add(object);
+                    } else if (bucket != null) {
+                        bucket.remove(object);
+                        if (bucket.isEmpty()) {
+                            buckets.set(index, null);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    protected boolean isOccupied(int cell) {
+        return (occupied[cell >>> 6] & (1L << cell)) != 0;
+    }
+
+    protected int cellIndex(int x, int y, int z) {
+        return (x * height + y) * depth + z;
+    }
+
+    protected int chunkIndex(int x, int y, int z) {
+        return ((x >> CHUNK_BITS) * chunksY + (y >> CHUNK_BITS)) * chunksZ + (z >> CHUNK_BITS);
+    }
+
+    protected int chunkOffset(int x, int y, int z) {
+        return (((x & CHUNK_MASK) << CHUNK_BITS | (y & CHUNK_MASK)) << CHUNK_BITS) | (z & CHUNK_MASK);
     }
 
     public int getWidth() {
@@ -1,9 +1,16 @@
 package model.map.object;
 
+import java.util.Objects;
+
+/**
+ * A box of cells of a map object. Parts with the same offsets and size are equal,
+ * so objects with the same parts share their {@link Footprint}.
+ */
 public class MapObjectPart {
 
     protected final int offsetX, offsetY, offsetZ;
     protected final int width, height, depth;
+    private final int hash;
 
     public MapObjectPart(int offsetX, int offsetY, int offsetZ, int width, int height, int depth) {
         this.offsetX = offsetX;
@@ -12,6 +19,7 @@ public class MapObjectPart {
         this.width = width;
         this.height = height;
         this.depth = depth;
+        this.hash = Objects.hash(offsetX, offsetY, offsetZ, width, height, depth);
     }
 
     public MapObjectPart(int width, int height, int depth) {
@@ -45,4 +53,23 @@ public class MapObjectPart {
     public int getDepth() {
         return depth;
     }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof MapObjectPart)) {
+            return false;
+        }
+
+        MapObjectPart other = (MapObjectPart) o;
+        return offsetX == other.offsetX && offsetY == other.offsetY && offsetZ == other.offsetZ
+                && width == other.width && height == other.height && depth == other.depth;
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
 }
@@ -26,6 +26,13 @@ public abstract class LootObject extends MapObject {
         return container;
     }
 
+    /**
+     * @return the object the loot lies in, e.g. a room
+     */
+    public IPosition getParent() {
+        return parent;
+    }
+
     public Collection<Loot> getLoot() {
         return loot;
     }
@@ -127,6 +127,9 @@ public class Passage {
 
     public void setDestination(RoomObject destination) {
         this.destination = destination;
+        if (start != null && id >= 0) {
+            start.updatePassage(this);
+        }
     }
 
     public boolean isCompatible(Passage other) {
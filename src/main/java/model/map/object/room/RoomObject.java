@@ -16,7 +16,11 @@ import java.util.stream.Collectors;
 
 public abstract class RoomObject extends MapObject {
 
+    private static final int MAX_PASSAGES = Long.SIZE;
+
     private final ArrayList<Passage> passages;
+    // One bit per passage id, kept up to date by the passages themselves
+    private long freeExtensions, freeEntrances, usedPassages, blockedPassages;
     protected boolean deadEnd;
 
     protected RoomObject(SeededRandom random, MapObjectPart... parts) {
@@ -36,20 +40,116 @@ public abstract class RoomObject extends MapObject {
     }
 
     protected void addPassage(Passage passage) {
+        if (passages.size() >= MAX_PASSAGES) {
+            throw new IllegalStateException("A room object can not have more than " + MAX_PASSAGES + " passages");
+        }
+
         passage.setId(passages.size());
         passages.add(passage);
+        updatePassage(passage);
+    }
+
+    /**
+     * Updates the bits of the passage after its destination changed.
+     */
+    void updatePassage(Passage passage) {
+        long bit = 1L << passage.getId();
+
+        if (passage.isUsed()) {
+            usedPassages |= bit;
+            freeExtensions &= ~bit;
+            freeEntrances &= ~bit;
+        } else {
+            usedPassages &= ~bit;
+            freeExtensions = passage.isUsableForwards() ? freeExtensions | bit : freeExtensions & ~bit;
+            freeEntrances = passage.isUsableBackwards() ? freeEntrances | bit : freeEntrances & ~bit;
+        }
+    }
+
+    /**
+     * Marks a passage which can't lead to a new room,
+     * e.g. because the cell in front of it is already used.
+     * The passage stays a possible extension.
+     */
+    public void blockPassage(Passage passage) {
+        blockedPassages |= 1L << passage.getId();
+    }
+
+    /**
+     * @return true if a possible extension is not blocked
+     */
+    public boolean hasOpenExtensions() {
+        return (freeExtensions & ~blockedPassages) != 0;
     }
 
     public List<Passage> getPossibleExtensions() {
-        return passages.stream()
-                .filter(passage -> !passage.isUsed() && passage.isUsableForwards())
-                .collect(Collectors.toList());
+        return toPassages(freeExtensions);
     }
 
     public List<Passage> getPossibleEntrancePoints() {
-        return passages.stream()
-                .filter(passage -> !passage.isUsed() && passage.isUsableBackwards())
-                .collect(Collectors.toList());
+        return toPassages(freeEntrances);
+    }
+
+    public int getPossibleExtensionCount() {
+        return Long.bitCount(freeExtensions);
+    }
+
+    /**
+     * @param index between 0 and {@link #getPossibleExtensionCount()}
+     * @return the same passage as getPossibleExtensions().get(index)
+     */
+    public Passage getPossibleExtension(int index) {
+        return passages.get(nthBit(freeExtensions, index));
+    }
+
+    /**
+     * @return the amount of free entrance points which are compatible to the exit
+     */
+    public int getCompatibleEntrancePointCount(Passage exit) {
+        int count = 0;
+        for (long bits = freeEntrances; bits != 0; bits &= bits - 1) {
+            if (passages.get(Long.numberOfTrailingZeros(bits)).isCompatible(exit)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @param index between 0 and {@link #getCompatibleEntrancePointCount(Passage)}
+     * @return the compatible free entrance point with the given index
+     */
+    public Passage getCompatibleEntrancePoint(Passage exit, int index) {
+        for (long bits = freeEntrances; bits != 0; bits &= bits - 1) {
+            Passage passage = passages.get(Long.numberOfTrailingZeros(bits));
+
+            if (passage.isCompatible(exit) && index-- == 0) {
+                return passage;
+            }
+        }
+        throw new IndexOutOfBoundsException("No compatible entrance point with index " + index);
+    }
+
+    /**
+     * @return the amount of passages which lead to another room
+     */
+    public int getDegree() {
+        return Long.bitCount(usedPassages);
+    }
+
+    private List<Passage> toPassages(long bits) {
+        List<Passage> result = new ArrayList<>(Long.bitCount(bits));
+        for (; bits != 0; bits &= bits - 1) {
+            result.add(passages.get(Long.numberOfTrailingZeros(bits)));
+        }
+        return result;
+    }
+
+    private static int nthBit(long bits, int n) {
+        for (int i = 0; i < n; i++) {
+            bits &= bits - 1;
+        }
+        return Long.numberOfTrailingZeros(bits);
     }
 
     public Optional<RoomObject> getFollowingRoomObject(MapSpecification specification, int width) {
@@ -69,10 +169,11 @@ public abstract class RoomObject extends MapObject {
     }
 
     public List<RoomObject> getNeighborRooms() {
-        return passages.stream()
-                .filter(Passage::isUsed)
-                .map(Passage::getDestination)
-                .collect(Collectors.toList());
+        List<RoomObject> result = new ArrayList<>(getDegree());
+        for (long bits = usedPassages; bits != 0; bits &= bits - 1) {
+            result.add(passages.get(Long.numberOfTrailingZeros(bits)).getDestination());
+        }
+        return result;
     }
 
 
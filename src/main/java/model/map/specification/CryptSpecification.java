@@ -7,13 +7,21 @@ import model.map.object.room.corridor.Stairs;
 import model.map.object.room.corridor.TurningCorridor;
 import model.map.object.room.room.Room;
 import model.map.specification.texture.CryptTexture;
+import model.map.specification.texture.TextureHandler;
 
 import java.util.Random;
 
 public class CryptSpecification extends MapSpecification {
 
     public CryptSpecification(SeededRandom random) {
-        super(new CryptTexture(), "Krypta", random);
+        this(new CryptTexture(), random);
+    }
+
+    /**
+     * @param textureHandler the textures of the crypt, only needed to draw the map
+     */
+    public CryptSpecification(TextureHandler textureHandler, SeededRandom random) {
+        super(textureHandler, "Krypta", random);
 
         //Corridors
         this.registerRoomObject(corridorFactoryMap, 4, () -> new Corridor(random, 3 + random.getRandom().nextInt(3)));
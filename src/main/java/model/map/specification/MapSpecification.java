@@ -1,6 +1,7 @@
 package model.map.specification;
 
 import manager.Database;
+import model.loot.CompiledLootTable;
 import model.loot.DungeonLootFactory;
 import model.loot.LootFactory;
 import model.map.SeededRandom;
@@ -21,7 +22,7 @@ public abstract class MapSpecification {
     protected HashMap<Integer, WeightedFactoryList<RoomObject>> crossingFactoryMap;
     protected HashMap<Integer, WeightedFactoryList<RoomObject>> roomFactoryMap;
 
-    protected HashMap<String, Collection<LootFactory>> lootFactoryMap;
+    protected HashMap<String, CompiledLootTable> lootFactoryMap;
 
     protected MapSpecification(TextureHandler textureHandler, String place, SeededRandom random) {
         this.textureHandler = textureHandler;
@@ -32,17 +33,13 @@ public abstract class MapSpecification {
         this.lootFactoryMap = new HashMap<>();
         this.random = random;
 
+        HashMap<String, Collection<LootFactory>> factories = new HashMap<>();
         for (DungeonLootFactory factory : Database.dungeonLootList) {
             if (place.equals(factory.getPlace())) {
-                lootFactoryMap.compute(factory.getContainer(), (k, v) -> {
-                    if (v == null) {
-                        v = new ArrayList<>();
-                    }
-                    v.add(factory);
-                    return v;
-                });
+                factories.computeIfAbsent(factory.getContainer(), k -> new ArrayList<>()).add(factory);
             }
         }
+        factories.forEach((container, list) -> lootFactoryMap.put(container, new CompiledLootTable(list)));
     }
 
     protected void registerRoomObject(HashMap<Integer, WeightedFactoryList<RoomObject>> factoryMap, int weight, Supplier<RoomObject> supplier) {
@@ -62,8 +59,8 @@ public abstract class MapSpecification {
         return textureHandler;
     }
 
-    public Collection<LootFactory> getLoot(String container) {
-        return lootFactoryMap.getOrDefault(container, Collections.emptyList());
+    public CompiledLootTable getLoot(String container) {
+        return lootFactoryMap.getOrDefault(container, CompiledLootTable.EMPTY);
     }
 
     public Optional<RoomObject> getPossibleEntrance(int width) {
@@ -12,5 +12,6 @@ public class CryptTexture extends TextureHandler {
         this.room = new Image("map/crypt/CryptRoom.png");
         this.wall = new Image("map/crypt/CryptWall.png");
         this.chest = new Image("map/crypt/SimpleChest.png");
+        createAtlas();
     }
 }
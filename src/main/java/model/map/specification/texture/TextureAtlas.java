@@ -0,0 +1,227 @@
+package model.map.specification.texture;
+
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelReader;
+import javafx.scene.image.PixelWriter;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Packs all textures of a {@link TextureHandler} into one image, so drawing a texture
+ * is a blit of a region of the atlas.
+ * Perspective textures already contain a column per rotation and a row per height,
+ * they are copied as they are. All other textures are copied in all four rotations.
+ */
+public class TextureAtlas {
+
+    private static final int MAX_WIDTH = 2048;
+    // Empty pixels between the regions, so scaled regions don't bleed into each other
+    private static final int PADDING = 2;
+
+    private final WritableImage image;
+    private final IdentityHashMap<Image, Region[]> regions;
+    private final ConcurrentHashMap<Long, Color> colors;
+
+    public TextureAtlas(Collection<Image> perspectiveTextures, Collection<Image> textures) {
+        this.regions = new IdentityHashMap<>();
+        this.colors = new ConcurrentHashMap<>();
+
+        List<Region> packing = new ArrayList<>();
+        for (Image texture : perspectiveTextures) {
+            if (texture != null) {
+                Region region = new Region(texture, 0);
+                regions.put(texture, new Region[]{region});
+                packing.add(region);
+            }
+        }
+        for (Image texture : textures) {
+            if (texture != null) {
+                Region[] rotated = new Region[4];
+                for (int rotation = 0; rotation < 4; rotation++) {
+                    rotated[rotation] = new Region(texture, rotation);
+                    packing.add(rotated[rotation]);
+                }
+                regions.put(texture, rotated);
+            }
+        }
+
+        // Shelf packing, the highest regions first
+        packing.sort(Comparator.comparingInt(Region::getHeight).reversed());
+        int x = 0, y = 0, shelfHeight = 0, width = 1;
+        for (Region region : packing) {
+            if (x > 0 && x + region.width > MAX_WIDTH) {
+                x = 0;
+                y += shelfHeight + PADDING;
+                shelfHeight = 0;
+            }
+            region.x = x;
+            region.y = y;
+            x += region.width + PADDING;
+            shelfHeight = Math.max(shelfHeight, region.height);
+            width = Math.max(width, x);
+        }
+
+        this.image = new WritableImage(width, Math.max(1, y + shelfHeight));
+        PixelWriter writer = image.getPixelWriter();
+        for (Region region : packing) {
+            region.copy(writer);
+        }
+    }
+
+    public Image getImage() {
+        return image;
+    }
+
+    public boolean contains(Image texture) {
+        return regions.containsKey(texture);
+    }
+
+    /**
+     * @param rotation quarter turns clockwise, perspective textures only have the rotation 0
+     * @return the region of the texture or null if it isn't part of the atlas
+     */
+    public Region getRegion(Image texture, int rotation) {
+        Region[] rotated = regions.get(texture);
+        if (rotated == null || rotation < 0 || rotation >= rotated.length) {
+            return null;
+        }
+        return rotated[rotation];
+    }
+
+    /**
+     * The average color of a part of an unrotated texture, used to draw it as a flat rectangle.
+     * Transparent pixels only contribute to the opacity.
+     */
+    public Color getColor(Image texture, double sourceX, double sourceY, double sourceWidth, double sourceHeight) {
+        Region region = getRegion(texture, 0);
+        if (region == null) {
+            return Color.TRANSPARENT;
+        }
+
+        int x = region.x + (int) sourceX;
+        int y = region.y + (int) sourceY;
+        int width = Math.min((int) sourceWidth, region.x + region.width - x);
+        int height = Math.min((int) sourceHeight, region.y + region.height - y);
+        long key = ((long) x << 48) | ((long) y << 32) | ((long) width << 16) | height;
+
+        return colors.computeIfAbsent(key, k -> {
+            PixelReader reader = image.getPixelReader();
+            double red = 0, green = 0, blue = 0, alpha = 0;
+
+            for (int px = x; px < x + width; px++) {
+                for (int py = y; py < y + height; py++) {
+                    int argb = reader.getArgb(px, py);
+                    double a = (argb >>> 24) / 255.0;
+                    red += a * ((argb >> 16) & 0xFF);
+                    green += a * ((argb >> 8) & 0xFF);
+                    blue += a * (argb & 0xFF);
+                    alpha += a;
+                }
+            }
+
+            if (alpha == 0) {
+                return Color.TRANSPARENT;
+            }
+            return Color.rgb((int) (red / alpha), (int) (green / alpha), (int) (blue / alpha),
+                    alpha / Math.max(1, width * height));
+        });
+    }
+
+    public static class Region {
+
+        private final Image texture;
+        private final int rotation;
+        private final int width, height;
+        private int x, y;
+
+        private Region(Image texture, int rotation) {
+            this.texture = texture;
+            this.rotation = rotation;
+            if (rotation % 2 == 0) {
+                this.width = (int) texture.getWidth();
+                this.height = (int) texture.getHeight();
+            } else {
+                this.width = (int) texture.getHeight();
+                this.height = (int) texture.getWidth();
+            }
+        }
+
+        private void copy(PixelWriter writer) {
+            PixelReader reader = texture.getPixelReader();
+            if (rotation == 0) {
+                writer.setPixels(x, y, width, height, reader, 0, 0);
+                return;
+            }
+
+            int textureWidth = (int) texture.getWidth();
+            int textureHeight = (int) texture.getHeight();
+            for (int px = 0; px < textureWidth; px++) {
+                for (int py = 0; py < textureHeight; py++) {
+                    int argb = reader.getArgb(px, py);
+                    switch (rotation) {
+                        case 1:
+                            writer.setArgb(x + textureHeight - 1 - py, y + px, argb);
+                            break;
+                        case 2:
+                            writer.setArgb(x + textureWidth - 1 - px, y + textureHeight - 1 - py, argb);
+                            break;
+                        default:
+                            writer.setArgb(x + py, y + textureWidth - 1 - px, argb);
+                            break;
+                    }
+                }
+            }
+        }
+
+        /**
+         * Maps the x coordinate of a part of the unrotated texture into the atlas.
+         */
+        public double getSourceX(double sourceX, double sourceY, double sourceWidth, double sourceHeight) {
+            switch (rotation) {
+                case 1:
+                    return x + texture.getHeight() - sourceY - sourceHeight;
+                case 2:
+                    return x + texture.getWidth() - sourceX - sourceWidth;
+                case 3:
+                    return x + sourceY;
+                default:
+                    return x + sourceX;
+            }
+        }
+
+        /**
+         * Maps the y coordinate of a part of the unrotated texture into the atlas.
+         */
+        public double getSourceY(double sourceX, double sourceY, double sourceWidth, double sourceHeight) {
+            switch (rotation) {
+                case 1:
+                    return y + sourceX;
+                case 2:
+                    return y + texture.getHeight() - sourceY - sourceHeight;
+                case 3:
+                    return y + texture.getWidth() - sourceX - sourceWidth;
+                default:
+                    return y + sourceY;
+            }
+        }
+
+        public int getRotation() {
+            return rotation;
+        }
+
+        public int getWidth() {
+            return width;
+        }
+
+        public int getHeight() {
+            return height;
+        }
+    }
+}
@@ -2,6 +2,8 @@ package model.map.specification.texture;
 
 import javafx.scene.image.Image;
 
+import java.util.Arrays;
+
 public abstract class TextureHandler {
 
     protected Image corridor;
@@ -11,6 +13,22 @@ public abstract class TextureHandler {
     protected Image room;
     protected Image wall;
     protected Image chest;
+    protected TextureAtlas atlas;
+
+    /**
+     * Packs the loaded textures into an atlas, should be called once all textures are loaded.
+     */
+    protected void createAtlas() {
+        this.atlas = new TextureAtlas(Arrays.asList(corridor, turningCorridor, corridorCrossing, stairs, room, wall),
+                Arrays.asList(chest));
+    }
+
+    /**
+     * @return the atlas of all textures or null if the textures aren't packed
+     */
+    public TextureAtlas getAtlas() {
+        return atlas;
+    }
 
     public Image getCorridor() {
         return corridor;
@@ -14,7 +14,10 @@ import model.member.data.ArmorPiece;
 import model.member.data.AttackTypes;
 import model.member.state.interfaces.*;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 
 public class BattleMember extends Member {
 
@@ -25,6 +28,7 @@ public class BattleMember extends Member {
     protected IntegerProperty initiative;
     protected IntegerProperty startValue;
     protected IntegerProperty counter;
+    protected int roundStartCounter;
     protected IntegerProperty turns;
     protected IntegerProperty baseDefense;
     protected IntegerProperty level;
@@ -34,6 +38,7 @@ public class BattleMember extends Member {
 
     protected Battle battle;
 
+    private final List<IMemberState> stateList;
     private final ListProperty<IMemberState> states;
 
     /**
@@ -77,8 +82,10 @@ public class BattleMember extends Member {
         this.initiative = new SimpleIntegerProperty(1);
         this.startValue = new SimpleIntegerProperty(Utility.getConfig().getInt("character.initiative.start"));
         this.counter = new SimpleIntegerProperty(startValue.get());
+        this.roundStartCounter = -1;
         this.turns = new SimpleIntegerProperty(1);
-        this.states = new SimpleListProperty<>(FXCollections.observableArrayList());
+        this.stateList = new ArrayList<>();
+        this.states = new SimpleListProperty<>(FXCollections.observableList(stateList));
         this.baseDefense = new SimpleIntegerProperty(0);
         this.level = new SimpleIntegerProperty(1);
 
@@ -107,6 +114,7 @@ public class BattleMember extends Member {
 
 
         this.turns.set(0);
+        this.roundStartCounter = getCounter();
         this.counter.set(getCounter() - calculateInitiative());
 
         while (getCounter() < 1) {
@@ -125,7 +133,18 @@ public class BattleMember extends Member {
 
     public void applyWearOnWeapons() { }
 
-    private int calculateInitiative() {
+    public int calculateInitiative() {
+        return calculateInitiative(states);
+    }
+
+    /**
+     * Calculates the initiative this member would have
+     * if only the given states were applied to it
+     *
+     * @param states which modify the initiative
+     * @return the modified initiative, never negative
+     */
+    public int calculateInitiative(Collection<? extends IMemberState> states) {
 
         int init = getInitiative();
 
@@ -157,13 +176,17 @@ public class BattleMember extends Member {
 
         for (IMemberState state : this.states) {
             if (state instanceof IIncomingDamageMemberState) {
+                int before = amount;
                 amount = ((IIncomingDamageMemberState) state).apply(this, amount);
+                if (amount < before) {
+                    battle.addToShieldStatistic(state.getSource(), before - amount);
+                }
             }
         }
 
         int damage = Math.max(0, amount - calculateDefense(type, withShield, penetration, block));
         this.life.set(getLife() - damage);
-        battle.addToDamageStatistic(source, damage);
+        battle.addToDamageStatistic(source, damage, type);
     }
 
     private int calculateDefense(AttackTypes type, boolean withShield, double penetration, double block) {
@@ -202,6 +225,7 @@ public class BattleMember extends Member {
 
     public void reset() {
         states.clear();
+        this.roundStartCounter = -1;
         this.counter.set(getStartValue());
         this.turns.set(1);
     }
@@ -210,14 +234,35 @@ public class BattleMember extends Member {
         this.states.add(state);
     }
 
+    /**
+     * Adds a state without notifying the listeners of the states.
+     * Only used by {@link Battle#addState}, which notifies the changes of all targets at once.
+     *
+     * @param state which gets added
+     */
+    public void addStateSilently(IMemberState state) {
+        this.stateList.add(state);
+    }
+
     public void removeState(IMemberState state) {
         this.states.remove(state);
     }
 
+    public Battle getBattle() {
+        return battle;
+    }
+
     public LootTable getLootTable() {
         return lootTable;
     }
 
+    /**
+     * @return the loot table of this member without the drops of its equipment
+     */
+    public LootTable getBaseLootTable() {
+        return lootTable;
+    }
+
     public void setArmor(ArmorPiece target, int defense) {
         this.armor.get(target).unbind();
         this.armor.get(target).set(defense);
@@ -255,6 +300,7 @@ public class BattleMember extends Member {
         member.setInitiative(getInitiative());
         member.startValue.set(getStartValue());
         member.counter.set(getCounter());
+        member.roundStartCounter = roundStartCounter;
         member.turns.set(getTurns());
 
         return member;
@@ -342,6 +388,18 @@ public class BattleMember extends Member {
         return counter;
     }
 
+    /**
+     * @return the counter before the initiative of the current round
+     * got subtracted or -1 if the member has not taken a turn yet
+     */
+    public int getRoundStartCounter() {
+        return roundStartCounter;
+    }
+
+    public void setRoundStartCounter(int roundStartCounter) {
+        this.roundStartCounter = roundStartCounter;
+    }
+
     public int getTurns() {
         return turns.get();
     }
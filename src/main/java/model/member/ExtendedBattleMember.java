@@ -74,16 +74,104 @@ public class ExtendedBattleMember extends BattleMember {
     public ExtendedBattleMember(Battle battle, int level,
                                 Characterisation characterisation, Race race, Profession profession,
                                 FightingStyle fightingStyle, Specialisation specialisation) {
+        this(battle, characterisation, race, profession, fightingStyle, specialisation);
+        this.usesShield = usesAlwaysShield() ||
+                (isAbleToUseShield() && random.nextDouble() < Utility.getConfig().getDouble("character.chance_to_wear.shield"));
+        this.setLevel(level);
+        this.setName(profession + " - " + specialisation);
+
+        Configuration config = Utility.getConfig();
+
+        this.generateStats();
+
+        //Generate Weapons
+        if (usesFirstWeapon()) {
+            Collection<Weapon> weaponPool = getSpecificPrimaryWeapons();
+            if (!usesExclusivelySpecificPrimaryWeapons()) {
+                weaponPool.addAll(Database.weaponList);
+            }
+            this.weapons.add((Weapon) randomWeapon(getPrimaryWeaponTypes(), weaponPool).getWithUpgrade());
+        }
+
+        if (usesSecondWeapon()) {
+            Collection<Weapon> weaponPool = getSpecificSecondaryWeapons();
+            if (!usesExclusivelySpecificSecondaryWeapons()) {
+                weaponPool.addAll(Database.weaponList);
+            }
+            Collection<String> secondTypes = usesShield ? Database.shieldTypes : getSecondaryWeaponTypes();
+            if (secondTypes.size() > 0) {
+                this.weapons.add((Weapon) randomWeapon(secondTypes, weaponPool).getWithUpgrade());
+            }
+        }
+
+        //Generate Armor
+        for (ArmorPosition position : ArmorPosition.values()) {
+            this.generateArmor(position);
+        }
+
+        Collection<Jewellery> jewelleryPool = getSpecificJewellery();
+        if (!usesExclusivelySpecificJewellery()) {
+            jewelleryPool.addAll(Database.jewelleryList);
+        }
+
+        if (usesJewellery()) {
+
+            Map<String, Integer> amountPerType = new HashMap<>();
+            int maxAmount = 0;
+
+            for (String type : config.getStringArray("character.jewellery.types")) {
+                int amount = config.getInt("character.jewellery.amount." + type);
+                String localizedType = LanguageUtility.hasMessage("jewellery.type." + type) ?
+                        LanguageUtility.getMessage("jewellery.type." + type) : type;
+
+                if (amount > 0) {
+                    amountPerType.put(localizedType, amount);
+                    maxAmount += amount;
+                }
+            }
+
+            for (int i = 0; i < maxAmount; i++) {
+                Optional<String> opType = amountPerType.keySet().stream().skip(random.nextInt(amountPerType.keySet().size())).findFirst();
+
+                if (opType.isPresent()) {
+                    if (random.nextDouble() < getTier() / 100f) {
+                        String type = opType.get();
+                        this.jewellery.add((Jewellery) randomJewellery(type, jewelleryPool).getWithUpgrade());
+
+                        int newAmount = amountPerType.get(type) - 1;
+                        if (newAmount < 1) {
+                            amountPerType.remove(type);
+                        } else {
+                            amountPerType.put(type, newAmount);
+                        }
+                    }
+                }
+            }
+        }
+
+        this.useSkillPoints();
+        this.generateSpells();
+
+        this.setLife(this.getMaxLife());
+        this.setMana(this.getMaxMana());
+
+        this.generateLoot();
+        this.addDescription();
+    }
+
+    /**
+     * Creates a member with default attributes and without any equipment,
+     * talent points or spells. Used to restore a saved member
+     * without generating it again.
+     */
+    public ExtendedBattleMember(Battle battle, Characterisation characterisation, Race race, Profession profession,
+                                FightingStyle fightingStyle, Specialisation specialisation) {
         super(battle);
         this.characterisation = characterisation;
         this.race = race;
         this.profession = profession;
         this.fightingStyle = fightingStyle;
         this.specialisation = specialisation;
-        this.usesShield = usesAlwaysShield() ||
-                (isAbleToUseShield() && random.nextDouble() < Utility.getConfig().getDouble("character.chance_to_wear.shield"));
-        this.setLevel(level);
-        this.setName(profession + " - " + specialisation);
 
         this.strength = new SimpleIntegerProperty(2);
         this.endurance = new SimpleIntegerProperty(2);
@@ -119,10 +207,6 @@ public class ExtendedBattleMember extends BattleMember {
             talents.put(talent, new SimpleIntegerProperty(0));
         }
 
-        Configuration config = Utility.getConfig();
-
-        this.generateStats();
-
         Consumer<Equipment> weaponListener = weapon -> {
             if (weapon instanceof Weapon) {
                 weapons.remove(weapon);
@@ -173,26 +257,6 @@ public class ExtendedBattleMember extends BattleMember {
             }
         });
 
-        //Generate Weapons
-        if (usesFirstWeapon()) {
-            Collection<Weapon> weaponPool = getSpecificPrimaryWeapons();
-            if (!usesExclusivelySpecificPrimaryWeapons()) {
-                weaponPool.addAll(Database.weaponList);
-            }
-            this.weapons.add((Weapon) randomWeapon(getPrimaryWeaponTypes(), weaponPool).getWithUpgrade());
-        }
-
-        if (usesSecondWeapon()) {
-            Collection<Weapon> weaponPool = getSpecificSecondaryWeapons();
-            if (!usesExclusivelySpecificSecondaryWeapons()) {
-                weaponPool.addAll(Database.weaponList);
-            }
-            Collection<String> secondTypes = usesShield ? Database.shieldTypes : getSecondaryWeaponTypes();
-            if (secondTypes.size() > 0) {
-                this.weapons.add((Weapon) randomWeapon(secondTypes, weaponPool).getWithUpgrade());
-            }
-        }
-
         //Prepare ArmorList
         this.armors = FXCollections.observableArrayList();
         this.armors.addListener((ListChangeListener<? super Armor>) ob -> {
@@ -213,66 +277,14 @@ public class ExtendedBattleMember extends BattleMember {
             }
         });
 
-        //Generate Armor
-        for (ArmorPosition position : ArmorPosition.values()) {
-            this.generateArmor(position);
-        }
-
-        Collection<Jewellery> jewelleryPool = getSpecificJewellery();
-        if (!usesExclusivelySpecificJewellery()) {
-            jewelleryPool.addAll(Database.jewelleryList);
-        }
-
         this.jewellery = FXCollections.observableArrayList();
-        if (usesJewellery()) {
-
-            Map<String, Integer> amountPerType = new HashMap<>();
-            int maxAmount = 0;
-
-            for (String type : config.getStringArray("character.jewellery.types")) {
-                int amount = config.getInt("character.jewellery.amount." + type);
-                String localizedType = LanguageUtility.hasMessage("jewellery.type." + type) ?
-                        LanguageUtility.getMessage("jewellery.type." + type) : type;
-
-                if (amount > 0) {
-                    amountPerType.put(localizedType, amount);
-                    maxAmount += amount;
-                }
-            }
-
-            for (int i = 0; i < maxAmount; i++) {
-                Optional<String> opType = amountPerType.keySet().stream().skip(random.nextInt(amountPerType.keySet().size())).findFirst();
-
-                if (opType.isPresent()) {
-                    if (random.nextDouble() < getTier() / 100f) {
-                        String type = opType.get();
-                        this.jewellery.add((Jewellery) randomJewellery(type, jewelleryPool).getWithUpgrade());
-
-                        int newAmount = amountPerType.get(type) - 1;
-                        if (newAmount < 1) {
-                            amountPerType.remove(type);
-                        } else {
-                            amountPerType.put(type, newAmount);
-                        }
-                    }
-                }
-            }
-        }
-
-        this.useSkillPoints();
         this.spells = FXCollections.observableArrayList();
-        this.generateSpells();
-
-        this.setLife(this.getMaxLife());
-        this.setMana(this.getMaxMana());
-
-        this.generateLoot();
-        this.addDescription();
     }
 
     @Override
     public LootTable getLootTable() {
-        LootTable lootTable = super.getLootTable();
+        LootTable lootTable = new LootTable();
+        lootTable.add(super.getLootTable());
 
         if (dropsWeapons()) {
             weapons.stream().filter(e -> !e.getName().isEmpty()).forEach(e -> lootTable.add(e, 1, 1));
@@ -772,6 +784,38 @@ public class ExtendedBattleMember extends BattleMember {
         return talents.get(talent);
     }
 
+    public Characterisation getCharacterisation() {
+        return characterisation;
+    }
+
+    public Race getRace() {
+        return race;
+    }
+
+    public Profession getProfession() {
+        return profession;
+    }
+
+    public FightingStyle getFightingStyle() {
+        return fightingStyle;
+    }
+
+    public Specialisation getSpecialisation() {
+        return specialisation;
+    }
+
+    public boolean isUsingShield() {
+        return usesShield;
+    }
+
+    /**
+     * Has to be set before the weapons are added,
+     * the second weapon is only used as shield if this is true.
+     */
+    public void setUsingShield(boolean usesShield) {
+        this.usesShield = usesShield;
+    }
+
     public ObservableList<Weapon> getWeapons() {
         return weapons;
     }
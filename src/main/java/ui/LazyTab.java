@@ -0,0 +1,44 @@
+package ui;
+
+import javafx.scene.control.Tab;
+import javafx.scene.control.TabPane;
+
+import java.util.function.Supplier;
+
+/**
+ * A placeholder which creates its view the first time it is selected and replaces itself with the view.
+ * Views which are never opened are never built and don't follow the changes of the database.
+ * Must not be the first tab of its pane, because that one is selected while the tabs are added.
+ */
+public class LazyTab extends ViewPart {
+
+    private final Supplier<? extends Tab> factory;
+
+    /**
+     * @param title   the title of the view, shown until the view is created
+     * @param factory creates the view with the same parent as this tab
+     */
+    public LazyTab(String title, IView parent, Supplier<? extends Tab> factory) {
+        super(title, parent);
+        this.factory = factory;
+
+        this.selectedProperty().addListener((ob, o, n) -> {
+            if (n) {
+                materialize();
+            }
+        });
+    }
+
+    private void materialize() {
+        TabPane pane = getTabPane();
+        if (pane == null) {
+            return;
+        }
+
+        // The view is selected before this tab is removed, so the pane doesn't select a neighbour in between
+        Tab view = factory.get();
+        pane.getTabs().add(pane.getTabs().indexOf(this), view);
+        pane.getSelectionModel().select(view);
+        pane.getTabs().remove(this);
+    }
+}
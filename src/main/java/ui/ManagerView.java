@@ -51,20 +51,21 @@ public class ManagerView extends View {
         Tab battleTab = new BattleOverview(this);
         root.getTabs().add(battleTab);
 
-        Tab itemTab = new SQLView(this);
+        // The other views are built when they are opened, the memory is needed by the battles right away
+        Tab itemTab = new LazyTab("sql.title", this, () -> new SQLView(this));
         root.getTabs().add(itemTab);
 
-        Tab searchOverviewTab = new SearchOverview(this);
+        Tab searchOverviewTab = new LazyTab("search.title", this, () -> new SearchOverview(this));
         root.getTabs().add(searchOverviewTab);
 
-        Tab helpOverviewTab = new HelperOverview(this);
+        Tab helpOverviewTab = new LazyTab("helper.title", this, () -> new HelperOverview(this));
         root.getTabs().add(helpOverviewTab);
 
         MemoryView memoryTab = new MemoryView(this);
         Utility.memoryView = memoryTab;
         root.getTabs().add(memoryTab);
 
-        Tab mapTab = new MapView(this);
+        Tab mapTab = new LazyTab("map.title", this, () -> new MapView(this));
         root.getTabs().add(mapTab);
 
         Tab startTab = new Tab();
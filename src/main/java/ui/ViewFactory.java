@@ -11,6 +11,7 @@ import javafx.scene.control.TextField;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.Region;
 import manager.LanguageUtility;
+import manager.SearchExecutor;
 import ui.part.NumberField;
 
 public abstract class ViewFactory {
@@ -165,4 +166,15 @@ public abstract class ViewFactory {
 
         return box;
     }
+
+    /**
+     * @return a label with the amount of results and the duration of the last query of the executor
+     */
+    public static Label searchInfo(SearchExecutor<?> executor) {
+        Label info = new Label();
+        info.textProperty().bind(executor.resultCountProperty().asString()
+                .concat(" ").concat(LanguageUtility.getMessageProperty("search.info.results"))
+                .concat(" (").concat(executor.durationProperty().asString()).concat(" ms)"));
+        return info;
+    }
 }
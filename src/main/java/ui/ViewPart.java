@@ -1,12 +1,19 @@
 package ui;
 
+import javafx.beans.binding.BooleanExpression;
+import javafx.beans.value.ChangeListener;
 import javafx.scene.control.Tab;
 import javafx.stage.Stage;
 import manager.LanguageUtility;
 
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+
 public class ViewPart extends Tab implements IView {
 
     protected IView parent;
+    private final BooleanExpression shown;
+    private final LinkedHashSet<Runnable> pendingUpdates;
 
     public ViewPart(String title, IView parent) {
         this(parent);
@@ -17,6 +24,44 @@ public class ViewPart extends Tab implements IView {
         super();
         this.parent = parent;
         this.setClosable(false);
+        this.shown = parent instanceof ViewPart ? selectedProperty().and(((ViewPart) parent).shownProperty()) : selectedProperty();
+        this.pendingUpdates = new LinkedHashSet<>();
+
+        this.shown.addListener((ob, o, n) -> {
+            if (n) {
+                // Updates may defer other updates, so the pending ones are copied first
+                ArrayList<Runnable> updates = new ArrayList<>(pendingUpdates);
+                pendingUpdates.clear();
+                updates.forEach(Runnable::run);
+            }
+        });
+    }
+
+    /**
+     * Runs the update at every change while the view is shown. While it is hidden,
+     * any number of changes only run the update once when the view is shown again.
+     *
+     * @return a listener for the data the view shows
+     */
+    protected ChangeListener<Object> whenShown(Runnable update) {
+        return (ob, o, n) -> {
+            if (isShown()) {
+                update.run();
+            } else {
+                pendingUpdates.add(update);
+            }
+        };
+    }
+
+    /**
+     * @return true if this tab and all tabs around it are selected
+     */
+    public boolean isShown() {
+        return shown.get();
+    }
+
+    public BooleanExpression shownProperty() {
+        return shown;
     }
 
     @Override
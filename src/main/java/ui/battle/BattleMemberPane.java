@@ -1,6 +1,6 @@
 package ui.battle;
 
-import javafx.collections.ListChangeListener;
+import javafx.beans.binding.StringExpression;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.canvas.Canvas;
@@ -15,15 +15,27 @@ import manager.LanguageUtility;
 import model.member.BattleMember;
 import model.member.state.interfaces.IMemberState;
 
+import java.util.List;
+
 public class BattleMemberPane extends StackPane {
 
     private static final Image ICONS = new Image("Icons.png");
 
-    private final BattleMember battleMember;
+    private final Label name;
+    private final ProgressBar lifeBar, manaBar;
+    private final Canvas iconBar, deathCanvas;
+    private final RosterEntryRenderer renderer;
     private boolean primarySelected, secondarySelected;
 
     public BattleMemberPane(BattleMember member) {
-        this.battleMember = member;
+        this();
+        setEntry(new RosterEntry(member));
+    }
+
+    /**
+     * Creates an empty pane for a list cell, which shows the rows given to {@link #setEntry(RosterEntry)}.
+     */
+    public BattleMemberPane() {
         this.primarySelected = false;
         this.secondarySelected = false;
 
@@ -32,100 +44,78 @@ public class BattleMemberPane extends StackPane {
         VBox root = new VBox();
         root.setAlignment(Pos.TOP_CENTER);
 
-        Label name = new Label();
-        name.textProperty().bind(battleMember.nameProperty()
-                .concat(" ").concat(LanguageUtility.getMessageProperty("character.level.short"))
-                .concat(": ").concat(battleMember.levelProperty()));
+        this.name = new Label();
         name.setMaxWidth(100);
         name.setWrapText(true);
         name.setTextAlignment(TextAlignment.CENTER);
         name.setAlignment(Pos.CENTER);
         root.getChildren().add(name);
 
-        ProgressBar lifeBar = new ProgressBar();
+        this.lifeBar = new ProgressBar();
         lifeBar.setStyle("-fx-accent: red;");
-        updateLife(lifeBar);
-        battleMember.lifeProperty().addListener((ob, o, n) -> updateLife(lifeBar));
-        battleMember.maxLifeProperty().addListener((ob, o, n) -> updateLife(lifeBar));
         root.getChildren().add(lifeBar);
 
-        ProgressBar manaBar = new ProgressBar();
+        this.manaBar = new ProgressBar();
         manaBar.setStyle("-fx-accent: blue;");
-        updateLife(manaBar);
-        battleMember.manaProperty().addListener((ob, o, n) -> updateMana(manaBar));
-        battleMember.maxManaProperty().addListener((ob, o, n) -> updateMana(manaBar));
         root.getChildren().add(manaBar);
 
-        Canvas iconBar = new Canvas();
+        this.iconBar = new Canvas();
         iconBar.widthProperty().bind(this.widthProperty().subtract(12));
         iconBar.setHeight(13);
         root.getChildren().add(iconBar);
 
-        battleMember.statesProperty().addListener((ListChangeListener<? super IMemberState>) change -> {
-            iconBar.getGraphicsContext2D().clearRect(0, 0, iconBar.getWidth(), 13);
-            for (int i = 0; i < change.getList().size(); i++) {
-                IMemberState state = change.getList().get(i);
-                iconBar.getGraphicsContext2D().drawImage(ICONS,
-                        state.getImageID() * 13, 0, 13, 13, i * 17, 0, 13, 13);
-            }
-        });
-        iconBar.getGraphicsContext2D().clearRect(0, 0, iconBar.getWidth(), 13);
-        for (int i = 0; i < battleMember.statesProperty().size(); i++) {
-            IMemberState state = battleMember.statesProperty().get(i);
-            iconBar.getGraphicsContext2D().drawImage(ICONS,
-                    state.getImageID() * 13, 0, 13, 13, i * 17, 0, 13, 13);
-        }
-
         this.getChildren().add(root);
 
-        Canvas canvas = new Canvas();
-        canvas.widthProperty().bind(this.widthProperty().multiply(0.9));
-        canvas.heightProperty().bind(this.heightProperty().multiply(0.9));
-        this.getChildren().add(canvas);
-
-        battleMember.lifeProperty().addListener((ob, o, n) -> {
-
-            GraphicsContext gc = canvas.getGraphicsContext2D();
-            if (n.intValue() < 1) {
-
-                gc.setStroke(Color.RED);
-                gc.setLineWidth(4);
-                gc.strokeLine(0, 0, canvas.getWidth(), canvas.getHeight());
-                gc.strokeLine(canvas.getWidth(), 0, 0, canvas.getHeight());
-            } else {
-                gc.clearRect(0, 0, canvas.getWidth(), canvas.getHeight());
-            }
-        });
-
-        battleMember.turnsProperty().addListener((ob, o, n) -> {
-            switch (n.intValue()) {
-                case 0:
-                    this.setBackground(Background.EMPTY);
-                    break;
-                case 1:
-                    this.setBackground(new Background(new BackgroundFill(Color.SANDYBROWN, null, null)));
-                    break;
-                case 2:
-                    this.setBackground(new Background(new BackgroundFill(Color.BURLYWOOD, null, null)));
-                    break;
-            }
-        });
-
-        switch (battleMember.getTurns()) {
-            case 0:
-                this.setBackground(Background.EMPTY);
-                break;
-            case 1:
-                this.setBackground(new Background(new BackgroundFill(Color.SANDYBROWN, null, null)));
-                break;
-            case 2:
-                this.setBackground(new Background(new BackgroundFill(Color.BURLYWOOD, null, null)));
-                break;
+        this.deathCanvas = new Canvas();
+        deathCanvas.widthProperty().bind(this.widthProperty().multiply(0.9));
+        deathCanvas.heightProperty().bind(this.heightProperty().multiply(0.9));
+        this.getChildren().add(deathCanvas);
+
+        this.renderer = new RosterEntryRenderer(RenderLoop.getShared(), this::render,
+                iconBar.widthProperty(), deathCanvas.widthProperty(), deathCanvas.heightProperty());
+    }
+
+    /**
+     * Shows another row, the values of the previous row aren't watched anymore.
+     *
+     * @param entry the row or null to show nothing
+     */
+    public void setEntry(RosterEntry entry) {
+        name.textProperty().unbind();
+
+        if (entry == null) {
+            name.setText(null);
+            name.setGraphic(null);
+            renderer.setEntry(null);
+            return;
         }
+
+        BattleMember member = entry.getMember();
+        StringExpression text = member.nameProperty()
+                .concat(" ").concat(LanguageUtility.getMessageProperty("character.level.short"))
+                .concat(": ").concat(member.levelProperty());
+        if (entry.isGroup()) {
+            name.textProperty().bind(text.concat(" \u00D7").concat(entry.getMembers().size()));
+            name.setGraphic(new Label(entry.isExpanded() ? "\u25BC" : "\u25B6"));
+        } else {
+            name.textProperty().bind(text);
+            name.setGraphic(null);
+        }
+
+        // A turn changes the values of many members several times, every pane is drawn once afterwards
+        renderer.setEntry(entry);
+    }
+
+    public RosterEntry getEntry() {
+        return renderer.getEntry();
     }
 
+    /**
+     * @return the shown member or the first member of a group
+     */
     public BattleMember getBattleMember() {
-        return battleMember;
+        RosterEntry entry = renderer.getEntry();
+        return entry != null ? entry.getMember() : null;
     }
 
     public void setPrimarySelected(boolean bool) {
@@ -157,11 +147,47 @@ public class BattleMemberPane extends StackPane {
         }
     }
 
-    private void updateLife(ProgressBar lifeBar) {
-        lifeBar.setProgress(Math.max(0, (double) battleMember.getLife() / (double) battleMember.getMaxLife()));
+    /**
+     * Draws the bars, icons, death mark and background, reads every value watched by the render loop.
+     */
+    private void render(RosterEntry entry) {
+        lifeBar.setProgress(Math.max(0, (double) entry.getLife() / (double) entry.getMaxLife()));
+        manaBar.setProgress(Math.max(0, (double) entry.getMana() / (double) entry.getMaxMana()));
+        drawIcons(entry);
+        drawDeath(entry);
+
+        switch (entry.getTurns()) {
+            case 0:
+                this.setBackground(Background.EMPTY);
+                break;
+            case 1:
+                this.setBackground(new Background(new BackgroundFill(Color.SANDYBROWN, null, null)));
+                break;
+            case 2:
+                this.setBackground(new Background(new BackgroundFill(Color.BURLYWOOD, null, null)));
+                break;
+        }
     }
 
-    private void updateMana(ProgressBar manaBar) {
-        manaBar.setProgress(Math.max(0, (double) battleMember.getMana() / (double) battleMember.getMaxMana()));
+    private void drawIcons(RosterEntry entry) {
+        List<IMemberState> states = entry.getStates();
+        iconBar.getGraphicsContext2D().clearRect(0, 0, iconBar.getWidth(), 13);
+        for (int i = 0; i < states.size(); i++) {
+            IMemberState state = states.get(i);
+            iconBar.getGraphicsContext2D().drawImage(ICONS,
+                    state.getImageID() * 13, 0, 13, 13, i * 17, 0, 13, 13);
+        }
+    }
+
+    private void drawDeath(RosterEntry entry) {
+        GraphicsContext gc = deathCanvas.getGraphicsContext2D();
+        gc.clearRect(0, 0, deathCanvas.getWidth(), deathCanvas.getHeight());
+
+        if (entry.isDead()) {
+            gc.setStroke(Color.RED);
+            gc.setLineWidth(4);
+            gc.strokeLine(0, 0, deathCanvas.getWidth(), deathCanvas.getHeight());
+            gc.strokeLine(deathCanvas.getWidth(), 0, 0, deathCanvas.getHeight());
+        }
     }
 }
@@ -1,10 +1,12 @@
 package ui.battle;
 
+import javafx.application.Platform;
+import javafx.beans.InvalidationListener;
+import javafx.beans.WeakInvalidationListener;
 import javafx.beans.binding.StringExpression;
 import javafx.beans.property.*;
 import javafx.beans.value.ChangeListener;
 import javafx.collections.FXCollections;
-import javafx.collections.ListChangeListener;
 import javafx.geometry.Insets;
 import javafx.geometry.Orientation;
 import javafx.geometry.Pos;
@@ -14,8 +16,12 @@ import javafx.scene.layout.*;
 import javafx.scene.text.Font;
 import javafx.scene.text.FontWeight;
 import javafx.stage.FileChooser;
+import manager.BattleLoadService;
+import manager.BattleSaveService;
+import manager.BattleSerializer;
 import manager.LanguageUtility;
 import model.Battle;
+import model.battle.InitiativeScheduler;
 import model.interfaces.WithToStringProperty;
 import model.loot.LootTable;
 import model.member.BattleMember;
@@ -27,9 +33,13 @@ import ui.battle.state.AllMemberStateView;
 import ui.battle.state.MemberStateView;
 import ui.part.NumStringConverter;
 import ui.part.UpdatingListCell;
+import ui.utility.InfoView;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.LinkedList;
 
 import static ui.ViewFactory.labelRegion;
@@ -39,22 +49,22 @@ public class BattleView extends ConfigurableViewPart {
 
     private final Battle battle;
 
-    private final HashMap<BattleMember, BattleMemberPane> panes;
-    private final ObjectProperty<BattleMemberPane> selectedSource;
-    private final ObjectProperty<BattleMemberPane> selectedTarget;
+    private final ObjectProperty<BattleMember> selectedSource;
+    private final ObjectProperty<BattleMember> selectedTarget;
 
     private final IntegerProperty damage;
     private final IntegerProperty heal;
     private final IntegerProperty penetration;
 
-    private final FlowPane players;
-    private final FlowPane enemies;
+    private final Roster players;
+    private final Roster enemies;
+    private final ListView<RosterEntry> playerList;
+    private final ListView<RosterEntry> enemyList;
 
     public BattleView(IView parent) {
         super(parent);
         this.battle = new Battle();
         this.nameProperty().bindBidirectional(battle.nameProperty());
-        this.panes = new HashMap<>();
         this.selectedSource = new SimpleObjectProperty<>();
         this.selectedTarget = new SimpleObjectProperty<>();
         this.setClosable(true);
@@ -66,95 +76,69 @@ public class BattleView extends ConfigurableViewPart {
         BorderPane root = new BorderPane();
         root.setPadding(new Insets(10));
 
+        VBox top = new VBox(5);
+        root.setTop(top);
+
         HBox headlineBox = new HBox();
         headlineBox.setAlignment(Pos.CENTER);
         headlineBox.setPadding(new Insets(0, 0, 5, 0));
-        root.setTop(headlineBox);
+        top.getChildren().add(headlineBox);
 
         Label headline = new Label();
         headline.textProperty().bind(LanguageUtility.getMessageProperty("battle.round").concat(" ").concat(battle.roundProperty()));
         headline.setFont(Font.font("", FontWeight.EXTRA_BOLD, 20));
         headlineBox.getChildren().add(headline);
 
+        ListView<InitiativeScheduler.Action> timeline = new ListView<>();
+        timeline.setOrientation(Orientation.HORIZONTAL);
+        timeline.setPrefHeight(45);
+        timeline.setCellFactory(list -> new TimelineCell());
+        timeline.getItems().setAll(battle.getScheduler().getTimeline());
+        timeline.setOnMouseClicked(ev -> {
+            InitiativeScheduler.Action action = timeline.getSelectionModel().getSelectedItem();
+            if (action != null) {
+                selectTarget(action.getMember());
+                scrollTo(action.getMember());
+            }
+        });
+        top.getChildren().add(timeline);
+
+        // Collects all changes of a pulse into one update of the timeline
+        battle.getScheduler().validProperty().addListener((ob, o, valid) -> {
+            if (!valid) {
+                Platform.runLater(() -> timeline.getItems().setAll(battle.getScheduler().getTimeline()));
+            }
+        });
+
         HBox memberPart = new HBox(10);
         root.setCenter(memberPart);
 
-        ScrollPane memberScroll = new ScrollPane();
-        memberScroll.setVbarPolicy(ScrollPane.ScrollBarPolicy.AS_NEEDED);
-        memberScroll.setHbarPolicy(ScrollPane.ScrollBarPolicy.NEVER);
-        memberScroll.setBackground(Background.EMPTY);
-        memberScroll.setFitToWidth(true);
-        memberScroll.setPrefWidth(600);
-        memberPart.getChildren().add(memberScroll);
-
+        // Only the visible rows get a pane, the cells are reused while scrolling
         VBox memberLists = new VBox(5);
         memberLists.setPadding(new Insets(10));
         memberLists.setAlignment(Pos.TOP_LEFT);
-        memberScroll.setContent(memberLists);
+        memberLists.setPrefWidth(600);
+        memberPart.getChildren().add(memberLists);
 
         Label playerLabel = new Label();
         playerLabel.textProperty().bind(LanguageUtility.getMessageProperty("players"));
         playerLabel.setFont(new Font(20));
         memberLists.getChildren().add(playerLabel);
 
-        this.players = new FlowPane();
-        memberLists.getChildren().add(players);
-
-        battle.playersProperty().addListener((ListChangeListener<? super BattleMember>) change -> {
-            while (change.next()) {
-
-                for (BattleMember member : change.getAddedSubList()) {
-                    BattleMemberPane pane = new BattleMemberPane(member);
-                    pane.addEventFilter(MouseEvent.MOUSE_CLICKED, event -> {
-                        if (event.isControlDown()) {
-                            selectSource(pane);
-                        } else {
-                            selectTarget(pane);
-                        }
-                    });
-                    panes.put(member, pane);
-
-                    players.getChildren().add(pane);
-                }
-
-                for (BattleMember member : change.getRemoved()) {
-                    players.getChildren().remove(panes.get(member));
-                    panes.remove(member);
-                }
-            }
-        });
+        this.players = new Roster(battle.playersProperty(), false);
+        this.playerList = createMemberList(players);
+        memberLists.getChildren().add(playerList);
 
         Label enemyLabel = new Label();
         enemyLabel.textProperty().bind(LanguageUtility.getMessageProperty("enemies"));
         enemyLabel.setFont(new Font(20));
         memberLists.getChildren().add(enemyLabel);
 
-        this.enemies = new FlowPane();
-        memberLists.getChildren().add(enemies);
-
-        battle.enemiesProperty().addListener((ListChangeListener<? super BattleMember>) change -> {
-            while (change.next()) {
-
-                for (BattleMember member : change.getAddedSubList()) {
-                    BattleMemberPane pane = new BattleMemberPane(member);
-                    pane.addEventFilter(MouseEvent.MOUSE_CLICKED, event -> {
-                        if (event.isControlDown()) {
-                            selectSource(pane);
-                        } else {
-                            selectTarget(pane);
-                        }
-                    });
-                    panes.put(member, pane);
-
-                    enemies.getChildren().add(pane);
-                }
-
-                for (BattleMember member : change.getRemoved()) {
-                    enemies.getChildren().remove(panes.get(member));
-                    panes.remove(member);
-                }
-            }
-        });
+        // Many enemies of the same kind are shown in one row
+        this.enemies = new Roster(battle.enemiesProperty(), true);
+        this.enemyList = createMemberList(enemies);
+        VBox.setVgrow(enemyList, Priority.ALWAYS);
+        memberLists.getChildren().add(enemyList);
 
         Separator separator = new Separator();
         separator.setOrientation(Orientation.VERTICAL);
@@ -197,12 +181,12 @@ public class BattleView extends ConfigurableViewPart {
 
         HBox blockBox = labelRegion("battle.info.block", 40, blockField, 110, blockCombo);
 
-        ChangeListener<BattleMemberPane> changeListener = (ob, o, memberPane) -> {
+        ChangeListener<BattleMember> changeListener = (ob, o, member) -> {
             info.getChildren().clear();
             info.getChildren().add(infoLabel);
 
-            final BattleMember target = selectedTarget.get() != null ? selectedTarget.get().getBattleMember() : null;
-            final BattleMember source = selectedSource.get() != null ? selectedSource.get().getBattleMember() : null;
+            final BattleMember target = selectedTarget.get();
+            final BattleMember source = selectedSource.get();
 
             if (target == null) {
                 info.getChildren().add(emptyLabel);
@@ -404,11 +388,22 @@ public class BattleView extends ConfigurableViewPart {
         allStatusButton.textProperty().bind(LanguageUtility.getMessageProperty("battle.button.allStatus"));
         allStatusButton.setPrefWidth(110);
         allStatusButton.setOnAction(event -> {
-            BattleMember source = selectedSource.get() != null ? selectedSource.get().getBattleMember() : null;
-            new AllMemberStateView(battle, source);
+            new AllMemberStateView(battle, selectedSource.get());
         });
         utilityButtons.add(allStatusButton, 1, 1);
 
+        Button saveButton = new Button();
+        saveButton.textProperty().bind(LanguageUtility.getMessageProperty("battle.button.save"));
+        saveButton.setPrefWidth(110);
+        saveButton.setOnAction(event -> save());
+        utilityButtons.add(saveButton, 2, 0);
+
+        Button openButton = new Button();
+        openButton.textProperty().bind(LanguageUtility.getMessageProperty("battle.button.open"));
+        openButton.setPrefWidth(110);
+        openButton.setOnAction(event -> open());
+        utilityButtons.add(openButton, 2, 1);
+
         this.setContent(root);
     }
 
@@ -453,16 +448,14 @@ public class BattleView extends ConfigurableViewPart {
 
     private void removeMember() {
         if (selectedTarget.get() != null) {
-            battle.removeMember(selectedTarget.get().getBattleMember());
-            players.getChildren().remove(selectedTarget.get());
-            enemies.getChildren().remove(selectedTarget.get());
+            battle.removeMember(selectedTarget.get());
             selectTarget(null);
         }
     }
 
     private void cloneMember() {
         if (selectedTarget.get() != null) {
-            BattleMember member = selectedTarget.get().getBattleMember();
+            BattleMember member = selectedTarget.get();
             if (battle.isPlayer(member)) {
                 battle.createPlayer(member);
             } else {
@@ -471,23 +464,35 @@ public class BattleView extends ConfigurableViewPart {
         }
     }
 
-    private void selectTarget(BattleMemberPane pane) {
-        if (selectedTarget.get() != null) {
-            selectedTarget.get().setPrimarySelected(false);
-        }
-        selectedTarget.set(pane);
-        if (pane != null) {
-            pane.setPrimarySelected(true);
-        }
+    private void selectTarget(BattleMember member) {
+        selectedTarget.set(member);
+    }
+
+    private void selectSource(BattleMember member) {
+        selectedSource.set(member);
+    }
+
+    private ListView<RosterEntry> createMemberList(Roster roster) {
+        ListView<RosterEntry> list = new ListView<>(roster.getEntries());
+        list.setCellFactory(view -> new MemberCell(roster));
+        list.setPrefHeight(150);
+        return list;
     }
 
-    private void selectSource(BattleMemberPane pane) {
-        if (selectedSource.get() != null) {
-            selectedSource.get().setSecondarySelected(false);
+    /**
+     * Shows the row of the member, expands its group if it is collapsed.
+     */
+    private void scrollTo(BattleMember member) {
+        Roster roster = battle.isPlayer(member) ? players : enemies;
+        ListView<RosterEntry> list = battle.isPlayer(member) ? playerList : enemyList;
+
+        int index = roster.indexOf(member);
+        if (index >= 0 && roster.getEntries().get(index).isGroup()) {
+            roster.toggle(roster.getEntries().get(index));
+            index = roster.indexOf(member);
         }
-        selectedSource.set(pane);
-        if (pane != null) {
-            pane.setSecondarySelected(true);
+        if (index >= 0) {
+            list.scrollTo(index);
         }
     }
 
@@ -499,10 +504,153 @@ public class BattleView extends ConfigurableViewPart {
         battle.load(chooser.showOpenDialog(getStage()), enemy);
     }
 
+    private void save() {
+        FileChooser chooser = new FileChooser();
+        chooser.setInitialFileName(battle.getName() + ".battle");
+        chooser.getExtensionFilters().addAll(
+                new FileChooser.ExtensionFilter(LanguageUtility.getMessage("battleFile"), "*.battle"),
+                new FileChooser.ExtensionFilter(LanguageUtility.getMessage("allFiles"), "*.*"));
+        File file = chooser.showSaveDialog(getStage());
+
+        if (file == null) {
+            return;
+        }
+
+        // The battle is written here to save a consistent state, the file is written in the background
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        try {
+            BattleSerializer.write(battle, stream);
+        } catch (IOException e) {
+            showError("battle.saveError", e);
+            return;
+        }
+
+        BattleSaveService service = new BattleSaveService();
+        service.setFile(file);
+        service.setData(stream.toByteArray());
+        service.setOnFailed(event -> showError("battle.saveError", service.getException()));
+        service.start();
+    }
+
+    private void open() {
+        FileChooser chooser = new FileChooser();
+        chooser.getExtensionFilters().addAll(
+                new FileChooser.ExtensionFilter(LanguageUtility.getMessage("battleFile"), "*.battle"),
+                new FileChooser.ExtensionFilter(LanguageUtility.getMessage("allFiles"), "*.*"));
+        File file = chooser.showOpenDialog(getStage());
+
+        if (file == null) {
+            return;
+        }
+
+        BattleLoadService service = new BattleLoadService();
+        service.setFile(file);
+        service.setOnSucceeded(event -> {
+            selectTarget(null);
+            selectSource(null);
+
+            try {
+                BattleSerializer.read(battle, new ByteArrayInputStream(service.getValue()));
+            } catch (IOException e) {
+                showError("battle.loadError", e);
+            }
+        });
+        service.setOnFailed(event -> showError("battle.loadError", service.getException()));
+        service.start();
+    }
+
+    private void showError(String title, Throwable exception) {
+        exception.printStackTrace();
+
+        InfoView info = new InfoView(title);
+        info.add(exception.getLocalizedMessage() != null ? exception.getLocalizedMessage() : exception.toString());
+        info.show();
+    }
+
     private void spawn(boolean enemy) {
         new SpawnView(battle, enemy);
     }
 
+    /**
+     * A row of the member lists, the pane is kept when the list shows another row in this cell.
+     */
+    private class MemberCell extends ListCell<RosterEntry> {
+
+        private final BattleMemberPane pane;
+        // Cells thrown away by the list must not be kept alive by the selection
+        private final InvalidationListener updateSelected = ob -> updateSelected();
+
+        private MemberCell(Roster roster) {
+            this.pane = new BattleMemberPane();
+            this.setContentDisplay(ContentDisplay.GRAPHIC_ONLY);
+
+            pane.addEventFilter(MouseEvent.MOUSE_CLICKED, event -> {
+                RosterEntry entry = getItem();
+                if (entry == null) {
+                    return;
+                }
+
+                if (entry.isGroup()) {
+                    roster.toggle(entry);
+                } else if (event.isControlDown()) {
+                    selectSource(entry.getMember());
+                } else {
+                    selectTarget(entry.getMember());
+                }
+            });
+
+            // The selection is shown by the pane, not by the list
+            this.setStyle("-fx-background-color: transparent;");
+            selectedTarget.addListener(new WeakInvalidationListener(updateSelected));
+            selectedSource.addListener(new WeakInvalidationListener(updateSelected));
+        }
+
+        @Override
+        protected void updateItem(RosterEntry entry, boolean empty) {
+            super.updateItem(entry, empty);
+
+            if (empty || entry == null) {
+                pane.setEntry(null);
+                setGraphic(null);
+            } else {
+                pane.setEntry(entry);
+                setGraphic(pane);
+            }
+            updateSelected();
+        }
+
+        private void updateSelected() {
+            RosterEntry entry = getItem();
+            boolean single = entry != null && !isEmpty() && !entry.isGroup();
+            pane.setPrimarySelected(single && entry.getMember() == selectedTarget.get());
+            pane.setSecondarySelected(single && entry.getMember() == selectedSource.get());
+        }
+    }
+
+    private class TimelineCell extends ListCell<InitiativeScheduler.Action> {
+
+        @Override
+        protected void updateItem(InitiativeScheduler.Action action, boolean empty) {
+            super.updateItem(action, empty);
+
+            if (empty || action == null) {
+                setText(null);
+                setStyle(null);
+            } else {
+                setText(LanguageUtility.getMessage("battle.timeline.round.short") + action.getRound()
+                        + ": " + action.getMember().getName());
+
+                if (action.getRound() != battle.roundProperty().get()) {
+                    setStyle("-fx-text-fill: gray;");
+                } else if (battle.isPlayer(action.getMember())) {
+                    setStyle("-fx-text-fill: blue;");
+                } else {
+                    setStyle("-fx-text-fill: red;");
+                }
+            }
+        }
+    }
+
     private enum ShieldEnum implements WithToStringProperty {
         with, without;
 
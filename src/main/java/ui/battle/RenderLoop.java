@@ -0,0 +1,100 @@
+package ui.battle;
+
+import javafx.animation.AnimationTimer;
+import javafx.beans.InvalidationListener;
+import javafx.beans.Observable;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+
+/**
+ * Redraws parts of the battle view at most once per animation pulse.
+ * A part is marked dirty by any number of changes, e.g. the damage of all states at the start of a turn,
+ * and is drawn once in the next pulse. The shared loop only runs while something is dirty.
+ */
+public class RenderLoop {
+
+    private static RenderLoop shared;
+
+    private final LinkedHashSet<Runnable> dirty;
+    private final AnimationTimer timer;
+    private boolean running;
+
+    /**
+     * Creates a loop without a timer, it only draws when {@link #pulse()} is called.
+     */
+    public RenderLoop() {
+        this(false);
+    }
+
+    private RenderLoop(boolean animated) {
+        this.dirty = new LinkedHashSet<>();
+        this.timer = animated ? new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                pulse();
+            }
+        } : null;
+    }
+
+    /**
+     * @return the loop of all battle member panes, driven by an animation timer
+     */
+    public static RenderLoop getShared() {
+        if (shared == null) {
+            shared = new RenderLoop(true);
+        }
+        return shared;
+    }
+
+    /**
+     * Marks the part dirty whenever one of the dependencies changes.
+     * The renderer has to read the dependencies, otherwise only their first change is noticed.
+     *
+     * @return the listener, which has to be removed from the dependencies when the part isn't shown anymore
+     */
+    public InvalidationListener watch(Runnable renderer, Observable... dependencies) {
+        InvalidationListener listener = ob -> markDirty(renderer);
+        for (Observable dependency : dependencies) {
+            dependency.addListener(listener);
+        }
+        return listener;
+    }
+
+    /**
+     * Removes a listener of {@link #watch(Runnable, Observable...)}, e.g. when a reused cell shows another member.
+     */
+    public void unwatch(InvalidationListener listener, Observable... dependencies) {
+        for (Observable dependency : dependencies) {
+            dependency.removeListener(listener);
+        }
+    }
+
+    public void markDirty(Runnable renderer) {
+        dirty.add(renderer);
+
+        if (timer != null && !running) {
+            running = true;
+            timer.start();
+        }
+    }
+
+    /**
+     * Draws every dirty part once.
+     */
+    public void pulse() {
+        // Drawing may mark other parts dirty, they are drawn in the next pulse
+        ArrayList<Runnable> renderers = new ArrayList<>(dirty);
+        dirty.clear();
+        renderers.forEach(Runnable::run);
+
+        if (timer != null && dirty.isEmpty()) {
+            running = false;
+            timer.stop();
+        }
+    }
+
+    public boolean isDirty() {
+        return !dirty.isEmpty();
+    }
+}
@@ -0,0 +1,103 @@
+package ui.battle;
+
+import javafx.beans.InvalidationListener;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import model.member.BattleMember;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+/**
+ * The rows of a list of battle members for a list view, which only creates nodes for the visible rows.
+ * Members with the same name and level can be grouped into one row, e.g. a hundred goblins,
+ * a group can be expanded to show its members below it.
+ */
+public class Roster {
+
+    // Fewer members with the same name and level are shown one by one
+    public static final int GROUP_SIZE = 3;
+
+    private final ObservableList<BattleMember> members;
+    private final boolean grouping;
+    private final ObservableList<RosterEntry> entries;
+    private final HashSet<String> expanded;
+
+    public Roster(ObservableList<BattleMember> members, boolean grouping) {
+        this.members = members;
+        this.grouping = grouping;
+        this.entries = FXCollections.observableArrayList();
+        this.expanded = new HashSet<>();
+
+        members.addListener((InvalidationListener) ob -> rebuild());
+        rebuild();
+    }
+
+    private void rebuild() {
+        List<RosterEntry> rows = new ArrayList<>();
+
+        if (!grouping) {
+            for (BattleMember member : members) {
+                rows.add(new RosterEntry(member));
+            }
+            entries.setAll(rows);
+            return;
+        }
+
+        LinkedHashMap<String, List<BattleMember>> groups = new LinkedHashMap<>();
+        for (BattleMember member : members) {
+            groups.computeIfAbsent(getKey(member), key -> new ArrayList<>()).add(member);
+        }
+
+        groups.forEach((key, group) -> {
+            if (group.size() < GROUP_SIZE) {
+                group.forEach(member -> rows.add(new RosterEntry(member)));
+            } else {
+                boolean open = expanded.contains(key);
+                rows.add(new RosterEntry(group, true, open));
+                if (open) {
+                    group.forEach(member -> rows.add(new RosterEntry(member)));
+                }
+            }
+        });
+        entries.setAll(rows);
+    }
+
+    private static String getKey(BattleMember member) {
+        return member.getName() + "\u0000" + member.getLevel();
+    }
+
+    /**
+     * Shows or hides the members of the group.
+     */
+    public void toggle(RosterEntry group) {
+        String key = getKey(group.getMember());
+        if (!expanded.remove(key)) {
+            expanded.add(key);
+        }
+        rebuild();
+    }
+
+    /**
+     * @return the row of the member, the row of its group if the group is collapsed, or -1
+     */
+    public int indexOf(BattleMember member) {
+        int groupIndex = -1;
+        for (int index = 0; index < entries.size(); index++) {
+            RosterEntry entry = entries.get(index);
+            if (!entry.isGroup() && entry.getMember() == member) {
+                return index;
+            }
+            if (entry.isGroup() && entry.getMembers().contains(member)) {
+                groupIndex = index;
+            }
+        }
+        return groupIndex;
+    }
+
+    public ObservableList<RosterEntry> getEntries() {
+        return entries;
+    }
+}
@@ -0,0 +1,89 @@
+package ui.battle;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import model.member.BattleMember;
+import model.member.state.interfaces.IMemberState;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A row of a {@link Roster}, either a single member or a group of members with the same name and level.
+ * The values of a group are the sums of its members.
+ */
+public class RosterEntry {
+
+    private final List<BattleMember> members;
+    private final boolean group;
+    private final boolean expanded;
+
+    public RosterEntry(BattleMember member) {
+        this(Collections.singletonList(member), false, false);
+    }
+
+    public RosterEntry(List<BattleMember> members, boolean group, boolean expanded) {
+        this.members = members;
+        this.group = group;
+        this.expanded = expanded;
+    }
+
+    public List<BattleMember> getMembers() {
+        return members;
+    }
+
+    /**
+     * @return the member of a single row or the first member of a group
+     */
+    public BattleMember getMember() {
+        return members.get(0);
+    }
+
+    public boolean isGroup() {
+        return group;
+    }
+
+    /**
+     * @return true if the members of the group are shown below it
+     */
+    public boolean isExpanded() {
+        return expanded;
+    }
+
+    public int getLife() {
+        return members.stream().mapToInt(member -> Math.max(0, member.getLife())).sum();
+    }
+
+    public int getMaxLife() {
+        return members.stream().mapToInt(BattleMember::getMaxLife).sum();
+    }
+
+    public int getMana() {
+        return members.stream().mapToInt(member -> Math.max(0, member.getMana())).sum();
+    }
+
+    public int getMaxMana() {
+        return members.stream().mapToInt(BattleMember::getMaxMana).sum();
+    }
+
+    /**
+     * @return the most turns of a member in this round
+     */
+    public int getTurns() {
+        return members.stream().mapToInt(BattleMember::getTurns).max().orElse(0);
+    }
+
+    /**
+     * @return true if all members are dead
+     */
+    public boolean isDead() {
+        return members.stream().allMatch(member -> member.getLife() < 1);
+    }
+
+    /**
+     * @return the states of a single member, groups don't show states
+     */
+    public ObservableList<IMemberState> getStates() {
+        return group ? FXCollections.emptyObservableList() : getMember().statesProperty();
+    }
+}
@@ -0,0 +1,97 @@
+package ui.battle;
+
+import javafx.beans.InvalidationListener;
+import javafx.beans.Observable;
+import model.member.BattleMember;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Draws a {@link RosterEntry} with a {@link RenderLoop}. Every value of the entry which gets drawn is watched,
+ * so the entry is drawn at most once per pulse, no matter how often its members change in between.
+ */
+public class RosterEntryRenderer {
+
+    private final RenderLoop loop;
+    private final Consumer<RosterEntry> drawer;
+    private final List<Observable> layout;
+    private final Runnable renderer;
+    private RosterEntry entry;
+    private InvalidationListener watcher;
+    private Observable[] dependencies;
+
+    /**
+     * @param loop   which draws the entry
+     * @param drawer draws an entry, it has to read the values of the members
+     * @param layout other values the drawing depends on, e.g. the size of a canvas
+     */
+    public RosterEntryRenderer(RenderLoop loop, Consumer<RosterEntry> drawer, Observable... layout) {
+        this.loop = loop;
+        this.drawer = drawer;
+        this.layout = List.of(layout);
+        this.renderer = this::render;
+    }
+
+    /**
+     * Draws another entry, the values of the previous entry aren't watched anymore.
+     *
+     * @param entry the row or null to draw nothing and release the members
+     */
+    public void setEntry(RosterEntry entry) {
+        if (watcher != null) {
+            loop.unwatch(watcher, dependencies);
+            watcher = null;
+        }
+        this.entry = entry;
+
+        if (entry == null) {
+            return;
+        }
+
+        List<Observable> watched = new ArrayList<>();
+        for (BattleMember battleMember : entry.getMembers()) {
+            watched.add(battleMember.lifeProperty());
+            watched.add(battleMember.maxLifeProperty());
+            watched.add(battleMember.manaProperty());
+            watched.add(battleMember.maxManaProperty());
+            watched.add(battleMember.turnsProperty());
+        }
+        if (!entry.isGroup()) {
+            BattleMember member = entry.getMember();
+            watched.add(member.statesProperty());
+            if (member.getBattle() != null) {
+                // Area effects add their states without a change of the state list
+                watched.add(member.getBattle().changedStatesProperty());
+            }
+        }
+        watched.addAll(layout);
+
+        // A turn changes the values of many members several times, the entry is drawn once afterwards
+        this.dependencies = watched.toArray(new Observable[0]);
+        this.watcher = loop.watch(renderer, dependencies);
+        render();
+    }
+
+    public RosterEntry getEntry() {
+        return entry;
+    }
+
+    /**
+     * @return the values which mark the entry dirty, empty if no entry is drawn
+     */
+    public List<Observable> getDependencies() {
+        return watcher != null ? List.of(dependencies) : Collections.emptyList();
+    }
+
+    /**
+     * Draws the entry at once.
+     */
+    public void render() {
+        if (entry != null) {
+            drawer.accept(entry);
+        }
+    }
+}
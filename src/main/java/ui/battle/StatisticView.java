@@ -3,31 +3,79 @@ package ui.battle;
 import javafx.beans.property.ReadOnlyDoubleWrapper;
 import javafx.beans.property.ReadOnlyIntegerWrapper;
 import javafx.beans.property.ReadOnlyStringWrapper;
+import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.geometry.Insets;
+import javafx.scene.Node;
 import javafx.scene.Scene;
+import javafx.scene.chart.LineChart;
+import javafx.scene.chart.NumberAxis;
+import javafx.scene.chart.PieChart;
+import javafx.scene.chart.XYChart;
+import javafx.scene.control.ComboBox;
+import javafx.scene.control.Tab;
+import javafx.scene.control.TabPane;
 import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableView;
 import javafx.scene.layout.BorderPane;
 import model.Battle;
+import model.battle.BattleStatistic;
+import model.battle.StatisticType;
 import model.member.BattleMember;
+import model.member.data.AttackTypes;
 import ui.View;
+import ui.part.UpdatingListCell;
 
+import static manager.LanguageUtility.getMessage;
 import static manager.LanguageUtility.getMessageProperty;
 
 public class StatisticView extends View {
 
+    private static final int TOP_SOURCES = 10;
+
+    private final Battle battle;
+    private final BattleStatistic statistic;
+
     public StatisticView(ObservableList<BattleMember> members, Battle battle) {
         super("statistics.title");
+        this.battle = battle;
+        this.statistic = battle.getStatistic();
+
+        TabPane root = new TabPane();
+        root.setTabClosingPolicy(TabPane.TabClosingPolicy.UNAVAILABLE);
+
+        TableView<BattleMember> battleView = createOverview(members);
+
+        Tab overviewTab = new Tab();
+        overviewTab.textProperty().bind(getMessageProperty("statistics.tab.overview"));
+        overviewTab.setContent(wrap(battleView));
+        root.getTabs().add(overviewTab);
+
+        Tab roundsTab = new Tab();
+        roundsTab.textProperty().bind(getMessageProperty("statistics.tab.rounds"));
+        roundsTab.setContent(createRounds(members));
+        root.getTabs().add(roundsTab);
+
+        Tab attackTypesTab = new Tab();
+        attackTypesTab.textProperty().bind(getMessageProperty("statistics.tab.attackTypes"));
+        attackTypesTab.setContent(createAttackTypes(battleView));
+        root.getTabs().add(attackTypesTab);
 
-        BorderPane root = new BorderPane();
-        root.setPadding(new Insets(20, 5, 20, 4));
+        Tab topSourcesTab = new Tab();
+        topSourcesTab.textProperty().bind(getMessageProperty("statistics.tab.topSources"));
+        topSourcesTab.setContent(createTopSources());
+        root.getTabs().add(topSourcesTab);
 
+        Scene scene = new Scene(root);
+        stage.setScene(scene);
+        stage.show();
+    }
+
+    private TableView<BattleMember> createOverview(ObservableList<BattleMember> members) {
         TableView<BattleMember> battleView = new TableView<>();
         battleView.setPrefHeight(100);
         battleView.setItems(members);
         battleView.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY);
-        root.setCenter(battleView);
 
         TableColumn<BattleMember, String> nameC = new TableColumn<>();
         nameC.textProperty().bind(getMessageProperty("statistics.name"));
@@ -60,9 +108,123 @@ public class StatisticView extends View {
                         .asObject());
         battleView.getColumns().add(healPRC);
 
-        Scene scene = new Scene(root);
-        stage.setScene(scene);
-        stage.show();
+        TableColumn<BattleMember, Integer> shieldC = new TableColumn<>();
+        shieldC.textProperty().bind(getMessageProperty("statistics.shield"));
+        shieldC.setCellValueFactory(b -> new ReadOnlyIntegerWrapper(battle.getDamageAbsorbed(b.getValue())).asObject());
+        battleView.getColumns().add(shieldC);
+
+        return battleView;
+    }
+
+    private BorderPane createRounds(ObservableList<BattleMember> members) {
+        NumberAxis roundAxis = new NumberAxis();
+        roundAxis.labelProperty().bind(getMessageProperty("statistics.round"));
+        roundAxis.setTickUnit(1);
+        roundAxis.setMinorTickVisible(false);
+
+        LineChart<Number, Number> chart = new LineChart<>(roundAxis, new NumberAxis());
+        chart.setAnimated(false);
+        chart.setCreateSymbols(false);
+
+        ComboBox<StatisticType> typeBox = createTypeBox();
+        typeBox.getSelectionModel().selectedItemProperty().addListener((ob, o, type) -> {
+            int[] total = statistic.getCurve(type);
+            // Round 0 only exists after a reset of the battle
+            int firstRound = total.length > 0 && total[0] == 0 ? 1 : 0;
+
+            chart.getData().clear();
+            chart.getData().add(createSeries(getMessage("statistics.total"), total, firstRound));
+
+            for (BattleMember member : members) {
+                chart.getData().add(createSeries(member.getName(), statistic.getCurve(type, member), firstRound));
+            }
+        });
+        typeBox.getSelectionModel().selectFirst();
+
+        BorderPane pane = wrap(chart);
+        pane.setTop(typeBox);
+        return pane;
+    }
+
+    private XYChart.Series<Number, Number> createSeries(String name, int[] curve, int firstRound) {
+        XYChart.Series<Number, Number> series = new XYChart.Series<>();
+        series.setName(name);
+
+        for (int round = firstRound; round < curve.length; round++) {
+            series.getData().add(new XYChart.Data<>(round, curve[round]));
+        }
+
+        return series;
+    }
+
+    private BorderPane createAttackTypes(TableView<BattleMember> battleView) {
+        PieChart chart = new PieChart();
+        chart.setAnimated(false);
+
+        updateAttackTypes(chart, null);
+        battleView.getSelectionModel().selectedItemProperty()
+                .addListener((ob, o, member) -> updateAttackTypes(chart, member));
+
+        return wrap(chart);
+    }
+
+    private void updateAttackTypes(PieChart chart, BattleMember member) {
+        chart.getData().clear();
+
+        if (member == null) {
+            chart.setTitle(getMessage("statistics.total"));
+        } else {
+            chart.setTitle(member.getName());
+        }
+
+        for (AttackTypes type : AttackTypes.values()) {
+            long damage = member == null ? statistic.getDamage(type) : statistic.getDamage(member, type);
+
+            if (damage > 0) {
+                chart.getData().add(new PieChart.Data(type.toString(), damage));
+            }
+        }
+    }
+
+    private BorderPane createTopSources() {
+        TableView<BattleMember> topView = new TableView<>();
+        topView.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY);
+
+        ComboBox<StatisticType> typeBox = createTypeBox();
+
+        TableColumn<BattleMember, String> nameC = new TableColumn<>();
+        nameC.textProperty().bind(getMessageProperty("statistics.name"));
+        nameC.setCellValueFactory(b -> new ReadOnlyStringWrapper(b.getValue().getName()));
+        topView.getColumns().add(nameC);
+
+        TableColumn<BattleMember, Integer> valueC = new TableColumn<>();
+        valueC.textProperty().bind(getMessageProperty("statistics.value"));
+        valueC.setCellValueFactory(b ->
+                new ReadOnlyIntegerWrapper(statistic.getTotal(typeBox.getValue(), b.getValue())).asObject());
+        topView.getColumns().add(valueC);
+
+        typeBox.getSelectionModel().selectedItemProperty().addListener((ob, o, type) ->
+                topView.setItems(FXCollections.observableArrayList(statistic.getTopSources(type, TOP_SOURCES))));
+        typeBox.getSelectionModel().selectFirst();
+
+        BorderPane pane = wrap(topView);
+        pane.setTop(typeBox);
+        return pane;
+    }
+
+    private ComboBox<StatisticType> createTypeBox() {
+        ComboBox<StatisticType> typeBox = new ComboBox<>();
+        typeBox.setItems(FXCollections.observableArrayList(StatisticType.values()));
+        typeBox.setCellFactory(list -> new UpdatingListCell<>());
+        typeBox.setButtonCell(new UpdatingListCell<>());
+        return typeBox;
+    }
+
+    private BorderPane wrap(Node node) {
+        BorderPane pane = new BorderPane();
+        pane.setPadding(new Insets(20, 5, 20, 4));
+        pane.setCenter(node);
+        return pane;
     }
 
     private double round(double value) {
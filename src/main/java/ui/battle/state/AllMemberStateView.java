@@ -1,5 +1,6 @@
 package ui.battle.state;
 
+import javafx.beans.binding.Bindings;
 import javafx.beans.property.*;
 import javafx.collections.FXCollections;
 import javafx.collections.ListChangeListener;
@@ -14,6 +15,7 @@ import javafx.scene.text.Font;
 import javafx.scene.text.FontWeight;
 import manager.LanguageUtility;
 import model.Battle;
+import model.battle.AreaSelection;
 import model.member.BattleMember;
 import model.member.data.AttackTypes;
 import model.member.state.interfaces.IActiveRounderMemberState;
@@ -26,17 +28,22 @@ import ui.part.NumberField;
 import ui.part.UpdatingListCell;
 
 import java.util.HashMap;
+import java.util.List;
+import java.util.stream.Collectors;
 
 import static ui.ViewFactory.labelRegion;
 import static ui.ViewFactory.labelTextField;
 
 public class AllMemberStateView extends View {
 
+    private final Battle battle;
     private final HashMap<BattleMember, BattleMemberPane> panes;
     private final ListProperty<BattleMemberPane> selected;
+    private final ListChangeListener<BattleMember> playerListener, enemyListener;
 
     public AllMemberStateView(Battle battle, BattleMember source) {
         super("allState.title");
+        this.battle = battle;
         this.panes = new HashMap<>();
         this.selected = new SimpleListProperty<>(FXCollections.observableArrayList());
 
@@ -77,7 +84,7 @@ public class AllMemberStateView extends View {
         FlowPane players = new FlowPane();
         memberLists.getChildren().add(players);
 
-        battle.playersProperty().addListener((ListChangeListener<? super BattleMember>) change -> {
+        this.playerListener = change -> {
             while (change.next()) {
 
                 for (BattleMember member : change.getAddedSubList()) {
@@ -89,11 +96,16 @@ public class AllMemberStateView extends View {
                 }
 
                 for (BattleMember member : change.getRemoved()) {
-                    players.getChildren().remove(panes.get(member));
-                    panes.remove(member);
+                    BattleMemberPane pane = panes.remove(member);
+                    if (pane != null) {
+                        players.getChildren().remove(pane);
+                        selected.remove(pane);
+                        pane.setEntry(null);
+                    }
                 }
             }
-        });
+        };
+        battle.playersProperty().addListener(playerListener);
 
         for (BattleMember member : battle.playersProperty()) {
             BattleMemberPane pane = new BattleMemberPane(member);
@@ -111,7 +123,7 @@ public class AllMemberStateView extends View {
         FlowPane enemies = new FlowPane();
         memberLists.getChildren().add(enemies);
 
-        battle.enemiesProperty().addListener((ListChangeListener<? super BattleMember>) change -> {
+        this.enemyListener = change -> {
             while (change.next()) {
 
                 for (BattleMember member : change.getAddedSubList()) {
@@ -123,11 +135,16 @@ public class AllMemberStateView extends View {
                 }
 
                 for (BattleMember member : change.getRemoved()) {
-                    enemies.getChildren().remove(panes.get(member));
-                    panes.remove(member);
+                    BattleMemberPane pane = panes.remove(member);
+                    if (pane != null) {
+                        enemies.getChildren().remove(pane);
+                        selected.remove(pane);
+                        pane.setEntry(null);
+                    }
                 }
             }
-        });
+        };
+        battle.enemiesProperty().addListener(enemyListener);
 
         for (BattleMember member : battle.enemiesProperty()) {
             BattleMemberPane pane = new BattleMemberPane(member);
@@ -226,13 +243,20 @@ public class AllMemberStateView extends View {
             createButton.textProperty().bind(LanguageUtility.getMessageProperty("state.info.add"));
             createButton.setPrefWidth(215);
             createButton.setOnAction(ev -> {
-                for (BattleMemberPane pane : selected) {
-                    pane.getBattleMember().addState(
-                            effectComboBox.getValue().create(name.getName(), Integer.parseInt(durationField.getText()),
-                                    activeComboBox.getValue() == Rounds.activeRounds, Float.parseFloat(powerField.getText()),
-                                    randomComboBox.getValue() == Dice.with, typeComboBox.getValue(), source));
-                }
-                info.getChildren().add(createButton);
+                MemberStateFactory stateFactory = effectComboBox.getValue();
+                String stateName = name.get();
+                int duration = Integer.parseInt(durationField.getText());
+                boolean activeRounder = activeComboBox.getValue() == Rounds.activeRounds;
+                float power = Float.parseFloat(powerField.getText());
+                boolean random = randomComboBox.getValue() == Dice.with;
+                AttackTypes type = typeComboBox.getValue();
+
+                List<BattleMember> targets = selected.stream()
+                        .map(BattleMemberPane::getBattleMember)
+                        .collect(Collectors.toList());
+
+                battle.addState(() -> stateFactory.create(stateName, duration, activeRounder, power, random, type, source),
+                        targets);
             });
             info.getChildren().add(createButton);
         });
@@ -240,13 +264,76 @@ public class AllMemberStateView extends View {
 
         //Buttons
         BorderPane buttonPane = new BorderPane();
+        buttonPane.setPadding(new Insets(10, 0, 0, 0));
         root.setBottom(buttonPane);
 
+        HBox selectionBox = new HBox(5);
+        selectionBox.setAlignment(Pos.CENTER_LEFT);
+        buttonPane.setLeft(selectionBox);
+
+        ComboBox<AreaSelection> areaComboBox = new ComboBox<>();
+        areaComboBox.setItems(FXCollections.observableArrayList(AreaSelection.values()));
+        areaComboBox.setCellFactory(list -> new UpdatingListCell<>());
+        areaComboBox.setButtonCell(new UpdatingListCell<>());
+        areaComboBox.getSelectionModel().selectFirst();
+        areaComboBox.setPrefWidth(150);
+        selectionBox.getChildren().add(areaComboBox);
+
+        NumberField thresholdField = new NumberField();
+        thresholdField.setPrefWidth(50);
+        thresholdField.visibleProperty().bind(Bindings.createBooleanBinding(
+                () -> areaComboBox.getValue() != null && areaComboBox.getValue().usesThreshold(),
+                areaComboBox.valueProperty()));
+        selectionBox.getChildren().add(thresholdField);
+
+        Button selectButton = new Button();
+        selectButton.textProperty().bind(LanguageUtility.getMessageProperty("allState.button.select"));
+        selectButton.setPrefWidth(100);
+        selectButton.setOnAction(ev ->
+                select(areaComboBox.getValue().select(battle, (int) thresholdField.getNumber())));
+        selectionBox.getChildren().add(selectButton);
+
+        Button clearButton = new Button();
+        clearButton.textProperty().bind(LanguageUtility.getMessageProperty("allState.button.clear"));
+        clearButton.setPrefWidth(100);
+        clearButton.setOnAction(ev -> select(List.of()));
+        selectionBox.getChildren().add(clearButton);
+
         Scene scene = new Scene(root);
         stage.setScene(scene);
         show();
     }
 
+    /**
+     * Stops watching the battle, the panes don't get redrawn anymore.
+     */
+    @Override
+    protected void onClose() {
+        battle.playersProperty().removeListener(playerListener);
+        battle.enemiesProperty().removeListener(enemyListener);
+        for (BattleMemberPane pane : panes.values()) {
+            pane.setEntry(null);
+        }
+        panes.clear();
+        selected.clear();
+    }
+
+    private void select(List<BattleMember> members) {
+        for (BattleMemberPane pane : selected) {
+            pane.setPrimarySelected(false);
+        }
+        selected.clear();
+
+        for (BattleMember member : members) {
+            BattleMemberPane pane = panes.get(member);
+
+            if (pane != null) {
+                pane.setPrimarySelected(true);
+                selected.add(pane);
+            }
+        }
+    }
+
     private void select(BattleMemberPane pane) {
         pane.setPrimarySelected(!pane.isPrimarySelected());
         if (pane.isPrimarySelected()) {
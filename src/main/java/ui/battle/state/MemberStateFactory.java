@@ -43,6 +43,10 @@ public class MemberStateFactory implements WithToStringProperty {
         return defaultState;
     }
 
+    public String getKey() {
+        return key;
+    }
+
     @Override
     public ReadOnlyStringProperty toStringProperty() {
         return LanguageUtility.getMessageProperty(key);
@@ -126,4 +130,21 @@ public class MemberStateFactory implements WithToStringProperty {
 
         FACTORIES = Collections.unmodifiableList(INTERN_FACTORIES);
     }
+
+    /**
+     * @param key the message key of the factory
+     * @return the factory with the given key or null
+     */
+    public static MemberStateFactory getFactory(String key) {
+        return FACTORIES.stream().filter(factory -> factory.key.equals(key)).findFirst().orElse(null);
+    }
+
+    /**
+     * @param state which was created by a factory
+     * @return the factory which creates states of the same class or null
+     */
+    public static MemberStateFactory getFactory(IMemberState state) {
+        return FACTORIES.stream().filter(factory -> factory.defaultState.getClass() == state.getClass())
+                .findFirst().orElse(null);
+    }
 }
@@ -107,6 +107,25 @@ public class MemberStateView extends View {
             states.getChildren().add(pane);
         }
 
+        // Area effects add their states without a change of the state list
+        if (target.getBattle() != null) {
+            target.getBattle().changedStatesProperty().addListener((ob, o, members) -> {
+                if (!members.contains(target)) {
+                    return;
+                }
+
+                for (IMemberState state : target.statesProperty()) {
+                    if (!panes.containsKey(state)) {
+                        MemberStatePane pane = new MemberStatePane(state);
+                        pane.addEventFilter(MouseEvent.MOUSE_CLICKED, event -> select(pane));
+                        panes.put(state, pane);
+
+                        states.getChildren().add(pane);
+                    }
+                }
+            });
+        }
+
         Separator separator = new Separator();
         separator.setOrientation(Orientation.VERTICAL);
         memberPart.getChildren().add(separator);
@@ -0,0 +1,48 @@
+package ui.map;
+
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import javafx.scene.paint.Color;
+
+/**
+ * Paints a map into the graphics context of a JavaFX canvas.
+ */
+public class CanvasMapPainter extends MapPainter {
+
+    private final GraphicsContext context;
+
+    public CanvasMapPainter(GraphicsContext context) {
+        this.context = context;
+    }
+
+    @Override
+    protected void fillRectangle(double x, double y, double width, double height, Color color) {
+        context.setFill(color);
+        context.fillRect(x, y, width, height);
+    }
+
+    @Override
+    protected void drawRegion(Image image, double sourceX, double sourceY, double sourceWidth, double sourceHeight,
+                              double x, double y, double width, double height) {
+        context.drawImage(image, sourceX, sourceY, sourceWidth, sourceHeight, x, y, width, height);
+    }
+
+    @Override
+    protected void drawRotatedRegion(Image image, double sourceX, double sourceY, double sourceWidth, double sourceHeight,
+                                     double x, double y, double width, double height, int turns) {
+        double centerX = x + width / 2;
+        double centerY = y + height / 2;
+
+        context.save();
+        context.translate(centerX, centerY);
+        context.rotate(turns * 90);
+        context.translate(-centerX, -centerY);
+        if (turns % 2 == 0) {
+            context.drawImage(image, sourceX, sourceY, sourceWidth, sourceHeight, x, y, width, height);
+        } else {
+            context.drawImage(image, sourceX, sourceY, sourceWidth, sourceHeight,
+                    x + (width - height) / 2, y + (height - width) / 2, height, width);
+        }
+        context.restore();
+    }
+}
@@ -0,0 +1,93 @@
+package ui.map;
+
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.paint.Color;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Paints a map into an image without the JavaFX application thread,
+ * so several painters can render parts of a map in parallel.
+ */
+public class ImageMapPainter extends MapPainter {
+
+    // Textures converted to images of the painter, shared by all painters
+    private static final Map<Image, BufferedImage> CONVERTED = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private final BufferedImage image;
+    private final Graphics2D graphics;
+
+    public ImageMapPainter(int width, int height) {
+        this.image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        this.graphics = image.createGraphics();
+        this.graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+    }
+
+    /**
+     * Fills the whole image, e.g. before the next part of a map gets painted.
+     */
+    public void clear(Color color) {
+        graphics.setColor(convert(color));
+        graphics.fillRect(0, 0, image.getWidth(), image.getHeight());
+    }
+
+    public BufferedImage getImage() {
+        return image;
+    }
+
+    @Override
+    protected void fillRectangle(double x, double y, double width, double height, Color color) {
+        int left = (int) Math.round(x);
+        int top = (int) Math.round(y);
+
+        graphics.setColor(convert(color));
+        graphics.fillRect(left, top, (int) Math.round(x + width) - left, (int) Math.round(y + height) - top);
+    }
+
+    @Override
+    protected void drawRegion(Image image, double sourceX, double sourceY, double sourceWidth, double sourceHeight,
+                              double x, double y, double width, double height) {
+        graphics.drawImage(convert(image),
+                (int) Math.round(x), (int) Math.round(y), (int) Math.round(x + width), (int) Math.round(y + height),
+                (int) sourceX, (int) sourceY, (int) (sourceX + sourceWidth), (int) (sourceY + sourceHeight), null);
+    }
+
+    @Override
+    protected void drawRotatedRegion(Image image, double sourceX, double sourceY, double sourceWidth, double sourceHeight,
+                                     double x, double y, double width, double height, int turns) {
+        AffineTransform transform = graphics.getTransform();
+        graphics.rotate(Math.toRadians(turns * 90), x + width / 2, y + height / 2);
+        if (turns % 2 == 0) {
+            drawRegion(image, sourceX, sourceY, sourceWidth, sourceHeight, x, y, width, height);
+        } else {
+            drawRegion(image, sourceX, sourceY, sourceWidth, sourceHeight,
+                    x + (width - height) / 2, y + (height - width) / 2, height, width);
+        }
+        graphics.setTransform(transform);
+    }
+
+    private static java.awt.Color convert(Color color) {
+        return new java.awt.Color((float) color.getRed(), (float) color.getGreen(), (float) color.getBlue(),
+                (float) color.getOpacity());
+    }
+
+    private static BufferedImage convert(Image texture) {
+        return CONVERTED.computeIfAbsent(texture, key -> {
+            int width = (int) key.getWidth();
+            int height = (int) key.getHeight();
+            int[] pixels = new int[width * height];
+            key.getPixelReader().getPixels(0, 0, width, height, PixelFormat.getIntArgbInstance(), pixels, 0, width);
+
+            BufferedImage converted = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+            converted.setRGB(0, 0, width, height, pixels, 0, width);
+            return converted;
+        });
+    }
+}
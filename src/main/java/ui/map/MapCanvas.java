@@ -1,42 +1,108 @@
 package ui.map;
 
+import javafx.application.Platform;
+import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.IntegerProperty;
 import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.ReadOnlyIntegerProperty;
+import javafx.beans.property.SimpleBooleanProperty;
 import javafx.beans.property.SimpleIntegerProperty;
+import javafx.beans.property.SimpleObjectProperty;
+import javafx.scene.SnapshotParameters;
 import javafx.scene.canvas.Canvas;
 import javafx.scene.canvas.GraphicsContext;
-import javafx.scene.image.Image;
+import javafx.scene.image.WritableImage;
 import javafx.scene.layout.Pane;
 import javafx.scene.layout.StackPane;
 import javafx.scene.paint.Color;
-import javafx.scene.transform.Affine;
-import javafx.scene.transform.Rotate;
+import model.map.ChunkedMap;
+import model.map.HeatMap;
 import model.map.Map;
-import model.map.object.IPosition;
 import model.map.object.loot.LootObject;
 import model.map.object.room.RoomObject;
 
-public class MapCanvas extends Pane implements IMapCanvas {
-
-    private final Canvas mapCanvas, infoCanvas;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static manager.LanguageUtility.getMessage;
+
+/**
+ * Draws a layer of a map. Each layer is rasterized into tiles at the current zoom,
+ * panning only blits the visible tiles. Tiles are rendered again if the zoom changes
+ * or if they got invalidated.
+ * The tiles are painted by a {@link CanvasMapPainter}.
+ * Chunks of a {@link ChunkedMap} are generated in the background as soon as they get close to the view.
+ * The chest values or distances of the rooms can be shown as a heat map over the layer.
+ */
+public class MapCanvas extends Pane {
+
+    // Preferred size of a tile in pixels
+    private static final int TILE_SIZE = 256;
+    private static final int MAX_TILES = 128;
+    // Scrolling had no lower limit before, so the zoom could reach zero and mirror the map.
+    // Zooming out stays possible below one cell per pixel, e.g. to see a whole streamed map.
+    private static final double MIN_ZOOM = 0.1;
+    // Chunks around the view which are generated in advance
+    private static final int CHUNK_MARGIN = 1;
+
+    private final Canvas mapCanvas, infoCanvas, tileCanvas;
     private final GraphicsContext mapContext, infoContext;
+    private final CanvasMapPainter tilePainter;
     private final ObjectProperty<Map> map;
     private final IntegerProperty mouseX, mouseZ;
+    private final BooleanProperty debug;
+    private final ObjectProperty<HeatMap> heatMap;
+    private final LinkedHashMap<Long, WritableImage> tiles;
+    private final SnapshotParameters snapshotParameters;
+    private final HashSet<Long> requestedChunks;
+    // Requested chunks which aren't generated yet, the closest to the center of the view first
+    private final PriorityQueue<Long> pendingChunks;
+    private double pendingCenterX, pendingCenterZ;
+    private boolean generatingChunks;
+    private ExecutorService chunkExecutor;
+    private volatile Map streamedMap;
 
     private double offsetX, offsetY;
     private double prevX, prevY;
     private double zoom;
 
+    private double tileZoom;
+    private int tileCells;
+    private int drawCalls, renderedTiles, shownTiles;
+
     private final IntegerProperty shownYLayer;
 
     public MapCanvas(ObjectProperty<Map> map, IntegerProperty shownYLayer) {
         this.mapCanvas = new Canvas(300, 300);
         this.infoCanvas = new Canvas(300, 300);
+        this.tileCanvas = new Canvas();
         this.mapContext = mapCanvas.getGraphicsContext2D();
         this.infoContext = infoCanvas.getGraphicsContext2D();
+        this.tilePainter = new CanvasMapPainter(tileCanvas.getGraphicsContext2D());
         this.mouseX = new SimpleIntegerProperty(0);
         this.mouseZ = new SimpleIntegerProperty(0);
+        this.debug = new SimpleBooleanProperty(false);
+        this.debug.addListener((ob, o, n) -> refresh());
+        this.heatMap = new SimpleObjectProperty<>(HeatMap.none);
+        this.heatMap.addListener((ob, o, n) -> redraw());
+        this.tiles = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(java.util.Map.Entry<Long, WritableImage> eldest) {
+                return size() > MAX_TILES;
+            }
+        };
+        this.snapshotParameters = new SnapshotParameters();
+        this.snapshotParameters.setFill(Color.TRANSPARENT);
+        this.requestedChunks = new HashSet<>();
+        this.pendingChunks = new PriorityQueue<>(Comparator.comparingDouble(key ->
+                Math.hypot((getChunkX(key) + 0.5) * ChunkedMap.CHUNK_SIZE - pendingCenterX,
+                        (getChunkZ(key) + 0.5) * ChunkedMap.CHUNK_SIZE - pendingCenterZ)));
 
         this.offsetX = 0;
         this.offsetY = 0;
@@ -68,7 +134,7 @@ public class MapCanvas extends Pane implements IMapCanvas {
             prevY = y;
         });
         this.setOnScroll(event -> {
-            zoom += event.getDeltaY() / 100;
+            zoom = Math.max(MIN_ZOOM, zoom + event.getDeltaY() / 100);
             moveOffset(event.getDeltaY() / 200, event.getDeltaY() / 200);
             refresh();
         });
@@ -84,267 +150,281 @@ public class MapCanvas extends Pane implements IMapCanvas {
 
                 this.drawInfoHud(event.getX(), event.getY(), mapX, mapZ);
             }
+            drawDebugOverlay();
             infoContext.restore();
         });
         this.map.addListener((ob, o, n) -> {
-            this.offsetX = -(getWidth()/zoom - n.getWidth())/2;
-            this.offsetY = -(getHeight()/zoom - n.getDepth())/2;
+            tiles.clear();
+            requestedChunks.clear();
+            synchronized (pendingChunks) {
+                pendingChunks.clear();
+            }
+            streamedMap = n;
+            if (n != null) {
+                this.offsetX = -(getWidth() / zoom - n.getWidth()) / 2;
+                this.offsetY = -(getHeight() / zoom - n.getDepth()) / 2;
+            }
         });
     }
 
+    /**
+     * Draws the visible tiles, only tiles which aren't cached get rendered.
+     */
     public void refresh() {
         clear();
+        drawCalls = 0;
+        renderedTiles = 0;
+        shownTiles = 0;
+
         if (map.get() != null) {
+            Map m = map.get();
+
             mapContext.save();
             mapContext.setFill(Color.WHITE);
             mapContext.fillRect(0, 0, mapCanvas.getWidth(), mapCanvas.getHeight());
 
             mapContext.setFill(Color.BLACK);
             mapContext.fillRect((-offsetX - 1) * zoom, (-offsetY - 1) * zoom,
-                    (map.get().getWidth() + 2) * zoom, (map.get().getDepth() + 2) * zoom);
-            drawRectangle(0, shownYLayer.get(), 0, map.get().getWidth(), map.get().getDepth(), 0, Color.WHITE);
-
+                    (m.getWidth() + 2) * zoom, (m.getDepth() + 2) * zoom);
+            mapContext.setFill(Color.WHITE);
+            mapContext.fillRect(-offsetX * zoom, -offsetY * zoom, m.getWidth() * zoom, m.getDepth() * zoom);
             mapContext.restore();
+            drawCalls += 3;
 
+            if (tileZoom != zoom) {
+                tiles.clear();
+                tileZoom = zoom;
+                tileCells = Math.max(1, (int) Math.ceil(TILE_SIZE / zoom));
+            }
 
-            map.get().draw(this);
-        }
-    }
+            if (m instanceof ChunkedMap) {
+                requestChunks((ChunkedMap) m);
+            }
 
-    protected void drawHelp() {
-        for (int z = 0; z < map.get().getDepth(); z++) {
-            for (int x = 0; x < map.get().getWidth(); x++) {
-                RoomObject room = map.get().getRoomObject(x, shownYLayer.get(), z);
-                if (room != null) {
-                    mapContext.save();
-                    mapContext.setFill(Color.RED);
-                    mapContext.fillRect(x * 10 + 1, z * 10 + 1, 8, 8);
-                    mapContext.restore();
+            int layer = shownYLayer.get();
+            int firstX = Math.max(0, (int) Math.floor(offsetX / tileCells));
+            int firstZ = Math.max(0, (int) Math.floor(offsetY / tileCells));
+            int lastX = Math.min((m.getWidth() - 1) / tileCells,
+                    (int) Math.floor((offsetX + mapCanvas.getWidth() / zoom) / tileCells));
+            int lastZ = Math.min((m.getDepth() - 1) / tileCells,
+                    (int) Math.floor((offsetY + mapCanvas.getHeight() / zoom) / tileCells));
+
+            for (int tileX = firstX; tileX <= lastX; tileX++) {
+                for (int tileZ = firstZ; tileZ <= lastZ; tileZ++) {
+                    long key = getTileKey(layer, tileX, tileZ);
+                    WritableImage tile = tiles.get(key);
+
+                    if (tile == null) {
+                        tile = renderTile(m, tileX, tileZ);
+                        tiles.put(key, tile);
+                    }
+
+                    mapContext.drawImage(tile, (tileX * tileCells - offsetX) * zoom, (tileZ * tileCells - offsetY) * zoom);
+                    drawCalls++;
+                    shownTiles++;
                 }
             }
         }
-    }
 
-    public void clear() {
-        infoContext.clearRect(0, 0, infoCanvas.getWidth(), infoCanvas.getHeight());
-        mapContext.clearRect(0, 0, mapCanvas.getWidth(), mapCanvas.getHeight());
+        drawDebugOverlay();
     }
 
-    @Override
-    public void drawRectangle(int x, int y, int z, int width, int depth, int rotation) {
-        drawRectangle(x, y, z, width, depth, rotation, Color.BLACK);
-    }
+    /**
+     * Generates the missing chunks in and around the view in the background, the closest first.
+     * All requests wait in one queue which is sorted again by the distance to the current view,
+     * requests which left the view and its margin are dropped and can be requested again later.
+     * The tiles of a chunk are rendered again as soon as it is done.
+     */
+    private void requestChunks(ChunkedMap m) {
+        int firstX = (int) Math.floor(offsetX / ChunkedMap.CHUNK_SIZE) - CHUNK_MARGIN;
+        int firstZ = (int) Math.floor(offsetY / ChunkedMap.CHUNK_SIZE) - CHUNK_MARGIN;
+        int lastX = (int) Math.floor((offsetX + mapCanvas.getWidth() / zoom) / ChunkedMap.CHUNK_SIZE) + CHUNK_MARGIN;
+        int lastZ = (int) Math.floor((offsetY + mapCanvas.getHeight() / zoom) / ChunkedMap.CHUNK_SIZE) + CHUNK_MARGIN;
+
+        synchronized (pendingChunks) {
+            List<Long> keys = new ArrayList<>(pendingChunks);
+            pendingChunks.clear();
+
+            keys.removeIf(key -> {
+                int chunkX = getChunkX(key);
+                int chunkZ = getChunkZ(key);
+                if (chunkX < firstX || chunkX > lastX || chunkZ < firstZ || chunkZ > lastZ) {
+                    requestedChunks.remove(key);
+                    return true;
+                }
+                return false;
+            });
+
+            for (int chunkX = Math.max(0, firstX); chunkX <= Math.min(m.getChunksX() - 1, lastX); chunkX++) {
+                for (int chunkZ = Math.max(0, firstZ); chunkZ <= Math.min(m.getChunksZ() - 1, lastZ); chunkZ++) {
+                    long key = ((long) chunkX << 32) | chunkZ;
+                    if (requestedChunks.add(key)) {
+                        keys.add(key);
+                    }
+                }
+            }
 
-    @Override
-    public void drawRectangle(int x, int y, int z, int width, int depth, int rotation, Color color) {
-        if (outOfBounds(x, y, z, width, 1, depth, rotation)) {
-            return;
-        }
+            // The order of the queue depends on the center, so it is filled again after the center moved
+            pendingCenterX = offsetX + mapCanvas.getWidth() / zoom / 2;
+            pendingCenterZ = offsetY + mapCanvas.getHeight() / zoom / 2;
+            pendingChunks.addAll(keys);
 
-        double canvasX = (x - offsetX) * zoom;
-        double canvasY = (z - offsetY) * zoom;
+            if (pendingChunks.isEmpty() || generatingChunks) {
+                return;
+            }
+            generatingChunks = true;
+        }
 
-        mapContext.save();
-        mapContext.setFill(color);
-        if (rotation % 2 == 0) {
-            mapContext.fillRect(canvasX, canvasY, width * zoom, depth * zoom);
-        } else {
-            mapContext.fillRect(canvasX, canvasY, depth * zoom, width * zoom);
+        if (chunkExecutor == null) {
+            chunkExecutor = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable);
+                thread.setDaemon(true);
+                return thread;
+            });
         }
-        mapContext.restore();
+        chunkExecutor.execute(this::generateChunks);
     }
 
-    @Override
-    public void drawImage(Image image, int x, int y, int z, int width, int depth, int rotation) {
-        drawImage(image, 0, 0, image.getWidth(), image.getHeight(),
-                x, y, z, width, depth, rotation);
-    }
+    /**
+     * Generates the pending chunks one by one until the queue is empty.
+     */
+    private void generateChunks() {
+        while (true) {
+            long key;
+            synchronized (pendingChunks) {
+                Long next = pendingChunks.poll();
+                if (next == null) {
+                    generatingChunks = false;
+                    return;
+                }
+                key = next;
+            }
 
-    @Override
-    public void drawImage(Image image, double sourceX, double sourceY, double sourceWidth, double sourceHeight,
-                          int x, int y, int z, int width, int depth, int rotation) {
-        if (outOfBounds(x, y, z, width, 1, depth, rotation)) {
-            return;
-        }
+            // The map could have been replaced in the meantime
+            Map m = streamedMap;
+            int chunkX = getChunkX(key);
+            int chunkZ = getChunkZ(key);
+            if (!(m instanceof ChunkedMap) || !((ChunkedMap) m).generateChunk(chunkX, chunkZ)) {
+                continue;
+            }
 
-        double canvasX = (x - offsetX) * zoom;
-        double canvasY = (z - offsetY) * zoom;
-
-        mapContext.save();
-        switch (rotation) {
-            case 1:
-                canvasX += depth * zoom;
-                break;
-            case 2:
-                canvasX += width * zoom;
-                canvasY += depth * zoom;
-                break;
-            case 3:
-                canvasY += width * zoom;
-                break;
+            Platform.runLater(() -> {
+                if (map.get() == m && heatMap.get() != HeatMap.none) {
+                    // The new rooms may change the distances and the colors of the whole map
+                    redraw();
+                } else if (map.get() == m) {
+                    // Connecting the chunk changes the walls at the borders of its neighbours
+                    invalidate(chunkX * ChunkedMap.CHUNK_SIZE - 1, 0, chunkZ * ChunkedMap.CHUNK_SIZE - 1,
+                            ChunkedMap.CHUNK_SIZE + 2, m.getHeight(), ChunkedMap.CHUNK_SIZE + 2);
+                    refresh();
+                }
+            });
         }
-
-        mapContext.transform(new Affine(new Rotate(rotation * 90, canvasX, canvasY)));
-        mapContext.drawImage(image, sourceX, sourceY, sourceWidth, sourceHeight, canvasX, canvasY, width * zoom, depth * zoom);
-        mapContext.restore();
     }
 
-    @Override
-    public void drawImage(Image image, IPosition position) {
-        drawImage(image, position.getX(), position.getY(), position.getZ(), position.getWidth(), position.getDepth(), position.getRotation());
+    private static int getChunkX(long key) {
+        return (int) (key >> 32);
     }
 
-    @Override
-    public void drawImage(Image image, IPosition position, int offsetX, int offsetY, int offsetZ, int width, int depth, int rotation) {
-        drawImage(image, 0, 0, image.getWidth(), image.getHeight(),
-                position, offsetX, offsetY, offsetZ, width, depth, rotation);
+    private static int getChunkZ(long key) {
+        return (int) key;
     }
 
-    @Override
-    public void drawImage(Image image, double sourceX, double sourceY, double sourceWidth, double sourceHeight,
-                          IPosition position) {
-        drawImage(image, sourceX, sourceY, sourceWidth, sourceHeight,
-                position.getX(), position.getY(), position.getZ(), position.getWidth(), position.getDepth(), position.getRotation());
+    /**
+     * Drops all tiles and draws the map again, e.g. after the map got generated.
+     */
+    public void redraw() {
+        tiles.clear();
+        refresh();
     }
 
-    @Override
-    public void drawImage(Image image, double sourceX, double sourceY, double sourceWidth, double sourceHeight,
-                          IPosition position, int offsetX, int offsetY, int offsetZ, int width, int depth, int rotation) {
-        if (outOfBounds(position.getX(), position.getY(), position.getZ(), position.getWidth(), 1, position.getDepth(), position.getRotation())) {
+    /**
+     * Drops the tiles which show a part of the region, they get rendered again with the next refresh.
+     */
+    public void invalidate(int x, int y, int z, int width, int height, int depth) {
+        if (tileCells == 0) {
             return;
         }
 
-        double canvasX = (position.getX() - this.offsetX) * zoom;
-        double canvasY = (position.getZ() - this.offsetY) * zoom;
-
-        mapContext.save();
-        switch (position.getRotation()) {
-            case 1:
-                canvasX += position.getDepth() * zoom;
-                break;
-            case 2:
-                canvasX += position.getWidth() * zoom;
-                canvasY += position.getDepth() * zoom;
-                break;
-            case 3:
-                canvasY += position.getWidth() * zoom;
-                break;
-        }
-        mapContext.transform(new Affine(new Rotate(position.getRotation() * 90, canvasX, canvasY)));
-
-        canvasX += offsetX * zoom;
-        canvasY += offsetZ * zoom;
-
-        mapContext.transform(new Affine(new Rotate(rotation * 90, canvasX, canvasY)));
-
-        switch (rotation) {
-            case 1:
-                canvasY -= width * zoom;
-                break;
-            case 2:
-                canvasX -= width * zoom;
-                canvasY -= width * zoom;
-                break;
-            case 3:
-                canvasX -= width * zoom;
-                break;
+        for (int layer = y; layer < y + height; layer++) {
+            for (int tileX = Math.max(0, x / tileCells); tileX <= (x + width - 1) / tileCells; tileX++) {
+                for (int tileZ = Math.max(0, z / tileCells); tileZ <= (z + depth - 1) / tileCells; tileZ++) {
+                    tiles.remove(getTileKey(layer, tileX, tileZ));
+                }
+            }
         }
+    }
 
-        mapContext.drawImage(image, sourceX, sourceY, sourceWidth, sourceHeight, canvasX, canvasY, width * zoom, depth * zoom);
-        mapContext.restore();
+    /**
+     * Renders all objects of the shown layer inside the tile into a transparent image.
+     */
+    private WritableImage renderTile(Map m, int tileX, int tileZ) {
+        double size = Math.ceil(tileCells * zoom);
+        tileCanvas.setWidth(size);
+        tileCanvas.setHeight(size);
+        tileCanvas.getGraphicsContext2D().clearRect(0, 0, size, size);
+
+        tilePainter.setView(tileX * tileCells, tileZ * tileCells, zoom, size, size, shownYLayer.get());
+        tilePainter.setHeatMap(heatMap.get());
+        tilePainter.resetDrawCalls();
+        tilePainter.draw(m);
+        drawCalls += tilePainter.getDrawCalls();
+
+        renderedTiles++;
+        return tileCanvas.snapshot(snapshotParameters, null);
     }
 
-    @Override
-    public void drawPerspectiveImage(Image image, int x, int y, int z, int width, int height, int depth, int rotation) {
-        drawPerspectiveImage(image, 0, 0, image.getWidth() / 4, image.getHeight() / height,
-                x, y, z, width, height, depth, rotation);
+    private long getTileKey(int layer, int tileX, int tileZ) {
+        return ((long) layer << 42) | ((long) tileX << 21) | tileZ;
     }
 
-    @Override
-    public void drawPerspectiveImage(Image image, double sourceX, double sourceY, double sourceWidth, double sourceHeight,
-                                     int x, int y, int z, int width, int height, int depth, int rotation) {
-        if (outOfBounds(x, y, z, width, height, depth, rotation)) {
+    private void drawDebugOverlay() {
+        if (!debug.get()) {
             return;
         }
 
-        int usingHeight = shownYLayer.get() - y;
-
-        double canvasX = (x - offsetX) * zoom;
-        double canvasY = (z - offsetY) * zoom;
-
-        sourceX += sourceWidth * ((rotation + 4) % 4);
-        sourceY += sourceHeight * usingHeight;
-        mapContext.drawImage(image, sourceX, sourceY, sourceWidth, sourceHeight, canvasX, canvasY, width * zoom, depth * zoom);
+        String text = getMessage("map.info.drawCalls") + ": " + drawCalls
+                + "\n" + getMessage("map.info.tiles") + ": " + shownTiles
+                + " (" + renderedTiles + " " + getMessage("map.info.rendered")
+                + ", " + tiles.size() + " " + getMessage("map.info.cached") + ")";
+
+        infoContext.save();
+        infoContext.setFill(Color.color(1, 1, 1, 0.8));
+        infoContext.fillRect(5, 5, 300, 40);
+        infoContext.setFill(Color.BLACK);
+        infoContext.fillText(text, 10, 20);
+        infoContext.restore();
     }
 
-    @Override
-    public void drawPerspectiveImage(Image image, IPosition position) {
-        int size = Math.max(position.getWidth(), position.getDepth());
-        drawPerspectiveImage(image, position.getX(), position.getY(), position.getZ(), size, position.getHeight(), size, position.getRotation());
+    protected void drawHelp() {
+        for (int z = 0; z < map.get().getDepth(); z++) {
+            for (int x = 0; x < map.get().getWidth(); x++) {
+                RoomObject room = map.get().getRoomObject(x, shownYLayer.get(), z);
+                if (room != null) {
+                    mapContext.save();
+                    mapContext.setFill(Color.RED);
+                    mapContext.fillRect(x * 10 + 1, z * 10 + 1, 8, 8);
+                    mapContext.restore();
+                }
+            }
+        }
     }
 
-    @Override
-    public void drawPerspectiveImage(Image image, IPosition position, int offsetX, int offsetY, int offsetZ, int width, int height, int depth, int rotation) {
-        drawPerspectiveImage(image, 0, 0, image.getWidth() / 4, image.getHeight() / height,
-                position, offsetX, offsetY, offsetZ, width, height, depth, rotation);
+    public void clear() {
+        infoContext.clearRect(0, 0, infoCanvas.getWidth(), infoCanvas.getHeight());
+        mapContext.clearRect(0, 0, mapCanvas.getWidth(), mapCanvas.getHeight());
     }
 
-    @Override
-    public void drawPerspectiveImage(Image image, double sourceX, double sourceY, double sourceWidth, double sourceHeight,
-                                     IPosition position) {
-        drawPerspectiveImage(image, sourceX, sourceY, sourceWidth, sourceHeight,
-                position.getX(), position.getY(), position.getZ(), position.getWidth(), position.getHeight(), position.getDepth(), position.getRotation());
+    public double getZoom() {
+        return zoom;
     }
 
-    @Override
-    public void drawPerspectiveImage(Image image, double sourceX, double sourceY, double sourceWidth, double sourceHeight,
-                                     IPosition position, int offsetX, int offsetY, int offsetZ, int width, int height, int depth, int rotation) {
-        if (outOfBounds(position.getX(), position.getY() + offsetY, position.getZ(), position.getWidth(), height, position.getDepth(), position.getRotation())) {
-            return;
-        }
-
-        double canvasX = (position.getX() - this.offsetX) * zoom;
-        double canvasY = (position.getZ() - this.offsetY) * zoom;
-        int usingHeight = shownYLayer.get() - (position.getY() + offsetY);
-
-        mapContext.save();
-        switch (position.getRotation()) {
-            case 1:
-                canvasX += position.getDepth() * zoom;
-                break;
-            case 2:
-                canvasX += position.getWidth() * zoom;
-                canvasY += position.getDepth() * zoom;
-                break;
-            case 3:
-                canvasY += position.getWidth() * zoom;
-                break;
-        }
-        mapContext.transform(new Affine(new Rotate(position.getRotation() * 90, canvasX, canvasY)));
-
-        canvasX += offsetX * zoom;
-        canvasY += offsetZ * zoom;
-
-        mapContext.transform(new Affine(new Rotate(position.getRotation() * -90, canvasX, canvasY)));
-
-        switch (position.getRotation()) {
-            case 1:
-                canvasX -= width * zoom;
-                break;
-            case 2:
-                canvasX -= width * zoom;
-                canvasY -= depth * zoom;
-                break;
-            case 3:
-                canvasY -= width * zoom;
-                break;
-        }
-
-        int size = Math.max(width, height);
-        sourceX += sourceWidth * ((((rotation + position.getRotation()) % 4) + 4) % 4);
-        sourceY += sourceHeight * usingHeight;
-        mapContext.drawImage(image, sourceX, sourceY, sourceWidth, sourceHeight, canvasX, canvasY, size * zoom, size * zoom);
-        mapContext.restore();
+    /**
+     * @param zoom the size of one cell in pixels
+     */
+    public void setZoom(double zoom) {
+        this.zoom = zoom;
+        refresh();
     }
 
     public double getOffsetY() {
@@ -365,22 +445,6 @@ public class MapCanvas extends Pane implements IMapCanvas {
         setOffset(getOffsetX() + offsetX, getOffsetY() + offsetY);
     }
 
-    private boolean outOfBounds(int x, int y, int z, int width, int height, int depth, int rotation) {
-        if (shownYLayer.get() < y || y + height <= shownYLayer.get()) {
-            return true;
-        }
-        if (rotation % 2 == 0) {
-            if (x + width < offsetX || z + depth < offsetY) {
-                return true;
-            }
-        } else {
-            if (x + depth < offsetX || z + width < offsetY) {
-                return true;
-            }
-        }
-        return mapCanvas.getWidth() / zoom + offsetX < x || mapCanvas.getHeight() / zoom + offsetY < z;
-    }
-
     private void drawInfoHud(double x, double y, int mapX, int mapZ) {
         LootObject loot = map.get().getLootObject(mapX, shownYLayer.get(), mapZ);
         if (loot != null) {
@@ -400,6 +464,20 @@ public class MapCanvas extends Pane implements IMapCanvas {
         }
     }
 
+    /**
+     * @return true if the draw calls of the last frame are shown
+     */
+    public BooleanProperty debugProperty() {
+        return debug;
+    }
+
+    /**
+     * @return the values of the rooms shown over the map
+     */
+    public ObjectProperty<HeatMap> heatMapProperty() {
+        return heatMap;
+    }
+
     public ReadOnlyIntegerProperty getMouseX() {
         return mouseX;
     }
@@ -0,0 +1,368 @@
+package ui.map;
+
+import javafx.scene.image.Image;
+import javafx.scene.paint.Color;
+import model.map.HeatMap;
+import model.map.Map;
+import model.map.object.IPosition;
+import model.map.specification.texture.TextureAtlas;
+import model.map.specification.texture.TextureHandler;
+
+/**
+ * Places the objects of a map layer on a two dimensional target.
+ * Rotated textures are blitted from their pre-rotated copy in the atlas of the map,
+ * below {@link #LOD_ZOOM} pixels per cell they are drawn as flat rectangles in their average color.
+ * Subclasses only fill rectangles and copy image regions into their target.
+ * A heat map of the room graph can be painted over the objects.
+ */
+public abstract class MapPainter implements IMapCanvas {
+
+    public static final double LOD_ZOOM = 4;
+
+    protected double offsetX, offsetY;
+    protected double zoom;
+    // Size of the target in pixels
+    protected double viewWidth, viewHeight;
+    protected int layer;
+    protected TextureAtlas atlas;
+    protected HeatMap heatMap = HeatMap.none;
+    protected int drawCalls;
+
+    /**
+     * @param offsetX the map coordinate shown at the left border
+     * @param offsetY the map coordinate shown at the top border
+     * @param zoom    the size of one cell in pixels
+     */
+    public void setView(double offsetX, double offsetY, double zoom, double viewWidth, double viewHeight, int layer) {
+        this.offsetX = offsetX;
+        this.offsetY = offsetY;
+        this.zoom = zoom;
+        this.viewWidth = viewWidth;
+        this.viewHeight = viewHeight;
+        this.layer = layer;
+    }
+
+    public void setHeatMap(HeatMap heatMap) {
+        this.heatMap = heatMap;
+    }
+
+    /**
+     * Draws all objects of the map which are visible in the view.
+     */
+    public void draw(Map map) {
+        TextureHandler textureHandler = map.getTextureHandler();
+        this.atlas = textureHandler != null ? textureHandler.getAtlas() : null;
+
+        int fromX = (int) Math.floor(offsetX);
+        int fromZ = (int) Math.floor(offsetY);
+        int toX = (int) Math.ceil(offsetX + viewWidth / zoom);
+        int toZ = (int) Math.ceil(offsetY + viewHeight / zoom);
+        map.draw(this, layer, fromX, fromZ, toX, toZ);
+        map.drawHeatMap(this, heatMap, layer, fromX, fromZ, toX, toZ);
+    }
+
+    public int getDrawCalls() {
+        return drawCalls;
+    }
+
+    public void resetDrawCalls() {
+        this.drawCalls = 0;
+    }
+
+    protected abstract void fillRectangle(double x, double y, double width, double height, Color color);
+
+    /**
+     * Copies a region of the image into the rectangle.
+     */
+    protected abstract void drawRegion(Image image, double sourceX, double sourceY, double sourceWidth, double sourceHeight,
+                                       double x, double y, double width, double height);
+
+    /**
+     * Copies a region of the image rotated by quarter turns clockwise into the rectangle.
+     * Only used for textures which aren't part of an atlas.
+     */
+    protected abstract void drawRotatedRegion(Image image, double sourceX, double sourceY, double sourceWidth, double sourceHeight,
+                                              double x, double y, double width, double height, int turns);
+
+    @Override
+    public void drawRectangle(int x, int y, int z, int width, int depth, int rotation) {
+        drawRectangle(x, y, z, width, depth, rotation, Color.BLACK);
+    }
+
+    @Override
+    public void drawRectangle(int x, int y, int z, int width, int depth, int rotation, Color color) {
+        if (outOfBounds(x, y, z, width, 1, depth, rotation)) {
+            return;
+        }
+
+        double canvasX = (x - offsetX) * zoom;
+        double canvasY = (z - offsetY) * zoom;
+
+        if (rotation % 2 == 0) {
+            fillRectangle(canvasX, canvasY, width * zoom, depth * zoom, color);
+        } else {
+            fillRectangle(canvasX, canvasY, depth * zoom, width * zoom, color);
+        }
+        drawCalls++;
+    }
+
+    @Override
+    public void drawImage(Image image, int x, int y, int z, int width, int depth, int rotation) {
+        drawImage(image, 0, 0, image.getWidth(), image.getHeight(),
+                x, y, z, width, depth, rotation);
+    }
+
+    @Override
+    public void drawImage(Image image, double sourceX, double sourceY, double sourceWidth, double sourceHeight,
+                          int x, int y, int z, int width, int depth, int rotation) {
+        if (outOfBounds(x, y, z, width, 1, depth, rotation)) {
+            return;
+        }
+
+        double canvasX = (x - offsetX) * zoom;
+        double canvasY = (z - offsetY) * zoom;
+
+        switch (rotation) {
+            case 1:
+                canvasX += depth * zoom;
+                break;
+            case 2:
+                canvasX += width * zoom;
+                canvasY += depth * zoom;
+                break;
+            case 3:
+                canvasY += width * zoom;
+                break;
+        }
+
+        drawTexture(image, sourceX, sourceY, sourceWidth, sourceHeight, canvasX, canvasY,
+                canvasX + turnX(rotation, width * zoom, depth * zoom),
+                canvasY + turnY(rotation, width * zoom, depth * zoom), rotation);
+    }
+
+    @Override
+    public void drawImage(Image image, IPosition position) {
+        drawImage(image, position.getX(), position.getY(), position.getZ(), position.getWidth(), position.getDepth(), position.getRotation());
+    }
+
+    @Override
+    public void drawImage(Image image, IPosition position, int offsetX, int offsetY, int offsetZ, int width, int depth, int rotation) {
+        drawImage(image, 0, 0, image.getWidth(), image.getHeight(),
+                position, offsetX, offsetY, offsetZ, width, depth, rotation);
+    }
+
+    @Override
+    public void drawImage(Image image, double sourceX, double sourceY, double sourceWidth, double sourceHeight,
+                          IPosition position) {
+        drawImage(image, sourceX, sourceY, sourceWidth, sourceHeight,
+                position.getX(), position.getY(), position.getZ(), position.getWidth(), position.getDepth(), position.getRotation());
+    }
+
+    @Override
+    public void drawImage(Image image, double sourceX, double sourceY, double sourceWidth, double sourceHeight,
+                          IPosition position, int offsetX, int offsetY, int offsetZ, int width, int depth, int rotation) {
+        if (outOfBounds(position.getX(), position.getY(), position.getZ(), position.getWidth(), 1, position.getDepth(), position.getRotation())) {
+            return;
+        }
+
+        double canvasX = (position.getX() - this.offsetX) * zoom;
+        double canvasY = (position.getZ() - this.offsetY) * zoom;
+
+        switch (position.getRotation()) {
+            case 1:
+                canvasX += position.getDepth() * zoom;
+                break;
+            case 2:
+                canvasX += position.getWidth() * zoom;
+                canvasY += position.getDepth() * zoom;
+                break;
+            case 3:
+                canvasY += position.getWidth() * zoom;
+                break;
+        }
+
+        // Corner of the image inside the object, before the object is rotated
+        double shiftX = 0, shiftY = 0;
+        switch (rotation) {
+            case 1:
+                shiftY = -width * zoom;
+                break;
+            case 2:
+                shiftX = -width * zoom;
+                shiftY = -width * zoom;
+                break;
+            case 3:
+                shiftX = -width * zoom;
+                break;
+        }
+
+        double startX = offsetX * zoom + turnX(rotation, shiftX, shiftY);
+        double startY = offsetZ * zoom + turnY(rotation, shiftX, shiftY);
+        double endX = offsetX * zoom + turnX(rotation, shiftX + width * zoom, shiftY + depth * zoom);
+        double endY = offsetZ * zoom + turnY(rotation, shiftX + width * zoom, shiftY + depth * zoom);
+
+        drawTexture(image, sourceX, sourceY, sourceWidth, sourceHeight,
+                canvasX + turnX(position.getRotation(), startX, startY),
+                canvasY + turnY(position.getRotation(), startX, startY),
+                canvasX + turnX(position.getRotation(), endX, endY),
+                canvasY + turnY(position.getRotation(), endX, endY),
+                position.getRotation() + rotation);
+    }
+
+    @Override
+    public void drawPerspectiveImage(Image image, int x, int y, int z, int width, int height, int depth, int rotation) {
+        drawPerspectiveImage(image, 0, 0, image.getWidth() / 4, image.getHeight() / height,
+                x, y, z, width, height, depth, rotation);
+    }
+
+    @Override
+    public void drawPerspectiveImage(Image image, double sourceX, double sourceY, double sourceWidth, double sourceHeight,
+                                     int x, int y, int z, int width, int height, int depth, int rotation) {
+        if (outOfBounds(x, y, z, width, height, depth, rotation)) {
+            return;
+        }
+
+        int usingHeight = layer - y;
+
+        double canvasX = (x - offsetX) * zoom;
+        double canvasY = (z - offsetY) * zoom;
+
+        sourceX += sourceWidth * ((rotation + 4) % 4);
+        sourceY += sourceHeight * usingHeight;
+        drawTexture(image, sourceX, sourceY, sourceWidth, sourceHeight,
+                canvasX, canvasY, canvasX + width * zoom, canvasY + depth * zoom, 0);
+    }
+
+    @Override
+    public void drawPerspectiveImage(Image image, IPosition position) {
+        int size = Math.max(position.getWidth(), position.getDepth());
+        drawPerspectiveImage(image, position.getX(), position.getY(), position.getZ(), size, position.getHeight(), size, position.getRotation());
+    }
+
+    @Override
+    public void drawPerspectiveImage(Image image, IPosition position, int offsetX, int offsetY, int offsetZ, int width, int height, int depth, int rotation) {
+        drawPerspectiveImage(image, 0, 0, image.getWidth() / 4, image.getHeight() / height,
+                position, offsetX, offsetY, offsetZ, width, height, depth, rotation);
+    }
+
+    @Override
+    public void drawPerspectiveImage(Image image, double sourceX, double sourceY, double sourceWidth, double sourceHeight,
+                                     IPosition position) {
+        drawPerspectiveImage(image, sourceX, sourceY, sourceWidth, sourceHeight,
+                position.getX(), position.getY(), position.getZ(), position.getWidth(), position.getHeight(), position.getDepth(), position.getRotation());
+    }
+
+    @Override
+    public void drawPerspectiveImage(Image image, double sourceX, double sourceY, double sourceWidth, double sourceHeight,
+                                     IPosition position, int offsetX, int offsetY, int offsetZ, int width, int height, int depth, int rotation) {
+        if (outOfBounds(position.getX(), position.getY() + offsetY, position.getZ(), position.getWidth(), height, position.getDepth(), position.getRotation())) {
+            return;
+        }
+
+        double canvasX = (position.getX() - this.offsetX) * zoom;
+        double canvasY = (position.getZ() - this.offsetY) * zoom;
+        int usingHeight = layer - (position.getY() + offsetY);
+
+        switch (position.getRotation()) {
+            case 1:
+                canvasX += position.getDepth() * zoom - width * zoom;
+                break;
+            case 2:
+                canvasX += position.getWidth() * zoom - width * zoom;
+                canvasY += position.getDepth() * zoom - depth * zoom;
+                break;
+            case 3:
+                canvasY += position.getWidth() * zoom - width * zoom;
+                break;
+        }
+
+        // The offset is rotated with the object, the texture already shows the rotation
+        canvasX += turnX(position.getRotation(), offsetX * zoom, offsetZ * zoom);
+        canvasY += turnY(position.getRotation(), offsetX * zoom, offsetZ * zoom);
+
+        int size = Math.max(width, height);
+        sourceX += sourceWidth * ((((rotation + position.getRotation()) % 4) + 4) % 4);
+        sourceY += sourceHeight * usingHeight;
+        drawTexture(image, sourceX, sourceY, sourceWidth, sourceHeight,
+                canvasX, canvasY, canvasX + size * zoom, canvasY + size * zoom, 0);
+    }
+
+    /**
+     * Draws a part of a texture rotated by quarter turns into the rectangle between the two corners.
+     * Textures of the atlas are blitted from their pre-rotated copy, at low zoom they are
+     * drawn as a rectangle in their average color.
+     */
+    private void drawTexture(Image image, double sourceX, double sourceY, double sourceWidth, double sourceHeight,
+                             double x0, double y0, double x1, double y1, int rotation) {
+        double x = Math.min(x0, x1);
+        double y = Math.min(y0, y1);
+        double width = Math.abs(x1 - x0);
+        double height = Math.abs(y1 - y0);
+        int turns = rotation & 3;
+        TextureAtlas.Region region = atlas != null ? atlas.getRegion(image, turns) : null;
+
+        if (atlas != null && zoom < LOD_ZOOM && atlas.contains(image)) {
+            fillRectangle(x, y, width, height, atlas.getColor(image, sourceX, sourceY, sourceWidth, sourceHeight));
+        } else if (region != null) {
+            double regionWidth = turns % 2 == 0 ? sourceWidth : sourceHeight;
+            double regionHeight = turns % 2 == 0 ? sourceHeight : sourceWidth;
+            drawRegion(atlas.getImage(),
+                    region.getSourceX(sourceX, sourceY, sourceWidth, sourceHeight),
+                    region.getSourceY(sourceX, sourceY, sourceWidth, sourceHeight),
+                    regionWidth, regionHeight, x, y, width, height);
+        } else if (turns == 0) {
+            drawRegion(image, sourceX, sourceY, sourceWidth, sourceHeight, x, y, width, height);
+        } else {
+            drawRotatedRegion(image, sourceX, sourceY, sourceWidth, sourceHeight, x, y, width, height, turns);
+        }
+        drawCalls++;
+    }
+
+    /**
+     * @return the x coordinate of the vector rotated by quarter turns clockwise
+     */
+    private static double turnX(int rotation, double x, double y) {
+        switch (rotation & 3) {
+            case 1:
+                return -y;
+            case 2:
+                return -x;
+            case 3:
+                return y;
+            default:
+                return x;
+        }
+    }
+
+    /**
+     * @return the y coordinate of the vector rotated by quarter turns clockwise
+     */
+    private static double turnY(int rotation, double x, double y) {
+        switch (rotation & 3) {
+            case 1:
+                return x;
+            case 2:
+                return -y;
+            case 3:
+                return -x;
+            default:
+                return y;
+        }
+    }
+
+    private boolean outOfBounds(int x, int y, int z, int width, int height, int depth, int rotation) {
+        if (layer < y || y + height <= layer) {
+            return true;
+        }
+        if (rotation % 2 == 0) {
+            if (x + width < offsetX || z + depth < offsetY) {
+                return true;
+            }
+        } else {
+            if (x + depth < offsetX || z + width < offsetY) {
+                return true;
+            }
+        }
+        return viewWidth / zoom + offsetX < x || viewHeight / zoom + offsetY < z;
+    }
+}
@@ -1,43 +1,76 @@
 package ui.map;
 
 import javafx.application.Platform;
+import javafx.beans.binding.Bindings;
 import javafx.beans.property.*;
 import javafx.collections.FXCollections;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.control.Button;
+import javafx.scene.control.CheckBox;
 import javafx.scene.control.ComboBox;
 import javafx.scene.control.Label;
+import javafx.scene.control.ProgressBar;
+import javafx.scene.control.ScrollPane;
 import javafx.scene.layout.BorderPane;
+import javafx.scene.layout.HBox;
 import javafx.scene.layout.VBox;
+import javafx.stage.DirectoryChooser;
 import manager.LanguageUtility;
+import manager.MapExportService;
+import manager.MapSweepService;
+import manager.MapThumbnailService;
 import model.interfaces.WithToStringProperty;
+import model.map.ChunkedMap;
+import model.map.HeatMap;
 import model.map.Map;
+import model.map.MapMetric;
+import model.map.MapScore;
 import model.map.specification.CryptSpecification;
+import model.map.specification.texture.CryptTexture;
+import model.map.specification.texture.TextureHandler;
 import ui.IView;
 import ui.ViewPart;
 import ui.part.UpdatingListCell;
 
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Random;
+import java.util.stream.Collectors;
 
 import static manager.LanguageUtility.getMessageProperty;
 import static ui.ViewFactory.labelTextField;
 
 public class MapView extends ViewPart {
 
+    private static final int THUMBNAILS = 6;
+    private static final double THUMBNAIL_SIZE = 150;
+
     private final MapCanvas canvas;
     private final ObjectProperty<Map> map;
     private final ObjectProperty<Structure> selectedStructure;
     private final LongProperty seed;
     private final IntegerProperty width, height, depth;
     private final BooleanProperty loading;
+    private final BooleanProperty streaming;
     private final IntegerProperty shownYLayer;
     private final Random random;
+    private final IntegerProperty sweepCount;
+    private final ObjectProperty<MapMetric> selectedMetric;
+    private final MapSweepService sweepService;
+    private final MapExportService exportService;
+    private final MapThumbnailService thumbnailService;
+    private final TextureHandler textureHandler;
+    private final HBox thumbnails;
+    private List<MapScore> scores;
 
     public MapView(IView parent) {
         super("map.title", parent);
         this.selectedStructure = new SimpleObjectProperty<>();
         this.loading = new SimpleBooleanProperty(false);
+        this.streaming = new SimpleBooleanProperty(false);
         this.shownYLayer = new SimpleIntegerProperty(0);
         this.map = new SimpleObjectProperty<>(null);
         this.seed = new SimpleLongProperty(5411351666781167994L);
@@ -46,6 +79,16 @@ public class MapView extends ViewPart {
         this.depth = new SimpleIntegerProperty(50);
         this.canvas = new MapCanvas(map, shownYLayer);
         this.random = new Random();
+        this.sweepCount = new SimpleIntegerProperty(100);
+        this.selectedMetric = new SimpleObjectProperty<>();
+        this.sweepService = new MapSweepService();
+        this.exportService = new MapExportService();
+        this.thumbnailService = new MapThumbnailService();
+        // Loads the textures and packs them into the atlas once for all maps
+        this.textureHandler = new CryptTexture();
+        this.thumbnailService.setTextureHandler(textureHandler);
+        this.thumbnails = new HBox(10);
+        this.scores = new ArrayList<>();
 
         BorderPane root = new BorderPane();
         root.setPadding(new Insets(20, 10, 10, 10));
@@ -81,6 +124,12 @@ public class MapView extends ViewPart {
         seedButton.setPrefWidth(215);
         generateBox.getChildren().add(seedButton);
 
+        CheckBox streamBox = new CheckBox();
+        streamBox.textProperty().bind(getMessageProperty("map.info.stream"));
+        streaming.bind(streamBox.selectedProperty());
+        streamBox.setPrefWidth(215);
+        generateBox.getChildren().add(streamBox);
+
         Button generateButton = new Button();
         generateButton.textProperty().bind(getMessageProperty("map.button.generate"));
         generateButton.setOnAction(ev -> generate());
@@ -88,6 +137,64 @@ public class MapView extends ViewPart {
         generateButton.setPrefWidth(215);
         generateBox.getChildren().add(generateButton);
 
+        generateBox.getChildren().add(labelTextField("map.info.count", sweepCount));
+
+        ComboBox<MapMetric> metric = new ComboBox<>(FXCollections.observableArrayList(MapMetric.values()));
+        this.selectedMetric.bind(metric.getSelectionModel().selectedItemProperty());
+        metric.getSelectionModel().select(MapMetric.rooms);
+        metric.setCellFactory(list -> new UpdatingListCell<>());
+        metric.setButtonCell(new UpdatingListCell<>());
+        metric.setPrefWidth(215);
+        generateBox.getChildren().add(metric);
+        this.selectedMetric.addListener((ob, o, n) -> showBestMaps());
+
+        Button sweepButton = new Button();
+        sweepButton.textProperty().bind(getMessageProperty("map.button.sweep"));
+        sweepButton.setOnAction(ev -> sweep());
+        sweepButton.disableProperty().bind(loading.or(sweepService.runningProperty()));
+        sweepButton.setPrefWidth(215);
+        generateBox.getChildren().add(sweepButton);
+
+        ProgressBar sweepProgress = new ProgressBar();
+        sweepProgress.progressProperty().bind(sweepService.progressProperty());
+        sweepProgress.visibleProperty().bind(sweepService.runningProperty());
+        sweepProgress.setPrefWidth(215);
+        generateBox.getChildren().add(sweepProgress);
+
+        Button exportButton = new Button();
+        exportButton.textProperty().bind(getMessageProperty("map.button.export"));
+        exportButton.setOnAction(ev -> export());
+        exportButton.disableProperty().bind(loading.or(map.isNull()).or(exportService.runningProperty()));
+        exportButton.setPrefWidth(215);
+        generateBox.getChildren().add(exportButton);
+
+        ProgressBar exportProgress = new ProgressBar();
+        exportProgress.progressProperty().bind(exportService.progressProperty());
+        exportProgress.visibleProperty().bind(exportService.runningProperty());
+        exportProgress.setPrefWidth(215);
+        generateBox.getChildren().add(exportProgress);
+
+        // Exporting a streamed map generates its missing chunks
+        exportService.setOnSucceeded(ev -> canvas.redraw());
+
+        sweepService.setOnSucceeded(ev -> {
+            if (sweepService.getValue() != null) {
+                scores = sweepService.getValue();
+                showBestMaps();
+            }
+        });
+
+        thumbnailService.setOnSucceeded(ev -> {
+            List<MapScore> best = thumbnailService.getScores();
+            List<Map> maps = thumbnailService.getValue();
+            MapMetric shownMetric = selectedMetric.get();
+
+            thumbnails.getChildren().clear();
+            for (int i = 0; i < maps.size(); i++) {
+                thumbnails.getChildren().add(createThumbnail(best.get(i), maps.get(i), shownMetric));
+            }
+        });
+
         VBox layerBox = new VBox(10);
         layerBox.setAlignment(Pos.CENTER);
         rightSide.setCenter(layerBox);
@@ -104,6 +211,18 @@ public class MapView extends ViewPart {
         downButton.setOnAction(ev -> shownYLayer.set(Math.max(shownYLayer.get() - 1, 0)));
         layerBox.getChildren().add(downButton);
 
+        CheckBox debugBox = new CheckBox();
+        debugBox.textProperty().bind(getMessageProperty("map.info.debug"));
+        canvas.debugProperty().bind(debugBox.selectedProperty());
+        layerBox.getChildren().add(debugBox);
+
+        ComboBox<HeatMap> heatMap = new ComboBox<>(FXCollections.observableArrayList(HeatMap.values()));
+        heatMap.getSelectionModel().select(HeatMap.none);
+        canvas.heatMapProperty().bind(heatMap.getSelectionModel().selectedItemProperty());
+        heatMap.setCellFactory(list -> new UpdatingListCell<>());
+        heatMap.setButtonCell(new UpdatingListCell<>());
+        layerBox.getChildren().add(heatMap);
+
         this.map.addListener((ob, o, n) -> {
             upButton.setDisable(n != null && shownYLayer.get() >= map.get().getHeight() - 1);
             downButton.setDisable(n != null && shownYLayer.get() < 1);
@@ -123,12 +242,28 @@ public class MapView extends ViewPart {
         coordinates.textProperty().bind(canvas.getMouseX().asString().concat(", ").concat(canvas.getMouseY()).concat(", ").concat(canvas.getMouseZ()));
         info.setRight(coordinates);
 
+        ScrollPane thumbnailPane = new ScrollPane(thumbnails);
+        thumbnailPane.setFitToHeight(true);
+        thumbnailPane.visibleProperty().bind(Bindings.isNotEmpty(thumbnails.getChildren()));
+        thumbnailPane.managedProperty().bind(thumbnailPane.visibleProperty());
+        info.setCenter(thumbnailPane);
+
         this.setContent(root);
     }
 
     private void generate() {
+        if (streaming.get()) {
+            // The chunks are generated by the canvas as soon as they get visible
+            ChunkedMap m = new ChunkedMap(seed.get(), width.get(), height.get(), depth.get());
+            m.setSpecification(new CryptSpecification(textureHandler, m));
+            map.set(m);
+            canvas.redraw();
+            shownYLayer.set(0);
+            return;
+        }
+
         Map m = new Map(seed.get(), width.get(), height.get(), depth.get());
-        m.setSpecification(new CryptSpecification(m));
+        m.setSpecification(new CryptSpecification(textureHandler, m));
         map.set(m);
 
         Thread generateThread = new Thread(() -> {
@@ -136,7 +271,7 @@ public class MapView extends ViewPart {
             m.generate();
             Platform.runLater(() -> {
                 loading.set(false);
-                canvas.refresh();
+                canvas.redraw();
                 shownYLayer.set(0);
             });
             System.out.println("Done after: " + (System.currentTimeMillis() - time) / 1000.0);
@@ -147,6 +282,70 @@ public class MapView extends ViewPart {
         generateThread.start();
     }
 
+    private void sweep() {
+        sweepService.setFirstSeed(seed.get());
+        sweepService.setCount(sweepCount.get());
+        sweepService.setSize(width.get(), height.get(), depth.get());
+        sweepService.restart();
+    }
+
+    private void export() {
+        DirectoryChooser chooser = new DirectoryChooser();
+        File directory = chooser.showDialog(getStage());
+
+        if (directory == null) {
+            return;
+        }
+
+        exportService.setMap(map.get());
+        exportService.setDirectory(directory);
+        exportService.restart();
+    }
+
+    /**
+     * Generates the best maps of the last sweep again from their seeds and shows them as thumbnails.
+     */
+    private void showBestMaps() {
+        MapMetric metric = selectedMetric.get();
+        if (metric == null || scores.isEmpty()) {
+            return;
+        }
+
+        List<MapScore> best = scores.stream()
+                .sorted(Comparator.comparingInt((MapScore score) -> score.get(metric)).reversed())
+                .limit(THUMBNAILS)
+                .collect(Collectors.toList());
+
+        thumbnailService.setScores(best);
+        thumbnailService.setSize(width.get(), height.get(), depth.get());
+        thumbnailService.restart();
+    }
+
+    private VBox createThumbnail(MapScore score, Map m, MapMetric metric) {
+        MapCanvas thumbnail = new MapCanvas(new SimpleObjectProperty<>(m), new SimpleIntegerProperty(0));
+        thumbnail.setMinSize(THUMBNAIL_SIZE, THUMBNAIL_SIZE);
+        thumbnail.setMaxSize(THUMBNAIL_SIZE, THUMBNAIL_SIZE);
+        thumbnail.setZoom(THUMBNAIL_SIZE / (Math.max(m.getWidth(), m.getDepth()) + 2));
+        thumbnail.setOffset(-1, -1);
+        // The canvas only gets its size after the first layout
+        thumbnail.widthProperty().addListener(ob -> thumbnail.refresh());
+        thumbnail.setOnMouseDragged(null);
+        thumbnail.setOnScroll(null);
+
+        Label label = new Label();
+        label.textProperty().bind(metric.toStringProperty().concat(": " + score.get(metric) + " (" + score.getSeed() + ")"));
+
+        VBox box = new VBox(5, thumbnail, label);
+        box.setAlignment(Pos.CENTER);
+        box.setOnMouseClicked(ev -> {
+            if (!loading.get()) {
+                seed.set(score.getSeed());
+                generate();
+            }
+        });
+        return box;
+    }
+
     private enum Structure implements WithToStringProperty {
         cave, crypt;
 
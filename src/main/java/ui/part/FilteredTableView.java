@@ -2,9 +2,12 @@ package ui.part;
 
 import javafx.beans.property.ListProperty;
 import javafx.beans.property.ReadOnlyStringWrapper;
-import javafx.beans.property.SimpleListProperty;
+import javafx.beans.value.ObservableBooleanValue;
 import javafx.beans.value.ObservableValue;
-import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
+import javafx.collections.transformation.FilteredList;
+import javafx.collections.transformation.SortedList;
+import javafx.scene.control.Label;
 import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableView;
 import javafx.scene.control.TextField;
@@ -12,37 +15,75 @@ import javafx.scene.layout.HBox;
 import javafx.scene.layout.VBox;
 import javafx.util.Callback;
 import manager.LanguageUtility;
+import manager.SearchExecutor;
+import ui.ViewFactory;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.function.Function;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
+/**
+ * A table with a text filter below every column, a row is shown if every column contains the text of its filter.
+ * The lower case text of every row is cached per column as soon as the row is added to the source list,
+ * long lists are searched with an index of the three letter sequences of every column.
+ * If a filter text only gets longer, only the rows of the last result are searched again.
+ * The table shows the source list through a {@link FilteredList}, so a new filter only changes its predicate.
+ * Filtering runs in the background shortly after the last keystroke.
+ */
 public class FilteredTableView<S> extends VBox {
 
+    // Lists with at least as many rows are searched with the index
+    private static final int INDEX_THRESHOLD = 1000;
+    private static final int GRAM_LENGTH = 3;
+
     protected ArrayList<FilterContainer<S>> filterContainers;
     protected TableView<S> tableView;
-    protected ListProperty<S> list;
+    protected FilteredList<S> list;
     protected ListProperty<S> sourceList;
     protected HBox inputFields;
+    protected SearchExecutor<BitSet> filterExecutor;
+
+    // The items of the source list in the order of the cached rows
+    protected ArrayList<S> rows;
+    protected IdentityHashMap<S, Integer> rowIndices;
+    // Rows which pass all filters
+    protected BitSet matches;
+    // Changes whenever the cached rows are loaded again
+    protected int version;
+    // The source changed while the table was hidden, the rows are loaded again when it is shown
+    protected ObservableBooleanValue shown;
+    protected boolean stale;
 
     public FilteredTableView(ListProperty<S> sourceList) {
         this.filterContainers = new ArrayList<>();
         this.sourceList = sourceList;
+        this.rows = new ArrayList<>();
+        this.rowIndices = new IdentityHashMap<>();
+        this.matches = new BitSet();
 
-        this.list = new SimpleListProperty<>();
-        sourceList.addListener((ob, o, n) -> list.set(n.stream().collect(Collectors.toCollection(FXCollections::observableArrayList))));
-        list.set(sourceList.stream().collect(Collectors.toCollection(FXCollections::observableArrayList)));
+        this.list = new FilteredList<>(sourceList);
+        // Added after the filtered list, so new items are already filtered when their rows get cached
+        sourceList.addListener((ListChangeListener<S>) this::sourceChanged);
+        reload();
 
-        this.tableView = new TableView<>();
+        SortedList<S> sortedList = new SortedList<>(list);
+        this.tableView = new TableView<>(sortedList);
+        sortedList.comparatorProperty().bind(tableView.comparatorProperty());
         this.tableView.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY);
-        this.tableView.itemsProperty().bindBidirectional(list);
-        this.tableView.itemsProperty().addListener((ob, o, n) -> tableView.layout());
         this.tableView.prefWidthProperty().bind(this.widthProperty());
         this.getChildren().add(tableView);
 
         this.inputFields = new HBox();
         this.getChildren().add(inputFields);
+
+        this.filterExecutor = new SearchExecutor<>(BitSet::cardinality);
+        Label info = ViewFactory.searchInfo(filterExecutor);
+        info.visibleProperty().bind(list.predicateProperty().isNotNull());
+        this.getChildren().add(info);
     }
 
     public void addColumn(String columnKey, Function<S, Object> getter) {
@@ -50,14 +91,44 @@ public class FilteredTableView<S> extends VBox {
     }
 
     public void addColumn(String columnKey, Function<S, Object> getter, int width) {
-        addObservableColumn(columnKey, getter.andThen(obj -> new ReadOnlyStringWrapper(String.valueOf(obj))), width);
+        TextField textField = createColumn(columnKey, getter.andThen(obj -> new ReadOnlyStringWrapper(String.valueOf(obj))), width);
+        addFilter(new FilterContainer<>(textField, getter, false));
     }
 
     public <Ob> void addObservableColumn(String columnKey, Function<S, ObservableValue<Ob>> getter) {
         addObservableColumn(columnKey, getter, 0);
     }
 
+    /**
+     * The values of observable columns can change, so they are read again whenever the filter changes.
+     */
     public <Ob> void addObservableColumn(String columnKey, Function<S, ObservableValue<Ob>> getter, int width) {
+        TextField textField = createColumn(columnKey, getter, width);
+        addFilter(new FilterContainer<>(textField, item -> getter.apply(item).getValue(), true));
+    }
+
+    @SuppressWarnings("rawtypes")
+    public void setColumnResizePolicy(Callback<TableView.ResizeFeatures, Boolean> callback) {
+        tableView.setColumnResizePolicy(callback);
+    }
+
+    /**
+     * Defers the changes of the source list while the table isn't shown, e.g. in a tab which isn't selected.
+     * Any number of changes in the meantime load the rows once when the table is shown again.
+     *
+     * @param shown true while the table is shown
+     */
+    public void setShown(ObservableBooleanValue shown) {
+        this.shown = shown;
+        shown.addListener((ob, o, n) -> {
+            if (n && stale) {
+                stale = false;
+                reload();
+            }
+        });
+    }
+
+    private <Ob> TextField createColumn(String columnKey, Function<S, ObservableValue<Ob>> getter, int width) {
         TableColumn<S, Ob> column = new WrappingTableColumn<>();
         column.textProperty().bind(LanguageUtility.getMessageProperty(columnKey));
         column.setCellValueFactory(cell -> getter.apply(cell.getValue()));
@@ -73,31 +144,286 @@ public class FilteredTableView<S> extends VBox {
         textField.textProperty().addListener((ob, o, n) -> update());
         inputFields.getChildren().add(textField);
 
-        filterContainers.add(new FilterContainer<>(textField, getter.andThen(ob -> String.valueOf(ob.getValue()))));
+        return textField;
     }
 
-    @SuppressWarnings("rawtypes")
-    public void setColumnResizePolicy(Callback<TableView.ResizeFeatures, Boolean> callback) {
-        tableView.setColumnResizePolicy(callback);
+    private void addFilter(FilterContainer<S> container) {
+        for (S item : rows) {
+            container.addRow(item);
+        }
+        filterContainers.add(container);
     }
 
-    protected void update() {
-        Stream<S> stream = sourceList.stream();
+    /**
+     * Caches the rows of items which were added at the end of the source list,
+     * every other change loads the whole list again.
+     */
+    private void sourceChanged(ListChangeListener.Change<? extends S> change) {
+        if (stale || shown != null && !shown.get()) {
+            stale = true;
+            return;
+        }
+
+        int size = rows.size();
+        while (change.next()) {
+            if (change.wasRemoved() || change.wasPermutated() || change.wasUpdated() || change.getFrom() != size) {
+                reload();
+                return;
+            }
+            size = change.getTo();
+        }
+
+        change.reset();
+        while (change.next()) {
+            for (S item : change.getAddedSubList()) {
+                addRow(item);
+            }
+        }
+    }
+
+    protected void reload() {
+        version++;
+        rows.clear();
+        rowIndices.clear();
+        matches.clear();
+        for (FilterContainer<S> container : filterContainers) {
+            container.clear();
+        }
+
+        for (S item : sourceList) {
+            addRow(item);
+        }
+    }
+
+    private void addRow(S item) {
+        int row = rows.size();
+        rows.add(item);
+        rowIndices.put(item, row);
 
         for (FilterContainer<S> container : filterContainers) {
-            stream = stream.filter(x -> String.valueOf(container.getter.apply(x)).toLowerCase().contains(container.textField.getText().toLowerCase()));
+            container.addRow(item);
         }
+        matches.set(row, isMatch(row));
+    }
 
-        list.set(stream.collect(Collectors.toCollection(FXCollections::observableArrayList)));
+    private boolean isMatch(int row) {
+        for (FilterContainer<S> container : filterContainers) {
+            if (!container.filter.isEmpty() && !container.getValue(row, rows.get(row)).contains(container.filter)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Starts filtering the cached rows with the current filter texts in the background.
+     */
+    protected void update() {
+        List<FilterContainer<S>> containers = new ArrayList<>(filterContainers);
+        int size = rows.size();
+        int version = this.version;
+        String[] texts = new String[containers.size()];
+        String[] lastTexts = new String[containers.size()];
+        String[][] liveValues = new String[containers.size()][];
+
+        // If no filter got shorter the new result is a part of the last one
+        boolean narrowing = true;
+        boolean filtered = false;
+        for (int i = 0; i < containers.size(); i++) {
+            FilterContainer<S> container = containers.get(i);
+            texts[i] = container.textField.getText().toLowerCase();
+            lastTexts[i] = container.filter;
+            narrowing &= texts[i].contains(lastTexts[i]) && !(container.live && !texts[i].isEmpty());
+            filtered |= !texts[i].isEmpty();
+
+            // Observable values may only be read on this thread
+            if (container.live && !texts[i].isEmpty()) {
+                liveValues[i] = new String[size];
+                for (int row = 0; row < size; row++) {
+                    liveValues[i][row] = container.getValue(row, rows.get(row));
+                }
+            }
+        }
+
+        BitSet last = narrowing ? (BitSet) matches.clone() : null;
+        boolean showAll = !filtered;
+
+        filterExecutor.submit(SearchExecutor.DEBOUNCE_MILLIS, () -> {
+            BitSet result = last;
+            for (int i = 0; i < containers.size(); i++) {
+                if (!texts[i].isEmpty() && !(last != null && texts[i].equals(lastTexts[i]))) {
+                    result = containers.get(i).search(texts[i], result, size, liveValues[i]);
+                }
+                if (SearchExecutor.isCancelled()) {
+                    return null;
+                }
+            }
+
+            if (result == null) {
+                result = new BitSet(size);
+                result.set(0, size);
+            }
+            return result;
+        }, result -> {
+            if (version != this.version) {
+                // The rows were loaded again while filtering
+                update();
+                return;
+            }
+
+            for (int i = 0; i < containers.size(); i++) {
+                containers.get(i).filter = texts[i];
+            }
+            this.matches = result;
+            // Rows which were added while filtering
+            for (int row = size; row < rows.size(); row++) {
+                matches.set(row, isMatch(row));
+            }
+
+            list.setPredicate(showAll ? null : this::isMatch);
+        });
+    }
+
+    private boolean isMatch(S item) {
+        Integer row = rowIndices.get(item);
+        if (row != null) {
+            return matches.get(row);
+        }
+
+        // New items are filtered before their row is cached
+        for (FilterContainer<S> container : filterContainers) {
+            if (!container.filter.isEmpty() && !container.toText(item).contains(container.filter)) {
+                return false;
+            }
+        }
+        return true;
     }
 
     protected static class FilterContainer<S> {
         public final TextField textField;
         public final Function<S, Object> getter;
+        // Observable values aren't cached
+        public final boolean live;
+
+        // The lower case filter text of the last update
+        protected String filter;
+        protected String[] values;
+        protected int size;
+        // Rows containing every three letter sequence, only built for long lists
+        protected HashMap<Long, Postings> index;
 
-        public FilterContainer(TextField textField, Function<S, Object> getter) {
+        public FilterContainer(TextField textField, Function<S, Object> getter, boolean live) {
             this.textField = textField;
             this.getter = getter;
+            this.live = live;
+            this.filter = "";
+            this.values = new String[16];
+        }
+
+        protected synchronized void clear() {
+            this.size = 0;
+            this.index = null;
+        }
+
+        protected synchronized void addRow(S item) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size] = live ? null : toText(item);
+            if (index != null) {
+                addToIndex(size);
+            }
+            size++;
+        }
+
+        protected String getValue(int row, S item) {
+            return live ? toText(item) : values[row];
+        }
+
+        protected String toText(S item) {
+            return String.valueOf(getter.apply(item)).toLowerCase();
+        }
+
+        /**
+         * Runs on the search thread, only reads the rows which existed when the search started.
+         *
+         * @param candidates the rows which may match or null for all rows
+         * @param liveValues the values of an observable column
+         * @return the candidates containing the text
+         */
+        protected synchronized BitSet search(String text, BitSet candidates, int rowCount, String[] liveValues) {
+            BitSet result = new BitSet(rowCount);
+            String[] values = live ? liveValues : this.values;
+
+            if (candidates == null && !live && text.length() >= GRAM_LENGTH && rowCount >= INDEX_THRESHOLD) {
+                if (index == null) {
+                    index = new HashMap<>();
+                    for (int row = 0; row < size; row++) {
+                        addToIndex(row);
+                    }
+                }
+
+                // Only the rows of the rarest sequence of the text have to be checked
+                Postings rarest = null;
+                for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+                    Postings postings = index.get(getGram(text, i));
+                    if (postings == null) {
+                        return result;
+                    }
+                    if (rarest == null || postings.size < rarest.size) {
+                        rarest = postings;
+                    }
+                }
+
+                for (int i = 0; i < rarest.size && rarest.rows[i] < rowCount; i++) {
+                    int row = rarest.rows[i];
+                    if (values[row].contains(text)) {
+                        result.set(row);
+                    }
+                }
+                return result;
+            }
+
+            if (candidates == null) {
+                candidates = new BitSet(rowCount);
+                candidates.set(0, rowCount);
+            }
+            for (int row = candidates.nextSetBit(0); row >= 0 && row < rowCount; row = candidates.nextSetBit(row + 1)) {
+                if (values[row].contains(text)) {
+                    result.set(row);
+                }
+            }
+            return result;
+        }
+
+        private void addToIndex(int row) {
+            String value = values[row];
+            for (int i = 0; i + GRAM_LENGTH <= value.length(); i++) {
+                index.computeIfAbsent(getGram(value, i), gram -> new Postings()).add(row);
+            }
+        }
+
+        private static long getGram(String text, int start) {
+            return ((long) text.charAt(start) << 32) | ((long) text.charAt(start + 1) << 16) | text.charAt(start + 2);
+        }
+    }
+
+    /**
+     * The rows containing a three letter sequence in ascending order.
+     */
+    protected static class Postings {
+        private int[] rows = new int[4];
+        private int size;
+
+        private void add(int row) {
+            // A sequence may appear several times in the same row
+            if (size > 0 && rows[size - 1] == row) {
+                return;
+            }
+            if (size == rows.length) {
+                rows = Arrays.copyOf(rows, size * 2);
+            }
+            rows[size++] = row;
         }
     }
 }
@@ -1,35 +1,35 @@
 package ui.part;
 
+import javafx.beans.property.ReadOnlyStringProperty;
 import javafx.beans.value.ChangeListener;
-import javafx.beans.value.ObservableValue;
 import javafx.scene.control.ListCell;
 import model.interfaces.WithToStringProperty;
 
+/**
+ * A list cell which shows the current text of its item, e.g. after the language was changed.
+ * The cell only listens to the item it shows at the moment.
+ */
 public class UpdatingListCell<T extends WithToStringProperty> extends ListCell<T> {
 
+    private final ChangeListener<String> update = (ob, o, n) -> setText(n);
+    private ReadOnlyStringProperty observed;
+
     @Override
     protected void updateItem(T item, boolean empty) {
         super.updateItem(item, empty);
 
+        if (observed != null) {
+            observed.removeListener(update);
+            observed = null;
+        }
+
         if (empty || item == null) {
             setText(null);
             setGraphic(null);
         } else {
-            setText(item.toStringProperty().get());
-            item.toStringProperty().addListener(createUpdate(item));
+            observed = item.toStringProperty();
+            observed.addListener(update);
+            setText(observed.get());
         }
     }
-
-    private ChangeListener<? super String> createUpdate(T item) {
-        return new ChangeListener<>() {
-            @Override
-            public void changed(ObservableValue<? extends String> ob, String o, String n) {
-                if (getItem() != item) {
-                    ob.removeListener(this);
-                } else {
-                    setText(n);
-                }
-            }
-        };
-    }
 }
@@ -1,12 +1,39 @@
 package ui.part;
 
+import javafx.beans.value.ChangeListener;
+import javafx.beans.value.WeakChangeListener;
+import javafx.beans.value.ObservableValue;
+import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableCell;
+import javafx.scene.text.Font;
 import javafx.scene.text.Text;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A table cell which wraps its text at the width of its column.
+ * Every cell keeps one text node and one weak listener on the width of its column, scrolling only changes the text.
+ * The height of a wrapped text is measured once per text, font and width, so cells showing the same
+ * text again, e.g. after scrolling back, don't have to lay out the text.
+ */
 public class WrappingTableCell<S, T> extends TableCell<S, T> {
 
+    // Heights of the last measured texts, shared by all cells of the application thread
+    private static final int CACHE_SIZE = 4096;
+    private static final Map<HeightKey, Double> heights = new LinkedHashMap<>(CACHE_SIZE, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<HeightKey, Double> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+
     protected final int xPadding;
     protected final int yPadding;
+    private final Text text;
+    private final ChangeListener<Number> widthListener;
+    // Cells which the table threw away must not be kept alive by the column
+    private final WeakChangeListener<Number> weakWidthListener;
 
     public WrappingTableCell() {
         this(10, 0);
@@ -15,6 +42,24 @@ public class WrappingTableCell<S, T> extends TableCell<S, T> {
     public WrappingTableCell(int xPadding, int yPadding) {
         this.xPadding = xPadding;
         this.yPadding = yPadding;
+        this.text = new Text();
+        this.text.setStyle(" -fx-text-wrap: true;");
+        this.widthListener = (ob, o, n) -> synchronizeTextSizeWithCellSize();
+        this.weakWidthListener = new WeakChangeListener<>(widthListener);
+
+        // The cell is moved between columns only when the table is rebuilt
+        this.tableColumnProperty().addListener(this::columnChanged);
+        this.setGraphic(text);
+    }
+
+    private void columnChanged(ObservableValue<? extends TableColumn<S, T>> ob, TableColumn<S, T> o, TableColumn<S, T> n) {
+        if (o != null) {
+            o.widthProperty().removeListener(weakWidthListener);
+        }
+        if (n != null) {
+            n.widthProperty().addListener(weakWidthListener);
+            synchronizeTextSizeWithCellSize();
+        }
     }
 
     @Override
@@ -22,18 +67,55 @@ public class WrappingTableCell<S, T> extends TableCell<S, T> {
         super.updateItem(t, empty);
         String item = empty ? "" : String.valueOf(t);
 
-        Text text = new Text(item);
-        text.setStyle(" -fx-text-wrap: true;");
-
-        synchronizeTextSizeWithCellSize(text);
-        this.widthProperty().addListener((ob, o, n) -> synchronizeTextSizeWithCellSize(text));
-
-        this.setGraphic(text);
+        if (!item.equals(text.getText())) {
+            text.setText(item);
+            synchronizeTextSizeWithCellSize();
+        }
     }
 
-    private void synchronizeTextSizeWithCellSize(Text text) {
+    private void synchronizeTextSizeWithCellSize() {
+        if (this.getTableColumn() == null) {
+            return;
+        }
+
         double width = this.getTableColumn().getWidth() - xPadding;
         text.setWrappingWidth(width);
-        this.setPrefHeight(text.getLayoutBounds().getHeight() + yPadding);
+
+        HeightKey key = new HeightKey(text.getText(), text.getFont(), width);
+        Double height = heights.get(key);
+        if (height == null) {
+            height = text.getLayoutBounds().getHeight();
+            heights.put(key, height);
+        }
+        this.setPrefHeight(height + yPadding);
+    }
+
+    private static class HeightKey {
+
+        private final String text;
+        // Styles can change the font of single cells
+        private final Font font;
+        private final double width;
+
+        private HeightKey(String text, Font font, double width) {
+            this.text = text;
+            this.font = font;
+            this.width = width;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj instanceof HeightKey) {
+                HeightKey other = (HeightKey) obj;
+                return width == other.width && text.equals(other.text) && font.equals(other.font);
+            } else {
+                return false;
+            }
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (31 * text.hashCode() + font.hashCode()) + Double.hashCode(width);
+        }
     }
 }
@@ -9,7 +9,7 @@ import ui.IView;
 public class ArmorView extends EquipmentView<Armor> {
 
     public ArmorView(IView parent) {
-        super("search.armor.title", parent, Database.armorList);
+        super("search.armor.title", parent, Database.armorList, Database.armorFacets);
 
         tableView.addObservableColumn("column.amount", Item::amountProperty);
         tableView.addColumn("column.name", Item::getName);
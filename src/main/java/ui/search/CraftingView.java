@@ -14,13 +14,16 @@ import javafx.scene.control.TextField;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.VBox;
 import manager.Database;
+import manager.SearchExecutor;
 import manager.TypTranslation;
 import model.CraftingBonus;
 import ui.IView;
+import ui.ViewFactory;
 import ui.part.NumStringConverter;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.stream.Collectors;
 
 import static manager.LanguageUtility.getMessageProperty;
@@ -30,12 +33,14 @@ public class CraftingView extends SearchView<CraftingBonus> {
     private final StringProperty target;
     private final IntegerProperty amount;
     private final StringProperty info;
+    private final SearchExecutor<List<CraftingBonus>> searchExecutor;
 
     public CraftingView(IView parent) {
         super("search.crafting.title", parent);
         this.target = new SimpleStringProperty("");
         this.amount = new SimpleIntegerProperty(1);
         this.info = new SimpleStringProperty("");
+        this.searchExecutor = new SearchExecutor<>(List::size);
 
         this.target.addListener((ob, o, n) -> update(n));
 
@@ -48,16 +53,27 @@ public class CraftingView extends SearchView<CraftingBonus> {
         addControls();
     }
 
+    /**
+     * Draws the bonuses in the background and adds them to the list at once.
+     */
     private void search() {
         Collection<String> targets = TypTranslation.getAllTypes(target.get());
-        ArrayList<CraftingBonus> bonuses = Database.craftingBonusList.stream()
-                .filter(x -> targets.contains(x.getTarget())).collect(Collectors.toCollection(ArrayList::new));
-
-        if (bonuses.size() > 0) {
-            for (int i = 0; i < amount.get(); i++) {
-                fullList.add(bonuses.get(rand.nextInt(bonuses.size())));
+        List<CraftingBonus> craftingBonuses = new ArrayList<>(Database.craftingBonusList);
+        int count = amount.get();
+
+        searchExecutor.submit(() -> {
+            ArrayList<CraftingBonus> bonuses = craftingBonuses.stream()
+                    .filter(x -> targets.contains(x.getTarget())).collect(Collectors.toCollection(ArrayList::new));
+            List<CraftingBonus> found = new ArrayList<>();
+
+            if (bonuses.size() > 0) {
+                for (int i = 0; i < count && !SearchExecutor.isCancelled(); i++) {
+                    found.add(bonuses.get(rand.nextInt(bonuses.size())));
+                }
             }
-        }
+
+            return found;
+        }, fullList::addAll);
     }
 
     private void update(String target) {
@@ -71,6 +87,7 @@ public class CraftingView extends SearchView<CraftingBonus> {
     }
 
     private void clear() {
+        searchExecutor.cancel();
         this.fullList.set(FXCollections.observableArrayList());
     }
 
@@ -102,6 +119,7 @@ public class CraftingView extends SearchView<CraftingBonus> {
         searchButton.textProperty().bind(getMessageProperty("search.button.search"));
         searchButton.setPrefWidth(250);
         searchButton.setOnAction(ev -> search());
+        searchButton.disableProperty().bind(searchExecutor.runningProperty());
         inputBox.getChildren().add(searchButton);
 
         Button clearButton = new Button();
@@ -109,6 +127,7 @@ public class CraftingView extends SearchView<CraftingBonus> {
         clearButton.setPrefWidth(250);
         clearButton.setOnAction(ev -> clear());
         inputBox.getChildren().add(clearButton);
+        inputBox.getChildren().add(ViewFactory.searchInfo(searchExecutor));
 
         TextArea infoText = new TextArea();
         infoText.setEditable(false);
@@ -11,12 +11,17 @@ import javafx.scene.layout.VBox;
 import javafx.util.converter.IntegerStringConverter;
 import javafx.util.converter.NumberStringConverter;
 import manager.Database;
+import model.loot.CompiledLootTable;
 import model.loot.DungeonLootFactory;
 import model.loot.Loot;
+import model.loot.LootAccumulator;
 import ui.IView;
 import ui.ViewPart;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 import static manager.LanguageUtility.getMessageProperty;
 
@@ -29,7 +34,9 @@ public class DungeonLootView extends ViewPart {
     private final ListProperty<String> places;
     private final BooleanProperty disabled;
     private final IntegerProperty lootingCount;
-    private final HashMap<String, ObservableList<String>> placesMap;
+    // place -> container -> table
+    private final HashMap<String, HashMap<String, CompiledLootTable>> tables;
+    private final LootAccumulator accumulator;
 
     private final ReadOnlyStringProperty containerDefault;
     private final ReadOnlyStringProperty placeDefault;
@@ -48,9 +55,10 @@ public class DungeonLootView extends ViewPart {
         this.places.add(placeDefault.get());
         this.disabled = new SimpleBooleanProperty(true);
         this.lootingCount = new SimpleIntegerProperty(1);
-        this.placesMap = new HashMap<>();
+        this.tables = new HashMap<>();
+        this.accumulator = new LootAccumulator();
 
-        Database.dungeonLootList.addListener((ob, o, n) -> update());
+        Database.dungeonLootFacets.revisionProperty().addListener(whenShown(this::update));
 
         float width = 400;
 
@@ -92,7 +100,7 @@ public class DungeonLootView extends ViewPart {
 
         this.place.addListener((ob, o, n) -> {
             if (n != null) {
-                this.containers.set(placesMap.get(n).sorted());
+                this.containers.set(getContainers(n));
                 cont.getSelectionModel().selectFirst();
             }
         });
@@ -127,76 +135,66 @@ public class DungeonLootView extends ViewPart {
     }
 
     private void clear() {
+        this.accumulator.clear();
         this.list.set(FXCollections.observableArrayList());
     }
 
     private void loot() {
-        for (int i = 0; i < lootingCount.intValue(); i++) {
-
-            for (DungeonLootFactory factory : Database.dungeonLootList) {
-
-                if (this.container.get().equals(factory.getContainer())
-                        && this.place.get().equals(factory.getPlace())) {
-
-                    Loot loot = factory.getLoot();
-                    Loot own = getLoot(factory.getName());
-
-                    if (own != null) {
-                        own.addAmount(loot.getAmount());
-                    } else if (loot.getAmount() > 0) {
-                        list.add(loot);
-                    }
-                }
+        CompiledLootTable table = tables.getOrDefault(place.get(), new HashMap<>())
+                .getOrDefault(container.get(), CompiledLootTable.EMPTY);
+
+        for (Loot loot : table.roll(lootingCount.intValue())) {
+            if (accumulator.contains(loot.getItem())) {
+                accumulator.add(loot);
+            } else {
+                list.add(accumulator.add(loot));
             }
         }
     }
 
-    private Loot getLoot(String artifact) {
-        for (Loot l : list) {
-            if (l.getName().equals(artifact)) {
-                return l;
-            }
-        }
-        return null;
-    }
-
     private void update() {
         if (!Database.dungeonLootList.isEmpty()) {
             this.disabled.set(false);
-            placesMap.clear();
+            tables.clear();
 
-            ObservableList<String> placesList = FXCollections.observableArrayList(placeDefault.get());
-            placesMap.put(placeDefault.get(), FXCollections.observableArrayList(containerDefault.get()));
+            HashMap<String, HashMap<String, List<DungeonLootFactory>>> factories = new HashMap<>();
 
             for (DungeonLootFactory factory : Database.dungeonLootList) {
-                String container = factory.getContainer();
-                String place = factory.getPlace();
-
-                if (container.isEmpty()) {
+                if (factory.getContainer().isEmpty()) {
                     continue;
                 }
 
-                if (!placesMap.containsKey(place)) {
-                    placesMap.put(place, FXCollections.observableArrayList());
-                }
+                factories.computeIfAbsent(factory.getPlace(), k -> new HashMap<>())
+                        .computeIfAbsent(factory.getContainer(), k -> new ArrayList<>()).add(factory);
+            }
 
-                if (!placesList.contains(place)) {
-                    placesList.add(place);
-                }
+            factories.forEach((placeName, containerFactories) -> {
+                HashMap<String, CompiledLootTable> containerTables = new HashMap<>();
+                containerFactories.forEach((containerName, placeFactories) ->
+                        containerTables.put(containerName, new CompiledLootTable(placeFactories)));
+                tables.put(placeName, containerTables);
+            });
 
-                if (!placesMap.get(place).contains(container)) {
-                    placesMap.get(place).add(container);
-                }
+            ObservableList<String> placesList = FXCollections.observableArrayList(placeDefault.get());
+            placesList.addAll(Database.dungeonLootFacets.getValues("place"));
 
-            }
-            containers.set(placesMap.get(placeDefault.get()).sorted());
-            places.set(placesList.sorted());
+            containers.set(getContainers(placeDefault.get()));
+            places.set(placesList);
         } else {
             this.disabled.set(true);
             this.containers.set(FXCollections.observableArrayList(containerDefault.get()));
             this.places.set(FXCollections.observableArrayList(placeDefault.get()));
-            this.placesMap.clear();
-            this.placesMap.put(placeDefault.get(), FXCollections.observableArrayList(containerDefault.get()));
+            this.tables.clear();
+        }
+    }
+
+    /**
+     * @return the containers of the place, only the default container if no place was chosen
+     */
+    private ObservableList<String> getContainers(String place) {
+        if (place.equals(placeDefault.get())) {
+            return FXCollections.observableArrayList(containerDefault.get());
         }
+        return FXCollections.observableArrayList(Database.dungeonLootFacets.getValues("container", Map.of("place", place)));
     }
 }
@@ -12,16 +12,22 @@ import javafx.scene.layout.HBox;
 import javafx.util.converter.IntegerStringConverter;
 import javafx.util.converter.NumberStringConverter;
 import manager.Database;
+import manager.DrawPool;
+import manager.FacetIndex;
+import manager.SearchExecutor;
+import manager.Utility;
 import model.Rarity;
 import model.item.Equipment;
 import ui.IView;
+import ui.ViewFactory;
 import ui.part.UpdatingListCell;
 
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 import static manager.LanguageUtility.getMessageProperty;
 
@@ -42,11 +48,18 @@ public abstract class EquipmentView<Eq extends Equipment> extends SearchView<Eq>
     protected final ReadOnlyStringProperty defaultTyp;
 
     protected final ListProperty<Eq> equipmentList;
+    protected final FacetIndex<Eq> facets;
+    // The facet offered by the first box
+    protected String nameFacet;
+    protected final SearchExecutor<List<Eq>> searchExecutor;
+    private boolean narrowing;
 
-    public EquipmentView(String title, IView parent, ListProperty<Eq> equipmentList) {
+    public EquipmentView(String title, IView parent, ListProperty<Eq> equipmentList, FacetIndex<Eq> facets) {
         super(title, parent);
         this.equipmentList = equipmentList;
-        this.equipmentList.addListener((observable, o, n) -> update());
+        this.facets = facets;
+        this.facets.revisionProperty().addListener(whenShown(this::update));
+        this.nameFacet = "name";
         this.defaultName = getMessageProperty("search.default.name");
         this.defaultMaterial = getMessageProperty("search.default.material");
         this.defaultTyp = getMessageProperty("search.default.typ");
@@ -62,6 +75,11 @@ public abstract class EquipmentView<Eq extends Equipment> extends SearchView<Eq>
         this.types.add(defaultTyp.get());
         this.disabled = new SimpleBooleanProperty(true);
         this.searchCount = new SimpleIntegerProperty(1);
+        this.searchExecutor = new SearchExecutor<>(List::size);
+
+        this.name.addListener((observable, o, n) -> narrow());
+        this.material.addListener((observable, o, n) -> narrow());
+        this.typ.addListener((observable, o, n) -> narrow());
     }
 
     protected void addControls() {
@@ -120,10 +138,11 @@ public abstract class EquipmentView<Eq extends Equipment> extends SearchView<Eq>
         searchButton.textProperty().bind(getMessageProperty("search.button.search"));
         searchButton.setOnAction(ev -> search());
         searchButton.setPrefWidth((double) width / 2 - 5);
-        searchButton.disableProperty().bindBidirectional(disabled);
+        searchButton.disableProperty().bind(disabled.or(searchExecutor.runningProperty()));
         searching.getChildren().add(searchButton);
 
         root.getChildren().add(searching);
+        root.getChildren().add(ViewFactory.searchInfo(searchExecutor));
 
         Button clear = new Button();
         clear.textProperty().bind(getMessageProperty("search.button.reset"));
@@ -132,78 +151,102 @@ public abstract class EquipmentView<Eq extends Equipment> extends SearchView<Eq>
         root.getChildren().add(clear);
     }
 
-    @SuppressWarnings("unchecked")
+    /**
+     * Draws the items in the background and adds them to the list at once.
+     */
     protected void search() {
-        for (int i = 0; i < searchCount.intValue(); i++) {
-            Rarity rarity = this.rarity.get() == Rarity.unknown ? Rarity.getRandomRarity() : this.rarity.get();
-            Collection<String> material = this.material.get().equals(defaultMaterial.get()) ? Database.getRandomMaterial()
-                    : Collections.singletonList(this.material.get());
+        int count = searchCount.intValue();
+        Rarity chosenRarity = this.rarity.get();
+        String chosenMaterial = this.material.get().equals(defaultMaterial.get()) ? null : this.material.get();
+        Predicate<Eq> filter = getFilter();
+        List<Eq> equipment = new ArrayList<>(equipmentList);
+
+        searchExecutor.submit(() -> draw(count, chosenRarity, chosenMaterial, filter, equipment), this::addFound);
+    }
 
-            Stream<Eq> stream = equipmentList.stream().filter(w -> w.getRarity() == rarity);
-            stream = stream.filter(w -> material.contains(w.getMaterial()));
+    /**
+     * @return the chosen name and type, evaluated on the search thread
+     */
+    protected Predicate<Eq> getFilter() {
+        String name = this.name.get().equals(defaultName.get()) ? null : this.name.get();
+        String typ = this.typ.get().equals(defaultTyp.get()) ? null : this.typ.get();
 
-            if (!this.name.get().equals(defaultName.get())) {
-                stream = stream.filter(w -> w.getName().equals(this.name.get()));
+        return w -> (name == null || w.getName().equals(name)) && (typ == null || w.getSubtype().equals(typ));
+    }
+
+    /**
+     * The equipment is grouped by rarity and by the tiers of its material once,
+     * every item only draws a rarity and a tier and picks from their group.
+     */
+    @SuppressWarnings("unchecked")
+    private List<Eq> draw(int count, Rarity chosenRarity, String chosenMaterial, Predicate<Eq> filter, List<Eq> equipment) {
+        List<Eq> found = new ArrayList<>();
+        DrawPool<Eq> pool = new DrawPool<>();
+        int[] rarityWeights = Rarity.getWeights();
+        int[] tierWeights = Utility.getTierWeights();
+
+        if (chosenMaterial != null) {
+            for (Eq item : equipment) {
+                if (item.getMaterial().equals(chosenMaterial) && filter.test(item)) {
+                    pool.add(item.getRarity(), item);
+                }
             }
-            if (!this.typ.get().equals(defaultTyp.get())) {
-                stream = stream.filter(w -> w.getSubtype().equals(this.typ.get()));
+        } else {
+            List<Eq> candidates = equipment.stream().filter(filter).collect(Collectors.toList());
+            for (int tier = 1; tier <= tierWeights.length; tier++) {
+                Collection<String> materials = Database.getMaterialsOfTier(tier);
+                for (Eq item : candidates) {
+                    if (materials.contains(item.getMaterial())) {
+                        pool.add(List.of(item.getRarity(), tier), item);
+                    }
+                }
             }
-            List<Eq> result = stream.collect(Collectors.toList());
+        }
 
-            if (result.size() > 0) {
-                Eq found = (Eq) result.get(rand.nextInt(result.size())).getWithUpgrade();
-                Eq other = getItem(found);
+        for (int i = 0; i < count && !pool.isEmpty() && !SearchExecutor.isCancelled(); i++) {
+            Rarity rarity = chosenRarity == Rarity.unknown ? Rarity.getRandomRarity(rarityWeights, rand) : chosenRarity;
+            Object key = chosenMaterial != null ? rarity : List.of(rarity, Utility.getRandomTier(tierWeights, rand));
+            Eq result = pool.draw(key, rand);
 
-                if (other != null) {
-                    other.addAmount(1);
-                } else {
-                    fullList.add(found);
-                }
+            if (result != null) {
+                found.add((Eq) result.getWithUpgrade());
             }
         }
+
+        return found;
     }
 
-    protected Eq getItem(Eq found) {
+    /**
+     * Items which are already in the list only get a higher amount.
+     */
+    protected void addFound(List<Eq> found) {
+        HashMap<Eq, Eq> items = new HashMap<>();
+        for (Eq item : fullList) {
+            items.putIfAbsent(item, item);
+        }
+
+        List<Eq> added = new ArrayList<>();
+        for (Eq item : found) {
+            Eq other = items.putIfAbsent(item, item);
 
-        for (Eq other : fullList) {
-            if (other.equals(found)) {
-                return other;
+            if (other != null) {
+                other.addAmount(1);
+            } else {
+                added.add(item);
             }
         }
-
-        return null;
+        fullList.addAll(added);
     }
 
     protected void clear() {
+        searchExecutor.cancel();
         this.fullList.set(FXCollections.observableArrayList());
     }
 
     protected void update() {
         if (!equipmentList.isEmpty()) {
             this.disabled.set(false);
-
-            ObservableList<String> name = FXCollections.observableArrayList(defaultName.get());
-            ObservableList<String> material = FXCollections.observableArrayList(defaultMaterial.get());
-            ObservableList<String> typ = FXCollections.observableArrayList(defaultTyp.get());
-
-            for (Eq equipment : equipmentList) {
-                String n = equipment.getName();
-                String m = equipment.getMaterial();
-                String t = equipment.getSubtype();
-
-                if (!name.contains(n)) {
-                    name.add(n);
-                }
-                if (!material.contains(m)) {
-                    material.add(m);
-                }
-                if (!typ.contains(t)) {
-                    typ.add(t);
-                }
-            }
-            names.set(name.sorted());
-            materials.set(material.sorted());
-            types.set(typ.sorted());
+            narrow();
         } else {
             disabled.set(true);
             names.set(FXCollections.observableArrayList(defaultName.get()));
@@ -211,4 +254,36 @@ public abstract class EquipmentView<Eq extends Equipment> extends SearchView<Eq>
             types.set(FXCollections.observableArrayList(defaultTyp.get()));
         }
     }
+
+    /**
+     * Only offers the names, materials and types which exist together with the chosen ones.
+     */
+    private void narrow() {
+        if (narrowing || equipmentList.isEmpty()) {
+            return;
+        }
+        narrowing = true;
+
+        HashMap<String, String> chosen = new HashMap<>();
+        chosen.put(nameFacet, getChoice(name, defaultName));
+        chosen.put("material", getChoice(material, defaultMaterial));
+        chosen.put("type", getChoice(typ, defaultTyp));
+
+        ObservableList<String> name = FXCollections.observableArrayList(defaultName.get());
+        name.addAll(facets.getValues(nameFacet, chosen));
+        ObservableList<String> material = FXCollections.observableArrayList(defaultMaterial.get());
+        material.addAll(facets.getValues("material", chosen));
+        ObservableList<String> typ = FXCollections.observableArrayList(defaultTyp.get());
+        typ.addAll(facets.getValues("type", chosen));
+
+        // The boxes keep their choice, it is part of the new items
+        names.set(name);
+        materials.set(material);
+        types.set(typ);
+        narrowing = false;
+    }
+
+    private static String getChoice(StringProperty choice, ReadOnlyStringProperty defaultChoice) {
+        return choice.get() == null || choice.get().equals(defaultChoice.get()) ? null : choice.get();
+    }
 }
@@ -10,13 +10,18 @@ import javafx.scene.layout.HBox;
 import javafx.scene.layout.VBox;
 import javafx.util.converter.IntegerStringConverter;
 import manager.Database;
+import manager.DrawPool;
+import manager.SearchExecutor;
 import model.Rarity;
 import model.item.Plant;
 import ui.IView;
+import ui.ViewFactory;
 import ui.ViewPart;
 import ui.part.NumberField;
 import ui.part.UpdatingListCell;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Random;
 import java.util.stream.Collectors;
@@ -39,6 +44,8 @@ public class PlantView extends ViewPart {
     private final BooleanProperty disabled;
     private final IntegerProperty searchCount;
     private final Random rand;
+    private final SearchExecutor<List<Plant>> searchExecutor;
+    private boolean narrowing;
 
     protected final ReadOnlyStringProperty defaultName;
     protected final ReadOnlyStringProperty defaultTyp;
@@ -66,8 +73,11 @@ public class PlantView extends ViewPart {
         this.disabled = new SimpleBooleanProperty(true);
         this.searchCount = new SimpleIntegerProperty(1);
         this.rand = new Random();
+        this.searchExecutor = new SearchExecutor<>(List::size);
 
-        Database.plantList.addListener((ob, o, n) -> update());
+        Database.plantFacets.revisionProperty().addListener(whenShown(this::update));
+        this.name.addListener((ob, o, n) -> narrow());
+        this.typ.addListener((ob, o, n) -> narrow());
 
         int width = 400;
 
@@ -208,10 +218,11 @@ public class PlantView extends ViewPart {
         searchButton.textProperty().bind(getMessageProperty("search.button.search"));
         searchButton.setOnAction(ev -> search());
         searchButton.setPrefWidth((double) width / 2 - 5);
-        searchButton.disableProperty().bindBidirectional(disabled);
+        searchButton.disableProperty().bind(disabled.or(searchExecutor.runningProperty()));
         searching.getChildren().add(searchButton);
 
         searchBox.getChildren().add(searching);
+        searchBox.getChildren().add(ViewFactory.searchInfo(searchExecutor));
 
         Button clear = new Button();
         clear.textProperty().bind(getMessageProperty("search.button.reset"));
@@ -253,6 +264,7 @@ public class PlantView extends ViewPart {
     }
 
     private void clearList() {
+        searchExecutor.cancel();
         this.list.set(FXCollections.observableArrayList());
     }
 
@@ -270,87 +282,83 @@ public class PlantView extends ViewPart {
         }
     }
 
+    /**
+     * Draws the plants in the background and adds them to the list at once.
+     */
     private void search() {
-        for (int i = 0; i < searchCount.intValue(); i++) {
-            Rarity rarity = this.rarity.get() == Rarity.unknown ? Rarity.getRandomRarity() : this.rarity.get();
+        int count = searchCount.intValue();
+        Rarity chosenRarity = this.rarity.get();
+        String name = this.name.get().equals(defaultName.get()) ? null : this.name.get();
+        String typ = this.typ.get().equals(defaultTyp.get()) ? null : this.typ.get();
+        List<String> locations = new ArrayList<>(chosenLocations);
+        List<Plant> plants = new ArrayList<>(Database.plantList);
+
+        searchExecutor.submit(() -> draw(count, chosenRarity, name, typ, locations, plants), this::addFound);
+    }
 
-            Stream<Plant> stream = Database.plantList.stream().filter(w -> w.getRarity() == rarity);
+    private List<Plant> draw(int count, Rarity chosenRarity, String name, String typ, List<String> locations, List<Plant> plants) {
+        List<Plant> found = new ArrayList<>();
+        Stream<Plant> stream = plants.stream();
 
-            if (!this.name.get().equals(defaultName.get())) {
-                stream = stream.filter(w -> w.getName().equals(this.name.get()));
-            }
-            if (!this.typ.get().equals(defaultTyp.get())) {
-                stream = stream.filter(w -> w.getSubtype().equals(this.typ.get()));
-            }
-            if (!this.chosenLocations.isEmpty()) {
-                stream = stream.filter(p -> {
-                    for (String loc : p.getLocations()) {
-                        if (chosenLocations.contains(loc)) {
-                            return true;
-                        }
+        if (name != null) {
+            stream = stream.filter(w -> w.getName().equals(name));
+        }
+        if (typ != null) {
+            stream = stream.filter(w -> w.getSubtype().equals(typ));
+        }
+        if (!locations.isEmpty()) {
+            stream = stream.filter(p -> {
+                for (String loc : p.getLocations()) {
+                    if (locations.contains(loc)) {
+                        return true;
                     }
-                    return false;
-                });
-            }
+                }
+                return false;
+            });
+        }
 
-            List<Plant> result = stream.collect(Collectors.toList());
+        // The filters are applied once, every plant only draws a rarity and picks from its group
+        DrawPool<Plant> pool = DrawPool.of(stream.collect(Collectors.toList()), Plant::getRarity);
+        int[] rarityWeights = Rarity.getWeights();
 
-            if (result.size() > 0) {
-                Plant found = result.get(rand.nextInt(result.size()));
-                Plant other = getItem(found);
+        for (int i = 0; i < count && !pool.isEmpty() && !SearchExecutor.isCancelled(); i++) {
+            Rarity rarity = chosenRarity == Rarity.unknown ? Rarity.getRandomRarity(rarityWeights, rand) : chosenRarity;
+            Plant result = pool.draw(rarity, rand);
 
-                if (other != null) {
-                    other.addAmount(1);
-                } else {
-                    list.add(found);
-                }
+            if (result != null) {
+                found.add(result);
             }
         }
+
+        return found;
     }
 
-    private Plant getItem(Plant found) {
+    /**
+     * Plants which are already in the list only get a higher amount.
+     */
+    private void addFound(List<Plant> found) {
+        HashMap<Plant, Plant> plants = new HashMap<>();
+        for (Plant plant : list) {
+            plants.putIfAbsent(plant, plant);
+        }
 
-        for (Plant other : list) {
-            if (other.equals(found)) {
-                return other;
+        List<Plant> added = new ArrayList<>();
+        for (Plant plant : found) {
+            Plant other = plants.putIfAbsent(plant, plant);
+
+            if (other != null) {
+                other.addAmount(1);
+            } else {
+                added.add(plant);
             }
         }
-
-        return null;
+        list.addAll(added);
     }
 
     private void update() {
         if (!Database.plantList.isEmpty()) {
             this.disabled.set(false);
-
-            ObservableList<String> name = FXCollections.observableArrayList(defaultName.get());
-            ObservableList<String> typ = FXCollections.observableArrayList(defaultTyp.get());
-            ObservableList<String> location = FXCollections.observableArrayList(defaultLocation.get());
-
-            for (Plant plant : Database.plantList) {
-                String n = plant.getName();
-                String t = plant.getSubtype();
-
-                if (n.isEmpty()) {
-                    continue;
-                }
-
-                if (!name.contains(n)) {
-                    name.add(n);
-                }
-                if (!typ.contains(t)) {
-                    typ.add(t);
-                }
-
-                for (String loc : plant.getLocations()) {
-                    if (!location.contains(loc)) {
-                        location.add(loc);
-                    }
-                }
-            }
-            names.set(name.sorted());
-            types.set(typ.sorted());
-            locations.set(location.sorted());
+            narrow();
         } else {
             disabled.set(true);
             names.set(FXCollections.observableArrayList(defaultName.get()));
@@ -358,4 +366,30 @@ public class PlantView extends ViewPart {
             locations.set(FXCollections.observableArrayList(location.get()));
         }
     }
+
+    /**
+     * Only offers the names, types and locations which exist together with the chosen name and type.
+     */
+    private void narrow() {
+        if (narrowing || Database.plantList.isEmpty()) {
+            return;
+        }
+        narrowing = true;
+
+        HashMap<String, String> chosen = new HashMap<>();
+        chosen.put("name", name.get() == null || name.get().equals(defaultName.get()) ? null : name.get());
+        chosen.put("type", typ.get() == null || typ.get().equals(defaultTyp.get()) ? null : typ.get());
+
+        ObservableList<String> name = FXCollections.observableArrayList(defaultName.get());
+        name.addAll(Database.plantFacets.getValues("name", chosen));
+        ObservableList<String> typ = FXCollections.observableArrayList(defaultTyp.get());
+        typ.addAll(Database.plantFacets.getValues("type", chosen));
+        ObservableList<String> location = FXCollections.observableArrayList(defaultLocation.get());
+        location.addAll(Database.plantFacets.getValues("location", chosen));
+
+        names.set(name);
+        types.set(typ);
+        locations.set(location);
+        narrowing = false;
+    }
 }
@@ -3,6 +3,7 @@ package ui.search;
 import javafx.scene.control.Tab;
 import javafx.scene.control.TabPane;
 import ui.IView;
+import ui.LazyTab;
 import ui.ViewPart;
 
 public class SearchOverview extends ViewPart {
@@ -15,22 +16,23 @@ public class SearchOverview extends ViewPart {
         Tab weaponTab = new WeaponView(this);
         root.getTabs().add(weaponTab);
 
-        Tab armorTab = new ArmorView(this);
+        // The other views are built when they are opened
+        Tab armorTab = new LazyTab("search.armor.title", this, () -> new ArmorView(this));
         root.getTabs().add(armorTab);
 
-        Tab jewelleryTab = new JewelleryView(this);
+        Tab jewelleryTab = new LazyTab("search.jewellery.title", this, () -> new JewelleryView(this));
         root.getTabs().add(jewelleryTab);
 
-        Tab spellTab = new SpellView(this);
+        Tab spellTab = new LazyTab("search.spell.title", this, () -> new SpellView(this));
         root.getTabs().add(spellTab);
 
-        Tab plantTab = new PlantView(this);
+        Tab plantTab = new LazyTab("search.plant.title", this, () -> new PlantView(this));
         root.getTabs().add(plantTab);
 
-        Tab dungeonTab = new DungeonLootView(this);
+        Tab dungeonTab = new LazyTab("search.loot.title", this, () -> new DungeonLootView(this));
         root.getTabs().add(dungeonTab);
 
-        Tab craftingTab = new CraftingView(this);
+        Tab craftingTab = new LazyTab("search.crafting.title", this, () -> new CraftingView(this));
         root.getTabs().add(craftingTab);
 
         this.setContent(root);
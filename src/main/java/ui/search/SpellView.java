@@ -11,10 +11,14 @@ import javafx.scene.layout.VBox;
 import javafx.util.converter.IntegerStringConverter;
 import javafx.util.converter.NumberStringConverter;
 import manager.Database;
+import manager.SearchExecutor;
 import model.Spell;
 import ui.IView;
+import ui.ViewFactory;
 import ui.ViewPart;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Random;
 import java.util.stream.Collectors;
@@ -36,6 +40,8 @@ public class SpellView extends ViewPart {
     private final BooleanProperty disabled;
     private final IntegerProperty searchCount;
     private final Random rand;
+    private final SearchExecutor<List<Spell>> searchExecutor;
+    private boolean narrowing;
 
     protected final ReadOnlyStringProperty defaultName;
     protected final ReadOnlyStringProperty defaultTyp;
@@ -63,8 +69,12 @@ public class SpellView extends ViewPart {
         this.disabled = new SimpleBooleanProperty(true);
         this.searchCount = new SimpleIntegerProperty(1);
         this.rand = new Random();
+        this.searchExecutor = new SearchExecutor<>(List::size);
 
-        Database.spellList.addListener((ob, o, n) -> update());
+        Database.spellFacets.revisionProperty().addListener(whenShown(this::update));
+        this.name.addListener((ob, o, n) -> narrow());
+        this.typ.addListener((ob, o, n) -> narrow());
+        this.cost.addListener((ob, o, n) -> narrow());
 
         int width = 400;
 
@@ -169,10 +179,11 @@ public class SpellView extends ViewPart {
         searchButton.textProperty().bind(getMessageProperty("search.button.search"));
         searchButton.setOnAction(ev -> search());
         searchButton.setPrefWidth(width / 2f - 5);
-        searchButton.disableProperty().bindBidirectional(disabled);
+        searchButton.disableProperty().bind(disabled.or(searchExecutor.runningProperty()));
         searching.getChildren().add(searchButton);
 
         root.getChildren().add(searching);
+        root.getChildren().add(ViewFactory.searchInfo(searchExecutor));
 
         Button clear = new Button();
         clear.textProperty().bind(getMessageProperty("search.button.reset"));
@@ -185,58 +196,51 @@ public class SpellView extends ViewPart {
     }
 
     private void clear() {
+        searchExecutor.cancel();
         this.list.set(FXCollections.observableArrayList());
     }
 
+    /**
+     * Draws the spells in the background and adds them to the list at once.
+     */
     private void search() {
-        for (int i = 0; i < searchCount.intValue(); i++) {
-            int tier = this.tier.get();
-
-            Stream<Spell> stream = Database.spellList.stream().filter(w -> w.getTier() == tier);
-
-            if (!this.name.get().equals(defaultName.get())) {
-                stream = stream.filter(w -> w.getName().equals(this.name.get()));
+        int count = searchCount.intValue();
+        int tier = this.tier.get();
+        String name = this.name.get().equals(defaultName.get()) ? null : this.name.get();
+        String typ = this.typ.get().equals(defaultTyp.get()) ? null : this.typ.get();
+        String cost = this.cost.get().equals(defaultCost.get()) ? null : this.cost.get();
+        List<Spell> spells = new ArrayList<>(Database.spellList);
+
+        searchExecutor.submit(() -> {
+            List<Spell> found = new ArrayList<>();
+            Stream<Spell> stream = spells.stream().filter(w -> w.getTier() == tier);
+
+            if (name != null) {
+                stream = stream.filter(w -> w.getName().equals(name));
             }
-            if (!this.typ.get().equals(defaultTyp.get())) {
-                stream = stream.filter(w -> w.getType().equals(this.typ.get()));
+            if (typ != null) {
+                stream = stream.filter(w -> w.getType().equals(typ));
             }
-            if (!this.cost.get().equals(defaultCost.get())) {
-                stream = stream.filter(w -> w.getCost().equals(this.cost.get()));
+            if (cost != null) {
+                stream = stream.filter(w -> w.getCost().equals(cost));
             }
+            // Nothing is drawn per spell, so the filters are applied once
             List<Spell> result = stream.collect(Collectors.toList());
 
             if (result.size() > 0) {
-                list.add(result.get(rand.nextInt(result.size())));
+                for (int i = 0; i < count && !SearchExecutor.isCancelled(); i++) {
+                    found.add(result.get(rand.nextInt(result.size())));
+                }
             }
-        }
+
+            return found;
+        }, list::addAll);
     }
 
     private void update() {
         if (!Database.spellList.isEmpty()) {
             this.disabled.set(false);
-
-            ObservableList<String> name = FXCollections.observableArrayList(defaultName.get());
-            ObservableList<String> typ = FXCollections.observableArrayList(defaultTyp.get());
-            ObservableList<String> cost = FXCollections.observableArrayList(defaultCost.get());
-
-            for (Spell spell : Database.spellList) {
-                String n = spell.getName();
-                String t = spell.getType();
-                String c = spell.getCost();
-
-                if (!name.contains(n)) {
-                    name.add(n);
-                }
-                if (!cost.contains(c)) {
-                    cost.add(c);
-                }
-                if (!typ.contains(t)) {
-                    typ.add(t);
-                }
-            }
-            names.set(name.sorted());
-            typs.set(typ.sorted());
-            costs.set(cost.sorted());
+            narrow();
         } else {
             disabled.set(true);
             names.set(FXCollections.observableArrayList(defaultName.get()));
@@ -244,4 +248,31 @@ public class SpellView extends ViewPart {
             costs.set(FXCollections.observableArrayList(defaultCost.get()));
         }
     }
+
+    /**
+     * Only offers the names, types and costs which exist together with the chosen ones.
+     */
+    private void narrow() {
+        if (narrowing || Database.spellList.isEmpty()) {
+            return;
+        }
+        narrowing = true;
+
+        HashMap<String, String> chosen = new HashMap<>();
+        chosen.put("name", name.get() == null || name.get().equals(defaultName.get()) ? null : name.get());
+        chosen.put("type", typ.get() == null || typ.get().equals(defaultTyp.get()) ? null : typ.get());
+        chosen.put("cost", cost.get() == null || cost.get().equals(defaultCost.get()) ? null : cost.get());
+
+        ObservableList<String> name = FXCollections.observableArrayList(defaultName.get());
+        name.addAll(Database.spellFacets.getValues("name", chosen));
+        ObservableList<String> typ = FXCollections.observableArrayList(defaultTyp.get());
+        typ.addAll(Database.spellFacets.getValues("type", chosen));
+        ObservableList<String> cost = FXCollections.observableArrayList(defaultCost.get());
+        cost.addAll(Database.spellFacets.getValues("cost", chosen));
+
+        names.set(name);
+        typs.set(typ);
+        costs.set(cost);
+        narrowing = false;
+    }
 }
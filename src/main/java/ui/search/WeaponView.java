@@ -9,7 +9,7 @@ import ui.IView;
 public class WeaponView extends EquipmentView<Weapon> {
 
     public WeaponView(IView parent) {
-        super("search.weapon.title", parent, Database.weaponList);
+        super("search.weapon.title", parent, Database.weaponList, Database.weaponFacets);
 
         tableView.addObservableColumn("column.amount", Item::amountProperty);
         tableView.addColumn("column.name", Item::getName);
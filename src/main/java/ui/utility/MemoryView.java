@@ -1,7 +1,5 @@
 package ui.utility;
 
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
 import javafx.geometry.Insets;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
@@ -11,8 +9,11 @@ import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.scene.layout.BorderPane;
 import javafx.scene.layout.Priority;
 import javafx.scene.layout.VBox;
-import manager.Utility;
+import manager.Database;
+import manager.LanguageUtility;
+import manager.LootLedgerFile;
 import model.loot.Loot;
+import model.loot.LootLedger;
 import ui.IView;
 import ui.ViewPart;
 import ui.battle.LootView;
@@ -21,18 +22,22 @@ import static manager.LanguageUtility.getMessageProperty;
 
 public class MemoryView extends ViewPart {
 
-    private final ObservableList<Loot> loots;
+    private final LootLedger ledger;
 
     public MemoryView(IView parent) {
         super("memory.title", parent);
-        this.loots = FXCollections.observableArrayList();
+        this.ledger = new LootLedger(LootLedgerFile.getDefault());
+
+        // Items saved before the database was loaded are found afterwards
+        Database.itemList.addListener((ob, o, n) -> ledger.resolve());
+        LanguageUtility.language.addListener((ob, o, n) -> ledger.recount());
 
         VBox root = new VBox();
         root.setPadding(new Insets(10, 20, 20, 20));
 
         TableView<Loot> lootTable = new TableView<>();
         VBox.setVgrow(lootTable, Priority.ALWAYS);
-        lootTable.setItems(loots);
+        lootTable.setItems(ledger.getLoot());
         lootTable.setRowFactory(table -> new LootView.LootRow());
         lootTable.setPrefWidth(800);
 
@@ -60,7 +65,7 @@ public class MemoryView extends ViewPart {
         remove.setPrefWidth(150);
         buttonPane.setLeft(remove);
 
-        remove.setOnAction(ev -> loots.remove(lootTable.getSelectionModel().getSelectedItem()));
+        remove.setOnAction(ev -> ledger.remove(lootTable.getSelectionModel().getSelectedItem()));
 
         Label coinLabel = new Label();
         buttonPane.setCenter(coinLabel);
@@ -70,12 +75,12 @@ public class MemoryView extends ViewPart {
         sell.setPrefWidth(150);
         buttonPane.setRight(sell);
 
-        sell.setOnAction(ev -> coinLabel.setText(Utility.sellLoot(loots).getCoinString()));
+        sell.setOnAction(ev -> coinLabel.setText(ledger.getSellValue().getCoinString()));
 
         this.setContent(root);
     }
 
     public void add(Loot loot) {
-        this.loots.add(loot);
+        this.ledger.add(loot);
     }
 }
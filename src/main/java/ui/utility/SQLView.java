@@ -121,6 +121,11 @@ public class SQLView extends ViewPart {
         upgradeTable.addColumn("column.upgrade.materials", UpgradeModel::getMaterials);
         upgradeTab.setContent(upgradeTable);
 
+        // Loading a database only loads the rows of the shown table, the others follow when they are shown
+        for (Tab tab : root.getTabs()) {
+            ((FilteredTableView<?>) tab.getContent()).setShown(shownProperty().and(tab.selectedProperty()));
+        }
+
         this.setContent(root);
     }
 }
@@ -0,0 +1,149 @@
+package manager;
+
+import model.Battle;
+import model.item.Item;
+import model.item.Weapon;
+import model.loot.LootFactory;
+import model.member.BattleMember;
+import model.member.ExtendedBattleMember;
+import model.member.data.ArmorPiece;
+import model.member.data.AttackTypes;
+import model.member.generation.PrimaryAttribute;
+import model.member.generation.specs.*;
+import model.member.state.interfaces.IMemberState;
+import org.junit.jupiter.api.Test;
+import ui.battle.state.MemberStateFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BattleSerializerTest {
+
+    @Test
+    public void roundTripTest() throws IOException {
+        Battle battle = new Battle();
+        battle.setName("Goblin camp");
+
+        BattleMember player = createMember(battle, "Hero", 40);
+        player.setArmor(ArmorPiece.head, 3);
+        player.setDefense(2);
+        player.getBaseLootTable().add(new Item("Rope"), 2, 0.5);
+
+        ExtendedBattleMember mage = new ExtendedBattleMember(battle, new Characterisation(), new Race(),
+                new Profession(), new FightingStyle(), new Specialisation());
+        mage.setName("Mage");
+        mage.setLevel(4);
+        mage.getAttribute(PrimaryAttribute.values()[0]).set(7);
+        mage.setNotes("Carries the map");
+        Weapon staff = new Weapon();
+        staff.setName("Staff");
+        staff.setWearTick(3);
+        mage.getWeapons().add(staff);
+
+        BattleMember goblin = createMember(battle, "Goblin", 8);
+        goblin.getBaseLootTable().add(new Item("Dagger"), 1, 0.25);
+        BattleMember deadGoblin = createMember(battle, "Goblin", 8);
+        deadGoblin.setLife(0);
+
+        battle.playersProperty().addAll(player, mage);
+        battle.enemiesProperty().addAll(goblin, deadGoblin);
+        battle.nextTurn();
+
+        MemberStateFactory factory = MemberStateFactory.FACTORIES.iterator().next();
+        goblin.addState(factory.create("Burn", 3, true, 5, false, AttackTypes.head, mage));
+        player.addState(factory.create("Shield", 2, false, 10, false, AttackTypes.direct, null));
+
+        Battle read = new Battle();
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        BattleSerializer.write(battle, stream);
+        BattleSerializer.read(read, new ByteArrayInputStream(stream.toByteArray()));
+
+        assertEquals("Goblin camp", read.getName());
+        assertEquals(battle.roundProperty().get(), read.roundProperty().get());
+        assertEquals(2, read.playersProperty().size());
+        assertEquals(2, read.enemiesProperty().size());
+
+        List<BattleMember> members = new ArrayList<>(battle.playersProperty());
+        members.addAll(battle.enemiesProperty());
+        List<BattleMember> readMembers = new ArrayList<>(read.playersProperty());
+        readMembers.addAll(read.enemiesProperty());
+
+        for (int i = 0; i < members.size(); i++) {
+            BattleMember expected = members.get(i);
+            BattleMember actual = readMembers.get(i);
+
+            assertEquals(expected.getClass(), actual.getClass());
+            assertEquals(expected.getName(), actual.getName());
+            assertEquals(expected.getLevel(), actual.getLevel());
+            assertEquals(expected.getLife(), actual.getLife());
+            assertEquals(expected.getMaxLife(), actual.getMaxLife());
+            assertEquals(expected.getMana(), actual.getMana());
+            assertEquals(expected.getInitiative(), actual.getInitiative());
+            assertEquals(expected.getStartValue(), actual.getStartValue());
+            assertEquals(expected.getCounter(), actual.getCounter());
+            assertEquals(expected.getRoundStartCounter(), actual.getRoundStartCounter());
+            assertEquals(expected.getTurns(), actual.getTurns());
+
+            List<LootFactory> loot = expected.getBaseLootTable().getFactories();
+            List<LootFactory> readLoot = actual.getBaseLootTable().getFactories();
+            assertEquals(loot.size(), readLoot.size());
+            for (int j = 0; j < loot.size(); j++) {
+                assertEquals(loot.get(j).getMaxAmount(), readLoot.get(j).getMaxAmount());
+                assertEquals(loot.get(j).getChance(), readLoot.get(j).getChance());
+            }
+
+            assertEquals(expected.statesProperty().size(), actual.statesProperty().size());
+            for (int j = 0; j < expected.statesProperty().size(); j++) {
+                IMemberState state = expected.statesProperty().get(j);
+                IMemberState readState = actual.statesProperty().get(j);
+                assertEquals(state.getClass(), readState.getClass());
+                assertEquals(state.getName(), readState.getName());
+                assertEquals(state.getDuration(), readState.getDuration());
+                assertEquals(members.indexOf(state.getSource()), readMembers.indexOf(readState.getSource()));
+            }
+        }
+
+        assertEquals(3, readMembers.get(0).armorProperty(ArmorPiece.head).get());
+        assertEquals(2, readMembers.get(0).baseDefenseProperty().get());
+        assertTrue(readMembers.get(3).isDead());
+        assertFalse(readMembers.get(2).isDead());
+
+        ExtendedBattleMember readMage = (ExtendedBattleMember) readMembers.get(1);
+        assertEquals(7, readMage.getAttribute(PrimaryAttribute.values()[0]).get());
+        assertEquals("Carries the map", readMage.getNotes());
+        assertEquals(1, readMage.getWeapons().size());
+        assertEquals("Staff", readMage.getWeapons().get(0).getName());
+        assertEquals(3, readMage.getWeapons().get(0).getWearTick());
+        assertSame(readMage, readMembers.get(2).statesProperty().get(0).getSource());
+    }
+
+    @Test
+    public void specsOrderTest() {
+        String json = "{\"version\":1,\"members\":[{\"name\":\"Mage\",\"specs\":{\"race\":\"Elf\"}}]}";
+
+        // The specs decide which member gets created, they can't follow other fields
+        assertThrows(IOException.class, () -> BattleSerializer.read(new Battle(),
+                new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8))));
+    }
+
+    private BattleMember createMember(Battle battle, String name, int life) {
+        BattleMember member = new BattleMember(battle);
+        member.setName(name);
+        member.setMaxLife(life);
+        member.setLife(life);
+        member.setMaxMana(10);
+        member.manaProperty().set(4);
+        member.setInitiative(7);
+        return member;
+    }
+}
@@ -0,0 +1,47 @@
+package manager;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class FacetIndexTest {
+
+    @Test
+    public void facetTest() {
+        ObservableList<String[]> list = FXCollections.observableArrayList();
+        FacetIndex<String[]> index = new FacetIndex<>(list).facet("type", entry -> entry[0])
+                .facet("material", entry -> entry[1]).multiFacet("location", entry -> Arrays.asList(entry).subList(2, entry.length));
+
+        assertEquals(Collections.emptyList(), index.getValues("type"));
+
+        list.addAll(new String[]{"Schwert", "Eisen", "Wald"}, new String[]{"Axt", "Eisen"},
+                new String[]{"Schwert", "Stahl", "Wald", "Berg"}, new String[]{"Axt", ""}, new String[]{"Äxte", "Holz"});
+
+        assertEquals(List.of("Axt", "Äxte", "Schwert"), index.getValues("type"));
+        assertEquals(List.of("Eisen", "Holz", "Stahl"), index.getValues("material"));
+        assertEquals(List.of("Berg", "Wald"), index.getValues("location"));
+        assertEquals(2, index.getCount("material", "Eisen"));
+        assertEquals(0, index.getCount("material", "Gold"));
+
+        Map<String, String> chosen = new HashMap<>();
+        chosen.put("type", "Schwert");
+        chosen.put("material", null);
+        assertEquals(List.of("Eisen", "Stahl"), index.getValues("material", chosen));
+        // The own choice doesn't narrow the facet
+        assertEquals(List.of("Axt", "Äxte", "Schwert"), index.getValues("type", chosen));
+
+        chosen.put("location", "Berg");
+        assertEquals(List.of("Stahl"), index.getValues("material", chosen));
+
+        chosen.put("material", "Holz");
+        assertEquals(Collections.emptyList(), index.getValues("location", chosen));
+    }
+}
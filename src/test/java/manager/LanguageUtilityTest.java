@@ -0,0 +1,108 @@
+package manager;
+
+import javafx.beans.property.ReadOnlyStringProperty;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LanguageUtilityTest {
+
+    private final List<Runnable> pending = new ArrayList<>();
+
+    @BeforeEach
+    public void setUp() {
+        LanguageUtility.notifier = pending::add;
+        LanguageUtility.language.set(Language.german);
+        pulse();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        LanguageUtility.language.set(Language.system);
+        pulse();
+    }
+
+    @Test
+    public void switchTest() {
+        ReadOnlyStringProperty property = LanguageUtility.getMessageProperty("map.info.count");
+        assertSame(property, LanguageUtility.getMessageProperty("map.info.count"));
+        assertEquals("Anzahl", property.get());
+
+        List<String> changes = new ArrayList<>();
+        property.addListener((ob, o, n) -> changes.add(n));
+
+        // The message changes at once, the notification waits for the next pulse
+        LanguageUtility.language.set(Language.english);
+        assertEquals("Count", property.get());
+        assertEquals("Count", LanguageUtility.getMessage("map.info.count"));
+        assertTrue(changes.isEmpty());
+
+        // Any number of changes are notified once
+        LanguageUtility.language.set(Language.german);
+        LanguageUtility.language.set(Language.english);
+        assertEquals(1, pending.size());
+        pulse();
+        assertEquals(List.of("Count"), changes);
+
+        // A change back before the pulse isn't notified at all
+        LanguageUtility.language.set(Language.german);
+        LanguageUtility.language.set(Language.english);
+        pulse();
+        assertEquals(List.of("Count"), changes);
+    }
+
+    @Test
+    public void collectTest() throws InterruptedException {
+        WeakReference<ReadOnlyStringProperty> reference =
+                new WeakReference<>(LanguageUtility.getMessageProperty("map.info.seed"));
+
+        for (int i = 0; i < 50 && reference.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertNull(reference.get());
+
+        // A new property is created when the key is used again
+        assertEquals("Seed", LanguageUtility.getMessageProperty("map.info.seed").get());
+    }
+
+    @Test
+    public void missingKeyTest() {
+        // Only the German bundle has the title of the map view
+        ReadOnlyStringProperty property = LanguageUtility.getMessageProperty("map.title");
+        assertTrue(LanguageUtility.hasMessage("map.title"));
+        assertEquals("Karten", property.get());
+
+        LanguageUtility.language.set(Language.english);
+        pulse();
+        assertFalse(LanguageUtility.hasMessage("map.title"));
+        assertEquals("map.title", LanguageUtility.getMessage("map.title"));
+        assertEquals("map.title", property.get());
+
+        // Unknown keys are shown as they are
+        assertFalse(LanguageUtility.hasMessage("test.unknown"));
+        assertEquals("test.unknown", LanguageUtility.getMessage("test.unknown"));
+        assertEquals("test.unknown", LanguageUtility.getMessageProperty("test.unknown").get());
+        assertFalse(LanguageUtility.hasMessage("test.unknown"));
+
+        LanguageUtility.language.set(Language.german);
+        pulse();
+        assertEquals("Karten", property.get());
+    }
+
+    private void pulse() {
+        List<Runnable> runnables = new ArrayList<>(pending);
+        pending.clear();
+        runnables.forEach(Runnable::run);
+    }
+}
@@ -0,0 +1,60 @@
+package model;
+
+import javafx.collections.ListChangeListener;
+import model.member.BattleMember;
+import model.member.data.AttackTypes;
+import model.member.state.implementations.manipulating.DamageMemberState;
+import model.member.state.interfaces.IMemberState;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BattleTest {
+
+    @Test
+    public void areaStateTest() {
+        Battle battle = new Battle();
+        HashMap<BattleMember, Integer> changes = new HashMap<>();
+
+        for (int i = 0; i < 20; i++) {
+            BattleMember member = new BattleMember(battle);
+            battle.enemiesProperty().add(member);
+            changes.put(member, 0);
+            member.statesProperty().addListener((ListChangeListener<IMemberState>) change -> changes.merge(member, 1, Integer::sum));
+        }
+        battle.getScheduler().getTimeline();
+
+        int[] invalidations = new int[1];
+        battle.getScheduler().validProperty().addListener((ob, o, valid) -> {
+            if (!valid) {
+                invalidations[0]++;
+            }
+        });
+
+        List<List<BattleMember>> batches = new ArrayList<>();
+        battle.changedStatesProperty().addListener((ob, o, members) -> batches.add(members));
+
+        battle.addState(() -> new DamageMemberState("dot", 3, false, null, 5, false, AttackTypes.direct),
+                battle.enemiesProperty());
+
+        // One notification for all targets and one invalidation of the timeline for the whole effect
+        assertEquals(1, batches.size());
+        assertEquals(new ArrayList<>(battle.enemiesProperty()), batches.get(0));
+        for (BattleMember member : battle.enemiesProperty()) {
+            assertEquals(0, (int) changes.get(member));
+            assertEquals(1, member.statesProperty().size());
+        }
+        assertEquals(1, invalidations[0]);
+        assertNotSame(battle.enemiesProperty().get(0).statesProperty().get(0),
+                battle.enemiesProperty().get(1).statesProperty().get(0));
+
+        battle.getScheduler().getTimeline();
+        assertTrue(battle.getScheduler().validProperty().get());
+    }
+}
@@ -0,0 +1,71 @@
+package model.battle;
+
+import model.member.BattleMember;
+import model.member.data.AttackTypes;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BattleStatisticTest {
+
+    @Test
+    public void recordTest() {
+        BattleStatistic statistic = new BattleStatistic();
+        BattleMember first = new BattleMember(null);
+        BattleMember second = new BattleMember(null);
+
+        statistic.addDamage(first, 1, AttackTypes.head, 5);
+        statistic.addDamage(first, 1, AttackTypes.arm, 3);
+        statistic.addDamage(first, 3, AttackTypes.head, 2);
+        statistic.addDamage(second, 2, AttackTypes.legs, 20);
+        statistic.addHeal(second, 1, 4);
+        statistic.addShield(first, 2, 7);
+
+        // null sources are ignored
+        statistic.addDamage(null, 1, AttackTypes.head, 100);
+
+        assertEquals(10, statistic.getTotal(StatisticType.damage, first));
+        assertEquals(20, statistic.getTotal(StatisticType.damage, second));
+        assertEquals(30, statistic.getTotal(StatisticType.damage));
+        assertEquals(4, statistic.getTotal(StatisticType.heal, second));
+        assertEquals(7, statistic.getTotal(StatisticType.shield, first));
+
+        assertEquals(7, statistic.getDamage(first, AttackTypes.head));
+        assertEquals(7, statistic.getDamage(AttackTypes.head));
+        assertEquals(20, statistic.getDamage(AttackTypes.legs));
+
+        assertEquals(4, statistic.getRoundCount());
+        assertArrayEquals(new int[]{0, 8, 0, 2}, statistic.getCurve(StatisticType.damage, first));
+        assertArrayEquals(new int[]{0, 8, 20, 2}, statistic.getCurve(StatisticType.damage));
+
+        List<BattleMember> top = statistic.getTopSources(StatisticType.damage, 5);
+        assertEquals(List.of(second, first), top);
+        assertEquals(List.of(second), statistic.getTopSources(StatisticType.damage, 1));
+
+        statistic.clear();
+        assertEquals(0, statistic.getRoundCount());
+        assertEquals(0, statistic.getTotal(StatisticType.damage, first));
+        assertTrue(statistic.getTopSources(StatisticType.damage, 5).isEmpty());
+    }
+
+    @Test
+    public void growTest() {
+        BattleStatistic statistic = new BattleStatistic();
+        BattleMember member = new BattleMember(null);
+
+        for (int round = 0; round < 500; round++) {
+            statistic.addDamage(member, round, AttackTypes.direct, 1);
+            statistic.addHeal(member, round, 2);
+        }
+
+        assertEquals(500, statistic.getRoundCount());
+        assertEquals(500, statistic.getTotal(StatisticType.damage, member));
+        assertEquals(1000, statistic.getTotal(StatisticType.heal, member));
+        assertEquals(1, statistic.get(StatisticType.damage, member, 499));
+        assertEquals(0, statistic.get(StatisticType.damage, member, 500));
+    }
+}
@@ -0,0 +1,140 @@
+package model.battle;
+
+import model.Battle;
+import model.member.BattleMember;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class InitiativeSchedulerTest {
+
+    @Test
+    public void timelineTest() {
+        Battle battle = new Battle();
+        InitiativeScheduler scheduler = battle.getScheduler();
+        BattleMember fast = createMember(battle, 12);
+        BattleMember slow = createMember(battle, 6);
+        battle.playersProperty().add(slow);
+        battle.enemiesProperty().add(fast);
+
+        List<InitiativeScheduler.Action> timeline = scheduler.getTimeline();
+        assertTrue(scheduler.validProperty().get());
+
+        // Both act at the start of the first round, the higher initiative first
+        assertSame(fast, timeline.get(0).getMember());
+        assertSame(slow, timeline.get(1).getMember());
+        assertOrdered(timeline);
+
+        for (int i = 0; i < 4; i++) {
+            assertPrediction(battle, scheduler.getTimeline());
+        }
+    }
+
+    @Test
+    public void rescheduleTest() {
+        Battle battle = new Battle();
+        InitiativeScheduler scheduler = battle.getScheduler();
+        BattleMember first = createMember(battle, 12);
+        BattleMember second = createMember(battle, 6);
+        battle.playersProperty().addAll(first, second);
+        scheduler.getTimeline();
+
+        // Initiative
+        second.initiativeProperty().set(30);
+        assertFalse(scheduler.validProperty().get());
+        assertEquals(3, count(scheduler.getTimeline(), second, 2));
+        assertPrediction(battle, scheduler.getTimeline());
+
+        // Turns of the current round
+        first.turnsProperty().set(first.getTurns() + 2);
+        assertFalse(scheduler.validProperty().get());
+        assertEquals(first.getTurns(), count(scheduler.getTimeline(), first, battle.roundProperty().get()));
+
+        // Death and revival
+        first.setLife(0);
+        assertFalse(scheduler.validProperty().get());
+        assertEquals(0, count(scheduler.getTimeline(), first, -1));
+        first.initiativeProperty().set(20);
+        first.setLife(5);
+        assertFalse(scheduler.validProperty().get());
+        assertTrue(count(scheduler.getTimeline(), first, -1) > 0);
+        assertPrediction(battle, scheduler.getTimeline());
+
+        // Round
+        battle.roundProperty().set(battle.roundProperty().get() + 1);
+        assertFalse(scheduler.validProperty().get());
+        assertEquals(battle.roundProperty().get(), scheduler.getTimeline().get(0).getRound());
+    }
+
+    @Test
+    public void roundWithoutMembersTest() {
+        Battle battle = new Battle();
+        InitiativeScheduler scheduler = battle.getScheduler();
+        BattleMember dead = createMember(battle, 5);
+        dead.setLife(0);
+        battle.playersProperty().add(dead);
+
+        for (int round = 2; round < 5; round++) {
+            assertTrue(scheduler.getTimeline().isEmpty());
+            battle.roundProperty().set(round);
+            assertFalse(scheduler.validProperty().get());
+        }
+    }
+
+    /**
+     * Checks the predicted turns of the next round against the turns of {@link Battle#nextTurn()}.
+     */
+    private void assertPrediction(Battle battle, List<InitiativeScheduler.Action> timeline) {
+        assertOrdered(timeline);
+        int next = battle.roundProperty().get() + 1;
+
+        int[] predicted = new int[battle.playersProperty().size() + battle.enemiesProperty().size()];
+        int index = 0;
+        for (BattleMember member : battle.playersProperty()) {
+            predicted[index++] = count(timeline, member, next);
+        }
+        for (BattleMember member : battle.enemiesProperty()) {
+            predicted[index++] = count(timeline, member, next);
+        }
+
+        battle.nextTurn();
+
+        index = 0;
+        for (BattleMember member : battle.playersProperty()) {
+            assertEquals(predicted[index++], member.getTurns());
+        }
+        for (BattleMember member : battle.enemiesProperty()) {
+            assertEquals(predicted[index++], member.getTurns());
+        }
+    }
+
+    private void assertOrdered(List<InitiativeScheduler.Action> timeline) {
+        for (int i = 1; i < timeline.size(); i++) {
+            InitiativeScheduler.Action before = timeline.get(i - 1);
+            InitiativeScheduler.Action after = timeline.get(i);
+
+            assertTrue(before.getRound() < after.getRound()
+                    || before.getRound() == after.getRound() && before.getTime() <= after.getTime());
+        }
+    }
+
+    /**
+     * @param round of the counted actions, -1 for all rounds
+     */
+    private int count(List<InitiativeScheduler.Action> timeline, BattleMember member, int round) {
+        return (int) timeline.stream()
+                .filter(action -> action.getMember() == member && (round == -1 || action.getRound() == round))
+                .count();
+    }
+
+    private BattleMember createMember(Battle battle, int initiative) {
+        BattleMember member = new BattleMember(battle);
+        member.initiativeProperty().set(initiative);
+        return member;
+    }
+}
@@ -0,0 +1,85 @@
+package model.loot;
+
+import model.item.Item;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CompiledLootTableTest {
+
+    @Test
+    public void mergeTest() {
+        Item gold = createItem("Gold");
+        Item silver = createItem("Silver");
+
+        LootTable table = new LootTable();
+        table.add(gold, 2, 1);
+        table.add(silver, 3, 0);
+        // equal item, but another instance
+        table.add(createItem("Gold"), 5, 1);
+
+        CompiledLootTable compiled = table.compile();
+        assertEquals(1, compiled.size());
+
+        List<Loot> loot = compiled.roll(new Random(1));
+        assertEquals(1, loot.size());
+        assertEquals(gold, loot.get(0).getItem());
+        assertEquals(7, loot.get(0).getAmount());
+    }
+
+    @Test
+    public void cacheTest() {
+        LootTable table = new LootTable();
+        table.add(createItem("Gold"), 2, 1);
+
+        CompiledLootTable compiled = table.compile();
+        assertSame(compiled, table.compile());
+
+        table.add(createItem("Silver"), 1, 1);
+        assertNotSame(compiled, table.compile());
+        assertEquals(2, table.compile().size());
+    }
+
+    @Test
+    public void parallelRollTest() {
+        Item gold = createItem("Gold");
+        Item silver = createItem("Silver");
+
+        LootTable table = new LootTable();
+        table.add(gold, 2, 1);
+        table.add(silver, 10, 0.5);
+
+        List<Loot> loot = table.compile().roll(500);
+        assertEquals(1000, loot.get(0).getAmount());
+        assertTrue(loot.get(1).getAmount() > 0 && loot.get(1).getAmount() <= 5000);
+
+        assertTrue(CompiledLootTable.EMPTY.roll(500).isEmpty());
+    }
+
+    @Test
+    public void accumulatorTest() {
+        Item gold = createItem("Gold");
+        LootAccumulator accumulator = new LootAccumulator();
+
+        assertNull(accumulator.add(gold, 0));
+        Loot first = accumulator.add(gold, 3);
+        Loot second = accumulator.add(new Loot(createItem("Gold"), 4));
+
+        assertEquals(first, second);
+        assertEquals(7, first.getAmount());
+        assertEquals(1, accumulator.getLoot().size());
+    }
+
+    private Item createItem(String name) {
+        Item item = new Item();
+        item.setName(name);
+        return item;
+    }
+}
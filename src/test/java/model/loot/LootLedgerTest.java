@@ -0,0 +1,127 @@
+package model.loot;
+
+import manager.LanguageUtility;
+import manager.LootLedgerFile;
+import manager.Utility;
+import model.Currency;
+import model.item.Item;
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+
+public class LootLedgerTest {
+
+    @Test
+    public void mergeTest() {
+        LootLedger ledger = new LootLedger();
+        List<Loot> all = new ArrayList<>();
+
+        for (int i = 0; i < 50; i++) {
+            Loot sword = new Loot(createItem("Schwert", 1, 333, ""), 2);
+            Loot coins = new Loot(createItem("Goldmünze", 10, 1, LanguageUtility.getMessage("currency")));
+            ledger.add(sword);
+            ledger.add(coins);
+            all.add(sword);
+            all.add(coins);
+
+            assertEquals(Utility.sellLoot(all).getCoinValue(), ledger.getSellValue().getCoinValue());
+        }
+
+        // A bundle of another size is another row
+        ledger.add(new Loot(createItem("Goldmünze", 5, 1, LanguageUtility.getMessage("currency")), 3));
+
+        assertEquals(3, ledger.getLoot().size());
+        assertEquals(100, ledger.getLoot().get(0).getAmount());
+        assertEquals(50, ledger.getLoot().get(1).getAmount());
+        assertEquals(Math.round(100 * 333 * Utility.getConfig().getFloat("loot.sell.modifier")) + 500 + 15,
+                ledger.getSellValue().getCoinValue());
+
+        ledger.remove(ledger.getLoot().get(0));
+        assertEquals(2, ledger.getLoot().size());
+        assertEquals(515, ledger.getSellValue().getCoinValue());
+    }
+
+    @Test
+    public void identityTest() {
+        LootLedger ledger = new LootLedger();
+
+        // Items with the same name but another subtype are different items
+        Item herb = createItem("Wurzel", 1, 4, "Kraut");
+        ledger.add(new Loot(herb, 2));
+        ledger.add(new Loot(createItem("Wurzel", 1, 4, "Gift")));
+        ledger.add(new Loot(createItem("Wurzel", 1, 4, "Kraut")));
+
+        assertEquals(2, ledger.getLoot().size());
+        assertEquals(3, ledger.getLoot().get(0).getAmount());
+        assertEquals("Gift", ledger.getLoot().get(1).getItem().getSubtype());
+
+        // The row keeps a copy of the first item
+        assertNotSame(herb, ledger.getLoot().get(0).getItem());
+        herb.setAmount(5);
+        herb.setSubtype("Gift");
+        assertEquals(1, ledger.getLoot().get(0).getItem().getAmount());
+        assertEquals("Kraut", ledger.getLoot().get(0).getItem().getSubtype());
+    }
+
+    @Test
+    public void fileTest() throws IOException {
+        Path folder = Files.createTempDirectory("ledger");
+        Path path = folder.resolve("Memory.ledger");
+
+        try {
+            LootLedger ledger = new LootLedger(new LootLedgerFile(path));
+
+            for (int i = 0; i < 40; i++) {
+                ledger.add(new Loot(createItem("Pfeil", 20, 1, "")));
+            }
+            ledger.add(new Loot(createItem("Seil", 1, 5, ""), 2));
+            ledger.add(new Loot(createItem("Fackel", 1, 2, "")));
+            ledger.add(new Loot(createItem("Seil", 1, 5, "Kletterseil")));
+            ledger.remove(ledger.getLoot().get(2));
+
+            // Every change is one line
+            assertEquals(44, Files.readAllLines(path).size());
+
+            List<LootLedgerFile.Record> records = new LootLedgerFile(path).read();
+            assertEquals(3, records.size());
+            assertEquals("Pfeil", records.get(0).getName());
+            assertEquals(20, records.get(0).getItemAmount());
+            assertEquals(40, records.get(0).getAmount());
+            assertEquals(2, records.get(1).getAmount());
+            assertEquals("", records.get(1).getSubtype());
+            assertEquals("Seil", records.get(2).getName());
+            assertEquals("Kletterseil", records.get(2).getSubtype());
+
+            // The journal was compacted while it was read
+            assertEquals(3, Files.readAllLines(path).size());
+
+            LootLedger reopened = new LootLedger(new LootLedgerFile(path));
+            assertEquals(3, reopened.getLoot().size());
+            assertEquals(40, reopened.getLoot().get(0).getAmount());
+            assertEquals("Kletterseil", reopened.getLoot().get(2).getItem().getSubtype());
+
+            // The same item is added to its row again
+            reopened.add(new Loot(createItem("Seil", 1, 5, "Kletterseil")));
+            assertEquals(3, reopened.getLoot().size());
+            assertEquals(2, reopened.getLoot().get(2).getAmount());
+        } finally {
+            FileUtils.deleteDirectory(folder.toFile());
+        }
+    }
+
+    private Item createItem(String name, float amount, int value, String subtype) {
+        Item item = new Item(name);
+        item.setAmount(amount);
+        item.setCurrency(new Currency(value));
+        item.setSubtype(subtype);
+        return item;
+    }
+}
@@ -0,0 +1,220 @@
+package model.map;
+
+import model.map.object.room.Passage;
+import model.map.object.room.RoomObject;
+import model.map.object.room.room.Room;
+import model.map.specification.CryptSpecification;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MapTest {
+
+    @Test
+    public void generationTest() {
+        for (long seed = 0; seed < 50; seed++) {
+            Map map = createMap(seed, 50, 10, 50);
+            map.generate();
+
+            checkMap(map);
+        }
+    }
+
+    @Test
+    public void determinismTest() {
+        for (long seed = 0; seed < 20; seed++) {
+            Map first = createMap(seed, 100, 10, 100);
+            Map second = createMap(seed, 100, 10, 100);
+            first.generate();
+            second.generate();
+
+            assertEquals(describe(first), describe(second));
+        }
+    }
+
+    @Test
+    public void largeMapTest() {
+        // Large enough that the frontier and the dead end pruning handle thousands of rooms
+        for (long seed = 0; seed < 2; seed++) {
+            Map map = createMap(seed, 200, 10, 200);
+            map.generate();
+
+            checkMap(map);
+        }
+    }
+
+    @Test
+    public void scoreTest() {
+        for (long seed = 0; seed < 50; seed++) {
+            Map map = createMap(seed, 50, 10, 50);
+            map.generate();
+            MapScore score = MapScore.of(seed, map);
+
+            assertEquals(seed, score.getSeed());
+            assertEquals(map.getRoomObjects().stream().filter(room -> room instanceof Room).count(), score.getRooms());
+            // A map generated at once is a tree, only the connectors of chunked maps close circles
+            assertEquals(0, score.getLoops());
+            assertEquals(map.getRoomObjects().size() > 1, score.getLongestPath() > 0);
+            assertEquals(score.getLongestPath(), score.get(MapMetric.longestPath));
+        }
+    }
+
+    @Test
+    public void chunkedMapTest() {
+        int loops = 0;
+        for (long seed = 0; seed < 10; seed++) {
+            ChunkedMap first = new ChunkedMap(seed, 150, 10, 130);
+            first.setSpecification(new CryptSpecification(null, first));
+            first.generate();
+
+            // The chunks must not depend on the order they are generated in
+            ChunkedMap second = new ChunkedMap(seed, 150, 10, 130);
+            second.setSpecification(new CryptSpecification(null, second));
+            List<int[]> chunks = new ArrayList<>();
+            for (int chunkX = 0; chunkX < second.getChunksX(); chunkX++) {
+                for (int chunkZ = 0; chunkZ < second.getChunksZ(); chunkZ++) {
+                    chunks.add(new int[]{chunkX, chunkZ});
+                }
+            }
+            Collections.shuffle(chunks, new Random(seed));
+            for (int[] chunk : chunks) {
+                assertTrue(second.generateChunk(chunk[0], chunk[1]));
+                assertTrue(second.isGenerated(chunk[0], chunk[1]));
+            }
+            assertFalse(second.generateChunk(0, 0));
+
+            assertEquals(describe(first).stream().sorted().collect(Collectors.toList()),
+                    describe(second).stream().sorted().collect(Collectors.toList()));
+            assertTrue(first.getEntrance() != null);
+            checkMap(first);
+            assertEquals(1, first.getRoomGraph().getComponentCount());
+
+            RoomGraph graph = first.getRoomGraph();
+            MapScore score = MapScore.of(seed, first);
+            assertEquals(graph.getPassageCount() - graph.getRoomCount() + 1, score.getLoops());
+            assertEquals(score.getLoops(), score.get(MapMetric.loops));
+            loops += score.getLoops();
+
+            for (RoomObject room : first.getRoomObjects()) {
+                for (Passage passage : room.getAllPassages()) {
+                    if (passage.isUsed()) {
+                        assertFalse(passage.getDestination().getPassagesTo(room).isEmpty());
+                    }
+                }
+            }
+        }
+        // The connectors between the chunks close circles
+        assertTrue(loops > 0);
+    }
+
+    @Test
+    public void roomGraphTest() {
+        for (long seed = 0; seed < 20; seed++) {
+            Map map = createMap(seed, 50, 10, 50);
+            map.generate();
+            RoomGraph graph = map.getRoomGraph();
+
+            // The distances must be the same as the ones of a search over the rooms
+            HashMap<RoomObject, Integer> distances = new HashMap<>();
+            ArrayDeque<RoomObject> queue = new ArrayDeque<>();
+            queue.add(map.getEntrance());
+            distances.put(map.getEntrance(), 0);
+            while (!queue.isEmpty()) {
+                RoomObject current = queue.poll();
+                for (RoomObject neighbor : current.getNeighborRooms()) {
+                    if (!distances.containsKey(neighbor)) {
+                        distances.put(neighbor, distances.get(current) + 1);
+                        queue.add(neighbor);
+                    }
+                }
+            }
+            for (RoomObject room : map.getRoomObjects()) {
+                assertEquals((int) distances.getOrDefault(room, -1), graph.getDistance(room));
+            }
+            assertEquals(distances.values().stream().mapToInt(Integer::intValue).max().orElse(0), graph.getMaxDistance());
+
+            // Adding the chunks one by one must give the same graph as building it at once
+            ChunkedMap chunked = new ChunkedMap(seed, 150, 10, 130);
+            chunked.setSpecification(new CryptSpecification(null, chunked));
+            chunked.generate();
+            RoomGraph incremental = chunked.getRoomGraph();
+            RoomGraph built = new RoomGraph(chunked);
+
+            assertEquals(built.getRoomCount(), incremental.getRoomCount());
+            assertEquals(built.getPassageCount(), incremental.getPassageCount());
+            assertEquals(built.getComponentCount(), incremental.getComponentCount());
+            assertEquals(built.getMaxDistance(), incremental.getMaxDistance());
+            assertEquals(built.getTotalChestValue(), incremental.getTotalChestValue());
+            for (RoomObject room : chunked.getRoomObjects()) {
+                assertEquals(built.getDistance(room), incremental.getDistance(room));
+                assertEquals(built.getChestValue(room), incremental.getChestValue(room));
+            }
+        }
+    }
+
+    private Map createMap(long seed, int width, int height, int depth) {
+        Map map = new Map(seed, width, height, depth);
+        map.setSpecification(new CryptSpecification(null, map));
+        return map;
+    }
+
+    private void checkMap(Map map) {
+        List<RoomObject> rooms = new ArrayList<>(map.getRoomObjects());
+        assertFalse(rooms.isEmpty());
+
+        for (RoomObject room : rooms) {
+            // Dead ends are removed completely
+            assertFalse(room.isDeadEnd() && room.getDegree() < 2);
+
+            assertEquals(room.getAllPassages().stream()
+                            .filter(passage -> !passage.isUsed() && passage.isUsableForwards())
+                            .collect(Collectors.toList()),
+                    room.getPossibleExtensions());
+            assertEquals(room.getAllPassages().stream()
+                            .filter(passage -> !passage.isUsed() && passage.isUsableBackwards())
+                            .collect(Collectors.toList()),
+                    room.getPossibleEntrancePoints());
+
+            for (Passage passage : room.getAllPassages()) {
+                if (passage.isUsed()) {
+                    assertFalse(passage.getDestination().getPassagesTo(room).isEmpty());
+                }
+            }
+        }
+
+        // Every room can be reached from the entrance
+        HashSet<RoomObject> all = new HashSet<>(rooms);
+        HashSet<RoomObject> reached = new HashSet<>();
+        ArrayDeque<RoomObject> queue = new ArrayDeque<>();
+        queue.add(rooms.get(0));
+        reached.add(rooms.get(0));
+
+        while (!queue.isEmpty()) {
+            for (RoomObject neighbor : queue.poll().getNeighborRooms()) {
+                assertTrue(all.contains(neighbor));
+                if (reached.add(neighbor)) {
+                    queue.add(neighbor);
+                }
+            }
+        }
+        assertEquals(rooms.size(), reached.size());
+    }
+
+    private List<String> describe(Map map) {
+        return map.getRoomObjects().stream()
+                .map(room -> room.getClass().getSimpleName() + room.getX() + "/" + room.getY() + "/" + room.getZ()
+                        + "/" + room.getRotation() + "/" + room.getDegree())
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,60 @@
+package model.map.object;
+
+import model.map.Point;
+import model.map.RotationPoint;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class FootprintTest {
+
+    @Test
+    public void rotationTest() {
+        List<MapObjectPart> parts = List.of(
+                new MapObjectPart(0, 0, 0, 3, 1, 2),
+                new MapObjectPart(1, 0, 2, 1, 2, 3));
+
+        Footprint[] footprints = Footprint.of(parts);
+
+        for (int rotation = 0; rotation < 4; rotation++) {
+            List<Point> expected = getPoints(parts, 3, 5, rotation);
+            Footprint footprint = footprints[rotation];
+
+            assertEquals(expected.size(), footprint.size());
+            for (int i = 0; i < footprint.size(); i++) {
+                assertEquals(expected.get(i), new Point(footprint.getX(i), footprint.getY(i), footprint.getZ(i)));
+            }
+        }
+
+        // Equal parts share the footprints, other parts don't
+        assertSame(footprints, Footprint.of(new ArrayList<>(List.of(
+                new MapObjectPart(0, 0, 0, 3, 1, 2),
+                new MapObjectPart(1, 0, 2, 1, 2, 3)))));
+        assertNotSame(footprints, Footprint.of(List.of(
+                new MapObjectPart(0, 0, 0, 3, 1, 2),
+                new MapObjectPart(1, 0, 2, 1, 2, 4))));
+    }
+
+    private List<Point> getPoints(List<MapObjectPart> parts, int width, int depth, int rotation) {
+        List<Point> result = new ArrayList<>();
+
+        for (MapObjectPart part : parts) {
+            for (int w = 0; w < part.getWidth(); w++) {
+                for (int h = 0; h < part.getHeight(); h++) {
+                    for (int d = 0; d < part.getDepth(); d++) {
+                        RotationPoint offset = new RotationPoint(part.getOffsetX() + w, part.getOffsetY() + h, part.getOffsetZ() + d, 0);
+                        offset = offset.rotate(rotation).correctPosition(rotation, width, depth);
+                        result.add(new Point(offset.getX(), offset.getY(), offset.getZ()));
+                    }
+                }
+            }
+        }
+
+        return result;
+    }
+}
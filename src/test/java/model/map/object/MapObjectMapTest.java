@@ -0,0 +1,109 @@
+package model.map.object;
+
+import model.map.specification.texture.TextureHandler;
+import org.junit.jupiter.api.Test;
+import ui.map.IMapCanvas;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MapObjectMapTest {
+
+    @Test
+    public void placementTest() {
+        MapObjectMap<MapObject> map = new MapObjectMap<>(50, 10, 50);
+        MapObject first = createObject(2, 3);
+        MapObject second = createObject(1, 1);
+
+        assertTrue(map.addMapObject(first, 15, 0, 15, 0));
+        assertSame(first, map.get(15, 0, 15));
+        assertSame(first, map.get(16, 0, 17));
+        assertFalse(map.isEmpty(16, 0, 16));
+        assertTrue(map.isEmpty(17, 0, 15));
+
+        // Collision and out of bounds
+        assertFalse(map.addMapObject(second, 16, 0, 16, 0));
+        assertFalse(map.addMapObject(second, 50, 0, 0, 0));
+        assertTrue(map.addMapObject(second, 17, 0, 15, 0));
+
+        assertTrue(map.deleteMapObject(16, 0, 16));
+        assertNull(map.get(15, 0, 15));
+        assertTrue(map.isEmpty(16, 0, 17));
+        assertSame(second, map.get(17, 0, 15));
+    }
+
+    @Test
+    public void rotationTest() {
+        MapObjectMap<MapObject> map = new MapObjectMap<>(10, 1, 10);
+        MapObject object = createObject(3, 1);
+
+        assertTrue(map.addMapObject(object, 5, 0, 5, 1));
+        assertSame(object, map.get(5, 0, 5));
+        assertSame(object, map.get(5, 0, 7));
+        assertTrue(map.isEmpty(6, 0, 5));
+        assertEquals(1, object.getRotation());
+    }
+
+    @Test
+    public void memoryTest() {
+        int width = 500, height = 20, depth = 500;
+        MapObjectMap<MapObject> map = new MapObjectMap<>(width, height, depth);
+
+        for (int i = 0; i < 20; i++) {
+            assertTrue(map.addMapObject(createObject(4, 4), i * 25, 0, i * 25, 0));
+        }
+
+        // A dense array would hold one reference per cell
+        long dense = (long) width * height * depth;
+        long sparse = (long) map.getAllocatedChunkCount() * MapObjectMap.CHUNK_SIZE
+                * MapObjectMap.CHUNK_SIZE * MapObjectMap.CHUNK_SIZE;
+        assertTrue(sparse * 10 < dense);
+
+        for (MapObject object : map.getAllMapObjects().toArray(new MapObject[0])) {
+            map.deleteMapObject(object);
+        }
+        assertEquals(0, map.getAllocatedChunkCount());
+    }
+
+    @Test
+    public void regionTest() {
+        MapObjectMap<MapObject> map = new MapObjectMap<>(100, 10, 100);
+        // Crosses the border of four chunks
+        MapObject large = createObject(4, 4);
+        MapObject small = createObject(1, 1);
+        MapObject far = createObject(1, 1);
+
+        assertTrue(map.addMapObject(large, 14, 0, 14, 0));
+        assertTrue(map.addMapObject(small, 20, 1, 20, 0));
+        assertTrue(map.addMapObject(far, 90, 0, 90, 0));
+
+        assertEquals(List.of(large), query(map, 0, 0, 0, 99, 0, 30));
+        assertEquals(List.of(large), query(map, 16, 0, 16, 16, 0, 16));
+        assertEquals(List.of(small), query(map, 18, 1, 18, 25, 1, 25));
+        assertEquals(3, query(map, -5, 0, -5, 200, 9, 200).size());
+        assertTrue(query(map, 30, 0, 30, 80, 9, 80).isEmpty());
+        assertEquals(4, map.getMaxExtent());
+
+        map.deleteMapObject(large);
+        assertTrue(query(map, 0, 0, 0, 99, 0, 30).isEmpty());
+    }
+
+    private List<MapObject> query(MapObjectMap<MapObject> map, int fromX, int fromY, int fromZ, int toX, int toY, int toZ) {
+        List<MapObject> objects = new ArrayList<>();
+        map.forEachMapObject(fromX, fromY, fromZ, toX, toY, toZ, objects::add);
+        return objects;
+    }
+
+    private MapObject createObject(int width, int depth) {
+        return new MapObject(null, new MapObjectPart(width, depth)) {
+            @Override
+            public void draw(IMapCanvas canvas, TextureHandler textureHandler) { }
+        };
+    }
+}
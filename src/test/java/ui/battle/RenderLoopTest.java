@@ -0,0 +1,127 @@
+package ui.battle;
+
+import javafx.beans.property.SimpleDoubleProperty;
+import model.Battle;
+import model.member.BattleMember;
+import model.member.data.AttackTypes;
+import model.member.state.implementations.manipulating.DamageMemberState;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RenderLoopTest {
+
+    @Test
+    public void redrawsPerTurnTest() {
+        Battle battle = new Battle();
+        RenderLoop loop = new RenderLoop();
+        HashMap<BattleMember, Integer> redraws = new HashMap<>();
+        List<RosterEntryRenderer> renderers = new ArrayList<>();
+        int[] changes = new int[1];
+
+        for (int i = 0; i < 30; i++) {
+            BattleMember member = new BattleMember(battle);
+            member.setMaxLife(1000);
+            member.setLife(1000);
+            for (int j = 0; j < 3; j++) {
+                member.addState(new DamageMemberState("dot", 10, false, null, 5, false, AttackTypes.direct));
+            }
+            battle.playersProperty().add(member);
+
+            // The renderer of a pane, the drawer reads the same values as the pane does
+            redraws.put(member, 0);
+            RosterEntryRenderer renderer = new RosterEntryRenderer(loop, entry -> {
+                redraws.merge(entry.getMember(), 1, Integer::sum);
+                draw(entry);
+            }, new SimpleDoubleProperty(100));
+            renderer.setEntry(new RosterEntry(member));
+            renderers.add(renderer);
+            member.lifeProperty().addListener((ob, o, n) -> changes[0]++);
+        }
+        // Setting the entry draws it once
+        redraws.replaceAll((member, count) -> 0);
+
+        for (int turn = 1; turn <= 3; turn++) {
+            battle.nextTurn();
+            assertTrue(loop.isDirty());
+            loop.pulse();
+
+            for (BattleMember member : battle.playersProperty()) {
+                assertEquals(turn, (int) redraws.get(member));
+                assertEquals(1000 - turn * 15, member.getLife());
+            }
+        }
+
+        // Every turn changed the life of every member three times, but every member was only drawn once
+        assertEquals(3 * 3 * 30, changes[0]);
+        assertFalse(loop.isDirty());
+        loop.pulse();
+        assertEquals(3, redraws.values().stream().mapToInt(i -> i).max().orElse(0));
+
+        // An area effect draws every member once, too
+        battle.addState(() -> new DamageMemberState("dot", 10, false, null, 5, false, AttackTypes.direct),
+                battle.playersProperty());
+        loop.pulse();
+        for (BattleMember member : battle.playersProperty()) {
+            assertEquals(4, (int) redraws.get(member));
+        }
+
+        // Released renderers aren't drawn anymore
+        for (RosterEntryRenderer renderer : renderers) {
+            renderer.setEntry(null);
+            assertTrue(renderer.getDependencies().isEmpty());
+        }
+        battle.nextTurn();
+        assertFalse(loop.isDirty());
+    }
+
+    @Test
+    public void groupTest() {
+        Battle battle = new Battle();
+        RenderLoop loop = new RenderLoop();
+        List<BattleMember> members = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            BattleMember member = new BattleMember(battle);
+            member.setMaxLife(100);
+            member.setLife(100);
+            battle.enemiesProperty().add(member);
+            members.add(member);
+        }
+
+        int[] redraws = new int[1];
+        RosterEntryRenderer renderer = new RosterEntryRenderer(loop, entry -> {
+            redraws[0]++;
+            draw(entry);
+        });
+        renderer.setEntry(new RosterEntry(members, true, false));
+        assertEquals(1, redraws[0]);
+
+        // A group is drawn once for the changes of all its members
+        for (BattleMember member : members) {
+            member.setLife(50);
+            member.setMana(0);
+        }
+        loop.pulse();
+        assertEquals(2, redraws[0]);
+        assertEquals(250, renderer.getEntry().getLife());
+    }
+
+    /**
+     * Reads the values like {@link BattleMemberPane} draws them.
+     */
+    private static void draw(RosterEntry entry) {
+        entry.getLife();
+        entry.getMaxLife();
+        entry.getMana();
+        entry.getMaxMana();
+        entry.getStates().size();
+        entry.isDead();
+        entry.getTurns();
+    }
+}
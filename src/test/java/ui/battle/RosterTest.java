@@ -0,0 +1,66 @@
+package ui.battle;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import model.Battle;
+import model.member.BattleMember;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RosterTest {
+
+    @Test
+    public void groupTest() {
+        Battle battle = new Battle();
+        ObservableList<BattleMember> members = FXCollections.observableArrayList();
+        Roster roster = new Roster(members, true);
+
+        for (int i = 0; i < 100; i++) {
+            members.add(createMember(battle, "Goblin", 1, 10));
+        }
+        BattleMember chief = createMember(battle, "Goblin", 3, 50);
+        members.add(chief);
+        members.add(createMember(battle, "Troll", 5, 200));
+        members.add(createMember(battle, "Troll", 5, 200));
+
+        // One group of goblins, the chief has another level, too few trolls for a group
+        assertEquals(4, roster.getEntries().size());
+        RosterEntry goblins = roster.getEntries().get(0);
+        assertTrue(goblins.isGroup());
+        assertEquals(100, goblins.getMembers().size());
+        assertEquals(1000, goblins.getLife());
+        assertEquals(1000, goblins.getMaxLife());
+
+        members.get(0).setLife(-5);
+        assertEquals(990, goblins.getLife());
+        assertFalse(goblins.isDead());
+
+        assertEquals(1, roster.indexOf(chief));
+        assertEquals(0, roster.indexOf(members.get(50)));
+
+        roster.toggle(goblins);
+        assertEquals(104, roster.getEntries().size());
+        assertTrue(roster.getEntries().get(0).isExpanded());
+        assertEquals(51, roster.indexOf(members.get(50)));
+
+        // The group stays expanded when members are added
+        members.add(createMember(battle, "Goblin", 1, 10));
+        assertEquals(105, roster.getEntries().size());
+        assertEquals(101, roster.getEntries().get(0).getMembers().size());
+
+        roster.toggle(roster.getEntries().get(0));
+        assertEquals(4, roster.getEntries().size());
+    }
+
+    private BattleMember createMember(Battle battle, String name, int level, int life) {
+        BattleMember member = new BattleMember(battle);
+        member.setName(name);
+        member.setLevel(level);
+        member.setMaxLife(life);
+        member.setLife(life);
+        return member;
+    }
+}
@@ -0,0 +1,141 @@
+package ui.part;
+
+import javafx.beans.property.SimpleStringProperty;
+import javafx.beans.property.StringProperty;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class FilteredTableViewTest {
+
+    @Test
+    public void narrowingTest() {
+        List<String> items = createItems(200);
+        FilteredTableView.FilterContainer<String> container = createContainer(items);
+
+        BitSet wide = container.search("ab", null, items.size(), null);
+        BitSet narrow = container.search("abc", wide, items.size(), null);
+
+        // A longer text only has to check the rows of the shorter one
+        assertEquals(expected(items, "abc"), narrow);
+        assertEquals(container.search("abc", null, items.size(), null), narrow);
+        assertEquals(expected(items, "ab"), wide);
+
+        // A shorter text has to search all rows again
+        BitSet widened = container.search("a", null, items.size(), null);
+        assertEquals(expected(items, "a"), widened);
+        assertTrue(widened.cardinality() > narrow.cardinality());
+        assertEquals(narrow.cardinality(), container.search("a", narrow, items.size(), null).cardinality());
+    }
+
+    @Test
+    public void indexTest() {
+        // More rows than the threshold of the index
+        List<String> items = createItems(3000);
+        FilteredTableView.FilterContainer<String> container = createContainer(items);
+
+        // Short texts and narrowed searches don't need the index
+        assertEquals(expected(items, "ab"), container.search("ab", null, items.size(), null));
+        assertNull(container.index);
+
+        for (String text : new String[]{"abc", "cab", "bcdea", "eeee", "xyz", "abx"}) {
+            assertEquals(expected(items, text), container.search(text, null, items.size(), null), text);
+        }
+        assertNotNull(container.index);
+
+        container.clear();
+        assertNull(container.index);
+    }
+
+    @Test
+    public void appendTest() {
+        List<String> items = createItems(3000);
+        FilteredTableView.FilterContainer<String> container = createContainer(items);
+        assertEquals(expected(items, "abc"), container.search("abc", null, items.size(), null));
+
+        // Appended rows are added to the index which already exists
+        List<String> appended = new ArrayList<>(items);
+        for (String item : List.of("xyzabc", "zzz", "abcxyz")) {
+            appended.add(item);
+            container.addRow(item);
+        }
+        assertEquals(expected(appended, "abc"), container.search("abc", null, appended.size(), null));
+        assertEquals(expected(appended, "xyz"), container.search("xyz", null, appended.size(), null));
+        assertTrue(container.search("xyz", null, appended.size(), null).get(items.size()));
+
+        // A search which started before the rows were appended doesn't see them
+        assertEquals(expected(items, "xyz"), container.search("xyz", null, items.size(), null));
+    }
+
+    @Test
+    public void liveTest() {
+        List<StringProperty> items = new ArrayList<>();
+        for (String name : List.of("Eisen", "Stahl", "Holz")) {
+            items.add(new SimpleStringProperty(name));
+        }
+        FilteredTableView.FilterContainer<StringProperty> container =
+                new FilteredTableView.FilterContainer<>(null, StringProperty::get, true);
+        for (StringProperty item : items) {
+            container.addRow(item);
+        }
+
+        // The values of an observable column are read again for every search
+        assertNull(container.values[0]);
+        assertEquals("eisen", container.getValue(0, items.get(0)));
+        items.get(0).set("Gold");
+        assertEquals("gold", container.getValue(0, items.get(0)));
+
+        String[] liveValues = new String[items.size()];
+        for (int row = 0; row < items.size(); row++) {
+            liveValues[row] = container.getValue(row, items.get(row));
+        }
+        BitSet result = container.search("l", null, items.size(), liveValues);
+        assertTrue(result.get(0));
+        assertTrue(result.get(1));
+        assertTrue(result.get(2));
+        assertFalse(container.search("eisen", null, items.size(), liveValues).get(0));
+    }
+
+    private FilteredTableView.FilterContainer<String> createContainer(List<String> items) {
+        // The text field is only read by the table
+        FilteredTableView.FilterContainer<String> container = new FilteredTableView.FilterContainer<>(null, item -> item, false);
+        for (String item : items) {
+            container.addRow(item);
+        }
+        return container;
+    }
+
+    private List<String> createItems(int count) {
+        Random random = new Random(0);
+        List<String> items = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            StringBuilder builder = new StringBuilder();
+            int length = 4 + random.nextInt(8);
+            for (int c = 0; c < length; c++) {
+                builder.append((char) ('a' + random.nextInt(5)));
+            }
+            // Upper case letters are found by their lower case text
+            items.add(random.nextBoolean() ? builder.toString() : builder.toString().toUpperCase());
+        }
+        return items;
+    }
+
+    private BitSet expected(List<String> items, String text) {
+        BitSet result = new BitSet();
+        for (int row = 0; row < items.size(); row++) {
+            if (items.get(row).toLowerCase().contains(text)) {
+                result.set(row);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,134 @@
+package ui.part;
+
+import javafx.animation.AnimationTimer;
+import javafx.application.Application;
+import javafx.application.Platform;
+import javafx.beans.property.ReadOnlyStringWrapper;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.scene.Scene;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+import javafx.stage.Stage;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Scrolls a table of wrapping cells down and up again and prints the frame times.
+ * The frame time is the time between two frames, the layout time only the part of a frame
+ * which updates and lays out the cells. The second half scrolls over rows which were shown
+ * before, so their heights are already measured.
+ * It is not a unit test, it needs a screen and is started by its main method with the test classpath,
+ * e.g. with the number of rows and the rows scrolled per frame as arguments.
+ */
+public class WrappingTableCellBenchmark extends Application {
+
+    private static final String[] WORDS = {"Schwert", "Eisen", "Stahl", "Holz", "Wald", "Berg", "Truhe",
+            "Zauber", "Krypta", "Rüstung", "Edelstein", "Pflanze", "Heilung", "Schaden", "Trefferzone"};
+
+    private int rowCount = 10000;
+    private int step = 20;
+    private int frame = -1;
+    private long layoutStart;
+
+    public static void main(String[] args) {
+        launch(args);
+    }
+
+    @Override
+    public void start(Stage stage) {
+        if (getParameters().getRaw().size() > 1) {
+            rowCount = Integer.parseInt(getParameters().getRaw().get(0));
+            step = Integer.parseInt(getParameters().getRaw().get(1));
+        }
+
+        TableView<String[]> table = new TableView<>(createRows());
+        table.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY);
+        for (int i = 0; i < 3; i++) {
+            int index = i;
+            TableColumn<String[], String> column = new WrappingTableColumn<>();
+            column.setText("Column " + i);
+            column.setCellValueFactory(cell -> new ReadOnlyStringWrapper(cell.getValue()[index]));
+            table.getColumns().add(column);
+        }
+
+        Scene scene = new Scene(table, 900, 700);
+        int frames = 2 * rowCount / step;
+        long[] frameTimes = new long[frames];
+        long[] layoutTimes = new long[frames];
+
+        scene.addPreLayoutPulseListener(() -> layoutStart = System.nanoTime());
+        scene.addPostLayoutPulseListener(() -> {
+            // The pulse after a scroll lays out the cells of the new rows
+            if (frame >= 0 && frame < frames) {
+                layoutTimes[frame] += System.nanoTime() - layoutStart;
+            }
+        });
+
+        new AnimationTimer() {
+            private long last;
+
+            @Override
+            public void handle(long now) {
+                // The first frame only shows the table
+                if (frame >= 0) {
+                    frameTimes[frame] = now - last;
+                }
+                last = now;
+                frame++;
+
+                if (frame == frames) {
+                    stop();
+                    print("Frame", frameTimes);
+                    print("Layout", layoutTimes);
+                    Platform.exit();
+                    return;
+                }
+
+                // Down and up again
+                int row = frame < frames / 2 ? frame * step : (frames - frame) * step;
+                table.scrollTo(Math.min(row, rowCount - 1));
+            }
+        }.start();
+
+        stage.setScene(scene);
+        stage.show();
+    }
+
+    private ObservableList<String[]> createRows() {
+        Random random = new Random(0);
+        ObservableList<String[]> rows = FXCollections.observableArrayList();
+
+        for (int row = 0; row < rowCount; row++) {
+            String[] values = new String[3];
+            for (int column = 0; column < values.length; column++) {
+                StringBuilder builder = new StringBuilder();
+                int words = 1 + random.nextInt(column * 15 + 2);
+                for (int word = 0; word < words; word++) {
+                    builder.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+                }
+                values[column] = builder.toString().trim();
+            }
+            rows.add(values);
+        }
+        return rows;
+    }
+
+    private void print(String name, long[] times) {
+        long[] sorted = times.clone();
+        Arrays.sort(sorted);
+        double mean = Arrays.stream(sorted).average().orElse(0);
+
+        System.out.printf("%s times of %d frames over %d rows: mean %.2f ms, median %.2f ms, 95%% %.2f ms, max %.2f ms%n",
+                name, sorted.length, rowCount, mean / 1e6, percentile(sorted, 0.5) / 1e6,
+                percentile(sorted, 0.95) / 1e6, percentile(sorted, 1) / 1e6);
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[(int) Math.min(sorted.length - 1, Math.floor(percentile * sorted.length))];
+    }
+}